@@ -0,0 +1,256 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.benchmarks.TimeWarpBenchmark.Cell;
+import nl.tudelft.simulation.dsol.benchmarks.TimeWarpBenchmark.Segment;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.ConservativeSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+
+/**
+ * JMH benchmark of a complete replication of a partitioned DEVS model with delayed couplings between the partitions: the ring
+ * of cells of the TimeWarpBenchmark, in which a segment sends the value of its last cell to the next segment with a delay.
+ * The DEVSSimulator executes all cells on one thread; the ConservativeSimulator executes every segment on its own logical
+ * process, in windows that are bounded by the delay of the couplings. A longer delay gives wider windows, and less waiting
+ * of the logical processes for each other.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConservativeBenchmark
+{
+    /** the simulator. */
+    @Param({"DEVSSimulator", "ConservativeSimulator"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String simulator;
+
+    /** the number of segments of the ring. */
+    @Param({"4"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int segments;
+
+    /** the number of cells in a segment; an even number. */
+    @Param({"250"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int cells;
+
+    /** the number of iterations of the computation of a cell in an internal transition. */
+    @Param({"10", "1000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int work;
+
+    /** the delay of the couplings between the segments. */
+    @Param({"0.25", "5.0"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double delay;
+
+    /** the run length, which is the number of internal transitions of every cell. */
+    @Param({"100"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double runLength;
+
+    /** the number of the replication. */
+    private int replicationNumber = 0;
+
+    /** the run of the current invocation. */
+    private SimulationRun<Double, Double, SimTimeDouble> run;
+
+    /**
+     * construct the simulator, the replication and the model.
+     * @throws Exception on error
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws Exception
+    {
+        DEVSSimulatorInterface.TimeDouble devsSimulator = "ConservativeSimulator".equals(this.simulator)
+                ? new ConservativeSimulator.TimeDouble() : new DEVSSimulator.TimeDouble();
+        Replication.TimeDouble<DEVSSimulatorInterface.TimeDouble> replication =
+                Replication.TimeDouble.create("rep" + this.replicationNumber++, 0.0, 0.0, this.runLength,
+                        new RingModel(devsSimulator, this.segments, this.cells, this.work, this.delay));
+        this.run = new SimulationRun<>(devsSimulator, replication);
+        this.run.initialize();
+    }
+
+    /**
+     * execute the replication.
+     * @throws Exception on error
+     */
+    @Benchmark
+    public void replication() throws Exception
+    {
+        this.run.run();
+    }
+
+    /**
+     * remove the replication.
+     * @throws Exception on error
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception
+    {
+        this.run.cleanUp();
+    }
+
+    /** The DSOL model that constructs the ring. */
+    public static class RingModel extends AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the number of segments. */
+        private final int segments;
+
+        /** the number of cells in a segment. */
+        private final int cells;
+
+        /** the number of iterations of the computation of a cell. */
+        private final int work;
+
+        /** the delay of the couplings between the segments. */
+        private final double delay;
+
+        /** the ring. */
+        private DelayedRing ring;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param segments int; the number of segments
+         * @param cells int; the number of cells in a segment
+         * @param work int; the number of iterations of the computation of a cell
+         * @param delay double; the delay of the couplings between the segments
+         */
+        public RingModel(final DEVSSimulatorInterface.TimeDouble simulator, final int segments, final int cells,
+                final int work, final double delay)
+        {
+            super(simulator);
+            this.segments = segments;
+            this.cells = cells;
+            this.work = work;
+            this.delay = delay;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                this.ring = new DelayedRing(this.simulator, this.segments, this.cells, this.work, this.delay);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+
+        /**
+         * @return DelayedRing; the ring
+         */
+        public DelayedRing getRing()
+        {
+            return this.ring;
+        }
+    }
+
+    /** The coupled model with the segments of the ring, coupled with a delay. */
+    public static class DelayedRing extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the cells of all segments. */
+        private final List<Cell> cells = new ArrayList<>();
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param segments int; the number of segments
+         * @param cells int; the number of cells in a segment
+         * @param work int; the number of iterations of the computation of a cell
+         * @param delay double; the delay of the couplings between the segments
+         * @throws PortAlreadyDefinedException on duplicate port names
+         * @throws SimRuntimeException when a segment cannot be assigned to a logical process
+         */
+        public DelayedRing(final DEVSSimulatorInterface.TimeDouble simulator, final int segments, final int cells,
+                final int work, final double delay) throws PortAlreadyDefinedException, SimRuntimeException
+        {
+            super("ring", simulator);
+            List<Segment> ring = new ArrayList<>();
+            for (int s = 0; s < segments; s++)
+            {
+                Segment segment = new Segment("segment" + s, this);
+                if (simulator instanceof ConservativeSimulator)
+                {
+                    ((ConservativeSimulator.TimeDouble) simulator).addLogicalProcess(segment);
+                }
+                Cell previous = null;
+                for (int i = 0; i < cells; i++)
+                {
+                    Cell cell = new Cell("cell" + i, segment, this.cells.size(), i % 2 == 0 ? 1.0 : 0.5, work);
+                    if (previous == null)
+                    {
+                        segment.addExternalInputCoupling(segment.getIn(), cell.getIn());
+                    }
+                    else
+                    {
+                        segment.addInternalCoupling(previous.getOut(), cell.getIn());
+                    }
+                    this.cells.add(cell);
+                    previous = cell;
+                }
+                segment.addExternalOutputCoupling(previous.getOut(), segment.getOut());
+                ring.add(segment);
+            }
+            for (int s = 0; s < segments; s++)
+            {
+                addInternalCoupling(ring.get(s).getOut(), ring.get((s + 1) % segments).getIn(), delay);
+            }
+            for (Cell cell : this.cells)
+            {
+                cell.initialize(0.0);
+            }
+        }
+
+        /**
+         * @return List&lt;Cell&gt;; the cells of all segments
+         */
+        public List<Cell> getCells()
+        {
+            return this.cells;
+        }
+    }
+}
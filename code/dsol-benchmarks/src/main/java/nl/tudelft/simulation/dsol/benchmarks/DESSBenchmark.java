@@ -0,0 +1,227 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.dess.DifferentialEquation;
+import nl.tudelft.simulation.dsol.formalisms.dess.DifferentialEquationInterface;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DESSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DESSSimulatorInterface;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.jstats.ode.integrators.NumericalIntegrator;
+
+/**
+ * JMH benchmark of a complete replication of a continuous model on the DESSSimulator: a chain of diffusing state variables,
+ * integrated in place every time step. The publication parameter subscribes a listener to the state of the equation as a
+ * whole, to the values of the first 30 state variables one by one, or to nothing.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DESSBenchmark
+{
+    /** the number of state variables. */
+    @Param({"100", "10000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int states;
+
+    /** the numerical integrator, as the name of the constant in NumericalIntegrator. */
+    @Param({"RUNGEKUTTA4", "ADAMS"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String integrator;
+
+    /** the subscription of the listener: none, state or values. */
+    @Param({"none", "state", "values"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String publication;
+
+    /** the run length; the time step is 0.01. */
+    @Param({"10"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double runLength;
+
+    /** the number of the replication. */
+    private int replicationNumber = 0;
+
+    /** the run of the current invocation. */
+    private SimulationRun<Double, Double, SimTimeDouble> run;
+
+    /**
+     * construct the simulator, the replication and the model.
+     * @throws Exception on error
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws Exception
+    {
+        DESSSimulatorInterface.TimeDouble dessSimulator = new DESSSimulator.TimeDouble(0.01);
+        short method = NumericalIntegrator.class.getField(this.integrator).getShort(null);
+        Replication.TimeDouble<DESSSimulatorInterface.TimeDouble> replication = Replication.TimeDouble.create(
+                "rep" + this.replicationNumber++, 0.0, 0.0, this.runLength,
+                new DiffusionModel(dessSimulator, this.states, method, this.publication));
+        this.run = new SimulationRun<>(dessSimulator, replication);
+        this.run.initialize();
+    }
+
+    /**
+     * execute the replication.
+     * @throws Exception on error
+     */
+    @Benchmark
+    public void replication() throws Exception
+    {
+        this.run.run();
+    }
+
+    /**
+     * remove the replication.
+     * @throws Exception on error
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception
+    {
+        this.run.cleanUp();
+    }
+
+    /** The model with one diffusion equation and an optional listener. */
+    public static class DiffusionModel extends AbstractDSOLModel.TimeDouble<DESSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the number of state variables. */
+        private final int states;
+
+        /** the numerical integration method. */
+        private final short method;
+
+        /** the subscription of the listener: none, state or values. */
+        private final String publication;
+
+        /**
+         * @param simulator DESSSimulatorInterface.TimeDouble; the simulator
+         * @param states int; the number of state variables
+         * @param method short; the numerical integration method
+         * @param publication String; the subscription of the listener: none, state or values
+         */
+        public DiffusionModel(final DESSSimulatorInterface.TimeDouble simulator, final int states, final short method,
+                final String publication)
+        {
+            super(simulator);
+            this.states = states;
+            this.method = method;
+            this.publication = publication;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                Diffusion diffusion = new Diffusion(this.simulator, this.method);
+                double[] y0 = new double[this.states];
+                for (int i = 0; i < y0.length; i++)
+                {
+                    y0[i] = i % 2;
+                }
+                diffusion.initialize(0.0, y0);
+                EventListenerInterface listener = new EventListenerInterface()
+                {
+                    @Override
+                    public void notify(final EventInterface event)
+                    {
+                        // ignore
+                    }
+                };
+                if ("state".equals(this.publication))
+                {
+                    diffusion.addListener(listener, DifferentialEquationInterface.STATE_CHANGED_EVENT);
+                }
+                else if ("values".equals(this.publication))
+                {
+                    for (int i = 0; i < Math.min(this.states, DifferentialEquationInterface.VALUE_CHANGED_EVENT.length); i++)
+                    {
+                        diffusion.addListener(listener, DifferentialEquationInterface.VALUE_CHANGED_EVENT[i]);
+                    }
+                }
+            }
+            catch (RemoteException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+    }
+
+    /**
+     * The diffusion along a chain of state variables, dy_i/dt = y_(i-1) - 2 y_i + y_(i+1), without flux at the ends. The
+     * derivative is computed in place.
+     */
+    public static class Diffusion extends DifferentialEquation<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * @param simulator DESSSimulatorInterface.TimeDouble; the simulator
+         * @param method short; the numerical integration method
+         * @throws RemoteException on network error for the listener
+         */
+        public Diffusion(final DESSSimulatorInterface.TimeDouble simulator, final short method) throws RemoteException
+        {
+            super(simulator, simulator.getTimeStep(), method);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] dy(final double x, final double[] y)
+        {
+            double[] dy = new double[y.length];
+            dy(x, y, dy);
+            return dy;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void dy(final double x, final double[] y, final double[] dy)
+        {
+            int last = y.length - 1;
+            dy[0] = y[1] - y[0];
+            for (int i = 1; i < last; i++)
+            {
+                dy[i] = y[i - 1] - 2.0 * y[i] + y[i + 1];
+            }
+            dy[last] = y[last - 1] - y[last];
+        }
+    }
+}
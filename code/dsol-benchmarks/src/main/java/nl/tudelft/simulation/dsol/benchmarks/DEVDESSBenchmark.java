@@ -0,0 +1,191 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVDESSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVDESSSimulatorInterface;
+import nl.tudelft.simulation.jstats.ode.integrators.NumericalIntegrator;
+
+/**
+ * JMH benchmark of a complete replication of a combined model on the DEVDESSSimulator with many independent continuous
+ * systems, each a short chain of diffusing state variables, and a discrete event every time unit. The systems are integrated
+ * serially by every system when it is notified of the time change, or in parallel batches on the common ForkJoinPool.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DEVDESSBenchmark
+{
+    /** the number of continuous systems. */
+    @Param({"100", "2000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int systems;
+
+    /** the number of state variables of a system. */
+    @Param({"20"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int states;
+
+    /** the number of systems in a batch of the parallel integration; 0 for serial integration. */
+    @Param({"0", "16", "128"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int batchSize;
+
+    /** the run length; the time step is 0.01. */
+    @Param({"10"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double runLength;
+
+    /** the number of the replication. */
+    private int replicationNumber = 0;
+
+    /** the run of the current invocation. */
+    private SimulationRun<Double, Double, SimTimeDouble> run;
+
+    /**
+     * construct the simulator, the replication and the model.
+     * @throws Exception on error
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws Exception
+    {
+        DEVDESSSimulator.TimeDouble devdessSimulator = new DEVDESSSimulator.TimeDouble(0.01);
+        if (this.batchSize > 0)
+        {
+            devdessSimulator.setParallelIntegration(ForkJoinPool.commonPool(), this.batchSize);
+        }
+        Replication.TimeDouble<DEVDESSSimulatorInterface.TimeDouble> replication =
+                Replication.TimeDouble.create("rep" + this.replicationNumber++, 0.0, 0.0, this.runLength,
+                        new SystemsModel(devdessSimulator, this.systems, this.states));
+        this.run = new SimulationRun<>(devdessSimulator, replication);
+        this.run.initialize();
+    }
+
+    /**
+     * execute the replication.
+     * @throws Exception on error
+     */
+    @Benchmark
+    public void replication() throws Exception
+    {
+        this.run.run();
+    }
+
+    /**
+     * remove the replication.
+     * @throws Exception on error
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception
+    {
+        this.run.cleanUp();
+    }
+
+    /** The model with the continuous systems and a discrete event every time unit. */
+    public static class SystemsModel extends AbstractDSOLModel.TimeDouble<DEVDESSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the number of continuous systems. */
+        private final int systems;
+
+        /** the number of state variables of a system. */
+        private final int states;
+
+        /** the continuous systems. */
+        private DESSBenchmark.Diffusion[] diffusions;
+
+        /**
+         * @param simulator DEVDESSSimulatorInterface.TimeDouble; the simulator
+         * @param systems int; the number of continuous systems
+         * @param states int; the number of state variables of a system
+         */
+        public SystemsModel(final DEVDESSSimulatorInterface.TimeDouble simulator, final int systems, final int states)
+        {
+            super(simulator);
+            this.systems = systems;
+            this.states = states;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                this.diffusions = new DESSBenchmark.Diffusion[this.systems];
+                for (int s = 0; s < this.systems; s++)
+                {
+                    this.diffusions[s] = new DESSBenchmark.Diffusion(this.simulator, NumericalIntegrator.RUNGEKUTTA4);
+                    double[] y0 = new double[this.states];
+                    for (int i = 0; i < y0.length; i++)
+                    {
+                        y0[i] = (s + i) % 2;
+                    }
+                    this.diffusions[s].initialize(0.0, y0);
+                }
+                this.simulator.scheduleEventRel(1.0, () -> pulse());
+            }
+            catch (RemoteException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+
+        /**
+         * the discrete event: reschedules itself every time unit.
+         */
+        protected void pulse()
+        {
+            try
+            {
+                this.simulator.scheduleEventRel(1.0, () -> pulse());
+            }
+            catch (SimRuntimeException exception)
+            {
+                throw new RuntimeException(exception);
+            }
+        }
+
+        /**
+         * @return DESSBenchmark.Diffusion[]; the continuous systems
+         */
+        public DESSBenchmark.Diffusion[] getDiffusions()
+        {
+            return this.diffusions;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AtomicModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.InputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.OutputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVSBatchSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+
+/**
+ * JMH benchmark of a complete replication of a DEVS coupled model: a generator that sends a job every time unit into a
+ * pipeline of processors, which each hold a job for half a time unit before they send it to the next processor. Every job
+ * passes the transfer of the coupled model, the input port and the internal and external transitions of the atomic models
+ * once per processor. The idle processors form a second pipeline that never receives a job, and only add couplings to the
+ * coupled model that the jobs do not pass.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DEVSCoupledModelBenchmark
+{
+    /** the simulator. */
+    @Param({"DEVSSimulator", "DEVSBatchSimulator"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String simulator;
+
+    /** the number of processors in the pipeline. */
+    @Param({"1", "10"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int processors;
+
+    /** the number of idle processors, which add couplings that no job passes. */
+    @Param({"0", "1000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int idleProcessors;
+
+    /** the run length, which is the number of jobs that are generated. */
+    @Param({"10000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double runLength;
+
+    /** the number of the replication. */
+    private int replicationNumber = 0;
+
+    /** the run of the current invocation. */
+    private SimulationRun<Double, Double, SimTimeDouble> run;
+
+    /**
+     * construct the simulator, the replication and the model.
+     * @throws Exception on error
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws Exception
+    {
+        DEVSSimulatorInterface.TimeDouble devsSimulator =
+                "DEVSSimulator".equals(this.simulator) ? new DEVSSimulator.TimeDouble() : new DEVSBatchSimulator.TimeDouble();
+        Replication.TimeDouble<DEVSSimulatorInterface.TimeDouble> replication =
+                Replication.TimeDouble.create("rep" + this.replicationNumber++, 0.0, 0.0, this.runLength,
+                        new PipelineModel(devsSimulator, this.processors, this.idleProcessors));
+        this.run = new SimulationRun<>(devsSimulator, replication);
+        this.run.initialize();
+    }
+
+    /**
+     * execute the replication.
+     * @throws Exception on error
+     */
+    @Benchmark
+    public void replication() throws Exception
+    {
+        this.run.run();
+    }
+
+    /**
+     * remove the replication.
+     * @throws Exception on error
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception
+    {
+        this.run.cleanUp();
+    }
+
+    /** The DSOL model that constructs the coupled model. */
+    public static class PipelineModel extends AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the number of processors in the pipeline. */
+        private final int processors;
+
+        /** the number of idle processors. */
+        private final int idleProcessors;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param processors int; the number of processors in the pipeline
+         * @param idleProcessors int; the number of idle processors
+         */
+        public PipelineModel(final DEVSSimulatorInterface.TimeDouble simulator, final int processors,
+                final int idleProcessors)
+        {
+            super(simulator);
+            this.processors = processors;
+            this.idleProcessors = idleProcessors;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                new Pipeline(this.simulator, this.processors, this.idleProcessors);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+    }
+
+    /** The coupled model with the generator and the processors. */
+    public static class Pipeline extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param processors int; the number of processors in the pipeline
+         * @param idleProcessors int; the number of idle processors
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Pipeline(final DEVSSimulatorInterface.TimeDouble simulator, final int processors, final int idleProcessors)
+                throws PortAlreadyDefinedException
+        {
+            super("pipeline", simulator);
+            JobGenerator generator = new JobGenerator(this);
+            OutputPort<Double, Double, SimTimeDouble, Object> previous = generator.out;
+            for (int i = 0; i < processors; i++)
+            {
+                Processor processor = new Processor("processor" + i, this);
+                addInternalCoupling(previous, processor.in);
+                previous = processor.out;
+            }
+            OutputPort<Double, Double, SimTimeDouble, Object> idle = null;
+            for (int i = 0; i < idleProcessors; i++)
+            {
+                Processor processor = new Processor("idle" + i, this);
+                if (idle != null)
+                {
+                    addInternalCoupling(idle, processor.in);
+                }
+                idle = processor.out;
+            }
+            generator.initialize(0.0);
+        }
+    }
+
+    /** The atomic model that generates a job every time unit. */
+    public static class JobGenerator extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the output port for the jobs. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out;
+
+        /** the number of generated jobs. */
+        private long jobs = 0;
+
+        /**
+         * @param parentModel Pipeline; the coupled model
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public JobGenerator(final Pipeline parentModel) throws PortAlreadyDefinedException
+        {
+            super("generator", parentModel);
+            this.out = new OutputPort<>(this);
+            addOutputPort("out", this.out);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            this.jobs++;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            // the generator has no inputs
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            this.out.send(Long.valueOf(this.jobs));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return 1.0;
+        }
+    }
+
+    /** The atomic model that holds a job for half a time unit. */
+    public static class Processor extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the input port for the jobs. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in;
+
+        /** the output port for the jobs. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out;
+
+        /** the job in process, or null when idle. */
+        private Object job = null;
+
+        /**
+         * @param name String; the name of the processor
+         * @param parentModel Pipeline; the coupled model
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Processor(final String name, final Pipeline parentModel) throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            this.in = new InputPort<>(this);
+            this.out = new OutputPort<>(this);
+            addInputPort("in", this.in);
+            addOutputPort("out", this.out);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            this.job = null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            if (this.job == null)
+            {
+                this.job = value;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            this.out.send(this.job);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.job == null ? Double.POSITIVE_INFINITY : 0.5;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AtomicModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.InputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.OutputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+
+/**
+ * JMH benchmark of the message throughput of a DEVS atomic model: a number of sources that each send a job at every whole
+ * time unit to a single server. The server handles the jobs one by one, and most jobs arrive while it is busy, so their
+ * external transitions do not change the time of the next internal transition of the server. The lazy invalidation
+ * parameter selects whether these external transitions cancel and reschedule the internal event of the server, or leave it
+ * in the event list.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DEVSThroughputBenchmark
+{
+    /** the number of sources. */
+    @Param({"10", "1000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int sources;
+
+    /** whether the server invalidates its next internal event lazily. */
+    @Param({"false", "true"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public boolean lazyInvalidation;
+
+    /** the run length, which is the number of jobs that each source sends. */
+    @Param({"100"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double runLength;
+
+    /** the number of the replication. */
+    private int replicationNumber = 0;
+
+    /** the run of the current invocation. */
+    private SimulationRun<Double, Double, SimTimeDouble> run;
+
+    /**
+     * construct the simulator, the replication and the model.
+     * @throws Exception on error
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws Exception
+    {
+        DEVSSimulatorInterface.TimeDouble devsSimulator = new DEVSSimulator.TimeDouble();
+        Replication.TimeDouble<DEVSSimulatorInterface.TimeDouble> replication =
+                Replication.TimeDouble.create("rep" + this.replicationNumber++, 0.0, 0.0, this.runLength,
+                        new ServerModel(devsSimulator, this.sources, this.lazyInvalidation));
+        this.run = new SimulationRun<>(devsSimulator, replication);
+        this.run.initialize();
+    }
+
+    /**
+     * execute the replication.
+     * @throws Exception on error
+     */
+    @Benchmark
+    public void replication() throws Exception
+    {
+        this.run.run();
+    }
+
+    /**
+     * remove the replication.
+     * @throws Exception on error
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception
+    {
+        this.run.cleanUp();
+    }
+
+    /** The DSOL model that constructs the coupled model. */
+    public static class ServerModel extends AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the number of sources. */
+        private final int sources;
+
+        /** whether the server invalidates its next internal event lazily. */
+        private final boolean lazyInvalidation;
+
+        /** the coupled model. */
+        private Facility facility;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param sources int; the number of sources
+         * @param lazyInvalidation boolean; whether the server invalidates its next internal event lazily
+         */
+        public ServerModel(final DEVSSimulatorInterface.TimeDouble simulator, final int sources,
+                final boolean lazyInvalidation)
+        {
+            super(simulator);
+            this.sources = sources;
+            this.lazyInvalidation = lazyInvalidation;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                this.facility = new Facility(this.simulator, this.sources, this.lazyInvalidation);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+
+        /**
+         * @return Server; the server
+         */
+        public Server getServer()
+        {
+            return this.facility.server;
+        }
+    }
+
+    /** The coupled model with the sources and the server. */
+    public static class Facility extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the server. */
+        private final Server server;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param sources int; the number of sources
+         * @param lazyInvalidation boolean; whether the server invalidates its next internal event lazily
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Facility(final DEVSSimulatorInterface.TimeDouble simulator, final int sources,
+                final boolean lazyInvalidation) throws PortAlreadyDefinedException
+        {
+            super("facility", simulator);
+            this.server = new Server(this, 0.9 / sources);
+            this.server.setLazyInvalidation(lazyInvalidation);
+            for (int i = 0; i < sources; i++)
+            {
+                Source source = new Source("source" + i, this);
+                addInternalCoupling(source.out, this.server.in);
+                source.initialize(0.0);
+            }
+        }
+    }
+
+    /** The atomic model that sends a job every time unit. */
+    public static class Source extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the output port for the jobs. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out;
+
+        /**
+         * @param name String; the name of the source
+         * @param parentModel Facility; the coupled model
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Source(final String name, final Facility parentModel) throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            this.out = new OutputPort<>(this);
+            addOutputPort("out", this.out);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            // the source has no state
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            // the source has no inputs
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            this.out.send(this);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return 1.0;
+        }
+    }
+
+    /** The atomic model that serves the jobs one by one, with a fixed service time. */
+    public static class Server extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the input port for the jobs. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in;
+
+        /** the service time. */
+        private final double serviceTime;
+
+        /** the remaining service time of the job in service, or infinity when idle. */
+        private double remaining = Double.POSITIVE_INFINITY;
+
+        /** the number of waiting jobs. */
+        private int queueLength = 0;
+
+        /** the number of served jobs. */
+        private long served = 0;
+
+        /**
+         * @param parentModel Facility; the coupled model
+         * @param serviceTime double; the service time
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Server(final Facility parentModel, final double serviceTime)
+                throws PortAlreadyDefinedException
+        {
+            super("server", parentModel);
+            this.serviceTime = serviceTime;
+            this.in = new InputPort<>(this);
+            addInputPort("in", this.in);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            this.served++;
+            if (this.queueLength > 0)
+            {
+                this.queueLength--;
+                this.remaining = this.serviceTime;
+            }
+            else
+            {
+                this.remaining = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            if (this.remaining == Double.POSITIVE_INFINITY)
+            {
+                this.remaining = this.serviceTime;
+            }
+            else
+            {
+                this.remaining -= e;
+                this.queueLength++;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            // the served jobs leave the model
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.remaining;
+        }
+
+        /**
+         * @return long; the number of served jobs
+         */
+        public long getServed()
+        {
+            return this.served;
+        }
+    }
+}
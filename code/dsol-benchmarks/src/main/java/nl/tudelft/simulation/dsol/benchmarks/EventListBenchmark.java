@@ -0,0 +1,200 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.eventlists.CalendarQueue;
+import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
+import nl.tudelft.simulation.dsol.eventlists.LadderQueue;
+import nl.tudelft.simulation.dsol.eventlists.PrimitiveEventHeap;
+import nl.tudelft.simulation.dsol.eventlists.QuaternaryHeap;
+import nl.tudelft.simulation.dsol.eventlists.RedBlackTree;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.Executable;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * JMH benchmark of <code>EventListInterface.add</code> and <code>removeFirst</code> with the classic hold model: the event
+ * list is filled with queueSize events, after which every hold operation removes the first event and adds a new event at the
+ * time of the removed event plus an exponentially distributed increment. The size of the event list therefore stays the
+ * same during the measurement. The cancel benchmark measures <code>remove</code> in the same way: every operation cancels a
+ * random event in the list and adds a new event at its time plus an increment, like a DEVS atomic model that reschedules its
+ * internal event when it receives an input.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventListBenchmark
+{
+    /** an executable that does nothing. */
+    private static final Executable NOOP = () -> {
+        // no state change
+    };
+
+    /** the event list implementation. */
+    @Param({"RedBlackTree", "QuaternaryHeap", "CalendarQueue", "LadderQueue", "PrimitiveEventHeap"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String eventList;
+
+    /** the number of events in the event list. */
+    @Param({"100", "10000", "1000000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int queueSize;
+
+    /** the simulation time type. */
+    @Param({"SimTimeDouble", "SimTimeLong", "SimTimeDoubleUnit"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String timeType;
+
+    /** the hold model on the event list. */
+    private HoldModel<?> holdModel;
+
+    /**
+     * fill the event list.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        this.holdModel = new HoldModel<>(SimTimeFactory.valueOf(this.timeType), this.eventList, this.queueSize);
+    }
+
+    /**
+     * one hold operation.
+     * @return double; the time of the removed event, to prevent dead code elimination
+     */
+    @Benchmark
+    public double hold()
+    {
+        return this.holdModel.hold();
+    }
+
+    /**
+     * one cancel operation.
+     * @return boolean; whether the cancelled event was removed, to prevent dead code elimination
+     */
+    @Benchmark
+    public boolean cancel()
+    {
+        return this.holdModel.cancel();
+    }
+
+    /**
+     * The hold model on an event list for one of the time types.
+     * @param <T> the simulation time type
+     */
+    private static final class HoldModel<T extends SimTime<?, ?, T>>
+    {
+        /** the factory for the simulation times. */
+        private final SimTimeFactory<T> timeFactory;
+
+        /** the event list. */
+        private final EventListInterface<T> eventList;
+
+        /** the random generator for the increments. */
+        private final Random random = new Random(1L);
+
+        /** the events that were added for the cancel operations, and that are still in the event list. */
+        private final List<SimEventInterface<T>> pending = new ArrayList<>();
+
+        /**
+         * @param timeFactory SimTimeFactory&lt;T&gt;; the factory for the simulation times
+         * @param eventListName String; the simple class name of the event list
+         * @param queueSize int; the number of events in the event list
+         */
+        HoldModel(final SimTimeFactory<T> timeFactory, final String eventListName, final int queueSize)
+        {
+            this.timeFactory = timeFactory;
+            switch (eventListName)
+            {
+                case "RedBlackTree":
+                    this.eventList = new RedBlackTree<T>();
+                    break;
+                case "QuaternaryHeap":
+                    this.eventList = new QuaternaryHeap<T>();
+                    break;
+                case "CalendarQueue":
+                    this.eventList = new CalendarQueue<T>();
+                    break;
+                case "LadderQueue":
+                    this.eventList = new LadderQueue<T>();
+                    break;
+                case "PrimitiveEventHeap":
+                    this.eventList = new PrimitiveEventHeap<T>();
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown event list " + eventListName);
+            }
+            for (int i = 0; i < queueSize; i++)
+            {
+                SimEventInterface<T> event = new LambdaSimEvent<T>(this.timeFactory.create(increment()), NOOP);
+                this.eventList.add(event);
+                this.pending.add(event);
+            }
+        }
+
+        /**
+         * @return double; an exponentially distributed increment with mean 1
+         */
+        private double increment()
+        {
+            return -Math.log(this.random.nextDouble());
+        }
+
+        /**
+         * remove the first event, and add an event at its time plus an increment.
+         * @return double; the time of the removed event
+         */
+        double hold()
+        {
+            SimEventInterface<T> event = this.eventList.removeFirst();
+            double time = this.timeFactory.seconds(event.getAbsoluteExecutionTime());
+            this.eventList.add(new LambdaSimEvent<T>(this.timeFactory.create(time + increment()), NOOP));
+            return time;
+        }
+
+        /**
+         * remove a random event, and add an event at its time plus an increment. The hold and cancel operations are measured
+         * in separate trials, so the pending events are all in the event list.
+         * @return boolean; whether the event was removed
+         */
+        boolean cancel()
+        {
+            int index = this.random.nextInt(this.pending.size());
+            SimEventInterface<T> event = this.pending.get(index);
+            boolean removed = this.eventList.remove(event);
+            double time = this.timeFactory.seconds(event.getAbsoluteExecutionTime());
+            SimEventInterface<T> newEvent = new LambdaSimEvent<T>(this.timeFactory.create(time + increment()), NOOP);
+            this.eventList.add(newEvent);
+            this.pending.set(index, newEvent);
+            return removed;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.event.EventProducer;
+import nl.tudelft.simulation.event.EventType;
+
+/**
+ * JMH benchmark of the fan-out of <code>EventProducer.fireEvent</code> and <code>fireTimedEvent</code> to a number of
+ * listeners. The benchmark with 0 listeners measures the cost of firing an event that nobody listens to.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventProducerBenchmark
+{
+    /** the event type that is fired. */
+    private static final EventType BENCHMARK_EVENT = new EventType("BENCHMARK_EVENT");
+
+    /** the number of listeners. */
+    @Param({"0", "1", "10", "100"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int listeners;
+
+    /** the producer. */
+    private Producer producer;
+
+    /** the listener that is subscribed the given number of times. */
+    private Listener[] subscribers;
+
+    /** the simulation time of the timed events. */
+    private double time = 0.0;
+
+    /**
+     * subscribe the listeners.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        this.producer = new Producer();
+        this.subscribers = new Listener[this.listeners];
+        for (int i = 0; i < this.listeners; i++)
+        {
+            this.subscribers[i] = new Listener();
+            this.producer.addListener(this.subscribers[i], BENCHMARK_EVENT);
+        }
+    }
+
+    /**
+     * @return Object; the fired value
+     */
+    @Benchmark
+    public Object fireObjectEvent()
+    {
+        return this.producer.fire(this);
+    }
+
+    /**
+     * @return double; the fired value
+     */
+    @Benchmark
+    public double fireDoubleEvent()
+    {
+        return this.producer.fire(1.0);
+    }
+
+    /**
+     * @return double; the fired value
+     */
+    @Benchmark
+    public double fireTimedDoubleEvent()
+    {
+        this.time += 1.0;
+        return this.producer.fireTimed(1.0, this.time);
+    }
+
+    /** The producer, which makes the protected fire methods accessible. */
+    private static final class Producer extends EventProducer
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * @param value Object; the value to fire
+         * @return Object; the value
+         */
+        Object fire(final Object value)
+        {
+            return fireEvent(BENCHMARK_EVENT, value);
+        }
+
+        /**
+         * @param value double; the value to fire
+         * @return double; the value
+         */
+        double fire(final double value)
+        {
+            return fireEvent(BENCHMARK_EVENT, value);
+        }
+
+        /**
+         * @param value double; the value to fire
+         * @param time double; the time stamp
+         * @return double; the value
+         */
+        double fireTimed(final double value, final double time)
+        {
+            return fireTimedEvent(BENCHMARK_EVENT, value, Double.valueOf(time));
+        }
+    }
+
+    /** The listener, which counts the events. */
+    private static final class Listener implements EventListenerInterface
+    {
+        /** the number of received events. */
+        private long count = 0;
+
+        /** {@inheritDoc} */
+        @Override
+        public void notify(final EventInterface event)
+        {
+            this.count++;
+        }
+    }
+}
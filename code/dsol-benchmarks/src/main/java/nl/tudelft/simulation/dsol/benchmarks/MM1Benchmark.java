@@ -0,0 +1,161 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.Resource;
+import nl.tudelft.simulation.dsol.formalisms.flow.Delay;
+import nl.tudelft.simulation.dsol.formalisms.flow.Generator;
+import nl.tudelft.simulation.dsol.formalisms.flow.Release;
+import nl.tudelft.simulation.dsol.formalisms.flow.Seize;
+import nl.tudelft.simulation.dsol.formalisms.flow.StationInterface;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simtime.dist.DistContinuousSimTime;
+import nl.tudelft.simulation.dsol.simtime.dist.DistContinuousSimulationTime;
+import nl.tudelft.simulation.dsol.simulators.DEVSBatchSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+import nl.tudelft.simulation.dsol.statistics.SimCounter;
+import nl.tudelft.simulation.dsol.statistics.SimPersistent;
+import nl.tudelft.simulation.dsol.statistics.SimTally;
+import nl.tudelft.simulation.jstats.distributions.DistConstant;
+import nl.tudelft.simulation.jstats.distributions.DistDiscreteConstant;
+import nl.tudelft.simulation.jstats.distributions.DistExponential;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * JMH benchmark of a complete replication of the M/M/1 queue of the demo (Law &amp; Kelton section 1.4), built from the
+ * Generator, Seize, Delay and Release flow objects with a counter, a tally and a persistent, but without the charts. The
+ * replication is constructed before, and removed after, every invocation, so the measured time is the execution of the
+ * events of one run: the scheduling, the dispatch by name of the flow objects, the event firing and the statistics.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MM1Benchmark
+{
+    /** the simulator. */
+    @Param({"DEVSSimulator", "DEVSBatchSimulator"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String simulator;
+
+    /** the run length; the mean interarrival time is 1.0. */
+    @Param({"10000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double runLength;
+
+    /** the number of the replication. */
+    private int replicationNumber = 0;
+
+    /** the run of the current invocation. */
+    private SimulationRun<Double, Double, SimTimeDouble> run;
+
+    /**
+     * construct the simulator, the replication and the model.
+     * @throws Exception on error
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws Exception
+    {
+        DEVSSimulatorInterface.TimeDouble devsSimulator =
+                "DEVSSimulator".equals(this.simulator) ? new DEVSSimulator.TimeDouble() : new DEVSBatchSimulator.TimeDouble();
+        Replication.TimeDouble<DEVSSimulatorInterface.TimeDouble> replication = Replication.TimeDouble
+                .create("rep" + this.replicationNumber++, 0.0, 0.0, this.runLength, new MM1Model(devsSimulator));
+        this.run = new SimulationRun<>(devsSimulator, replication);
+        this.run.initialize();
+    }
+
+    /**
+     * execute the replication.
+     * @throws Exception on error
+     */
+    @Benchmark
+    public void replication() throws Exception
+    {
+        this.run.run();
+    }
+
+    /**
+     * remove the replication.
+     * @throws Exception on error
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception
+    {
+        this.run.cleanUp();
+    }
+
+    /** The M/M/1 model with an arrival rate of 1.0 and a service rate of 1.25. */
+    public static class MM1Model extends AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         */
+        public MM1Model(final DEVSSimulatorInterface.TimeDouble simulator)
+        {
+            super(simulator);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            StreamInterface defaultStream = this.simulator.getReplication().getStream("default");
+            try
+            {
+                Generator.TimeDouble generator = new Generator.TimeDouble(this.simulator, Object.class, new Object[0]);
+                generator.setInterval(new DistContinuousSimulationTime.TimeDouble(new DistExponential(defaultStream, 1.0)));
+                generator.setStartTime(new DistContinuousSimTime.TimeDouble(new DistConstant(defaultStream, 0.0)));
+                generator.setBatchSize(new DistDiscreteConstant(defaultStream, 1));
+
+                Resource<Double, Double, SimTimeDouble> resource = new Resource<>(this.simulator, 1.0);
+                StationInterface.TimeDouble queue = new Seize.TimeDouble(this.simulator, resource);
+                StationInterface.TimeDouble server = new Delay.TimeDouble(this.simulator,
+                        new DistContinuousSimulationTime.TimeDouble(new DistExponential(defaultStream, 0.8)));
+                StationInterface.TimeDouble release = new Release.TimeDouble(this.simulator, resource, 1.0);
+                generator.setDestination(queue);
+                queue.setDestination(server);
+                server.setDestination(release);
+
+                new SimCounter.TimeDouble("arrivals", this.simulator, generator, Generator.CREATE_EVENT);
+                new SimTally.TimeDouble("delay time", this.simulator, queue, Seize.DELAY_TIME);
+                new SimPersistent.TimeDouble("queue length", this.simulator, queue, Seize.QUEUE_LENGTH_EVENT);
+            }
+            catch (Exception exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+    }
+}
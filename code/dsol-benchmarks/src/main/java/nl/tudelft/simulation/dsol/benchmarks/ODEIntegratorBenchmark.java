@@ -0,0 +1,139 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.jstats.ode.DifferentialEquation;
+import nl.tudelft.simulation.jstats.ode.integrators.NumericalIntegrator;
+
+/**
+ * JMH benchmark of one step of a numerical integrator for a chain of diffusing state variables: with the
+ * <code>next(x, y)</code> method that returns a new array, and with the in-place <code>next(x, y, result)</code> method.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ODEIntegratorBenchmark
+{
+    /** the number of state variables. */
+    @Param({"100", "10000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int states;
+
+    /** the numerical integrator, as the name of the constant in NumericalIntegrator. */
+    @Param({"EULER", "RUNGEKUTTA4", "ADAMS", "RUNGEKUTTACASHCARP"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String integrator;
+
+    /** the integrator of the equation. */
+    private NumericalIntegrator numericalIntegrator;
+
+    /** the state. */
+    private double[] y;
+
+    /** the x-value of the state. */
+    private double x = 0.0;
+
+    /**
+     * create the equation, the integrator and the initial state.
+     * @throws Exception on error
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        short method = NumericalIntegrator.class.getField(this.integrator).getShort(null);
+        this.numericalIntegrator = new Diffusion(0.01, method).getIntegrator();
+        this.y = new double[this.states];
+        for (int i = 0; i < this.y.length; i++)
+        {
+            this.y[i] = i % 2;
+        }
+    }
+
+    /**
+     * @return double[]; the new state
+     */
+    @Benchmark
+    public double[] allocatingStep()
+    {
+        this.y = this.numericalIntegrator.next(this.x, this.y);
+        this.x += 0.01;
+        return this.y;
+    }
+
+    /**
+     * @return double[]; the new state
+     */
+    @Benchmark
+    public double[] inPlaceStep()
+    {
+        this.numericalIntegrator.next(this.x, this.y, this.y);
+        this.x += 0.01;
+        return this.y;
+    }
+
+    /**
+     * The diffusion along a chain of state variables, dy_i/dx = y_(i-1) - 2 y_i + y_(i+1), without flux at the ends. The
+     * derivative is computed in place.
+     */
+    static class Diffusion extends DifferentialEquation
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * @param timeStep double; the time step
+         * @param method short; the numerical integration method
+         */
+        Diffusion(final double timeStep, final short method)
+        {
+            super(timeStep, method);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] dy(final double x, final double[] y)
+        {
+            double[] dy = new double[y.length];
+            dy(x, y, dy);
+            return dy;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void dy(final double x, final double[] y, final double[] dy)
+        {
+            int last = y.length - 1;
+            dy[0] = y[1] - y[0];
+            for (int i = 1; i < last; i++)
+            {
+                dy[i] = y[i - 1] - 2.0 * y[i] + y[i + 1];
+            }
+            dy[last] = y[last - 1] - y[last];
+        }
+    }
+}
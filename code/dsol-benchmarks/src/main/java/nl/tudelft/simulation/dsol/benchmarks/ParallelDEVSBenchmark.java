@@ -0,0 +1,315 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AtomicModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.InputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.OutputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.ParallelDEVSSimulator;
+
+/**
+ * JMH benchmark of a complete replication of a wide DEVS coupled model: a ring of cells that have an internal transition
+ * every time unit, in which they compute for a while and send their value to the next cell in the ring. The even cells have
+ * their transitions at the whole time units and the odd cells halfway, so a cell never receives a value at the time of its
+ * own transition. The DEVSSimulator executes the cells one by one; the ParallelDEVSSimulator executes the even or the odd
+ * cells in one cycle, on the common pool when the batch size is positive.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelDEVSBenchmark
+{
+    /** the simulator. */
+    @Param({"DEVSSimulator", "ParallelDEVSSimulator"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String simulator;
+
+    /** the number of cells in a batch on the pool of the ParallelDEVSSimulator; 0 to execute the cells on one thread. */
+    @Param({"0", "16"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int batchSize;
+
+    /** the number of cells. */
+    @Param({"1000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int cells;
+
+    /** the number of iterations of the computation of a cell in an internal transition. */
+    @Param({"10", "1000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int work;
+
+    /** the run length, which is the number of internal transitions of every cell. */
+    @Param({"100"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double runLength;
+
+    /** the number of the replication. */
+    private int replicationNumber = 0;
+
+    /** the run of the current invocation. */
+    private SimulationRun<Double, Double, SimTimeDouble> run;
+
+    /**
+     * construct the simulator, the replication and the model.
+     * @throws Exception on error
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws Exception
+    {
+        DEVSSimulatorInterface.TimeDouble devsSimulator;
+        if ("ParallelDEVSSimulator".equals(this.simulator))
+        {
+            ParallelDEVSSimulator.TimeDouble parallelSimulator = new ParallelDEVSSimulator.TimeDouble();
+            if (this.batchSize > 0)
+            {
+                parallelSimulator.setParallelism(ForkJoinPool.commonPool(), this.batchSize);
+            }
+            devsSimulator = parallelSimulator;
+        }
+        else
+        {
+            devsSimulator = new DEVSSimulator.TimeDouble();
+        }
+        Replication.TimeDouble<DEVSSimulatorInterface.TimeDouble> replication =
+                Replication.TimeDouble.create("rep" + this.replicationNumber++, 0.0, 0.0, this.runLength,
+                        new RingModel(devsSimulator, this.cells, this.work));
+        this.run = new SimulationRun<>(devsSimulator, replication);
+        this.run.initialize();
+    }
+
+    /**
+     * execute the replication.
+     * @throws Exception on error
+     */
+    @Benchmark
+    public void replication() throws Exception
+    {
+        this.run.run();
+    }
+
+    /**
+     * remove the replication.
+     * @throws Exception on error
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception
+    {
+        this.run.cleanUp();
+    }
+
+    /** The DSOL model that constructs the ring. */
+    public static class RingModel extends AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the number of cells. */
+        private final int cells;
+
+        /** the number of iterations of the computation of a cell. */
+        private final int work;
+
+        /** the ring. */
+        private Ring ring;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param cells int; the number of cells
+         * @param work int; the number of iterations of the computation of a cell
+         */
+        public RingModel(final DEVSSimulatorInterface.TimeDouble simulator, final int cells, final int work)
+        {
+            super(simulator);
+            this.cells = cells;
+            this.work = work;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                this.ring = new Ring(this.simulator, this.cells, this.work);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+
+        /**
+         * @return Ring; the ring
+         */
+        public Ring getRing()
+        {
+            return this.ring;
+        }
+    }
+
+    /** The coupled model with the ring of cells. */
+    public static class Ring extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the cells. */
+        private final List<Cell> cells = new ArrayList<>();
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param cells int; the number of cells
+         * @param work int; the number of iterations of the computation of a cell
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Ring(final DEVSSimulatorInterface.TimeDouble simulator, final int cells, final int work)
+                throws PortAlreadyDefinedException
+        {
+            super("ring", simulator);
+            for (int i = 0; i < cells; i++)
+            {
+                this.cells.add(new Cell("cell" + i, this, i, i % 2 == 0 ? 1.0 : 0.5, work));
+            }
+            for (int i = 0; i < cells; i++)
+            {
+                addInternalCoupling(this.cells.get(i).out, this.cells.get((i + 1) % cells).in);
+                this.cells.get(i).initialize(0.0);
+            }
+        }
+
+        /**
+         * @return List&lt;Cell&gt;; the cells
+         */
+        public List<Cell> getCells()
+        {
+            return this.cells;
+        }
+    }
+
+    /** The atomic model that computes a value from the values it receives. */
+    public static class Cell extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the input port for the values of the previous cell. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in;
+
+        /** the output port for the value. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out;
+
+        /** the number of iterations of the computation. */
+        private final int work;
+
+        /** the value. */
+        private double value;
+
+        /** the sum of the received values. */
+        private double received = 0.0;
+
+        /** the time until the next internal transition. */
+        private double sigma;
+
+        /**
+         * @param name String; the name of the cell
+         * @param parentModel Ring; the coupled model
+         * @param value double; the initial value
+         * @param sigma double; the time until the first internal transition
+         * @param work int; the number of iterations of the computation
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Cell(final String name, final Ring parentModel, final double value, final double sigma, final int work)
+                throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            this.value = value;
+            this.sigma = sigma;
+            this.work = work;
+            this.in = new InputPort<>(this);
+            this.out = new OutputPort<>(this);
+            addInputPort("in", this.in);
+            addOutputPort("out", this.out);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            double x = this.value + this.received;
+            for (int i = 0; i < this.work; i++)
+            {
+                x = Math.cos(x) + 0.5 * Math.sin(2.0 * x);
+            }
+            this.value = x;
+            this.sigma = 1.0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object message)
+        {
+            this.received += (Double) message;
+            this.sigma -= e;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            this.out.send(Double.valueOf(this.value));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.sigma;
+        }
+
+        /**
+         * @return double; the value
+         */
+        public double getValue()
+        {
+            return this.value;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * JMH benchmark of the dispatch of an event: <code>SimEvent.execute</code>, which invokes a method by name with its
+ * arguments, against <code>LambdaSimEvent.execute</code>, which invokes an Executable. The create benchmarks also construct
+ * the event with its simulation time, as a model does for every event it schedules.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimEventBenchmark
+{
+    /** the simulation time type. */
+    @Param({"SimTimeDouble", "SimTimeLong", "SimTimeDoubleUnit"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String timeType;
+
+    /** the factory for the simulation times. */
+    private SimTimeFactory<?> timeFactory;
+
+    /** the target of the events. */
+    private final Target target = new Target();
+
+    /** the argument of the events with an argument. */
+    private final Object[] args = new Object[] {Integer.valueOf(1)};
+
+    /** a SimEvent without arguments. */
+    private SimEventInterface<?> simEvent;
+
+    /** a SimEvent with an argument. */
+    private SimEventInterface<?> simEventWithArgument;
+
+    /** a LambdaSimEvent. */
+    private SimEventInterface<?> lambdaSimEvent;
+
+    /**
+     * create the events.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        this.timeFactory = SimTimeFactory.valueOf(this.timeType);
+        this.simEvent = createSimEvent(this.timeFactory, this.target, null);
+        this.simEventWithArgument = createSimEvent(this.timeFactory, this.target, this.args);
+        this.lambdaSimEvent = createLambdaSimEvent(this.timeFactory, this.target);
+    }
+
+    /**
+     * @param timeFactory SimTimeFactory&lt;T&gt;; the factory for the simulation time
+     * @param target Target; the target of the event
+     * @param args Object[]; the arguments, or null to invoke <code>increment()</code>
+     * @return SimEventInterface&lt;T&gt;; a SimEvent that invokes increment on the target
+     * @param <T> the simulation time type
+     */
+    private static <T extends SimTime<?, ?, T>> SimEventInterface<T> createSimEvent(final SimTimeFactory<T> timeFactory,
+            final Target target, final Object[] args)
+    {
+        return new SimEvent<T>(timeFactory.create(1.0), target, target, "increment", args);
+    }
+
+    /**
+     * @param timeFactory SimTimeFactory&lt;T&gt;; the factory for the simulation time
+     * @param target Target; the target of the event
+     * @return SimEventInterface&lt;T&gt;; a LambdaSimEvent that invokes increment on the target
+     * @param <T> the simulation time type
+     */
+    private static <T extends SimTime<?, ?, T>> SimEventInterface<T> createLambdaSimEvent(
+            final SimTimeFactory<T> timeFactory, final Target target)
+    {
+        return new LambdaSimEvent<T>(timeFactory.create(1.0), () -> target.increment());
+    }
+
+    /**
+     * @return long; the counter of the target
+     * @throws SimRuntimeException on invocation failure
+     */
+    @Benchmark
+    public long simEventExecute() throws SimRuntimeException
+    {
+        this.simEvent.execute();
+        return this.target.count;
+    }
+
+    /**
+     * @return long; the counter of the target
+     * @throws SimRuntimeException on invocation failure
+     */
+    @Benchmark
+    public long simEventWithArgumentExecute() throws SimRuntimeException
+    {
+        this.simEventWithArgument.execute();
+        return this.target.count;
+    }
+
+    /**
+     * @return long; the counter of the target
+     * @throws SimRuntimeException on invocation failure
+     */
+    @Benchmark
+    public long lambdaSimEventExecute() throws SimRuntimeException
+    {
+        this.lambdaSimEvent.execute();
+        return this.target.count;
+    }
+
+    /**
+     * @return long; the counter of the target
+     * @throws SimRuntimeException on invocation failure
+     */
+    @Benchmark
+    public long simEventCreateAndExecute() throws SimRuntimeException
+    {
+        createSimEvent(this.timeFactory, this.target, null).execute();
+        return this.target.count;
+    }
+
+    /**
+     * @return long; the counter of the target
+     * @throws SimRuntimeException on invocation failure
+     */
+    @Benchmark
+    public long lambdaSimEventCreateAndExecute() throws SimRuntimeException
+    {
+        createLambdaSimEvent(this.timeFactory, this.target).execute();
+        return this.target.count;
+    }
+
+    /** The target of the events. */
+    public static class Target
+    {
+        /** the number of invocations. */
+        private long count = 0;
+
+        /**
+         * the method without arguments.
+         */
+        public void increment()
+        {
+            this.count++;
+        }
+
+        /**
+         * the method with an argument.
+         * @param amount Integer; the increment
+         */
+        public void increment(final Integer amount)
+        {
+            this.count += amount;
+        }
+    }
+}
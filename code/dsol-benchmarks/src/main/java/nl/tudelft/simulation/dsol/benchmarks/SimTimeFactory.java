@@ -0,0 +1,103 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import org.djunits.unit.TimeUnit;
+import org.djunits.value.vdouble.scalar.Time;
+
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDoubleUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
+
+/**
+ * Creates simulation times of one of the time types from a time in seconds, so the benchmarks can be parameterized over the
+ * time type with a JMH <code>@Param</code>. The SimTimeLong counts in milliseconds, so the scheduling increments of the
+ * benchmarks lead to a comparable number of simultaneous events for all time types.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the simulation time type
+ * @since 3.03.06
+ */
+abstract class SimTimeFactory<T extends SimTime<?, ?, T>>
+{
+    /**
+     * Create a simulation time.
+     * @param seconds double; the time in seconds
+     * @return T; the simulation time
+     */
+    abstract T create(double seconds);
+
+    /**
+     * Return the value of a simulation time.
+     * @param time T; the simulation time
+     * @return double; the time in seconds
+     */
+    abstract double seconds(T time);
+
+    /**
+     * Return the factory for a time type.
+     * @param timeType String; the simple class name of the time type: SimTimeDouble, SimTimeLong or SimTimeDoubleUnit
+     * @return SimTimeFactory&lt;?&gt;; the factory for the time type
+     */
+    static SimTimeFactory<?> valueOf(final String timeType)
+    {
+        switch (timeType)
+        {
+            case "SimTimeDouble":
+                return new SimTimeFactory<SimTimeDouble>()
+                {
+                    @Override
+                    SimTimeDouble create(final double seconds)
+                    {
+                        return new SimTimeDouble(seconds);
+                    }
+
+                    @Override
+                    double seconds(final SimTimeDouble time)
+                    {
+                        return time.doubleValue();
+                    }
+                };
+
+            case "SimTimeLong":
+                return new SimTimeFactory<SimTimeLong>()
+                {
+                    @Override
+                    SimTimeLong create(final double seconds)
+                    {
+                        return new SimTimeLong(Math.round(1000.0 * seconds));
+                    }
+
+                    @Override
+                    double seconds(final SimTimeLong time)
+                    {
+                        return time.longValue() / 1000.0;
+                    }
+                };
+
+            case "SimTimeDoubleUnit":
+                return new SimTimeFactory<SimTimeDoubleUnit>()
+                {
+                    @Override
+                    SimTimeDoubleUnit create(final double seconds)
+                    {
+                        return new SimTimeDoubleUnit(new Time(seconds, TimeUnit.BASE_SECOND));
+                    }
+
+                    @Override
+                    double seconds(final SimTimeDoubleUnit time)
+                    {
+                        return time.get().si;
+                    }
+                };
+
+            default:
+                throw new IllegalArgumentException("unknown time type " + timeType);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.NamingException;
+
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simulators.Simulator;
+import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.event.EventProducerInterface;
+
+/**
+ * Executes one replication of a model to its end time, and removes the replication again, for the benchmarks that measure a
+ * complete simulation run. The simulator executes the events on its own thread; the run waits until the simulator has fired
+ * its END_REPLICATION_EVENT, or has stopped at the end time.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time
+ * @param <R> the relative type for time storage
+ * @param <T> the simulation time type
+ * @since 3.03.06
+ */
+final class SimulationRun<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+        implements EventListenerInterface
+{
+    /** the interval in milliseconds to check whether the simulator has stopped. */
+    private static final long POLL_INTERVAL = 1L;
+
+    /** the simulator. */
+    private final SimulatorInterface<A, R, T> simulator;
+
+    /** the replication. */
+    private final Replication<A, R, T, ?> replication;
+
+    /** the latch that is released when the replication has ended. */
+    private final CountDownLatch ended = new CountDownLatch(1);
+
+    /**
+     * @param simulator SimulatorInterface&lt;A,R,T&gt;; the simulator
+     * @param replication Replication&lt;A,R,T,?&gt;; the replication to execute on the simulator
+     */
+    SimulationRun(final SimulatorInterface<A, R, T> simulator, final Replication<A, R, T, ?> replication)
+    {
+        this.simulator = simulator;
+        this.replication = replication;
+    }
+
+    /**
+     * initialize the replication, which constructs the model.
+     * @throws Exception on error
+     */
+    void initialize() throws Exception
+    {
+        this.simulator.addListener(this, SimulatorInterface.END_REPLICATION_EVENT, EventProducerInterface.LAST_POSITION);
+        this.simulator.initialize(this.replication, ReplicationMode.TERMINATING);
+    }
+
+    /**
+     * execute the replication, and wait until it has ended.
+     * @throws Exception on error
+     */
+    void run() throws Exception
+    {
+        this.simulator.start();
+        while (!this.ended.await(POLL_INTERVAL, TimeUnit.MILLISECONDS))
+        {
+            if (!this.simulator.isRunning() && !this.simulator.getSimTime().lt(this.replication.getTreatment().getEndSimTime()))
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * remove the simulator thread and the replication.
+     * @throws NamingException when the replication cannot be removed from the context
+     */
+    void cleanUp() throws NamingException
+    {
+        if (this.simulator instanceof Simulator)
+        {
+            ((Simulator<?, ?, ?>) this.simulator).cleanUp();
+        }
+        this.replication.getExperiment().removeFromContext();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void notify(final EventInterface event)
+    {
+        this.ended.countDown();
+    }
+}
@@ -0,0 +1,113 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.event.Event;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.event.EventType;
+import nl.tudelft.simulation.jstats.statistics.Tally;
+
+/**
+ * JMH benchmark of the processing of one observation by a Tally: through <code>notify</code>, including the construction of
+ * the event that carries the observation, and through the primitive <code>ingest</code>. The listeners parameter subscribes a
+ * listener to the statistics events that the tally publishes for every observation.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TallyBenchmark
+{
+    /** the event type of the observations. */
+    private static final EventType OBSERVATION_EVENT = new EventType("OBSERVATION_EVENT");
+
+    /** whether a listener is subscribed to the statistics events of the tally. */
+    @Param({"false", "true"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public boolean listeners;
+
+    /** the tally. */
+    private Tally tally;
+
+    /** the observations, drawn in advance. */
+    private final double[] observations = new double[1024];
+
+    /** the index of the next observation. */
+    private int index = 0;
+
+    /**
+     * create the tally and draw the observations.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        this.tally = new Tally("benchmark");
+        this.tally.initialize();
+        if (this.listeners)
+        {
+            EventListenerInterface listener = new EventListenerInterface()
+            {
+                @Override
+                public void notify(final EventInterface event)
+                {
+                    // ignore
+                }
+            };
+            this.tally.addListener(listener, Tally.STANDARD_DEVIATION_EVENT);
+            this.tally.addListener(listener, Tally.SAMPLE_VARIANCE_EVENT);
+        }
+        Random random = new Random(1L);
+        for (int i = 0; i < this.observations.length; i++)
+        {
+            this.observations[i] = random.nextDouble();
+        }
+    }
+
+    /**
+     * @return long; the number of observations
+     */
+    @Benchmark
+    public long notifyObservation()
+    {
+        this.index = (this.index + 1) & (this.observations.length - 1);
+        this.tally.notify(new Event(OBSERVATION_EVENT, this, this.observations[this.index]));
+        return this.tally.getN();
+    }
+
+    /**
+     * @return long; the number of observations
+     */
+    @Benchmark
+    public long ingestObservation()
+    {
+        this.index = (this.index + 1) & (this.observations.length - 1);
+        this.tally.ingest(this.observations[this.index]);
+        return this.tally.getN();
+    }
+}
@@ -0,0 +1,395 @@
+package nl.tudelft.simulation.dsol.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AtomicModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.InputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.OutputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.TimeWarpSimulator;
+
+/**
+ * JMH benchmark of a complete replication of a partitioned DEVS model: a ring of cells that have an internal transition every
+ * time unit, in which they compute for a while and send their value to the next cell in the ring. The ring consists of
+ * segments, which are coupled models that only exchange the values of their first and last cells. The even cells have their
+ * transitions at the whole time units and the odd cells halfway. The DEVSSimulator executes all cells on one thread; the
+ * TimeWarpSimulator executes every segment on its own logical process, and rolls a segment back when the value of the
+ * previous segment arrives in its past.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeWarpBenchmark
+{
+    /** the simulator. */
+    @Param({"DEVSSimulator", "TimeWarpSimulator"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public String simulator;
+
+    /** the number of segments of the ring. */
+    @Param({"4"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int segments;
+
+    /** the number of cells in a segment; an even number. */
+    @Param({"250"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int cells;
+
+    /** the number of iterations of the computation of a cell in an internal transition. */
+    @Param({"10", "1000"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public int work;
+
+    /** the run length, which is the number of internal transitions of every cell. */
+    @Param({"100"})
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    public double runLength;
+
+    /** the number of the replication. */
+    private int replicationNumber = 0;
+
+    /** the run of the current invocation. */
+    private SimulationRun<Double, Double, SimTimeDouble> run;
+
+    /**
+     * construct the simulator, the replication and the model.
+     * @throws Exception on error
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws Exception
+    {
+        DEVSSimulatorInterface.TimeDouble devsSimulator = "TimeWarpSimulator".equals(this.simulator)
+                ? new TimeWarpSimulator.TimeDouble() : new DEVSSimulator.TimeDouble();
+        Replication.TimeDouble<DEVSSimulatorInterface.TimeDouble> replication =
+                Replication.TimeDouble.create("rep" + this.replicationNumber++, 0.0, 0.0, this.runLength,
+                        new RingModel(devsSimulator, this.segments, this.cells, this.work));
+        this.run = new SimulationRun<>(devsSimulator, replication);
+        this.run.initialize();
+    }
+
+    /**
+     * execute the replication.
+     * @throws Exception on error
+     */
+    @Benchmark
+    public void replication() throws Exception
+    {
+        this.run.run();
+    }
+
+    /**
+     * remove the replication.
+     * @throws Exception on error
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception
+    {
+        this.run.cleanUp();
+    }
+
+    /** The DSOL model that constructs the ring. */
+    public static class RingModel extends AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the number of segments. */
+        private final int segments;
+
+        /** the number of cells in a segment. */
+        private final int cells;
+
+        /** the number of iterations of the computation of a cell. */
+        private final int work;
+
+        /** the ring. */
+        private Ring ring;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param segments int; the number of segments
+         * @param cells int; the number of cells in a segment
+         * @param work int; the number of iterations of the computation of a cell
+         */
+        public RingModel(final DEVSSimulatorInterface.TimeDouble simulator, final int segments, final int cells,
+                final int work)
+        {
+            super(simulator);
+            this.segments = segments;
+            this.cells = cells;
+            this.work = work;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                this.ring = new Ring(this.simulator, this.segments, this.cells, this.work);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+
+        /**
+         * @return Ring; the ring
+         */
+        public Ring getRing()
+        {
+            return this.ring;
+        }
+    }
+
+    /** The coupled model with the segments of the ring. */
+    public static class Ring extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the cells of all segments. */
+        private final List<Cell> cells = new ArrayList<>();
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param segments int; the number of segments
+         * @param cells int; the number of cells in a segment
+         * @param work int; the number of iterations of the computation of a cell
+         * @throws PortAlreadyDefinedException on duplicate port names
+         * @throws SimRuntimeException when a segment cannot be assigned to a logical process
+         */
+        public Ring(final DEVSSimulatorInterface.TimeDouble simulator, final int segments, final int cells, final int work)
+                throws PortAlreadyDefinedException, SimRuntimeException
+        {
+            super("ring", simulator);
+            List<Segment> ring = new ArrayList<>();
+            for (int s = 0; s < segments; s++)
+            {
+                Segment segment = new Segment("segment" + s, this);
+                if (simulator instanceof TimeWarpSimulator)
+                {
+                    ((TimeWarpSimulator.TimeDouble) simulator).addLogicalProcess(segment);
+                }
+                Cell previous = null;
+                for (int i = 0; i < cells; i++)
+                {
+                    Cell cell = new Cell("cell" + i, segment, this.cells.size(), i % 2 == 0 ? 1.0 : 0.5, work);
+                    if (previous == null)
+                    {
+                        segment.addExternalInputCoupling(segment.in, cell.in);
+                    }
+                    else
+                    {
+                        segment.addInternalCoupling(previous.out, cell.in);
+                    }
+                    this.cells.add(cell);
+                    previous = cell;
+                }
+                segment.addExternalOutputCoupling(previous.out, segment.out);
+                ring.add(segment);
+            }
+            for (int s = 0; s < segments; s++)
+            {
+                addInternalCoupling(ring.get(s).out, ring.get((s + 1) % segments).in);
+            }
+            for (Cell cell : this.cells)
+            {
+                cell.initialize(0.0);
+            }
+        }
+
+        /**
+         * @return List&lt;Cell&gt;; the cells of all segments
+         */
+        public List<Cell> getCells()
+        {
+            return this.cells;
+        }
+    }
+
+    /** The coupled model of a segment of the ring, which receives the value of the previous segment. */
+    public static class Segment extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the input port for the value of the previous segment. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in;
+
+        /** the output port for the value of the last cell. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out;
+
+        /**
+         * @param name String; the name of the segment
+         * @param parentModel CoupledModel.TimeDouble; the ring
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Segment(final String name, final CoupledModel.TimeDouble parentModel) throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            this.in = new InputPort<>(this);
+            this.out = new OutputPort<>(this);
+            addInputPort("in", this.in);
+            addOutputPort("out", this.out);
+        }
+
+        /**
+         * @return InputPort&lt;Double,Double,SimTimeDouble,Object&gt;; the input port for the value of the previous segment
+         */
+        public InputPort<Double, Double, SimTimeDouble, Object> getIn()
+        {
+            return this.in;
+        }
+
+        /**
+         * @return OutputPort&lt;Double,Double,SimTimeDouble,Object&gt;; the output port for the value of the last cell
+         */
+        public OutputPort<Double, Double, SimTimeDouble, Object> getOut()
+        {
+            return this.out;
+        }
+    }
+
+    /** The atomic model that computes a value from the values it receives. */
+    public static class Cell extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the input port for the values of the previous cell. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in;
+
+        /** the output port for the value. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out;
+
+        /** the number of iterations of the computation. */
+        private final int work;
+
+        /** the value. */
+        private double value;
+
+        /** the sum of the received values. */
+        private double received = 0.0;
+
+        /** the time until the next internal transition. */
+        private double sigma;
+
+        /**
+         * @param name String; the name of the cell
+         * @param parentModel Segment; the segment
+         * @param value double; the initial value
+         * @param sigma double; the time until the first internal transition
+         * @param work int; the number of iterations of the computation
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        public Cell(final String name, final Segment parentModel, final double value, final double sigma, final int work)
+                throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            this.value = value;
+            this.sigma = sigma;
+            this.work = work;
+            this.in = new InputPort<>(this);
+            this.out = new OutputPort<>(this);
+            addInputPort("in", this.in);
+            addOutputPort("out", this.out);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            double x = this.value + this.received;
+            for (int i = 0; i < this.work; i++)
+            {
+                x = Math.cos(x) + 0.5 * Math.sin(2.0 * x);
+            }
+            this.value = x;
+            this.sigma = 1.0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object message)
+        {
+            this.received += (Double) message;
+            this.sigma -= e;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            this.out.send(Double.valueOf(this.value));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.sigma;
+        }
+
+        /**
+         * @return InputPort&lt;Double,Double,SimTimeDouble,Object&gt;; the input port for the values of the previous cell
+         */
+        public InputPort<Double, Double, SimTimeDouble, Object> getIn()
+        {
+            return this.in;
+        }
+
+        /**
+         * @return OutputPort&lt;Double,Double,SimTimeDouble,Object&gt;; the output port for the value
+         */
+        public OutputPort<Double, Double, SimTimeDouble, Object> getOut()
+        {
+            return this.out;
+        }
+
+        /**
+         * @return double; the value
+         */
+        public double getValue()
+        {
+            return this.value;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * JMH benchmarks for the scheduling and dispatch core of DSOL: the event lists, the execution of SimEvents and
+ * LambdaSimEvents, the firing of events to listeners, the Tally, the steps of the numerical integrators, and complete
+ * replications of the M/M/1 queue, a DEVS coupled model, a DEVS server with many sources, a wide DEVS model on the
+ * ParallelDEVSSimulator, a partitioned DEVS model on the TimeWarpSimulator and on the ConservativeSimulator, a continuous DESS
+ * model and a combined DEVDESS model with many continuous systems. Build the benchmarks with <code>mvn package</code> and
+ * run them with <code>java -jar target/benchmarks.jar</code>; a regular expression selects benchmarks, and
+ * <code>-p name=values</code> overrides the parameters.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+package nl.tudelft.simulation.dsol.benchmarks;
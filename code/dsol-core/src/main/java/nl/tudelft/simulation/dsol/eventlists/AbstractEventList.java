@@ -0,0 +1,253 @@
+package nl.tudelft.simulation.dsol.eventlists;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * The AbstractEventList is the base class for the array- and bucket-based event lists that do not store their events in a
+ * tree. These event lists are optimized for <code>add</code> and <code>removeFirst</code>, the two operations that the
+ * simulator executes for every event. Other operations of the SortedSet contract are supported, but at a higher cost:
+ * <ul>
+ * <li>the iterator walks over a sorted snapshot of the event list, and removal through the iterator is delegated to the
+ * <code>remove</code> method of the event list;</li>
+ * <li><code>headSet</code>, <code>tailSet</code> and <code>subSet</code> return a sorted copy rather than a view;</li>
+ * <li><code>add</code> does not check whether the event is already part of the event list. The simulator never schedules the
+ * same event object twice, and a check would cost a search on every insertion.</li>
+ * </ul>
+ * Just like the RedBlackTree, <code>first</code> and <code>last</code> return null for an empty event list, and the events
+ * are ordered on their natural ordering as defined by AbstractSimEvent: time, priority and insertion order. The event lists
+ * are not synchronized; the simulator guards access to its event list with its own semaphore.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the type of simulation time, e.g. SimTimeCalendarLong or SimTimeDouble or SimTimeDoubleUnit.
+ * @since 3.03.06
+ */
+public abstract class AbstractEventList<T extends SimTime<?, ?, T>> extends AbstractSet<SimEventInterface<T>>
+        implements EventListInterface<T>, Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the time that serves as the zero point when event times are converted to a key; set by the first call to key(). */
+    private T keyOrigin = null;
+
+    /**
+     * Compare two events on their natural ordering, i.e., on time, priority and id.
+     * @param event1 SimEventInterface&lt;T&gt;; the first event
+     * @param event2 SimEventInterface&lt;T&gt;; the second event
+     * @return int; a negative value when event1 is executed before event2, a positive value when event1 is executed after
+     *         event2, and 0 when the events are the same
+     */
+    @SuppressWarnings("unchecked")
+    protected final int compare(final SimEventInterface<T> event1, final SimEventInterface<T> event2)
+    {
+        return ((Comparable<SimEventInterface<T>>) event1).compareTo(event2);
+    }
+
+    /**
+     * Decide whether adding a number of events at once is cheaper by appending them to a heap and restoring the heap property
+     * bottom-up, which visits every node of the heap once, than by sifting up the events one by one, which costs the depth of
+     * the 4-ary heap for every added event.
+     * @param size int; the number of events in the heap before the events are added
+     * @param added int; the number of events to add
+     * @return boolean; whether the heap should be rebuilt rather than extended event by event
+     */
+    protected static boolean heapifyIsCheaper(final int size, final int added)
+    {
+        long newSize = (long) size + added;
+        long depth = (64 - Long.numberOfLeadingZeros(newSize) + 1) / 2;
+        return added > 1 && added * depth >= newSize;
+    }
+
+    /**
+     * Convert the execution time of an event into a double key, for event lists that distribute the events over buckets. The
+     * key is the time difference between the event time and a fixed origin, expressed in the relative time type of the
+     * simulation time, e.g., milliseconds for SimTimeCalendarLong or SI units for SimTimeDoubleUnit. A later event never has a
+     * smaller key than an earlier event, so the ordering within and between buckets stays consistent with the natural ordering
+     * of the events.
+     * @param event SimEventInterface&lt;T&gt;; the event to calculate the key for
+     * @return double; the key for the execution time of the event
+     */
+    protected final double key(final SimEventInterface<T> event)
+    {
+        T time = event.getAbsoluteExecutionTime();
+        if (this.keyOrigin == null)
+        {
+            this.keyOrigin = time.copy();
+        }
+        return time.diff(this.keyOrigin).doubleValue();
+    }
+
+    /**
+     * Return the events in the event list, in no particular order. The returned array is a copy that is owned by the caller.
+     * @return SimEventInterface&lt;T&gt;[]; an unsorted array with all events in the event list
+     */
+    protected abstract SimEventInterface<T>[] eventArray();
+
+    /**
+     * Return a sorted copy of the events in the event list.
+     * @return SimEventInterface&lt;T&gt;[]; an array with all events in the event list, the first event at index 0
+     */
+    protected final SimEventInterface<T>[] sortedEventArray()
+    {
+        SimEventInterface<T>[] events = eventArray();
+        Arrays.sort(events, this::compare);
+        return events;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public Iterator<SimEventInterface<T>> iterator()
+    {
+        return new SnapshotIterator(sortedEventArray());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public SimEventInterface<T> removeLast()
+    {
+        SimEventInterface<T> last = last();
+        if (last != null)
+        {
+            remove(last);
+        }
+        return last;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public SimEventInterface<T> last()
+    {
+        SimEventInterface<T> last = null;
+        for (SimEventInterface<T> event : eventArray())
+        {
+            if (last == null || compare(event, last) > 0)
+            {
+                last = event;
+            }
+        }
+        return last;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final Comparator<? super SimEventInterface<T>> comparator()
+    {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SortedSet<SimEventInterface<T>> subSet(final SimEventInterface<T> fromElement,
+            final SimEventInterface<T> toElement)
+    {
+        return copy().subSet(fromElement, toElement);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SortedSet<SimEventInterface<T>> headSet(final SimEventInterface<T> toElement)
+    {
+        return copy().headSet(toElement);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SortedSet<SimEventInterface<T>> tailSet(final SimEventInterface<T> fromElement)
+    {
+        return copy().tailSet(fromElement);
+    }
+
+    /**
+     * Make a tree-based copy of this event list, e.g., to create the sorted subsets.
+     * @return RedBlackTree&lt;T&gt;; a copy of this event list
+     */
+    private RedBlackTree<T> copy()
+    {
+        RedBlackTree<T> copy = new RedBlackTree<T>();
+        copy.addAll(Arrays.asList(eventArray()));
+        return copy;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final Object[] toArray()
+    {
+        return sortedEventArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[size=" + size() + "]";
+    }
+
+    /**
+     * Iterator over a sorted snapshot of the event list. Removal is delegated to the event list.
+     */
+    private class SnapshotIterator implements Iterator<SimEventInterface<T>>
+    {
+        /** the sorted snapshot. */
+        private final SimEventInterface<T>[] events;
+
+        /** the index of the next element to return. */
+        private int next = 0;
+
+        /**
+         * @param events SimEventInterface&lt;T&gt;[]; the sorted snapshot
+         */
+        SnapshotIterator(final SimEventInterface<T>[] events)
+        {
+            this.events = events;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext()
+        {
+            return this.next < this.events.length;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SimEventInterface<T> next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            return this.events[this.next++];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void remove()
+        {
+            if (this.next == 0 || this.events[this.next - 1] == null)
+            {
+                throw new IllegalStateException("remove() called without preceding next()");
+            }
+            AbstractEventList.this.remove(this.events[this.next - 1]);
+            this.events[this.next - 1] = null;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package nl.tudelft.simulation.dsol.eventlists;
+
+import java.util.Arrays;
+
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * A calendar queue implementation of the EventListInterface, after R. Brown (1988), Calendar queues: A fast O(1) priority
+ * queue implementation for the simulation event set problem. Communications of the ACM 31(10), pp. 1220-1227.
+ * <p>
+ * The calendar queue divides the time axis in "days" of a fixed width, and maps each day on one of the buckets of a "year"
+ * in a cyclic way. An event is stored in the bucket of the day in which it takes place, and the events in a bucket are kept
+ * sorted. The dequeue operation scans the buckets day by day, starting at the day of the last dequeued event. When the
+ * number of days per year and the day width are tuned to the number and spacing of the events, <code>add</code> and
+ * <code>removeFirst</code> take O(1) time on average. The calendar is resized, and the day width is re-estimated from a
+ * sample of the first events, when the number of events becomes more than twice or less than half the number of buckets.
+ * </p>
+ * <p>
+ * The calendar queue performs best for event sets with a stable distribution of the scheduling increments, such as the
+ * classic hold model. For very skewed distributions, the LadderQueue is often more robust.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the type of simulation time, e.g. SimTimeCalendarLong or SimTimeDouble or SimTimeDoubleUnit.
+ * @since 3.03.06
+ */
+public class CalendarQueue<T extends SimTime<?, ?, T>> extends AbstractEventList<T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the minimum number of buckets of the calendar. */
+    private static final int MIN_BUCKETS = 2;
+
+    /** the maximum number of events that is sampled to estimate a new day width. */
+    private static final int WIDTH_SAMPLE_SIZE = 25;
+
+    /** the buckets, each sorted with the earliest event at the end of the used part of the array. */
+    private SimEventInterface<T>[][] buckets;
+
+    /** the number of events in each bucket. */
+    private int[] bucketSize;
+
+    /** the width of a day, in the units of the key. */
+    private double width;
+
+    /** the number of events in the calendar queue. */
+    private int size = 0;
+
+    /** the number of the day (not modulo the number of buckets) in which the last event was dequeued. */
+    private long currentDay = 0;
+
+    /** the threshold above which the calendar is doubled in size. */
+    private int topThreshold;
+
+    /** the threshold below which the calendar is halved in size. */
+    private int bottomThreshold;
+
+    /** flag to temporarily suspend resizing, e.g., while sampling the day width. */
+    private boolean resizeEnabled = true;
+
+    /**
+     * Constructs a new <code>CalendarQueue</code> with a day width of 1.0 units of the relative time type. The day width is
+     * adjusted automatically when the calendar is resized.
+     */
+    public CalendarQueue()
+    {
+        this(1.0);
+    }
+
+    /**
+     * Constructs a new <code>CalendarQueue</code> with a given initial day width.
+     * @param initialWidth double; the initial width of a day, in units of the relative time type of the simulation time
+     */
+    public CalendarQueue(final double initialWidth)
+    {
+        super();
+        if (!(initialWidth > 0.0) || Double.isInfinite(initialWidth))
+        {
+            throw new IllegalArgumentException("initialWidth should be positive and finite");
+        }
+        initializeCalendar(MIN_BUCKETS, initialWidth, 0.0);
+    }
+
+    /**
+     * Create an empty calendar with a given number of buckets and day width.
+     * @param nrBuckets int; the number of buckets (days in a year)
+     * @param newWidth double; the width of a day
+     * @param startKey double; the key at which dequeuing starts
+     */
+    @SuppressWarnings("unchecked")
+    private void initializeCalendar(final int nrBuckets, final double newWidth, final double startKey)
+    {
+        this.buckets = new SimEventInterface[nrBuckets][];
+        this.bucketSize = new int[nrBuckets];
+        this.width = newWidth;
+        this.currentDay = day(startKey);
+        this.topThreshold = 2 * nrBuckets;
+        this.bottomThreshold = nrBuckets / 2 - 2;
+    }
+
+    /**
+     * Return the day number for a key.
+     * @param key double; the key
+     * @return long; the day number, not modulo the number of buckets
+     */
+    private long day(final double key)
+    {
+        return (long) Math.floor(key / this.width);
+    }
+
+    /**
+     * Return the bucket index for a day number.
+     * @param day long; the day number
+     * @return int; the bucket index
+     */
+    private int bucket(final long day)
+    {
+        return (int) Math.floorMod(day, (long) this.buckets.length);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean add(final SimEventInterface<T> event)
+    {
+        if (event == null)
+        {
+            throw new NullPointerException("event cannot be null");
+        }
+        double key = key(event);
+        long day = day(key);
+        if (this.size == 0 || day < this.currentDay)
+        {
+            this.currentDay = day;
+        }
+        insert(bucket(day), event);
+        this.size++;
+        if (this.size > this.topThreshold && this.resizeEnabled)
+        {
+            resize(2 * this.buckets.length);
+        }
+        return true;
+    }
+
+    /**
+     * Insert an event in its sorted position in a bucket.
+     * @param index int; the bucket index
+     * @param event SimEventInterface&lt;T&gt;; the event to insert
+     */
+    @SuppressWarnings("unchecked")
+    private void insert(final int index, final SimEventInterface<T> event)
+    {
+        SimEventInterface<T>[] bucket = this.buckets[index];
+        int n = this.bucketSize[index];
+        if (bucket == null)
+        {
+            bucket = new SimEventInterface[4];
+            this.buckets[index] = bucket;
+        }
+        else if (n == bucket.length)
+        {
+            bucket = Arrays.copyOf(bucket, 2 * n);
+            this.buckets[index] = bucket;
+        }
+        // the bucket is sorted in descending order; in a hold model the new event is usually the latest
+        int position = n;
+        while (position > 0 && compare(bucket[position - 1], event) < 0)
+        {
+            position--;
+        }
+        System.arraycopy(bucket, position, bucket, position + 1, n - position);
+        bucket[position] = event;
+        this.bucketSize[index] = n + 1;
+    }
+
+    /**
+     * Locate the bucket with the first event, and update the current day to the day of that event.
+     * @return int; the bucket index of the first event, or -1 when the event list is empty
+     */
+    private int locateFirst()
+    {
+        if (this.size == 0)
+        {
+            return -1;
+        }
+        int nrBuckets = this.buckets.length;
+        long day = this.currentDay;
+        for (int i = 0; i < nrBuckets; i++, day++)
+        {
+            int index = bucket(day);
+            int n = this.bucketSize[index];
+            if (n > 0 && day(key(this.buckets[index][n - 1])) <= day)
+            {
+                this.currentDay = day;
+                return index;
+            }
+        }
+
+        // no event in the coming year: direct search for the earliest event in all buckets
+        int firstIndex = -1;
+        for (int index = 0; index < nrBuckets; index++)
+        {
+            int n = this.bucketSize[index];
+            if (n > 0 && (firstIndex < 0
+                    || compare(this.buckets[index][n - 1], this.buckets[firstIndex][this.bucketSize[firstIndex] - 1]) < 0))
+            {
+                firstIndex = index;
+            }
+        }
+        this.currentDay = day(key(this.buckets[firstIndex][this.bucketSize[firstIndex] - 1]));
+        return firstIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> removeFirst()
+    {
+        int index = locateFirst();
+        if (index < 0)
+        {
+            return null;
+        }
+        int n = --this.bucketSize[index];
+        SimEventInterface<T> first = this.buckets[index][n];
+        this.buckets[index][n] = null;
+        this.size--;
+        if (this.size < this.bottomThreshold && this.resizeEnabled)
+        {
+            resize(this.buckets.length / 2);
+        }
+        return first;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> first()
+    {
+        int index = locateFirst();
+        return index < 0 ? null : this.buckets[index][this.bucketSize[index] - 1];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean remove(final Object object)
+    {
+        int index = bucketOf(object);
+        if (index < 0)
+        {
+            return false;
+        }
+        SimEventInterface<T>[] bucket = this.buckets[index];
+        int n = this.bucketSize[index];
+        for (int i = 0; i < n; i++)
+        {
+            if (object.equals(bucket[i]))
+            {
+                System.arraycopy(bucket, i + 1, bucket, i, n - i - 1);
+                bucket[n - 1] = null;
+                this.bucketSize[index] = n - 1;
+                this.size--;
+                if (this.size < this.bottomThreshold && this.resizeEnabled)
+                {
+                    resize(this.buckets.length / 2);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean contains(final Object object)
+    {
+        int index = bucketOf(object);
+        if (index >= 0)
+        {
+            for (int i = 0; i < this.bucketSize[index]; i++)
+            {
+                if (object.equals(this.buckets[index][i]))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the index of the bucket where an object would be stored if it is an event.
+     * @param object Object; the object to look up
+     * @return int; the bucket index, or -1 when the object is not an event or the calendar queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    private int bucketOf(final Object object)
+    {
+        if (this.size == 0 || !(object instanceof SimEventInterface))
+        {
+            return -1;
+        }
+        return bucket(day(key((SimEventInterface<T>) object)));
+    }
+
+    /**
+     * Resize the calendar to a new number of buckets, and estimate a new day width from the events at the start of the queue.
+     * @param newNrBuckets int; the new number of buckets
+     */
+    private void resize(final int newNrBuckets)
+    {
+        if (newNrBuckets < MIN_BUCKETS)
+        {
+            return;
+        }
+        double newWidth = estimateWidth();
+        SimEventInterface<T>[] events = eventArray();
+        double startKey = this.currentDay * this.width;
+        initializeCalendar(newNrBuckets, newWidth, startKey);
+        for (SimEventInterface<T> event : events)
+        {
+            double key = key(event);
+            insert(bucket(day(key)), event);
+            this.currentDay = Math.min(this.currentDay, day(key));
+        }
+    }
+
+    /**
+     * Estimate the day width from the average separation of the first events in the queue, discarding separations that are
+     * more than twice the average. Brown recommends a day width of three times the average separation.
+     * @return double; the new day width, or the current day width when no estimate can be made
+     */
+    @SuppressWarnings("unchecked")
+    private double estimateWidth()
+    {
+        int nrSamples = Math.min(this.size, WIDTH_SAMPLE_SIZE);
+        if (nrSamples < 2)
+        {
+            return this.width;
+        }
+        this.resizeEnabled = false;
+        SimEventInterface<T>[] samples = new SimEventInterface[nrSamples];
+        for (int i = 0; i < nrSamples; i++)
+        {
+            samples[i] = removeFirst();
+        }
+        for (SimEventInterface<T> sample : samples)
+        {
+            add(sample);
+        }
+        this.resizeEnabled = true;
+
+        double totalSeparation = key(samples[nrSamples - 1]) - key(samples[0]);
+        double averageSeparation = totalSeparation / (nrSamples - 1);
+        double sum = 0.0;
+        int count = 0;
+        for (int i = 1; i < nrSamples; i++)
+        {
+            double separation = key(samples[i]) - key(samples[i - 1]);
+            if (separation <= 2.0 * averageSeparation)
+            {
+                sum += separation;
+                count++;
+            }
+        }
+        double newWidth = count == 0 ? 0.0 : 3.0 * sum / count;
+        return newWidth > 0.0 && !Double.isInfinite(newWidth) ? newWidth : this.width;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int size()
+    {
+        return this.size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void clear()
+    {
+        initializeCalendar(MIN_BUCKETS, this.width, 0.0);
+        this.size = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected final SimEventInterface<T>[] eventArray()
+    {
+        SimEventInterface<T>[] events = new SimEventInterface[this.size];
+        int position = 0;
+        for (int index = 0; index < this.buckets.length; index++)
+        {
+            if (this.bucketSize[index] > 0)
+            {
+                System.arraycopy(this.buckets[index], 0, events, position, this.bucketSize[index]);
+                position += this.bucketSize[index];
+            }
+        }
+        return events;
+    }
+}
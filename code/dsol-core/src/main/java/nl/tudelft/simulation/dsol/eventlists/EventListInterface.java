@@ -1,5 +1,6 @@
 package nl.tudelft.simulation.dsol.eventlists;
 
+import java.util.Collection;
 import java.util.SortedSet;
 
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
@@ -21,6 +22,16 @@ import nl.tudelft.simulation.dsol.simtime.SimTime;
  */
 public interface EventListInterface<T extends SimTime<?, ?, T>> extends SortedSet<SimEventInterface<T>>
 {
+    /**
+     * Adds all events of a collection to the event list. The array-based heaps load a large collection at once and restore
+     * the heap property afterwards, which is O(n) instead of O(n log n) for adding the events one by one. The simulator uses
+     * this method to schedule a batch of events.
+     * @param events Collection&lt;? extends SimEventInterface&lt;T&gt;&gt;; the events to add
+     * @return boolean; whether the event list changed
+     */
+    @Override
+    boolean addAll(Collection<? extends SimEventInterface<T>> events);
+
     /**
      * Returns the first (lowest) element currently in this sorted set.
      * @return the first (lowest) element currently in this sorted set.
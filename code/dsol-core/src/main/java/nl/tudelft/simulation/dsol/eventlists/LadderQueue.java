@@ -0,0 +1,626 @@
+package nl.tudelft.simulation.dsol.eventlists;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * A ladder queue implementation of the EventListInterface, after W.T. Tang, R.S.M. Goh and I.L.-J. Thng (2005), Ladder
+ * queue: An O(1) priority queue structure for large-scale discrete event simulation. ACM Transactions on Modeling and
+ * Computer Simulation 15(3), pp. 175-204.
+ * <p>
+ * The ladder queue consists of three tiers. The <i>top</i> is an unsorted list that receives all events that are scheduled
+ * beyond the range of the ladder. The <i>ladder</i> consists of a number of rungs, each dividing a time interval over a
+ * number of unsorted buckets; every next rung subdivides one bucket of the rung above it. The <i>bottom</i> is a small
+ * sorted list from which the events are dequeued. When the bottom is empty, the first non-empty bucket of the lowest rung is
+ * either sorted into the bottom, or, when it holds more than a threshold number of events, spread out over a new rung. When
+ * the ladder is empty, the events in the top are spread out over a new first rung, with a bucket width that is derived from
+ * the range of the events. In contrast with the calendar queue, the ladder queue never needs a complete resize, which makes
+ * it robust for skewed and changing distributions of the scheduling increments.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the type of simulation time, e.g. SimTimeCalendarLong or SimTimeDouble or SimTimeDoubleUnit.
+ * @since 3.03.06
+ */
+public class LadderQueue<T extends SimTime<?, ?, T>> extends AbstractEventList<T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the number of events in a bucket or in the bottom above which a new rung is created. */
+    private static final int THRESHOLD = 50;
+
+    /** the maximum number of rungs in the ladder. */
+    private static final int MAX_RUNGS = 8;
+
+    /** the unsorted top list. */
+    private final Bucket<T> top = new Bucket<T>();
+
+    /** the minimum key of the events in the top. */
+    private double topMin = Double.POSITIVE_INFINITY;
+
+    /** the maximum key of the events in the top. */
+    private double topMax = Double.NEGATIVE_INFINITY;
+
+    /** events with a key of at least topStart go into the top. */
+    private double topStart = Double.NEGATIVE_INFINITY;
+
+    /** the rungs of the ladder; rungs[0] is the highest rung with the widest buckets. */
+    @SuppressWarnings("unchecked")
+    private final Rung<T>[] rungs = new Rung[MAX_RUNGS];
+
+    /** the number of rungs in use. */
+    private int nrRungs = 0;
+
+    /** the bottom, sorted with the earliest event at the end. */
+    private final Bucket<T> bottom = new Bucket<T>();
+
+    /** the number of events in the ladder queue. */
+    private int size = 0;
+
+    /**
+     * Constructs a new <code>LadderQueue</code>.
+     */
+    public LadderQueue()
+    {
+        super();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean add(final SimEventInterface<T> event)
+    {
+        if (event == null)
+        {
+            throw new NullPointerException("event cannot be null");
+        }
+        double key = key(event);
+        this.size++;
+        if (key >= this.topStart)
+        {
+            this.top.add(event);
+            this.topMin = Math.min(this.topMin, key);
+            this.topMax = Math.max(this.topMax, key);
+            return true;
+        }
+        // route with the same clamped bucket index as the events that were spread out over the rungs, so events with the same
+        // key always end up together in one bucket, or together in the bottom
+        for (int r = 0; r < this.nrRungs; r++)
+        {
+            Rung<T> rung = this.rungs[r];
+            int index = rung.clampedIndex(key);
+            if (index >= rung.current)
+            {
+                rung.add(index, event);
+                return true;
+            }
+        }
+        insertBottom(event);
+        if (this.bottom.size > THRESHOLD && this.nrRungs < MAX_RUNGS)
+        {
+            spawnRungFromBottom();
+        }
+        return true;
+    }
+
+    /**
+     * Insert an event in its sorted position in the bottom.
+     * @param event SimEventInterface&lt;T&gt;; the event to insert
+     */
+    private void insertBottom(final SimEventInterface<T> event)
+    {
+        Bucket<T> b = this.bottom;
+        b.ensureCapacity(b.size + 1);
+        int position = b.size;
+        while (position > 0 && compare(b.events[position - 1], event) < 0)
+        {
+            position--;
+        }
+        System.arraycopy(b.events, position, b.events, position + 1, b.size - position);
+        b.events[position] = event;
+        b.size++;
+    }
+
+    /**
+     * Move the events in the bottom to a new lowest rung, when the bottom has grown too large because many events were
+     * scheduled in the time interval that is currently being dequeued.
+     */
+    private void spawnRungFromBottom()
+    {
+        double minKey = key(this.bottom.events[this.bottom.size - 1]);
+        double maxKey = this.nrRungs == 0 ? this.topStart : this.rungs[this.nrRungs - 1].currentStart();
+        double width = (maxKey - minKey) / THRESHOLD;
+        if (!(width > 0.0) || Double.isInfinite(width))
+        {
+            return;
+        }
+        Rung<T> rung = newRung(minKey, width, THRESHOLD);
+        for (int i = 0; i < this.bottom.size; i++)
+        {
+            SimEventInterface<T> event = this.bottom.events[i];
+            rung.add(rung.clampedIndex(key(event)), event);
+        }
+        this.bottom.clear();
+    }
+
+    /**
+     * Add a new rung at the bottom of the ladder.
+     * @param start double; the key where the first bucket starts
+     * @param width double; the bucket width
+     * @param nrBuckets int; the number of buckets
+     * @return Rung&lt;T&gt;; the new rung
+     */
+    private Rung<T> newRung(final double start, final double width, final int nrBuckets)
+    {
+        Rung<T> rung = this.rungs[this.nrRungs];
+        if (rung == null)
+        {
+            rung = new Rung<T>();
+            this.rungs[this.nrRungs] = rung;
+        }
+        rung.initialize(start, width, nrBuckets);
+        this.nrRungs++;
+        return rung;
+    }
+
+    /**
+     * Make sure that the bottom contains the first event, unless the ladder queue is empty.
+     */
+    private void fillBottom()
+    {
+        while (this.bottom.size == 0 && this.size > 0)
+        {
+            if (this.nrRungs == 0)
+            {
+                transferTop();
+                continue;
+            }
+            Rung<T> rung = this.rungs[this.nrRungs - 1];
+            while (rung.current < rung.buckets.length && rung.buckets[rung.current].size == 0)
+            {
+                rung.current++;
+            }
+            if (rung.current == rung.buckets.length)
+            {
+                this.nrRungs--;
+                continue;
+            }
+            Bucket<T> bucket = rung.buckets[rung.current];
+            rung.current++;
+            rung.count -= bucket.size;
+            if (bucket.size > THRESHOLD && this.nrRungs < MAX_RUNGS && !sameKey(bucket))
+            {
+                double start = rung.start + (rung.current - 1) * rung.width;
+                Rung<T> child = newRung(start, rung.width / bucket.size, bucket.size);
+                for (int i = 0; i < bucket.size; i++)
+                {
+                    SimEventInterface<T> event = bucket.events[i];
+                    child.add(child.clampedIndex(key(event)), event);
+                }
+            }
+            else
+            {
+                sortIntoBottom(bucket);
+            }
+            bucket.clear();
+        }
+    }
+
+    /**
+     * Spread the events in the top out over a new first rung, or move them directly to the bottom when they are few or all
+     * have the same key.
+     */
+    private void transferTop()
+    {
+        if (this.top.size <= THRESHOLD || this.topMax == this.topMin)
+        {
+            sortIntoBottom(this.top);
+        }
+        else
+        {
+            int nrBuckets = this.top.size;
+            double width = (this.topMax - this.topMin) / nrBuckets;
+            Rung<T> rung = newRung(this.topMin, width, nrBuckets + 1);
+            for (int i = 0; i < this.top.size; i++)
+            {
+                SimEventInterface<T> event = this.top.events[i];
+                rung.add(rung.clampedIndex(key(event)), event);
+            }
+        }
+        this.topStart = Math.nextUp(this.topMax);
+        this.top.clear();
+        this.topMin = Double.POSITIVE_INFINITY;
+        this.topMax = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Check whether all events in a bucket have the same key, in which case a new rung would not split them.
+     * @param bucket Bucket&lt;T&gt;; the bucket to check
+     * @return boolean; whether all events in the bucket have the same key
+     */
+    private boolean sameKey(final Bucket<T> bucket)
+    {
+        double key = key(bucket.events[0]);
+        for (int i = 1; i < bucket.size; i++)
+        {
+            if (key(bucket.events[i]) != key)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sort the events of an unsorted bucket into the (empty) bottom.
+     * @param bucket Bucket&lt;T&gt;; the bucket to sort into the bottom
+     */
+    private void sortIntoBottom(final Bucket<T> bucket)
+    {
+        this.bottom.ensureCapacity(bucket.size);
+        System.arraycopy(bucket.events, 0, this.bottom.events, 0, bucket.size);
+        this.bottom.size = bucket.size;
+        Arrays.sort(this.bottom.events, 0, this.bottom.size, (e1, e2) -> compare(e2, e1));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> removeFirst()
+    {
+        fillBottom();
+        if (this.bottom.size == 0)
+        {
+            return null;
+        }
+        SimEventInterface<T> first = this.bottom.events[--this.bottom.size];
+        this.bottom.events[this.bottom.size] = null;
+        this.size--;
+        if (this.size == 0)
+        {
+            clear();
+        }
+        return first;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> first()
+    {
+        fillBottom();
+        return this.bottom.size == 0 ? null : this.bottom.events[this.bottom.size - 1];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean remove(final Object object)
+    {
+        if (this.size == 0 || !(object instanceof SimEventInterface))
+        {
+            return false;
+        }
+        boolean removed = this.top.remove(object) || this.bottom.removeOrdered(object);
+        for (int r = 0; r < this.nrRungs && !removed; r++)
+        {
+            removed = this.rungs[r].remove(object);
+        }
+        if (removed)
+        {
+            this.size--;
+            if (this.size == 0)
+            {
+                clear();
+            }
+        }
+        return removed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean contains(final Object object)
+    {
+        if (this.size == 0 || !(object instanceof SimEventInterface))
+        {
+            return false;
+        }
+        if (this.top.indexOf(object) >= 0 || this.bottom.indexOf(object) >= 0)
+        {
+            return true;
+        }
+        for (int r = 0; r < this.nrRungs; r++)
+        {
+            Rung<T> rung = this.rungs[r];
+            for (int b = rung.current; b < rung.buckets.length; b++)
+            {
+                if (rung.buckets[b].indexOf(object) >= 0)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int size()
+    {
+        return this.size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void clear()
+    {
+        this.top.clear();
+        this.bottom.clear();
+        for (int r = 0; r < this.nrRungs; r++)
+        {
+            this.rungs[r].clear();
+        }
+        this.nrRungs = 0;
+        this.topMin = Double.POSITIVE_INFINITY;
+        this.topMax = Double.NEGATIVE_INFINITY;
+        this.topStart = Double.NEGATIVE_INFINITY;
+        this.size = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected final SimEventInterface<T>[] eventArray()
+    {
+        SimEventInterface<T>[] events = new SimEventInterface[this.size];
+        int position = this.top.copyTo(events, 0);
+        position = this.bottom.copyTo(events, position);
+        for (int r = 0; r < this.nrRungs; r++)
+        {
+            Rung<T> rung = this.rungs[r];
+            for (int b = rung.current; b < rung.buckets.length; b++)
+            {
+                position = rung.buckets[b].copyTo(events, position);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * A growable array of events, used for the top, the bottom and the buckets of the rungs.
+     * @param <T> the type of simulation time
+     */
+    private static class Bucket<T extends SimTime<?, ?, T>> implements Serializable
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the events. */
+        @SuppressWarnings("unchecked")
+        private SimEventInterface<T>[] events = new SimEventInterface[4];
+
+        /** the number of events. */
+        private int size = 0;
+
+        /**
+         * Make sure the bucket can hold a number of events.
+         * @param capacity int; the required capacity
+         */
+        void ensureCapacity(final int capacity)
+        {
+            if (capacity > this.events.length)
+            {
+                this.events = Arrays.copyOf(this.events, Math.max(capacity, 2 * this.events.length));
+            }
+        }
+
+        /**
+         * Add an event at the end.
+         * @param event SimEventInterface&lt;T&gt;; the event to add
+         */
+        void add(final SimEventInterface<T> event)
+        {
+            ensureCapacity(this.size + 1);
+            this.events[this.size++] = event;
+        }
+
+        /**
+         * @param object Object; the object to look for
+         * @return int; the index of the object, or -1 when not found
+         */
+        int indexOf(final Object object)
+        {
+            for (int i = 0; i < this.size; i++)
+            {
+                if (object.equals(this.events[i]))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Remove an object from an unsorted bucket by moving the last event into its place.
+         * @param object Object; the object to remove
+         * @return boolean; whether the object was removed
+         */
+        boolean remove(final Object object)
+        {
+            int index = indexOf(object);
+            if (index < 0)
+            {
+                return false;
+            }
+            this.events[index] = this.events[--this.size];
+            this.events[this.size] = null;
+            return true;
+        }
+
+        /**
+         * Remove an object from a sorted bucket, keeping the order of the other events.
+         * @param object Object; the object to remove
+         * @return boolean; whether the object was removed
+         */
+        boolean removeOrdered(final Object object)
+        {
+            int index = indexOf(object);
+            if (index < 0)
+            {
+                return false;
+            }
+            System.arraycopy(this.events, index + 1, this.events, index, this.size - index - 1);
+            this.events[--this.size] = null;
+            return true;
+        }
+
+        /**
+         * Copy the events to an array.
+         * @param target SimEventInterface&lt;T&gt;[]; the array to copy to
+         * @param position int; the position in the target array
+         * @return int; the position after the copied events
+         */
+        int copyTo(final SimEventInterface<T>[] target, final int position)
+        {
+            System.arraycopy(this.events, 0, target, position, this.size);
+            return position + this.size;
+        }
+
+        /** Remove all events. */
+        void clear()
+        {
+            Arrays.fill(this.events, 0, this.size, null);
+            this.size = 0;
+        }
+    }
+
+    /**
+     * A rung of the ladder, dividing an interval of keys over a number of equally wide buckets.
+     * @param <T> the type of simulation time
+     */
+    private static class Rung<T extends SimTime<?, ?, T>> implements Serializable
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the buckets. */
+        @SuppressWarnings("unchecked")
+        private Bucket<T>[] buckets = new Bucket[0];
+
+        /** the key where the first bucket starts. */
+        private double start;
+
+        /** the bucket width. */
+        private double width;
+
+        /** the index of the first bucket that has not yet been dequeued. */
+        private int current;
+
+        /** the number of events in the rung. */
+        private int count;
+
+        /**
+         * (Re)initialize the rung, reusing the buckets where possible.
+         * @param newStart double; the key where the first bucket starts
+         * @param newWidth double; the bucket width
+         * @param nrBuckets int; the number of buckets
+         */
+        @SuppressWarnings("unchecked")
+        void initialize(final double newStart, final double newWidth, final int nrBuckets)
+        {
+            if (this.buckets.length != nrBuckets)
+            {
+                Bucket<T>[] newBuckets = new Bucket[nrBuckets];
+                System.arraycopy(this.buckets, 0, newBuckets, 0, Math.min(nrBuckets, this.buckets.length));
+                for (int i = this.buckets.length; i < nrBuckets; i++)
+                {
+                    newBuckets[i] = new Bucket<T>();
+                }
+                this.buckets = newBuckets;
+            }
+            this.start = newStart;
+            this.width = newWidth;
+            this.current = 0;
+            this.count = 0;
+        }
+
+        /**
+         * @param key double; the key
+         * @return long; the unclamped bucket index for the key
+         */
+        long index(final double key)
+        {
+            return (long) Math.floor((key - this.start) / this.width);
+        }
+
+        /**
+         * @param key double; the key
+         * @return int; the bucket index for the key, clamped to the valid bucket range
+         */
+        int clampedIndex(final double key)
+        {
+            return (int) Math.max(0L, Math.min(index(key), this.buckets.length - 1));
+        }
+
+        /**
+         * @return double; the key where the current bucket starts
+         */
+        double currentStart()
+        {
+            return this.start + this.current * this.width;
+        }
+
+        /**
+         * Add an event to a bucket.
+         * @param index int; the bucket index
+         * @param event SimEventInterface&lt;T&gt;; the event
+         */
+        void add(final int index, final SimEventInterface<T> event)
+        {
+            this.buckets[index].add(event);
+            this.count++;
+        }
+
+        /**
+         * Remove an object from the buckets that have not been dequeued yet.
+         * @param object Object; the object to remove
+         * @return boolean; whether the object was removed
+         */
+        boolean remove(final Object object)
+        {
+            for (int b = this.current; b < this.buckets.length; b++)
+            {
+                if (this.buckets[b].remove(object))
+                {
+                    this.count--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Remove all events. */
+        void clear()
+        {
+            for (int b = this.current; b < this.buckets.length; b++)
+            {
+                this.buckets[b].clear();
+            }
+            this.current = 0;
+            this.count = 0;
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package nl.tudelft.simulation.dsol.eventlists;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
+
+/**
+ * A 4-ary heap implementation of the EventListInterface that stores the execution time, priority and id of the events in
+ * parallel primitive arrays next to the array with the events. The heap operations compare the primitive values, and do not
+ * have to call <code>compareTo</code> on the events or on their simulation times, which would follow several references
+ * and unbox the time values for every comparison. No objects are allocated when events are added or removed, except when the
+ * arrays have to grow. An event that extends AbstractSimEvent keeps its index in the heap, so removing it, e.g., when it is
+ * cancelled, is O(log n), and <code>contains</code> is O(1); other events, and events that are in more than one heap at the
+ * same time, need a linear search. A large collection of events that is added with <code>addAll</code> is appended to the
+ * arrays, after which the heap is rebuilt bottom-up in O(n).
+ * <p>
+ * The primitive time is exact for SimTimeDouble, and for SimTimeLong values with an absolute value up to 2<sup>53</sup>. For
+ * other simulation time types, events that do not extend AbstractSimEvent, and events with an order, such as the delayed
+ * messages of a DEVS coupling, the time key is only used to order events with different times, and events with the same key
+ * are ordered by their <code>compareTo</code> method. The ordering is
+ * therefore always the same as the natural ordering of the events.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the type of simulation time, e.g. SimTimeCalendarLong or SimTimeDouble or SimTimeDoubleUnit.
+ * @since 3.03.06
+ */
+public class PrimitiveEventHeap<T extends SimTime<?, ?, T>> extends AbstractEventList<T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the default initial capacity of the heap. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** the largest long value that can be represented exactly as a double. */
+    private static final long MAX_EXACT_LONG = 1L << 53;
+
+    /** the events, where the children of the node at index i are stored at 4i+1 .. 4i+4. */
+    private SimEventInterface<T>[] events;
+
+    /** the execution times of the events, as a double key. */
+    private double[] times;
+
+    /** the priorities of the events. */
+    private short[] priorities;
+
+    /** the ids of the events, or -1 for events that do not extend AbstractSimEvent. */
+    private long[] ids;
+
+    /** the number of events in the heap. */
+    private int size = 0;
+
+    /** whether the time keys, priorities and ids of all events in the heap are exact, so compareTo is never needed. */
+    private boolean exact = true;
+
+    /**
+     * Constructs a new <code>PrimitiveEventHeap</code> with a default initial capacity.
+     */
+    public PrimitiveEventHeap()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new <code>PrimitiveEventHeap</code>.
+     * @param initialCapacity int; the initial capacity of the heap
+     */
+    @SuppressWarnings("unchecked")
+    public PrimitiveEventHeap(final int initialCapacity)
+    {
+        super();
+        int capacity = Math.max(1, initialCapacity);
+        this.events = new SimEventInterface[capacity];
+        this.times = new double[capacity];
+        this.priorities = new short[capacity];
+        this.ids = new long[capacity];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean add(final SimEventInterface<T> event)
+    {
+        if (event == null)
+        {
+            throw new NullPointerException("event cannot be null");
+        }
+        ensureCapacity(this.size + 1);
+        if (event instanceof AbstractSimEvent)
+        {
+            ((AbstractSimEvent<?>) event).addedToList(this, this.size);
+        }
+        siftUp(this.size++, event, timeKey(event), event.getPriority(), id(event));
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean addAll(final Collection<? extends SimEventInterface<T>> collection)
+    {
+        if (!heapifyIsCheaper(this.size, collection.size()))
+        {
+            return super.addAll(collection);
+        }
+        Object[] added = collection.toArray();
+        for (Object event : added)
+        {
+            if (event == null)
+            {
+                throw new NullPointerException("event cannot be null");
+            }
+        }
+        ensureCapacity(this.size + added.length);
+        for (Object object : added)
+        {
+            @SuppressWarnings("unchecked")
+            SimEventInterface<T> event = (SimEventInterface<T>) object;
+            if (event instanceof AbstractSimEvent)
+            {
+                ((AbstractSimEvent<?>) event).addedToList(this, this.size);
+            }
+            set(this.size++, event, timeKey(event), event.getPriority(), id(event));
+        }
+        for (int i = (this.size - 2) / 4; i >= 0; i--)
+        {
+            siftDown(i, this.events[i], this.times[i], this.priorities[i], this.ids[i]);
+        }
+        return added.length > 0;
+    }
+
+    /**
+     * Grow the arrays when they cannot hold the given number of events.
+     * @param capacity int; the number of events that the arrays have to hold
+     */
+    private void ensureCapacity(final int capacity)
+    {
+        if (capacity > this.events.length)
+        {
+            int newCapacity = Math.max(capacity, this.events.length * 2);
+            this.events = Arrays.copyOf(this.events, newCapacity);
+            this.times = Arrays.copyOf(this.times, newCapacity);
+            this.priorities = Arrays.copyOf(this.priorities, newCapacity);
+            this.ids = Arrays.copyOf(this.ids, newCapacity);
+        }
+    }
+
+    /**
+     * Return the id of an event, and register whether the id is exact. The id is not exact for an event with an order, which
+     * is compared before the id.
+     * @param event SimEventInterface&lt;T&gt;; the event
+     * @return long; the id of the event, or -1 for an event that does not extend AbstractSimEvent
+     */
+    private long id(final SimEventInterface<T> event)
+    {
+        if (event instanceof AbstractSimEvent)
+        {
+            AbstractSimEvent<?> simEvent = (AbstractSimEvent<?>) event;
+            if (simEvent.getOrder() != 0L)
+            {
+                this.exact = false;
+            }
+            return simEvent.getId();
+        }
+        this.exact = false;
+        return -1L;
+    }
+
+    /**
+     * Calculate the primitive time key of an event, and register whether the key is exact.
+     * @param event SimEventInterface&lt;T&gt;; the event
+     * @return double; the time key of the event
+     */
+    private double timeKey(final SimEventInterface<T> event)
+    {
+        T time = event.getAbsoluteExecutionTime();
+        if (time instanceof SimTimeDouble)
+        {
+            return ((SimTimeDouble) time).doubleValue();
+        }
+        if (time instanceof SimTimeLong)
+        {
+            long value = ((SimTimeLong) time).longValue();
+            if (value > MAX_EXACT_LONG || value < -MAX_EXACT_LONG)
+            {
+                this.exact = false;
+            }
+            return value;
+        }
+        this.exact = false;
+        return key(event);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> removeFirst()
+    {
+        if (this.size == 0)
+        {
+            return null;
+        }
+        SimEventInterface<T> first = this.events[0];
+        removeAt(0);
+        return first;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> first()
+    {
+        return this.size == 0 ? null : this.events[0];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> last()
+    {
+        if (this.size == 0)
+        {
+            return null;
+        }
+        // the last event is one of the leaves, which start after the parent of the last node
+        int last = this.size - 1;
+        for (int i = (this.size - 2) / 4 + 1; i < this.size; i++)
+        {
+            if (compareAt(i, last) > 0)
+            {
+                last = i;
+            }
+        }
+        return this.events[last];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean remove(final Object event)
+    {
+        int index = indexOf(event);
+        if (index < 0)
+        {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean contains(final Object event)
+    {
+        return indexOf(event) >= 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int size()
+    {
+        return this.size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void clear()
+    {
+        for (int i = 0; i < this.size; i++)
+        {
+            removed(this.events[i]);
+        }
+        Arrays.fill(this.events, 0, this.size, null);
+        this.size = 0;
+        this.exact = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final SimEventInterface<T>[] eventArray()
+    {
+        return Arrays.copyOf(this.events, this.size);
+    }
+
+    /**
+     * Look up the index of an event in the heap: the index that the event keeps when it extends AbstractSimEvent, or the
+     * result of a linear search otherwise.
+     * @param event Object; the event to look for
+     * @return int; the index of the event in the heap, or -1 when the event is not part of the heap
+     */
+    private int indexOf(final Object event)
+    {
+        if (event instanceof AbstractSimEvent)
+        {
+            int index = ((AbstractSimEvent<?>) event).getListIndex(this);
+            if (index != AbstractSimEvent.UNKNOWN_LIST_INDEX)
+            {
+                return index;
+            }
+        }
+        if (event != null)
+        {
+            for (int i = 0; i < this.size; i++)
+            {
+                if (event.equals(this.events[i]))
+                {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compare the events at two indices of the heap.
+     * @param index1 int; the index of the first event
+     * @param index2 int; the index of the second event
+     * @return int; a negative value when the first event is executed before the second event, a positive value when the first
+     *         event is executed after the second event, and 0 when the events are the same
+     */
+    private int compareAt(final int index1, final int index2)
+    {
+        return compare(this.events[index1], this.times[index1], this.priorities[index1], this.ids[index1], index2);
+    }
+
+    /**
+     * Compare an event, given by its primitive values, with the event at an index of the heap.
+     * @param event SimEventInterface&lt;T&gt;; the event
+     * @param time double; the time key of the event
+     * @param priority short; the priority of the event
+     * @param id long; the id of the event
+     * @param index int; the index of the event in the heap to compare with
+     * @return int; a negative value when the event is executed before the event at the index, a positive value when the
+     *         event is executed after the event at the index, and 0 when the events are the same
+     */
+    private int compare(final SimEventInterface<T> event, final double time, final short priority, final long id,
+            final int index)
+    {
+        double otherTime = this.times[index];
+        if (time < otherTime)
+        {
+            return -1;
+        }
+        if (time > otherTime)
+        {
+            return 1;
+        }
+        if (!this.exact)
+        {
+            return compare(event, this.events[index]);
+        }
+        short otherPriority = this.priorities[index];
+        if (priority != otherPriority)
+        {
+            return priority > otherPriority ? -1 : 1;
+        }
+        long otherId = this.ids[index];
+        return id < otherId ? -1 : (id > otherId ? 1 : 0);
+    }
+
+    /**
+     * Move the event at one index of the heap to another index.
+     * @param from int; the index of the event to move
+     * @param to int; the index to move the event to
+     */
+    private void move(final int from, final int to)
+    {
+        SimEventInterface<T> event = this.events[from];
+        this.events[to] = event;
+        if (event instanceof AbstractSimEvent)
+        {
+            ((AbstractSimEvent<?>) event).movedInList(to);
+        }
+        this.times[to] = this.times[from];
+        this.priorities[to] = this.priorities[from];
+        this.ids[to] = this.ids[from];
+    }
+
+    /**
+     * Store an event with its primitive values at an index of the heap.
+     * @param index int; the index
+     * @param event SimEventInterface&lt;T&gt;; the event
+     * @param time double; the time key of the event
+     * @param priority short; the priority of the event
+     * @param id long; the id of the event
+     */
+    private void set(final int index, final SimEventInterface<T> event, final double time, final short priority,
+            final long id)
+    {
+        this.events[index] = event;
+        if (event instanceof AbstractSimEvent)
+        {
+            ((AbstractSimEvent<?>) event).movedInList(index);
+        }
+        this.times[index] = time;
+        this.priorities[index] = priority;
+        this.ids[index] = id;
+    }
+
+    /**
+     * Register in an event that extends AbstractSimEvent that it is removed from the heap.
+     * @param event SimEventInterface&lt;T&gt;; the removed event
+     */
+    private void removed(final SimEventInterface<T> event)
+    {
+        if (event instanceof AbstractSimEvent)
+        {
+            ((AbstractSimEvent<?>) event).removedFromList(this);
+        }
+    }
+
+    /**
+     * Remove the event at the given index, and restore the heap property by moving the last event of the heap into the hole.
+     * @param index int; the index of the event to remove
+     */
+    private void removeAt(final int index)
+    {
+        removed(this.events[index]);
+        int lastIndex = --this.size;
+        SimEventInterface<T> moved = this.events[lastIndex];
+        double time = this.times[lastIndex];
+        short priority = this.priorities[lastIndex];
+        long id = this.ids[lastIndex];
+        this.events[lastIndex] = null;
+        if (index != lastIndex)
+        {
+            siftDown(index, moved, time, priority, id);
+            if (this.events[index] == moved)
+            {
+                siftUp(index, moved, time, priority, id);
+            }
+        }
+    }
+
+    /**
+     * Move an event up from a hole at the given index until its parent is earlier.
+     * @param startIndex int; the index of the hole
+     * @param event SimEventInterface&lt;T&gt;; the event to place
+     * @param time double; the time key of the event
+     * @param priority short; the priority of the event
+     * @param id long; the id of the event
+     */
+    private void siftUp(final int startIndex, final SimEventInterface<T> event, final double time, final short priority,
+            final long id)
+    {
+        int index = startIndex;
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 2;
+            if (compare(event, time, priority, id, parent) >= 0)
+            {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        set(index, event, time, priority, id);
+    }
+
+    /**
+     * Move an event down from a hole at the given index until all its children are later.
+     * @param startIndex int; the index of the hole
+     * @param event SimEventInterface&lt;T&gt;; the event to place
+     * @param time double; the time key of the event
+     * @param priority short; the priority of the event
+     * @param id long; the id of the event
+     */
+    private void siftDown(final int startIndex, final SimEventInterface<T> event, final double time, final short priority,
+            final long id)
+    {
+        int index = startIndex;
+        while (true)
+        {
+            int firstChild = 4 * index + 1;
+            if (firstChild >= this.size)
+            {
+                break;
+            }
+            int minChild = firstChild;
+            int lastChild = Math.min(firstChild + 4, this.size);
+            for (int child = firstChild + 1; child < lastChild; child++)
+            {
+                if (compareAt(child, minChild) < 0)
+                {
+                    minChild = child;
+                }
+            }
+            if (compare(event, time, priority, id, minChild) <= 0)
+            {
+                break;
+            }
+            move(minChild, index);
+            index = minChild;
+        }
+        set(index, event, time, priority, id);
+    }
+
+    /**
+     * reads the heap from stream, and registers the indices of the events in the heap.
+     * @param in java.io.ObjectInputStream; the inputstream
+     * @throws IOException on IOException
+     * @throws ClassNotFoundException when a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        for (int i = 0; i < this.size; i++)
+        {
+            if (this.events[i] instanceof AbstractSimEvent)
+            {
+                ((AbstractSimEvent<?>) this.events[i]).addedToList(this, i);
+            }
+        }
+    }
+}
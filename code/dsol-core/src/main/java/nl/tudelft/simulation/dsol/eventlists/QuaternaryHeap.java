@@ -0,0 +1,362 @@
+package nl.tudelft.simulation.dsol.eventlists;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * An array-backed 4-ary heap implementation of the EventListInterface. Compared to a binary heap, the 4-ary heap has half
+ * the depth and keeps the children of a node next to each other in memory, which reduces the number of cache misses when an
+ * event is removed from the top of the heap. Both <code>add</code> and <code>removeFirst</code> are O(log n) and do not
+ * allocate any objects, except when the backing array has to grow. An event that extends AbstractSimEvent keeps its index in
+ * the heap, so removing it, e.g., when it is cancelled, is O(log n), and <code>contains</code> is O(1); other events, and
+ * events that are in more than one heap at the same time, need a linear search. A large collection of events that is added
+ * with <code>addAll</code> is appended to the backing array, after which the heap is rebuilt bottom-up in O(n).
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the type of simulation time, e.g. SimTimeCalendarLong or SimTimeDouble or SimTimeDoubleUnit.
+ * @since 3.03.06
+ */
+public class QuaternaryHeap<T extends SimTime<?, ?, T>> extends AbstractEventList<T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the default initial capacity of the heap. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** the heap, where the children of the node at index i are stored at 4i+1 .. 4i+4. */
+    private SimEventInterface<T>[] heap;
+
+    /** the number of events in the heap. */
+    private int size = 0;
+
+    /**
+     * Constructs a new <code>QuaternaryHeap</code> with a default initial capacity.
+     */
+    public QuaternaryHeap()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new <code>QuaternaryHeap</code>.
+     * @param initialCapacity int; the initial capacity of the heap
+     */
+    @SuppressWarnings("unchecked")
+    public QuaternaryHeap(final int initialCapacity)
+    {
+        super();
+        this.heap = new SimEventInterface[Math.max(1, initialCapacity)];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean add(final SimEventInterface<T> event)
+    {
+        if (event == null)
+        {
+            throw new NullPointerException("event cannot be null");
+        }
+        if (this.size == this.heap.length)
+        {
+            this.heap = Arrays.copyOf(this.heap, this.heap.length * 2);
+        }
+        if (event instanceof AbstractSimEvent)
+        {
+            ((AbstractSimEvent<?>) event).addedToList(this, this.size);
+        }
+        siftUp(this.size++, event);
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean addAll(final Collection<? extends SimEventInterface<T>> collection)
+    {
+        if (!heapifyIsCheaper(this.size, collection.size()))
+        {
+            return super.addAll(collection);
+        }
+        Object[] added = collection.toArray();
+        for (Object event : added)
+        {
+            if (event == null)
+            {
+                throw new NullPointerException("event cannot be null");
+            }
+        }
+        if (this.size + added.length > this.heap.length)
+        {
+            this.heap = Arrays.copyOf(this.heap, Math.max(this.size + added.length, this.heap.length * 2));
+        }
+        for (Object object : added)
+        {
+            @SuppressWarnings("unchecked")
+            SimEventInterface<T> event = (SimEventInterface<T>) object;
+            if (event instanceof AbstractSimEvent)
+            {
+                ((AbstractSimEvent<?>) event).addedToList(this, this.size);
+            }
+            this.heap[this.size++] = event;
+        }
+        for (int i = (this.size - 2) / 4; i >= 0; i--)
+        {
+            siftDown(i, this.heap[i]);
+        }
+        return added.length > 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> removeFirst()
+    {
+        if (this.size == 0)
+        {
+            return null;
+        }
+        SimEventInterface<T> first = this.heap[0];
+        removeAt(0);
+        return first;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> first()
+    {
+        return this.size == 0 ? null : this.heap[0];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> last()
+    {
+        if (this.size == 0)
+        {
+            return null;
+        }
+        // the last event is one of the leaves, which start after the parent of the last node
+        SimEventInterface<T> last = this.heap[this.size - 1];
+        for (int i = (this.size - 2) / 4 + 1; i < this.size; i++)
+        {
+            if (compare(this.heap[i], last) > 0)
+            {
+                last = this.heap[i];
+            }
+        }
+        return last;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean remove(final Object event)
+    {
+        int index = indexOf(event);
+        if (index < 0)
+        {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean contains(final Object event)
+    {
+        return indexOf(event) >= 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int size()
+    {
+        return this.size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void clear()
+    {
+        for (int i = 0; i < this.size; i++)
+        {
+            removed(this.heap[i]);
+        }
+        Arrays.fill(this.heap, 0, this.size, null);
+        this.size = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final SimEventInterface<T>[] eventArray()
+    {
+        return Arrays.copyOf(this.heap, this.size);
+    }
+
+    /**
+     * Look up the index of an event in the heap: the index that the event keeps when it extends AbstractSimEvent, or the
+     * result of a linear search otherwise.
+     * @param event Object; the event to look for
+     * @return int; the index of the event in the heap, or -1 when the event is not part of the heap
+     */
+    private int indexOf(final Object event)
+    {
+        if (event instanceof AbstractSimEvent)
+        {
+            int index = ((AbstractSimEvent<?>) event).getListIndex(this);
+            if (index != AbstractSimEvent.UNKNOWN_LIST_INDEX)
+            {
+                return index;
+            }
+        }
+        if (event != null)
+        {
+            for (int i = 0; i < this.size; i++)
+            {
+                if (event.equals(this.heap[i]))
+                {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Remove the event at the given index, and restore the heap property by moving the last event of the heap into the hole.
+     * @param index int; the index of the event to remove
+     */
+    private void removeAt(final int index)
+    {
+        removed(this.heap[index]);
+        int lastIndex = --this.size;
+        SimEventInterface<T> moved = this.heap[lastIndex];
+        this.heap[lastIndex] = null;
+        if (index != lastIndex)
+        {
+            siftDown(index, moved);
+            if (this.heap[index] == moved)
+            {
+                siftUp(index, moved);
+            }
+        }
+    }
+
+    /**
+     * Store an event at an index of the heap, and register the index in the event when it extends AbstractSimEvent.
+     * @param index int; the index
+     * @param event SimEventInterface&lt;T&gt;; the event
+     */
+    private void place(final int index, final SimEventInterface<T> event)
+    {
+        this.heap[index] = event;
+        if (event instanceof AbstractSimEvent)
+        {
+            ((AbstractSimEvent<?>) event).movedInList(index);
+        }
+    }
+
+    /**
+     * Register in an event that extends AbstractSimEvent that it is removed from the heap.
+     * @param event SimEventInterface&lt;T&gt;; the removed event
+     */
+    private void removed(final SimEventInterface<T> event)
+    {
+        if (event instanceof AbstractSimEvent)
+        {
+            ((AbstractSimEvent<?>) event).removedFromList(this);
+        }
+    }
+
+    /**
+     * Move an event up from a hole at the given index until its parent is earlier.
+     * @param startIndex int; the index of the hole
+     * @param event SimEventInterface&lt;T&gt;; the event to place
+     */
+    private void siftUp(final int startIndex, final SimEventInterface<T> event)
+    {
+        int index = startIndex;
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 2;
+            SimEventInterface<T> parentEvent = this.heap[parent];
+            if (compare(event, parentEvent) >= 0)
+            {
+                break;
+            }
+            place(index, parentEvent);
+            index = parent;
+        }
+        place(index, event);
+    }
+
+    /**
+     * Move an event down from a hole at the given index until all its children are later.
+     * @param startIndex int; the index of the hole
+     * @param event SimEventInterface&lt;T&gt;; the event to place
+     */
+    private void siftDown(final int startIndex, final SimEventInterface<T> event)
+    {
+        int index = startIndex;
+        while (true)
+        {
+            int firstChild = 4 * index + 1;
+            if (firstChild >= this.size)
+            {
+                break;
+            }
+            int minChild = firstChild;
+            int lastChild = Math.min(firstChild + 4, this.size);
+            for (int child = firstChild + 1; child < lastChild; child++)
+            {
+                if (compare(this.heap[child], this.heap[minChild]) < 0)
+                {
+                    minChild = child;
+                }
+            }
+            if (compare(this.heap[minChild], event) >= 0)
+            {
+                break;
+            }
+            place(index, this.heap[minChild]);
+            index = minChild;
+        }
+        place(index, event);
+    }
+
+    /**
+     * reads the heap from stream, and registers the indices of the events in the heap.
+     * @param in java.io.ObjectInputStream; the inputstream
+     * @throws IOException on IOException
+     * @throws ClassNotFoundException when a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        for (int i = 0; i < this.size; i++)
+        {
+            if (this.heap[i] instanceof AbstractSimEvent)
+            {
+                ((AbstractSimEvent<?>) this.heap[i]).addedToList(this, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.Binding;
+import javax.naming.Context;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+
+import org.djutils.reflection.ClassUtil;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.logger.SimLogger;
+import nl.tudelft.simulation.dsol.model.DSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simulators.Simulator;
+import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
+import nl.tudelft.simulation.event.Event;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.event.EventProducerInterface;
+import nl.tudelft.simulation.jstats.statistics.Counter;
+import nl.tudelft.simulation.jstats.statistics.Tally;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+import nl.tudelft.simulation.naming.context.ContextUtil;
+
+/**
+ * The ParallelReplicationRunner executes the replications of an Experiment concurrently on a pool of threads, where the
+ * Experiment itself runs the replications one after the other on a single simulator. Every replication gets its own simulator,
+ * which is a new instance of the class of the simulator of the experiment, and its own model, which is constructed by a
+ * ModelFactory. The replication is a copy of the replication of the experiment with the same id and a copy of its seeded
+ * streams, so a replication draws the same random numbers as when it is executed by the Experiment.
+ * <p>
+ * After a replication has ended, the SimTally, SimPersistent and SimCounter objects that were bound in the statistics context
+ * of the replication are read: the (time-weighted) sample mean of a tally or persistent, and the count of a counter. The
+ * result of the experiment contains one Tally per statistic, in which every replication contributes one observation, as in
+ * the average tallies that the statistics maintain in the context of a sequentially executed experiment. The
+ * observations are added in the order of the replications, after all replications have ended, so the results do not depend
+ * on the order in which the replications complete. Statistics without any observation in a replication, e.g. because the
+ * replication ended before the warmup period, do not contribute an observation for that replication.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, the absolute and
+ *            relative types are the same.
+ * @param <T> the extended type itself to be able to implement a comparator on the simulation time.
+ * @param <S> the simulator to use
+ * @since 3.03.06
+ */
+public class ParallelReplicationRunner<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>,
+        S extends SimulatorInterface<A, R, T>>
+{
+    /** the interval in milliseconds at which a waiting task checks whether its simulator stopped before the end of the run. */
+    private static final long POLL_INTERVAL = 100L;
+
+    /** the experiment with the treatment, the simulator class and the replications. */
+    private final Experiment<A, R, T, S> experiment;
+
+    /** the factory for the model of every replication. */
+    private final ModelFactory<A, R, T, S> modelFactory;
+
+    /** the number of threads that execute replications. */
+    private final int numberOfThreads;
+
+    /** the aggregated results per statistic, sorted on the description of the statistic. */
+    private SortedMap<String, Tally> results = null;
+
+    /**
+     * Construct a runner for the replications of an experiment.
+     * @param experiment Experiment&lt;A,R,T,S&gt;; the experiment with the treatment, the simulator and the replications to run
+     * @param modelFactory ModelFactory&lt;A,R,T,S&gt;; the factory that constructs the model for every replication
+     * @param numberOfThreads int; the number of replications that are executed concurrently
+     */
+    public ParallelReplicationRunner(final Experiment<A, R, T, S> experiment, final ModelFactory<A, R, T, S> modelFactory,
+            final int numberOfThreads)
+    {
+        if (experiment == null || modelFactory == null)
+        {
+            throw new IllegalArgumentException("experiment and modelFactory cannot be null");
+        }
+        if (numberOfThreads < 1)
+        {
+            throw new IllegalArgumentException("numberOfThreads should be at least 1");
+        }
+        this.experiment = experiment;
+        this.modelFactory = modelFactory;
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Construct a runner for the replications of an experiment, with one thread per available processor.
+     * @param experiment Experiment&lt;A,R,T,S&gt;; the experiment with the treatment, the simulator and the replications to run
+     * @param modelFactory ModelFactory&lt;A,R,T,S&gt;; the factory that constructs the model for every replication
+     */
+    public ParallelReplicationRunner(final Experiment<A, R, T, S> experiment, final ModelFactory<A, R, T, S> modelFactory)
+    {
+        this(experiment, modelFactory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Execute all replications of the experiment, and wait until they have ended.
+     * @return SortedMap&lt;String, Tally&gt;; the aggregated results, with one Tally per statistic that contains one
+     *         observation per replication, sorted on the description of the statistic
+     * @throws SimRuntimeException when a replication cannot be created, or fails during its execution
+     */
+    public final synchronized SortedMap<String, Tally> run() throws SimRuntimeException
+    {
+        List<? extends Replication<A, R, T, S>> replications = this.experiment.getReplications();
+        if (replications == null || replications.isEmpty())
+        {
+            throw new SimRuntimeException("experiment has no replications to run");
+        }
+        if (this.experiment.getSimulator() == null || this.experiment.getTreatment() == null)
+        {
+            throw new SimRuntimeException("experiment has no simulator or treatment");
+        }
+
+        // the copies are made on the calling thread, because the contexts of the replications are created here
+        List<Callable<Map<String, Double>>> tasks = new ArrayList<>();
+        Set<Integer> contextNames = new HashSet<>();
+        for (Replication<A, R, T, S> replication : replications)
+        {
+            tasks.add(new ReplicationTask(copyReplication(replication, contextNames)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.numberOfThreads, tasks.size()));
+        List<Map<String, Double>> replicationResults = new ArrayList<>();
+        try
+        {
+            List<Future<Map<String, Double>>> futures = new ArrayList<>();
+            for (Callable<Map<String, Double>> task : tasks)
+            {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Map<String, Double>> future : futures)
+            {
+                replicationResults.add(future.get());
+            }
+        }
+        catch (ExecutionException exception)
+        {
+            throw new SimRuntimeException("replication failed", exception.getCause());
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new SimRuntimeException("interrupted while waiting for the replications", exception);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        // aggregate in the order of the replications
+        SortedMap<String, Tally> aggregate = new TreeMap<>();
+        for (Map<String, Double> replicationResult : replicationResults)
+        {
+            for (Map.Entry<String, Double> entry : replicationResult.entrySet())
+            {
+                Tally tally = aggregate.get(entry.getKey());
+                if (tally == null)
+                {
+                    tally = new Tally(entry.getKey());
+                    tally.initialize();
+                    aggregate.put(entry.getKey(), tally);
+                }
+                tally.notify(new Event(null, this, entry.getValue()));
+            }
+        }
+        this.results = Collections.unmodifiableSortedMap(aggregate);
+        return this.results;
+    }
+
+    /**
+     * Return the aggregated results of the last run.
+     * @return SortedMap&lt;String, Tally&gt;; the aggregated results, or null when the runner has not run yet
+     */
+    public final SortedMap<String, Tally> getResults()
+    {
+        return this.results;
+    }
+
+    /**
+     * Return the experiment of which the replications are executed.
+     * @return Experiment&lt;A,R,T,S&gt;; the experiment
+     */
+    public final Experiment<A, R, T, S> getExperiment()
+    {
+        return this.experiment;
+    }
+
+    /**
+     * Make a copy of a replication with its own experiment, treatment, simulator, model and streams. The experiment, treatment
+     * and replication are instances of the same classes as the originals, so the casts in the easy access classes, such as
+     * DEVSSimulator.TimeDouble.getReplication(), remain valid.
+     * @param replication Replication&lt;A,R,T,S&gt;; the replication to copy
+     * @param contextNames Set&lt;Integer&gt;; the hash codes of the experiment copies made so far, which name their contexts
+     * @return Replication&lt;A,R,T,S&gt;; the copy
+     * @throws SimRuntimeException when the experiment, the treatment, the replication, the simulator or the streams cannot be
+     *             copied
+     */
+    private Replication<A, R, T, S> copyReplication(final Replication<A, R, T, S> replication, final Set<Integer> contextNames)
+            throws SimRuntimeException
+    {
+        Treatment<A, R, T> treatment = this.experiment.getTreatment();
+        try
+        {
+            // the context of an experiment is named after its hash code, which has to be unique for the copies
+            Experiment<A, R, T, S> copy = newInstance(this.experiment.getClass());
+            while (!contextNames.add(copy.hashCode()))
+            {
+                copy = newInstance(this.experiment.getClass());
+            }
+            copy.setDescription(this.experiment.getDescription());
+            copy.setAnalyst(this.experiment.getAnalyst());
+
+            // the easy access treatments take the absolute start time, the generic treatment takes the simulation time
+            Treatment<A, R, T> treatmentCopy;
+            try
+            {
+                treatmentCopy = newInstance(treatment.getClass(), copy, treatment.getId(), treatment.getStartTime(),
+                        treatment.getWarmupPeriod(), treatment.getRunLength(), treatment.getReplicationMode());
+            }
+            catch (NoSuchMethodException exception)
+            {
+                treatmentCopy = newInstance(treatment.getClass(), copy, treatment.getId(), treatment.getStartSimTime(),
+                        treatment.getWarmupPeriod(), treatment.getRunLength(), treatment.getReplicationMode());
+            }
+            treatmentCopy.setEventListClass(treatment.getEventListClass());
+            copy.setTreatment(treatmentCopy);
+
+            S simulator = newInstance(this.experiment.getSimulator().getClass());
+            copy.setSimulator(simulator);
+            copy.setModel(this.modelFactory.createModel(simulator));
+
+            Replication<A, R, T, S> replicationCopy = newInstance(replication.getClass(), replication.getId(), copy);
+            replicationCopy.setDescription(replication.getDescription());
+            replicationCopy.setEventListClass(replication.getEventListClass());
+            replicationCopy.setStreams(copyStreams(replication.getStreams()));
+            return replicationCopy;
+        }
+        catch (ReflectiveOperationException exception)
+        {
+            throw new SimRuntimeException("cannot copy replication " + replication.getId(), exception);
+        }
+    }
+
+    /**
+     * Instantiate a class with the public constructor that matches the arguments.
+     * @param clazz Class&lt;?&gt;; the class to instantiate
+     * @param args Object...; the arguments of the constructor
+     * @return C; the new instance
+     * @throws ReflectiveOperationException when no constructor matches, or when the constructor fails
+     * @param <C> the type of the instance
+     */
+    @SuppressWarnings("unchecked")
+    private static <C> C newInstance(final Class<?> clazz, final Object... args) throws ReflectiveOperationException
+    {
+        Constructor<?> constructor = ClassUtil.resolveConstructor(clazz, args);
+        return (C) constructor.newInstance(args);
+    }
+
+    /**
+     * Make a deep copy of the streams of a replication, so every replication draws from its own streams in their seeded state.
+     * @param streams Map&lt;String, StreamInterface&gt;; the streams to copy
+     * @return Map&lt;String, StreamInterface&gt;; the copied streams
+     * @throws SimRuntimeException when the streams cannot be serialized
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, StreamInterface> copyStreams(final Map<String, StreamInterface> streams)
+            throws SimRuntimeException
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+            {
+                out.writeObject(new LinkedHashMap<String, StreamInterface>(streams));
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+            {
+                return (Map<String, StreamInterface>) in.readObject();
+            }
+        }
+        catch (IOException | ClassNotFoundException exception)
+        {
+            throw new SimRuntimeException("cannot copy the streams of the replication", exception);
+        }
+    }
+
+    /**
+     * The task that executes one replication on its own simulator, and reads its statistics after the replication has ended.
+     */
+    private final class ReplicationTask implements Callable<Map<String, Double>>, EventListenerInterface
+    {
+        /** the replication to execute. */
+        private final Replication<A, R, T, S> replication;
+
+        /** the latch that is released when the replication has ended. */
+        private final CountDownLatch ended = new CountDownLatch(1);
+
+        /**
+         * @param replication Replication&lt;A,R,T,S&gt;; the replication to execute
+         */
+        ReplicationTask(final Replication<A, R, T, S> replication)
+        {
+            this.replication = replication;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Map<String, Double> call() throws Exception
+        {
+            S simulator = this.replication.getExperiment().getSimulator();
+            try
+            {
+                // the statistics subscribe at the first position, so this listener is notified after the statistics
+                simulator.addListener(this, SimulatorInterface.END_REPLICATION_EVENT, EventProducerInterface.LAST_POSITION);
+                simulator.initialize(this.replication, this.replication.getTreatment().getReplicationMode());
+                simulator.start();
+                T endTime = this.replication.getTreatment().getEndSimTime();
+                while (!this.ended.await(POLL_INTERVAL, TimeUnit.MILLISECONDS))
+                {
+                    // a simulator that stopped at the end time has ended, even when a listener prevented the notification
+                    if (!simulator.isRunning())
+                    {
+                        if (simulator.getSimTime().lt(endTime))
+                        {
+                            throw new SimRuntimeException("replication " + this.replication.getId()
+                                    + " stopped at " + simulator.getSimulatorTime() + " before the end of the run");
+                        }
+                        break;
+                    }
+                }
+                return readStatistics();
+            }
+            finally
+            {
+                if (simulator instanceof Simulator)
+                {
+                    ((Simulator<?, ?, ?>) simulator).cleanUp();
+                }
+                try
+                {
+                    this.replication.getExperiment().removeFromContext();
+                }
+                catch (NamingException exception)
+                {
+                    SimLogger.always().warn(exception, "cannot remove replication {} from the context",
+                            this.replication.getId());
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void notify(final EventInterface event)
+        {
+            this.ended.countDown();
+        }
+
+        /**
+         * Read the statistics that have been bound in the statistics context of the replication.
+         * @return Map&lt;String, Double&gt;; the result of every statistic with at least one observation
+         * @throws NamingException when the statistics context cannot be read
+         */
+        private Map<String, Double> readStatistics() throws NamingException
+        {
+            Map<String, Double> statistics = new LinkedHashMap<>();
+            Context context = ContextUtil.lookup(this.replication.getContext(), "/statistics");
+            NamingEnumeration<Binding> bindings = context.listBindings("");
+            while (bindings.hasMore())
+            {
+                Binding binding = bindings.next();
+                Object statistic = binding.getObject();
+                if (statistic instanceof Tally)
+                {
+                    Tally tally = (Tally) statistic;
+                    if (tally.getN() > 0 && !Double.isNaN(tally.getSampleMean()))
+                    {
+                        statistics.put(binding.getName(), tally.getSampleMean());
+                    }
+                }
+                else if (statistic instanceof Counter)
+                {
+                    Counter counter = (Counter) statistic;
+                    if (counter.isInitialized())
+                    {
+                        statistics.put(binding.getName(), (double) counter.getCount());
+                    }
+                }
+            }
+            return statistics;
+        }
+    }
+
+    /**
+     * The ModelFactory constructs a new model for every replication that the ParallelReplicationRunner executes. Models cannot
+     * be shared between replications, because a model is bound to its simulator, and holds the state of the replication.
+     * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+     * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, the absolute and
+     *            relative types are the same.
+     * @param <T> the extended type itself to be able to implement a comparator on the simulation time.
+     * @param <S> the simulator to use
+     */
+    public interface ModelFactory<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>,
+            S extends SimulatorInterface<A, R, T>>
+    {
+        /**
+         * Construct a new model for a replication.
+         * @param simulator S; the simulator of the replication
+         * @return DSOLModel&lt;A,R,T,S&gt;; a new model, of which constructModel will be called when the replication starts
+         */
+        DSOLModel<A, R, T, S> createModel(S simulator);
+    }
+}
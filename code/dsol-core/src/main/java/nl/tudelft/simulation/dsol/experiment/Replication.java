@@ -13,6 +13,7 @@ import org.djunits.value.vdouble.scalar.Time;
 import org.djunits.value.vfloat.scalar.FloatDuration;
 import org.djunits.value.vfloat.scalar.FloatTime;
 
+import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
 import nl.tudelft.simulation.dsol.model.DSOLModel;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
@@ -65,6 +66,10 @@ public class Replication<A extends Comparable<A>, R extends Number & Comparable<
     /** the contextRoot of this replication. */
     private Context context = null;
 
+    /** the class of the event list for this replication, or null to use the event list class of the treatment. */
+    @SuppressWarnings("rawtypes")
+    private Class<? extends EventListInterface> eventListClass = null;
+
     /**
      * constructs a new Replication.
      * @param id the id of the replication, which has to be unique within the experiment
@@ -131,6 +136,14 @@ public class Replication<A extends Comparable<A>, R extends Number & Comparable<
         this.context = ContextUtil.lookup(this.experiment.getContext(), String.valueOf(this.id.hashCode()));
     }
 
+    /**
+     * @return String the id of this replication, which is unique within the experiment
+     */
+    public final String getId()
+    {
+        return this.id;
+    }
+
     /**
      * @return String the description of this replication
      */
@@ -203,6 +216,34 @@ public class Replication<A extends Comparable<A>, R extends Number & Comparable<
         return this.experiment.getTreatment();
     }
 
+    /**
+     * Return the class of the event list that a DEVS simulator instantiates when it initializes this replication. When no
+     * event list class has been set for the replication, the event list class of the treatment is returned.
+     * @return Class&lt;? extends EventListInterface&gt;; the event list class, or null when the simulator keeps its own event
+     *         list
+     */
+    @SuppressWarnings("rawtypes")
+    public final Class<? extends EventListInterface> getEventListClass()
+    {
+        if (this.eventListClass != null || getTreatment() == null)
+        {
+            return this.eventListClass;
+        }
+        return getTreatment().getEventListClass();
+    }
+
+    /**
+     * Set the class of the event list that a DEVS simulator instantiates when it initializes this replication, overriding
+     * the event list class of the treatment. The class needs a public no-argument constructor.
+     * @param eventListClass Class&lt;? extends EventListInterface&gt;; the event list class, or null to use the event list
+     *            class of the treatment
+     */
+    @SuppressWarnings("rawtypes")
+    public final void setEventListClass(final Class<? extends EventListInterface> eventListClass)
+    {
+        this.eventListClass = eventListClass;
+    }
+
     /**
      * @return Returns the context.
      */
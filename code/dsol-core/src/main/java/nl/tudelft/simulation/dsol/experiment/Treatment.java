@@ -8,6 +8,7 @@ import org.djunits.value.vdouble.scalar.Time;
 import org.djunits.value.vfloat.scalar.FloatDuration;
 import org.djunits.value.vfloat.scalar.FloatTime;
 
+import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
 import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterMap;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
@@ -66,6 +67,10 @@ public class Treatment<A extends Comparable<A>, R extends Number & Comparable<R>
     /** the id. */
     private final String id;
 
+    /** the class of the event list for the replications of this treatment, or null to use the event list of the simulator. */
+    @SuppressWarnings("rawtypes")
+    private Class<? extends EventListInterface> eventListClass = null;
+
     /**
      * constructs a Treatment.
      * @param experiment Experiment&lt;A,R,T&gt;; reflects the experiment
@@ -202,6 +207,31 @@ public class Treatment<A extends Comparable<A>, R extends Number & Comparable<R>
         return this.id;
     }
 
+    /**
+     * Return the class of the event list that a DEVS simulator instantiates when it initializes a replication of this
+     * treatment.
+     * @return Class&lt;? extends EventListInterface&gt;; the event list class, or null when the simulator keeps its own event
+     *         list
+     */
+    @SuppressWarnings("rawtypes")
+    public final Class<? extends EventListInterface> getEventListClass()
+    {
+        return this.eventListClass;
+    }
+
+    /**
+     * Set the class of the event list that a DEVS simulator instantiates when it initializes a replication of this treatment,
+     * e.g., RedBlackTree.class, QuaternaryHeap.class, CalendarQueue.class or LadderQueue.class. The class needs a public
+     * no-argument constructor.
+     * @param eventListClass Class&lt;? extends EventListInterface&gt;; the event list class, or null to let the simulator keep
+     *            its own event list
+     */
+    @SuppressWarnings("rawtypes")
+    public final void setEventListClass(final Class<? extends EventListInterface> eventListClass)
+    {
+        this.eventListClass = eventListClass;
+    }
+
     /** {@inheritDoc} */
     @Override
     @SuppressWarnings("checkstyle:designforextension")
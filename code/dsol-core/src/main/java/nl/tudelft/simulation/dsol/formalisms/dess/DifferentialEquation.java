@@ -1,17 +1,31 @@
 package nl.tudelft.simulation.dsol.formalisms.dess;
 
 import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.Executable;
+import nl.tudelft.simulation.dsol.logger.SimLogger;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simulators.DESSSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.DEVDESSSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
 import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
 import nl.tudelft.simulation.event.EventInterface;
 import nl.tudelft.simulation.event.EventListenerInterface;
 import nl.tudelft.simulation.event.EventType;
+import nl.tudelft.simulation.jstats.ode.ZeroCrossingInterface;
 import nl.tudelft.simulation.jstats.ode.integrators.NumericalIntegrator;
 
 /**
- * The Differential equation provides a reference implementation of the differential equation.
+ * The Differential equation provides a reference implementation of the differential equation. A state event registers a
+ * zero crossing function with an action: the equation then asks the simulator to end the time step in which the function
+ * crosses zero at the crossing, and executes the action at that time. On a DEVDESSSimulator, the equation is an integrable
+ * that the simulator can integrate in parallel with the other equations before the time change; it then only fires its
+ * events when it is notified of the time change.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -28,7 +42,8 @@ import nl.tudelft.simulation.jstats.ode.integrators.NumericalIntegrator;
  */
 public abstract class DifferentialEquation<A extends Number & Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
         extends nl.tudelft.simulation.jstats.ode.DifferentialEquation
-        implements DifferentialEquationInterface, EventListenerInterface
+        implements DifferentialEquationInterface, EventListenerInterface, StateEventSourceInterface<A, R, T>,
+        IntegrableInterface
 {
     /** */
     private static final long serialVersionUID = 20140804L;
@@ -54,6 +69,27 @@ public abstract class DifferentialEquation<A extends Number & Comparable<A>, R e
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected double[] previousY = null;
 
+    /** the actions of the state events, per zero crossing function. */
+    private final Map<ZeroCrossingInterface, Executable> stateEvents = new LinkedHashMap<>();
+
+    /** the x-value of the start of the tentative integration to locate a state event; NaN when there is none. */
+    private double lookaheadStartX = Double.NaN;
+
+    /** the x-value that the tentative integration reached. */
+    private double lookaheadX = Double.NaN;
+
+    /** the value that the tentative integration reached. */
+    private transient double[] lookaheadY = null;
+
+    /** the zero crossing function at which the tentative integration stopped, or null. */
+    private ZeroCrossingInterface lookaheadCrossing = null;
+
+    /** the time to which the equation has been integrated before the notification of the time change; NaN when none. */
+    private double integratedX = Double.NaN;
+
+    /** the zero crossing functions of the state events that still have to be handled at the notification. */
+    private final List<ZeroCrossingInterface> pendingStateEvents = new ArrayList<>();
+
     /**
      * constructs a new stateful DifferentialEquation with Euleras numerical integration method.
      * @param simulator DESSSimulatorInterface&lt;A,R,T&gt;; the simulator
@@ -89,6 +125,10 @@ public abstract class DifferentialEquation<A extends Number & Comparable<A>, R e
         super(timeStep.doubleValue(), numericalMethod);
         this.simulator = simulator;
         simulator.addListener(this, SimulatorInterface.TIME_CHANGED_EVENT, false);
+        if (simulator instanceof DEVDESSSimulatorInterface)
+        {
+            ((DEVDESSSimulatorInterface<A, R, T>) simulator).addIntegrable(this);
+        }
     }
 
     /**
@@ -104,6 +144,10 @@ public abstract class DifferentialEquation<A extends Number & Comparable<A>, R e
         super(timeStep, numericalIntegrator);
         this.simulator = simulator;
         simulator.addListener(this, SimulatorInterface.TIME_CHANGED_EVENT, false);
+        if (simulator instanceof DEVDESSSimulatorInterface)
+        {
+            ((DEVDESSSimulatorInterface<A, R, T>) simulator).addIntegrable(this);
+        }
     }
 
     /** {@inheritDoc} */
@@ -113,20 +157,231 @@ public abstract class DifferentialEquation<A extends Number & Comparable<A>, R e
         if (event.getSource() instanceof DESSSimulatorInterface
                 && event.getType().equals(SimulatorInterface.TIME_CHANGED_EVENT))
         {
-            if (this.simulator.getSimulatorTime().doubleValue() < super.x0 || Double.isNaN(super.x0))
+            double time = this.simulator.getSimulatorTime().doubleValue();
+            if (time < super.x0 || Double.isNaN(super.x0))
             {
                 return;
             }
-            // do not put super here!
-            this.previousY =
-                    integrateY(this.simulator.getSimulatorTime().doubleValue(), this.previousX, this.previousY);
-            for (int i = 0; i < super.y0.length; i++)
+            if (this.integratedX != time)
+            {
+                integrateTo(time);
+            }
+            this.integratedX = Double.NaN;
+            for (ZeroCrossingInterface function : this.pendingStateEvents)
             {
-                this.fireTimedEvent(DifferentialEquationInterface.VALUE_CHANGED_EVENT[i], this.previousY[i],
+                stateEvent(function);
+            }
+            this.pendingStateEvents.clear();
+            if (this.hasListeners(DifferentialEquationInterface.STATE_CHANGED_EVENT))
+            {
+                this.fireTimedEvent(DifferentialEquationInterface.STATE_CHANGED_EVENT, this.previousY,
                         this.simulator.getSimulatorTime());
             }
-            this.previousX = this.simulator.getSimulatorTime().doubleValue();
+            int n = Math.min(this.previousY.length, DifferentialEquationInterface.VALUE_CHANGED_EVENT.length);
+            for (int i = 0; i < n; i++)
+            {
+                if (this.hasListeners(DifferentialEquationInterface.VALUE_CHANGED_EVENT[i]))
+                {
+                    this.fireTimedEvent(DifferentialEquationInterface.VALUE_CHANGED_EVENT[i], this.previousY[i],
+                            this.simulator.getSimulatorTime());
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void integrate()
+    {
+        double time = this.simulator.getSimulatorTime().doubleValue();
+        if (time < super.x0 || Double.isNaN(super.x0))
+        {
+            return;
+        }
+        integrateTo(time);
+        this.integratedX = time;
+    }
+
+    /**
+     * integrates the state to a time. On a DEVS simulator, the state events are handled after the integration, as the actions
+     * are scheduled at the current time anyway; on a DESS simulator, the action is executed at the crossing.
+     * @param time double; the time
+     */
+    private void integrateTo(final double time)
+    {
+        boolean advance = true;
+        if (this.lookaheadStartX == this.previousX && this.lookaheadX <= time)
+        {
+            // the simulator stops at the state event that was located, or at the end of the tentative integration
+            System.arraycopy(this.lookaheadY, 0, this.previousY, 0, this.previousY.length);
+            this.previousX = this.lookaheadX;
+            if (this.lookaheadCrossing != null)
+            {
+                crossed(this.lookaheadCrossing);
+            }
+            advance = this.previousX < time;
+        }
+        this.lookaheadStartX = Double.NaN;
+        while (advance)
+        {
+            // do not put super here!
+            this.previousX = advanceY(time, this.previousX, this.previousY);
+            if (getZeroCrossing() != null)
+            {
+                crossed(getZeroCrossing());
+            }
+            advance = this.previousX < time;
+        }
+        this.previousX = time;
+    }
+
+    /**
+     * handles or defers the state event of a zero crossing.
+     * @param function ZeroCrossingInterface; the zero crossing function
+     */
+    private void crossed(final ZeroCrossingInterface function)
+    {
+        if (this.simulator instanceof DEVSSimulatorInterface)
+        {
+            this.pendingStateEvents.add(function);
+        }
+        else
+        {
+            stateEvent(function);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized T locateStateEvent(final T from, final T to)
+    {
+        double x = to.get().doubleValue();
+        if (Double.isNaN(super.x0) || !(x > this.previousX))
+        {
+            return null;
+        }
+        if (this.lookaheadY == null || this.lookaheadY.length != this.previousY.length)
+        {
+            this.lookaheadY = new double[this.previousY.length];
+        }
+        System.arraycopy(this.previousY, 0, this.lookaheadY, 0, this.previousY.length);
+        this.lookaheadStartX = this.previousX;
+        this.lookaheadX = advanceY(x, this.previousX, this.lookaheadY);
+        this.lookaheadCrossing = getZeroCrossing();
+        if (this.lookaheadCrossing == null || this.lookaheadX >= x)
+        {
+            return null;
+        }
+        T time = toSimTime(this.lookaheadX);
+        if (time == null)
+        {
+            // the state event is handled at the end of the time step
+            this.lookaheadStartX = Double.NaN;
+        }
+        return time;
+    }
+
+    /**
+     * converts an x-value to the first simulation time at or after it.
+     * @param x double; the x-value
+     * @return T; the simulation time, or null when the type of the simulation time is not supported
+     */
+    @SuppressWarnings("unchecked")
+    private T toSimTime(final double x)
+    {
+        T time = this.simulator.getSimTime().copy();
+        A value = time.get();
+        if (value instanceof Double)
+        {
+            time.set((A) Double.valueOf(x));
+        }
+        else if (value instanceof Float)
+        {
+            float f = (float) x;
+            time.set((A) Float.valueOf(f < x ? Math.nextUp(f) : f));
+        }
+        else if (value instanceof Long)
+        {
+            time.set((A) Long.valueOf((long) Math.ceil(x)));
+        }
+        else
+        {
+            return null;
+        }
+        return time;
+    }
+
+    /**
+     * handles a state event: fires the ZERO_CROSSING_EVENT and executes the action of the zero crossing function, as an event
+     * at the current time when the simulator is a DEVS simulator.
+     * @param function ZeroCrossingInterface; the zero crossing function
+     */
+    private void stateEvent(final ZeroCrossingInterface function)
+    {
+        if (this.hasListeners(DifferentialEquationInterface.ZERO_CROSSING_EVENT))
+        {
+            this.fireTimedEvent(DifferentialEquationInterface.ZERO_CROSSING_EVENT, function,
+                    this.simulator.getSimulatorTime());
+        }
+        Executable action = this.stateEvents.get(function);
+        if (action == null)
+        {
+            return;
+        }
+        if (this.simulator instanceof DEVSSimulatorInterface)
+        {
+            try
+            {
+                ((DEVSSimulatorInterface<A, R, T>) this.simulator).scheduleEventNow(action);
+            }
+            catch (SimRuntimeException exception)
+            {
+                SimLogger.always().error(exception, "stateEvent");
+            }
+        }
+        else
+        {
+            action.execute();
+        }
+    }
+
+    /**
+     * adds a state event: the action is executed at the time at which the zero crossing function crosses zero. The simulator
+     * ends the time step in which the crossing takes place at the crossing.
+     * @param function ZeroCrossingInterface; the zero crossing function of the state
+     * @param direction int; the direction of the crossings: ZeroCrossingInterface.RISING, FALLING or BOTH
+     * @param action Executable; the action to execute at the crossing, or null to only fire the ZERO_CROSSING_EVENT
+     */
+    public synchronized void addStateEvent(final ZeroCrossingInterface function, final int direction,
+            final Executable action)
+    {
+        addZeroCrossing(function, direction);
+        if (this.stateEvents.isEmpty())
+        {
+            this.simulator.addStateEventSource(this);
+        }
+        this.stateEvents.put(function, action);
+    }
+
+    /**
+     * removes a state event.
+     * @param function ZeroCrossingInterface; the zero crossing function of the state event
+     * @return boolean; whether the state event was registered
+     */
+    public synchronized boolean removeStateEvent(final ZeroCrossingInterface function)
+    {
+        if (!this.stateEvents.containsKey(function))
+        {
+            return false;
+        }
+        removeZeroCrossing(function);
+        this.stateEvents.remove(function);
+        if (this.stateEvents.isEmpty())
+        {
+            this.simulator.removeStateEventSource(this);
         }
+        this.lookaheadStartX = Double.NaN;
+        return true;
     }
 
     /** {@inheritDoc} */
@@ -135,6 +390,9 @@ public abstract class DifferentialEquation<A extends Number & Comparable<A>, R e
     {
         super.initialize(x, y);
         this.previousX = x;
-        this.previousY = y;
+        this.previousY = y.clone();
+        this.lookaheadStartX = Double.NaN;
+        this.integratedX = Double.NaN;
+        this.pendingStateEvents.clear();
     }
 }
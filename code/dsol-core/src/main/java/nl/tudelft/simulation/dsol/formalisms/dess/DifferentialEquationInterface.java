@@ -21,6 +21,19 @@ public interface DifferentialEquationInterface extends nl.tudelft.simulation.jst
     // TODO: for the differential equations, 30 state variables are reserved. This should be expandable.
     EventType[] VALUE_CHANGED_EVENT = new EventType[30];
 
+    /**
+     * STATE_CHANGED_EVENT is fired once per time step, with the array of all state variables as its content. The array is
+     * the state of the equation itself, which is updated in the next time step, so a listener that wants to keep the values
+     * should copy them.
+     */
+    EventType STATE_CHANGED_EVENT = new EventType("STATE_CHANGED_EVENT");
+
+    /**
+     * ZERO_CROSSING_EVENT is fired when the integration stops at a zero crossing of a state event function, with the function
+     * as its content. The state of the equation is then the state at the zero crossing.
+     */
+    EventType ZERO_CROSSING_EVENT = new EventType("ZERO_CROSSING_EVENT");
+
     /** FUNCTION_CHANGED_EVENT is firedd on function changes. */
     EventType FUNCTION_CHANGED_EVENT = new EventType("FUNCTION_CHANGED_EVENT");
 }
@@ -0,0 +1,24 @@
+package nl.tudelft.simulation.dsol.formalisms.dess;
+
+/**
+ * An Integrable is a continuous model whose state can be integrated to the current simulation time independently of the other
+ * continuous models. A DEVDESSSimulator with parallel integration integrates its integrables in parallel before it fires the
+ * TIME_CHANGED_EVENT. The integration should therefore only change the state of the model itself, and not fire or schedule
+ * events; the model does that when it is notified of the time change, in the same order as without parallel integration.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public interface IntegrableInterface
+{
+    /**
+     * integrates the state of the model to the current simulation time, before the model is notified of the time change.
+     */
+    void integrate();
+}
@@ -0,0 +1,33 @@
+package nl.tudelft.simulation.dsol.formalisms.dess;
+
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * A StateEventSource is a continuous model that can locate a state event: the time at which a function of its state crosses
+ * zero. The DESS simulators ask their state event sources before every time step, and end the time step at the earliest
+ * state event, so the continuous state can trigger discrete events at the right time without small time steps.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, the absolute and
+ *            relative types are the same.
+ * @param <T> the extended type itself to be able to implement a comparator on the simulation time.
+ * @since 3.03.06
+ */
+public interface StateEventSourceInterface<A extends Comparable<A>, R extends Number & Comparable<R>,
+        T extends SimTime<A, R, T>>
+{
+    /**
+     * locates the first state event in a time step, without changing the state of the source as seen by the simulation.
+     * @param from T; the start of the time step
+     * @param to T; the end of the time step
+     * @return T; the time of the first state event after from and before or at to, or null when there is none
+     */
+    T locateStateEvent(T from, T to);
+}
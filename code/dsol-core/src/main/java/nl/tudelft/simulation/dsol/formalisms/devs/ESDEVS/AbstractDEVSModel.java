@@ -2,9 +2,12 @@ package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -14,6 +17,7 @@ import org.djunits.value.vfloat.scalar.FloatDuration;
 import org.djunits.value.vfloat.scalar.FloatTime;
 import org.djutils.reflection.ClassUtil;
 
+import nl.tudelft.simulation.dsol.SimRuntimeException;
 import nl.tudelft.simulation.dsol.logger.SimLogger;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
@@ -27,6 +31,8 @@ import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
 import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
 import nl.tudelft.simulation.event.EventProducer;
 import nl.tudelft.simulation.event.EventType;
+import nl.tudelft.simulation.language.DSOLException;
+import nl.tudelft.simulation.language.reflection.StateSaver;
 
 /**
  * AbstractDEVSModel class. The basic model or component from which the AtomicModel, the CoupledModel, and the
@@ -78,6 +84,12 @@ public abstract class AbstractDEVSModel<A extends Comparable<A>, R extends Numbe
     /** set of fields for this class which the state will be reported. */
     private Set<Field> stateFieldSet = null;
 
+    /** map of classes and the state fields that are saved, i.e., the state fields that are not final or transient. */
+    private static Map<Class<?>, List<Field>> saveFieldMap = new HashMap<Class<?>, List<Field>>();
+
+    /** list of state fields of this class that are saved. */
+    private List<Field> saveFieldList = null;
+
     /** the fields of the AtomicModel. */
     private static Set<Field> atomicFields = new HashSet<Field>();
 
@@ -125,6 +137,7 @@ public abstract class AbstractDEVSModel<A extends Comparable<A>, R extends Numbe
             this.createStateFieldSet();
         }
         this.stateFieldSet = AbstractDEVSModel.stateFieldMap.get(this.getClass());
+        this.saveFieldList = AbstractDEVSModel.saveFieldMap.get(this.getClass());
     }
 
     /**
@@ -214,6 +227,140 @@ public abstract class AbstractDEVSModel<A extends Comparable<A>, R extends Numbe
 
         // put the results in the map
         AbstractDEVSModel.stateFieldMap.put(this.getClass(), fieldSet);
+
+        List<Field> saveFields = new ArrayList<>();
+        for (Field field : fieldSet)
+        {
+            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())
+                    && !Modifier.isTransient(field.getModifiers()))
+            {
+                field.setAccessible(true);
+                saveFields.add(field);
+            }
+        }
+        AbstractDEVSModel.saveFieldMap.put(this.getClass(), saveFields);
+    }
+
+    /**
+     * Save the state of the model, to restore it later with restoreState(), e.g., for a rollback. The state consists of the
+     * values of the state fields that are not final or transient. Immutable values, such as numbers, strings, enums and
+     * phases, are saved as they are, and simulation times as a copy; the other values are saved as a deep copy with the
+     * StateSaver, so they have to be serializable. Final fields, such as the ports, are not part of the saved state.
+     * @return Object; the saved state
+     * @throws SimRuntimeException when a value cannot be serialized
+     */
+    public final Object saveState() throws SimRuntimeException
+    {
+        Object[] values = getStateValues().clone();
+        for (int i = 0; i < values.length; i++)
+        {
+            Object value = values[i];
+            if (value instanceof SimTime)
+            {
+                values[i] = ((SimTime<?, ?, ?>) value).copy();
+            }
+            else if (value != null && !isImmutable(value))
+            {
+                try
+                {
+                    values[i] = new SerializedValue(StateSaver.saveState(new StateValues(new Object[] {value})));
+                }
+                catch (DSOLException exception)
+                {
+                    throw new SimRuntimeException("cannot save the state of " + this.fullName, exception);
+                }
+            }
+        }
+        return new StateValues(values);
+    }
+
+    /**
+     * Restore the state of the model to a state that was saved earlier with saveState(). A state can be restored more than
+     * once.
+     * @param state Object; the saved state
+     * @throws SimRuntimeException when a value cannot be deserialized
+     */
+    public final void restoreState(final Object state) throws SimRuntimeException
+    {
+        Object[] values = ((StateValues) state).values.clone();
+        for (int i = 0; i < values.length; i++)
+        {
+            Object value = values[i];
+            if (value instanceof SimTime)
+            {
+                values[i] = ((SimTime<?, ?, ?>) value).copy();
+            }
+            else if (value instanceof SerializedValue)
+            {
+                StateValues holder = new StateValues(null);
+                try
+                {
+                    StateSaver.restoreState(holder, ((SerializedValue) value).bytes);
+                }
+                catch (DSOLException exception)
+                {
+                    throw new SimRuntimeException("cannot restore the state of " + this.fullName, exception);
+                }
+                values[i] = holder.values[0];
+            }
+        }
+        setStateValues(values);
+    }
+
+    /**
+     * @param value Object; a value of the state
+     * @return boolean; whether the value cannot change, so it does not have to be copied when the state is saved
+     */
+    private static boolean isImmutable(final Object value)
+    {
+        return value instanceof Double || value instanceof Float || value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte || value instanceof Boolean || value instanceof Character
+                || value instanceof String || value instanceof Enum || value instanceof Phase;
+    }
+
+    /**
+     * Return the values of the state that is saved by saveState(). Extensions that keep state in other fields add their
+     * values to the values of this method.
+     * @return Object[]; the values of the state fields that are not final or transient
+     * @throws SimRuntimeException when a field cannot be read
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    protected Object[] getStateValues() throws SimRuntimeException
+    {
+        Object[] values = new Object[this.saveFieldList.size()];
+        try
+        {
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = this.saveFieldList.get(i).get(this);
+            }
+        }
+        catch (IllegalAccessException exception)
+        {
+            throw new SimRuntimeException("cannot read the state of " + this.fullName, exception);
+        }
+        return values;
+    }
+
+    /**
+     * Set the values of the state that is restored by restoreState(), in the order of getStateValues().
+     * @param values Object[]; the values of the state fields that are not final or transient
+     * @throws SimRuntimeException when a field cannot be written
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    protected void setStateValues(final Object[] values) throws SimRuntimeException
+    {
+        try
+        {
+            for (int i = 0; i < this.saveFieldList.size(); i++)
+            {
+                this.saveFieldList.get(i).set(this, values[i]);
+            }
+        }
+        catch (IllegalAccessException exception)
+        {
+            throw new SimRuntimeException("cannot write the state of " + this.fullName, exception);
+        }
     }
 
     /**
@@ -222,18 +369,24 @@ public abstract class AbstractDEVSModel<A extends Comparable<A>, R extends Numbe
      * comparison with the old value (state map) is possible. For complex variables (objects) this is more difficult as
      * a deep clone should be saved as old state, followed by a full comparison. This does not seem practical, and more
      * expensive than firing the state change of all state variables. The intelligence to detect real state changes then
-     * has to be built in at the receiver's side.
+     * has to be built in at the receiver's side. When the simulator executes the transition concurrently with the
+     * transitions of other models, the values are taken now, and the listeners are notified when the transition is
+     * committed.
      */
     @SuppressWarnings("checkstyle:designforextension")
     protected void fireUpdatedState()
     {
+        ModelExecutionInterface<A, R, T> execution = this.simulator.getModelExecution();
         for (Field field : this.stateFieldSet)
         {
             try
             {
                 field.setAccessible(true);
                 StateUpdate stateUpdate = new StateUpdate(this.getModelName(), field.getName(), field.get(this));
-                this.fireEvent(AbstractDEVSModel.STATE_UPDATE, stateUpdate);
+                if (execution == null || !execution.defer(() -> this.fireEvent(AbstractDEVSModel.STATE_UPDATE, stateUpdate)))
+                {
+                    this.fireEvent(AbstractDEVSModel.STATE_UPDATE, stateUpdate);
+                }
             }
             catch (IllegalAccessException exception)
             {
@@ -244,6 +397,51 @@ public abstract class AbstractDEVSModel<A extends Comparable<A>, R extends Numbe
         }
     }
 
+    /**
+     * Keep a message that this model sends, when the simulator collects the messages of the models until they are routed.
+     * Only an atomic model keeps its messages.
+     * @param port OutputPort&lt;A,R,T,?&gt;; the output port that sends the message
+     * @param value Object; the message
+     * @return boolean; whether the message is kept
+     */
+    boolean keepOutput(final OutputPort<A, R, T, ?> port, final Object value)
+    {
+        return false;
+    }
+
+    /** The values of the saved state of a model; the holder of a value that the StateSaver serializes as well. */
+    private static final class StateValues implements Serializable
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the values of the state fields. */
+        private Object[] values;
+
+        /**
+         * @param values Object[]; the values of the state fields
+         */
+        StateValues(final Object[] values)
+        {
+            this.values = values;
+        }
+    }
+
+    /** A value of the saved state of a model that the StateSaver serialized. */
+    private static final class SerializedValue
+    {
+        /** the serialized holder of the value. */
+        private final Object bytes;
+
+        /**
+         * @param bytes Object; the serialized holder of the value
+         */
+        SerializedValue(final Object bytes)
+        {
+            this.bytes = bytes;
+        }
+    }
+
     /**
      * StateUpdate class. Reports a state update. Right now, it is a modelname - variable name - value tuple.
      * <p>
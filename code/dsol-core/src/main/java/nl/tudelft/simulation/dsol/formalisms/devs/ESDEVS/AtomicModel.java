@@ -1,6 +1,10 @@
 package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
 
 import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.djutils.logger.Cat;
 
@@ -14,6 +18,24 @@ import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
  * AtomicModel class. Implements the Classic Parallel DEVS Atomic Model with Ports cf Zeigler et al (2000), section
  * 4.2.2. and section 4.3 (pp. 84 ff). The algorithms for parallel DEVS are explained in Chapters 6 and 7.
  * <p>
+ * The inputs of the model are handled one at a time. An input that arrives while another input is handled, from the
+ * transitions of this model itself or from another thread, is queued and handled directly after the active input. With
+ * lazy invalidation, an external event that moves the next internal event to a later time leaves the internal event in the
+ * event list, and the event moves itself to the new time when it is executed; only an earlier time schedules a new event.
+ * This saves the cancellation and the new event for every input of a busy model.
+ * </p>
+ * <p>
+ * On a ParallelDEVSSimulator, the model takes part in the cycles of the simulator instead: lambda is called in the output
+ * phase of a cycle, deltaInternalEventHandler for an internal event, deltaExternalEventHandler once for every message in the
+ * bag of the model, and deltaConfluent for an internal event with messages. The output of the model has already been sent
+ * when the transitions are executed, so deltaInternalEventHandler does not call lambda in a cycle.
+ * </p>
+ * <p>
+ * On a TimeWarpLogicalProcess, the model saves its state before its first transition at every time point, and messages from
+ * models on other logical processes arrive as events in the event list of the logical process. The saved state consists of
+ * the time of the last and the next event, the phase, and the fields of the extension that are not final or transient.
+ * </p>
+ * <p>
  * Copyright (c) 2009-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
  * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
@@ -34,7 +56,7 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
     private static final long serialVersionUID = 1L;
 
     /** future Execution of the Internal Transition. */
-    private SimEvent<T> nextEvent;
+    private InternalEvent<A, R, T> nextEvent;
 
     /** remaining TimeAdvance. */
     @SuppressWarnings("checkstyle:visibilitymodifier")
@@ -77,6 +99,21 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected boolean conflict = false;
 
+    /** whether an external event leaves the next internal event in the event list when it moves to a later time. */
+    private boolean lazyInvalidation = false;
+
+    /** the inputs that arrived while another input was handled, in order of arrival; null when none arrived yet. */
+    private transient ArrayDeque<Input<A, R, T>> pendingInputs = null;
+
+    /** the steps of this model in the cycles of a ParallelDEVSSimulator; null when not used yet. */
+    private transient Transitions transitions = null;
+
+    /** the time of the last state that was saved on a TimeWarpLogicalProcess; null when no state is saved since a rollback. */
+    private transient T timeLastSave = null;
+
+    /** the number of values of the AtomicModel in the saved state, after the values of the extension. */
+    private static final int ATOMIC_STATE_VALUES = 6;
+
     // ///////////////////////////////////////////////////////////////////////////
     // CONSTRUCTORS AND INITIALIZATION
     // ///////////////////////////////////////////////////////////////////////////
@@ -178,10 +215,10 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
         {
             try
             {
-                this.nextEvent = new SimEvent<T>(this.getSimulator().getSimTime().plus(this.timeAdvance()).minus(e),
-                        this, this, "deltaInternalEventHandler", null);
+                this.timeNextEvent = this.getSimulator().getSimTime().plus(this.timeAdvance()).minus(e);
+                this.nextEvent = new InternalEvent<A, R, T>(this.timeNextEvent, this);
                 this.timeLastEvent = this.getSimulator().getSimTime();
-                this.simulator.scheduleEvent(this.nextEvent);
+                this.nextEvent.schedule();
             }
             catch (SimRuntimeException exception)
             {
@@ -191,6 +228,7 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
         else
         {
             this.nextEvent = null;
+            this.timeNextEvent = null;
         }
     }
 
@@ -211,23 +249,21 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
     }
 
     /**
-     * Schedule the next event.
+     * Schedule the next event. With lazy invalidation, a next event in the event list at the same or an earlier time is kept,
+     * and moves itself to the new time when it is executed.
      */
     private void schedule()
     {
-        if (this.timeAdvance().doubleValue() != Double.POSITIVE_INFINITY && !this.conflict)
+        R timeAdvance = this.timeAdvance();
+        if (timeAdvance.doubleValue() != Double.POSITIVE_INFINITY && !this.conflict)
         {
             try
             {
-                if (this.timeAdvance().doubleValue() != Double.POSITIVE_INFINITY)
+                this.timeNextEvent = this.simulator.getSimTime().plus(timeAdvance).minus(this.elapsedTime);
+                this.timeLastEvent = this.simulator.getSimTime();
+                if (!isCollecting())
                 {
-                    this.nextEvent = new SimEvent<T>(
-                            (this.simulator.getSimTime().plus(this.timeAdvance()).minus(this.elapsedTime)), this, this,
-                            "deltaInternalEventHandler", null);
-                    this.timeLastEvent = this.simulator.getSimTime();
-                    SimLogger.filter(Cat.DSOL).trace("schedule {}", this.nextEvent.toString());
-                    this.simulator.scheduleEvent(this.nextEvent);
-                    // this.simulator.setAuthorization(false);
+                    scheduleNextEvent();
                 }
             }
             catch (Exception e1)
@@ -238,9 +274,247 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
         else
         {
             this.nextEvent = null;
+            this.timeNextEvent = null;
         }
     }
 
+    /**
+     * Schedule the internal event at the time of the next event, unless the lazy invalidation keeps the next event.
+     * @throws SimRuntimeException when the event is in the past
+     */
+    private void scheduleNextEvent() throws SimRuntimeException
+    {
+        if (this.lazyInvalidation && this.nextEvent != null && this.nextEvent.scheduled
+                && !this.timeNextEvent.lt(this.nextEvent.getAbsoluteExecutionTime()))
+        {
+            return;
+        }
+        this.nextEvent = new InternalEvent<A, R, T>(this.timeNextEvent, this);
+        SimLogger.filter(Cat.DSOL).trace("schedule {}", this.nextEvent.toString());
+        this.nextEvent.schedule();
+    }
+
+    /**
+     * @return whether the simulator executes a cycle, in which the messages are collected in bags
+     */
+    private boolean isCollecting()
+    {
+        ModelExecutionInterface<A, R, T> execution = this.simulator.getModelExecution();
+        return execution != null && execution.isCollecting();
+    }
+
+    /**
+     * @return Transitions; the steps of this model in the cycles of a ParallelDEVSSimulator
+     */
+    private Transitions getTransitions()
+    {
+        if (this.transitions == null)
+        {
+            this.transitions = new Transitions();
+        }
+        return this.transitions;
+    }
+
+    /**
+     * Keep a message that this model sends in a cycle of a ParallelDEVSSimulator, until it is routed.
+     * @param port OutputPort&lt;A,R,T,?&gt;; the output port that sends the message
+     * @param value Object; the message
+     * @return boolean; whether the message is kept, i.e., whether the simulator executes a cycle
+     */
+    @Override
+    final boolean keepOutput(final OutputPort<A, R, T, ?> port, final Object value)
+    {
+        if (!isCollecting())
+        {
+            return false;
+        }
+        Transitions steps = getTransitions();
+        steps.outputPorts.add(port);
+        steps.outputValues.add(value);
+        return true;
+    }
+
+    /**
+     * Handle an input that arrives at one of the input ports of this model. When another input is being handled, the input
+     * is queued, and handled by the caller that handles the active input, directly after that input.
+     * @param port InputPort&lt;A,R,T,?&gt;; the input port at which the input arrives
+     * @param value Object; the value that is passed through the port
+     * @param time T; the time of the input
+     * @throws RemoteException a remote exception occurred
+     * @throws SimRuntimeException when the next event cannot be cancelled
+     */
+    final void receive(final InputPort<A, R, T, ?> port, final Object value, final T time)
+            throws RemoteException, SimRuntimeException
+    {
+        ModelExecutionInterface<A, R, T> execution = this.simulator.getModelExecution();
+        if (execution != null)
+        {
+            if (execution.isCollecting())
+            {
+                getTransitions().receive(value);
+                return;
+            }
+            if (execution.post(port, value, time))
+            {
+                return;
+            }
+        }
+        synchronized (this)
+        {
+            if (this.activePort != null)
+            {
+                SimLogger.filter(Cat.DSOL).trace("receive: queued // Another input is being processed");
+                if (this.pendingInputs == null)
+                {
+                    this.pendingInputs = new ArrayDeque<>();
+                }
+                this.pendingInputs.add(new Input<A, R, T>(port, value, time));
+                return;
+            }
+            this.activePort = port;
+        }
+        boolean completed = false;
+        try
+        {
+            handleInput(value, time);
+            while (true)
+            {
+                Input<A, R, T> input;
+                synchronized (this)
+                {
+                    input = this.pendingInputs == null ? null : this.pendingInputs.poll();
+                    if (input == null)
+                    {
+                        break;
+                    }
+                    this.activePort = input.port;
+                }
+                handleInput(input.value, input.time);
+            }
+            completed = true;
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                if (!completed && this.pendingInputs != null)
+                {
+                    this.pendingInputs.clear();
+                }
+                this.activePort = null;
+            }
+        }
+    }
+
+    /**
+     * Handle an input with the external transition, or with the confluent transition when the input arrives at the time of
+     * the next internal event.
+     * @param value Object; the value that is passed through the port
+     * @param time T; the time of the input
+     * @throws RemoteException a remote exception occurred
+     * @throws SimRuntimeException when the next event cannot be cancelled
+     */
+    private void handleInput(final Object value, final T time) throws RemoteException, SimRuntimeException
+    {
+        checkpoint();
+        boolean passivity = true;
+        SimEvent<T> nextEventCopy = null;
+        SimLogger.filter(Cat.DSOL).debug("receive: TIME IS {}", this.simulator.getSimulatorTime());
+
+        // Original: if (elapsedTime(time) - 0.000001 > timeAdvance())
+        int etminta = DoubleCompare.compare(elapsedTime(time).doubleValue(), timeAdvance().doubleValue());
+        if (etminta == 1)
+        {
+            SimLogger.always().error("receive: {} - {}", elapsedTime(time), timeAdvance());
+            SimLogger.always().error("receive - IMPOSSIBLE !!! TIME SYNCHRONIZATION PROBLEM {}", toString());
+            System.err.println("IMPOSSIBLE !!! TIME SYNCHRONIZATION PROBLEM " + toString());
+        }
+        else
+        {
+            if (etminta == 0 && elapsedTime(time).doubleValue() > 0.0) // 22-10-2009
+            {
+                setConflict(true);
+                passivity = false;
+                nextEventCopy = getNextEvent();
+            }
+            else
+            {
+                setConflict(false);
+                if (timeAdvance().doubleValue() != Double.POSITIVE_INFINITY)
+                {
+                    passivity = false;
+                    nextEventCopy = getNextEvent();
+                }
+                else
+                {
+                    passivity = true;
+                }
+            }
+        }
+        if (isConflict())
+        {
+            deltaConfluent(this.simulator.getSimTime().diff(getTimeLastEvent()), value);
+        }
+        else
+        {
+            deltaExternalEventHandler(this.simulator.getSimTime().diff(getTimeLastEvent()), value);
+        }
+        if (!passivity && !this.lazyInvalidation)
+        {
+            this.simulator.cancelEvent(nextEventCopy);
+        }
+    }
+
+    /**
+     * Save the state of the model before its first transition at the current time point, when the simulator saves states.
+     * @throws SimRuntimeException when the state cannot be saved
+     */
+    private void checkpoint() throws SimRuntimeException
+    {
+        ModelExecutionInterface<A, R, T> execution = this.simulator.getModelExecution();
+        if (execution != null && execution.isSavingStates())
+        {
+            T now = this.simulator.getSimTime();
+            if (this.timeLastSave == null || this.timeLastSave.ne(now))
+            {
+                execution.saveState(new Checkpoint(saveState(), this.nextEvent));
+                this.timeLastSave = now.copy();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    protected Object[] getStateValues() throws SimRuntimeException
+    {
+        Object[] values = super.getStateValues();
+        int n = values.length;
+        values = Arrays.copyOf(values, n + ATOMIC_STATE_VALUES);
+        values[n] = this.sigma;
+        values[n + 1] = this.phase;
+        values[n + 2] = this.timeLastEvent;
+        values[n + 3] = this.timeNextEvent;
+        values[n + 4] = this.elapsedTime;
+        values[n + 5] = this.conflict;
+        return values;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings({"unchecked", "checkstyle:designforextension"})
+    protected void setStateValues(final Object[] values) throws SimRuntimeException
+    {
+        int n = values.length - ATOMIC_STATE_VALUES;
+        super.setStateValues(Arrays.copyOf(values, n));
+        this.sigma = (R) values[n];
+        this.phase = (Phase) values[n + 1];
+        this.timeLastEvent = (T) values[n + 2];
+        this.timeNextEvent = (T) values[n + 3];
+        this.elapsedTime = (R) values[n + 4];
+        this.conflict = (Boolean) values[n + 5];
+    }
+
     /**
      * This method handles an incoming external event. As part of its function, it calls the deltaExternal method that
      * is defined in an extension of this class.
@@ -256,6 +530,8 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
     }
 
     /**
+     * The confluent transition for an internal event and an external event at the same time. The default implementation
+     * executes the internal and the external transition in the order of the conflict strategy.
      * @param e R; the elapsed time since the last state transition
      * @param value Object; the value that is passed through the port, which triggered the external event
      */
@@ -277,14 +553,46 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
         }
     }
 
+    /**
+     * The confluent transition for an internal event and a bag of messages in a cycle of a ParallelDEVSSimulator. The default
+     * implementation calls deltaConfluent for the message that meets the internal event, i.e., the first message of the bag
+     * for INTERNAL_FIRST and the last message for EXTERNAL_FIRST, and deltaExternalEventHandler for the other messages, in the
+     * order of the bag.
+     * @param e R; the elapsed time since the last state transition
+     * @param bag List&lt;Object&gt;; the messages that arrived at the time of the internal event, in order of arrival
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    protected void deltaConfluent(final R e, final List<Object> bag)
+    {
+        R zero = getSimulator().getSimTime().getRelativeZero();
+        int confluent = this.conflictStrategy == AtomicModel.INTERNAL_FIRST ? 0 : bag.size() - 1;
+        for (int i = 0; i < bag.size(); i++)
+        {
+            if (i == confluent)
+            {
+                this.conflict = true;
+                deltaConfluent(i == 0 ? e : zero, bag.get(i));
+                this.conflict = false;
+            }
+            else
+            {
+                deltaExternalEventHandler(i == 0 ? e : zero, bag.get(i));
+            }
+        }
+    }
+
     /**
      * This method handles an internal event. As part of its function, it calls the deltaInternal method that is defined
-     * in an extension of this class.
+     * in an extension of this class. In a cycle of a ParallelDEVSSimulator, lambda has been called in the output phase of the
+     * cycle, and is not called again.
      */
     @SuppressWarnings("checkstyle:designforextension")
     protected void deltaInternalEventHandler()
     {
-        this.lambda();
+        if (!isCollecting())
+        {
+            this.lambda();
+        }
         this.deltaInternal();
         this.schedule();
         this.fireUpdatedState();
@@ -329,6 +637,26 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
         return this.timeNextEvent;
     }
 
+    /**
+     * @return whether an external event leaves the next internal event in the event list when it moves to a later time.
+     */
+    public final boolean isLazyInvalidation()
+    {
+        return this.lazyInvalidation;
+    }
+
+    /**
+     * Set whether an external event leaves the next internal event in the event list when it moves to a later time, instead
+     * of cancelling the event and scheduling a new one. The invalid events remain in the event list until their time, where
+     * they move themselves to the new time or are ignored, so the simulator time passes the times of these events, and events
+     * at the same time as the next internal event can be executed in a different order.
+     * @param lazyInvalidation boolean; whether the next internal event is invalidated lazily
+     */
+    public final void setLazyInvalidation(final boolean lazyInvalidation)
+    {
+        this.lazyInvalidation = lazyInvalidation;
+    }
+
     /**
      * @return if there is a conflict between an intenal event and an external event that take place at the same time.
      */
@@ -372,4 +700,285 @@ public abstract class AtomicModel<A extends Comparable<A>, R extends Number & Co
      * @return the ta, which is the time advance from one state to the next.
      */
     protected abstract R timeAdvance();
+
+    /**
+     * The event of the next internal transition of an atomic model. The event is ignored when the model has scheduled another
+     * internal event after it, and moves itself to the time of the next internal transition when that time is later.
+     * @param <A> the absolute storage type for the simulation time
+     * @param <R> the relative type for time storage
+     * @param <T> the simulation time type
+     */
+    private static final class InternalEvent<A extends Comparable<A>, R extends Number & Comparable<R>,
+            T extends SimTime<A, R, T>> extends SimEvent<T>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the atomic model. */
+        private final AtomicModel<A, R, T> model;
+
+        /** whether the event is in the event list of the simulator. */
+        private boolean scheduled = false;
+
+        /**
+         * @param executionTime T; the time of the internal transition
+         * @param model AtomicModel&lt;A,R,T&gt;; the atomic model
+         */
+        InternalEvent(final T executionTime, final AtomicModel<A, R, T> model)
+        {
+            super(executionTime, model, model, "deltaInternalEventHandler", null);
+            this.model = model;
+        }
+
+        /**
+         * Create the internal event of a restored state, with the id of the internal event of the model when the state was
+         * saved, so the event keeps its order among the events at the same time.
+         * @param executionTime T; the time of the internal transition
+         * @param model AtomicModel&lt;A,R,T&gt;; the atomic model
+         * @param id long; the id of the internal event when the state was saved
+         */
+        InternalEvent(final T executionTime, final AtomicModel<A, R, T> model, final long id)
+        {
+            this(executionTime, model);
+            this.id = id;
+        }
+
+        /**
+         * Schedule the event on the simulator of the model.
+         * @throws SimRuntimeException when the event is in the past
+         */
+        void schedule() throws SimRuntimeException
+        {
+            this.model.simulator.scheduleEvent(this);
+            this.scheduled = true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void execute() throws SimRuntimeException
+        {
+            this.scheduled = false;
+            if (this.model.nextEvent != this)
+            {
+                return;
+            }
+            if (this.model.timeNextEvent != null && this.model.timeNextEvent.gt(this.absoluteExecutionTime))
+            {
+                this.absoluteExecutionTime = this.model.timeNextEvent;
+                schedule();
+                return;
+            }
+            ModelExecutionInterface<A, R, T> execution = this.model.simulator.getModelExecution();
+            if (execution != null)
+            {
+                AtomicModel<A, R, T>.Transitions steps = this.model.getTransitions();
+                if (execution.addImminent(steps))
+                {
+                    steps.imminent = true;
+                    return;
+                }
+            }
+            this.model.checkpoint();
+            super.execute();
+        }
+    }
+
+    /**
+     * The steps of the atomic model in the cycles of a ParallelDEVSSimulator. The messages that the model sends are kept until
+     * they are routed, and the routed messages are collected in the bag of the model; the next internal event is scheduled
+     * when the transitions of all models in the cycle have been executed.
+     */
+    private final class Transitions implements ParallelTransitionInterface
+    {
+        /** whether the internal event of the model is executed in the current cycle. */
+        private boolean imminent = false;
+
+        /** the output ports of the messages that the model sent. */
+        private final List<OutputPort<A, R, T, ?>> outputPorts = new ArrayList<>();
+
+        /** the messages that the model sent. */
+        private final List<Object> outputValues = new ArrayList<>();
+
+        /** the bag of messages that the model received. */
+        private final List<Object> bag = new ArrayList<>();
+
+        /** the internal event of the model before its transition. */
+        private InternalEvent<A, R, T> previousEvent = null;
+
+        /**
+         * Add a routed message to the bag, and add the model to the transitions of the cycle for its first message.
+         * @param value Object; the message
+         */
+        void receive(final Object value)
+        {
+            this.bag.add(value);
+            if (!this.imminent && this.bag.size() == 1)
+            {
+                AtomicModel.this.simulator.getModelExecution().addInfluencee(this);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void output()
+        {
+            lambda();
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public void route() throws SimRuntimeException
+        {
+            try
+            {
+                for (int i = 0; i < this.outputPorts.size(); i++)
+                {
+                    AtomicModel.this.parentModel.transfer((OutputPort<A, R, T, Object>) this.outputPorts.get(i),
+                            this.outputValues.get(i));
+                }
+            }
+            catch (RemoteException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+            finally
+            {
+                this.outputPorts.clear();
+                this.outputValues.clear();
+            }
+        }
+
+        /**
+         * {@inheritDoc} The transition is deltaInternalEventHandler for an internal event without messages,
+         * deltaExternalEventHandler for every message without an internal event, and deltaConfluent for an internal event
+         * with messages.
+         */
+        @Override
+        public void transition()
+        {
+            this.previousEvent = AtomicModel.this.nextEvent;
+            R e = AtomicModel.this.simulator.getSimTime().diff(AtomicModel.this.timeLastEvent);
+            try
+            {
+                if (this.bag.isEmpty())
+                {
+                    deltaInternalEventHandler();
+                }
+                else if (this.imminent)
+                {
+                    deltaConfluent(e, this.bag);
+                }
+                else
+                {
+                    R zero = AtomicModel.this.simulator.getSimTime().getRelativeZero();
+                    for (int i = 0; i < this.bag.size(); i++)
+                    {
+                        deltaExternalEventHandler(i == 0 ? e : zero, this.bag.get(i));
+                    }
+                }
+            }
+            finally
+            {
+                this.bag.clear();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void commit() throws SimRuntimeException
+        {
+            this.imminent = false;
+            if (AtomicModel.this.timeNextEvent != null)
+            {
+                scheduleNextEvent();
+            }
+            InternalEvent<A, R, T> previous = this.previousEvent;
+            this.previousEvent = null;
+            if (!AtomicModel.this.lazyInvalidation && previous != null && previous != AtomicModel.this.nextEvent
+                    && previous.scheduled)
+            {
+                AtomicModel.this.simulator.cancelEvent(previous);
+                previous.scheduled = false;
+            }
+        }
+    }
+
+    /** A state of the model that was saved on a TimeWarpLogicalProcess before its first transition at a time point. */
+    private final class Checkpoint implements SavedStateInterface
+    {
+        /** the saved state. */
+        private final Object state;
+
+        /** the internal event of the model when the state was saved; null when the model was passive. */
+        private final InternalEvent<A, R, T> event;
+
+        /**
+         * @param state Object; the saved state
+         * @param event InternalEvent&lt;A,R,T&gt;; the internal event of the model, or null when the model is passive
+         */
+        Checkpoint(final Object state, final InternalEvent<A, R, T> event)
+        {
+            this.state = state;
+            this.event = event;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void restore() throws SimRuntimeException
+        {
+            restoreState(this.state);
+            AtomicModel.this.timeLastSave = null;
+            if (AtomicModel.this.timeNextEvent == null)
+            {
+                AtomicModel.this.nextEvent = null;
+            }
+            else if (AtomicModel.this.lazyInvalidation && this.event != null && this.event.scheduled)
+            {
+                // the internal event is still in the event list, and moves itself to the time of the next event
+                AtomicModel.this.nextEvent = this.event;
+            }
+            else if (this.event != null)
+            {
+                AtomicModel.this.nextEvent =
+                        new InternalEvent<A, R, T>(AtomicModel.this.timeNextEvent, AtomicModel.this, this.event.getId());
+                AtomicModel.this.nextEvent.schedule();
+            }
+            else
+            {
+                AtomicModel.this.nextEvent = new InternalEvent<A, R, T>(AtomicModel.this.timeNextEvent, AtomicModel.this);
+                AtomicModel.this.nextEvent.schedule();
+            }
+        }
+    }
+
+    /**
+     * An input that waits until the active input of an atomic model has been handled.
+     * @param <A> the absolute storage type for the simulation time
+     * @param <R> the relative type for time storage
+     * @param <T> the simulation time type
+     */
+    private static final class Input<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+    {
+        /** the input port at which the input arrived. */
+        private final InputPort<A, R, T, ?> port;
+
+        /** the value that is passed through the port. */
+        private final Object value;
+
+        /** the time of the input. */
+        private final T time;
+
+        /**
+         * @param port InputPort&lt;A,R,T,?&gt;; the input port at which the input arrived
+         * @param value Object; the value that is passed through the port
+         * @param time T; the time of the input
+         */
+        Input(final InputPort<A, R, T, ?> port, final Object value, final T time)
+        {
+            this.port = port;
+            this.value = value;
+            this.time = time;
+        }
+    }
 }
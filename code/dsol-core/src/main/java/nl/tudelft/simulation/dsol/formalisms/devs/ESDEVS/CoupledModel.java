@@ -1,9 +1,12 @@
 package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
 
 import java.rmi.RemoteException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.djunits.value.vdouble.scalar.Duration;
@@ -30,7 +33,12 @@ import nl.tudelft.simulation.event.ref.Reference;
 
 /**
  * CoupledModel class. This class implements the classic parallel DEVS coupled model with ports conform Zeigler et al.
- * (2000), section 4.3.
+ * (2000), section 4.3. A message is routed with a table of the destinations of every port, that is built from the couplings
+ * when they have changed. The destinations of the input ports are flattened through the external input couplings of the
+ * coupled components down to the input ports of the atomic models, so a message reaches its destinations in a time that
+ * depends on the fan-out of the port rather than on the number of couplings. The couplings should therefore be changed with
+ * the add and remove methods, and not in the sets of the couplings directly. A message over an internal coupling with a
+ * delay is scheduled as an event on the simulator of the receiving component, and routed further when it arrives.
  * <p>
  * Copyright (c) 2009-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -68,6 +76,12 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected Set<AbstractDEVSModel<A, R, T>> modelComponents = new HashSet<>();
 
+    /** the routing tables of the couplings; null when the couplings have changed. */
+    private transient volatile Routing<A, R, T> routing = null;
+
+    /** the number of internal couplings with a delay of this model and its submodels; only counted in the top model. */
+    private int delayedCouplings = 0;
+
     // ///////////////////////////////////////////////////////////////////////////
     // CONSTRUCTORS AND INITIALIZATION
     // ///////////////////////////////////////////////////////////////////////////
@@ -142,20 +156,192 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
     protected final <TYPE> void transfer(final OutputPortInterface<A, R, T, TYPE> x, final TYPE y)
             throws RemoteException, SimRuntimeException
     {
-        for (IC<A, R, T, ?> o : this.internalCouplingSet)
+        Routing<A, R, T> tables = getRouting();
+        List<Route<A, R, T>> inputs = tables.inputRoutes.get(x);
+        if (inputs != null)
+        {
+            // the time of the sender, which differs from the time of this model when they are on different logical processes
+            T time = x.getModel().getSimulator().getSimTime();
+            for (Route<A, R, T> route : inputs)
+            {
+                if (route.coupling != null)
+                {
+                    route.coupling.transfer(y, time);
+                }
+                else if (route.nested)
+                {
+                    receiveNested((InputPortInterface<A, R, T, TYPE>) route.port, y, time);
+                }
+                else
+                {
+                    ((InputPortInterface<A, R, T, TYPE>) route.port).receive(y, time);
+                }
+            }
+        }
+        List<OutputPortInterface<A, R, T, ?>> outputs = tables.outputRoutes.get(x);
+        if (outputs != null)
+        {
+            for (OutputPortInterface<A, R, T, ?> port : outputs)
+            {
+                ((OutputPortInterface<A, R, T, TYPE>) port).send(y);
+            }
+        }
+    }
+
+    /**
+     * Route a message that arrives at an input port of this coupled model to the input ports that the external input
+     * couplings lead to.
+     * @param <TYPE> the type of message / event being transferred
+     * @param port InputPortInterface&lt;A,R,T,TYPE&gt;; the input port of this coupled model
+     * @param value TYPE; the value being transferred
+     * @param time T; the time of the message
+     * @throws RemoteException remote exception
+     */
+    @SuppressWarnings("unchecked")
+    final <TYPE> void routeInput(final InputPortInterface<A, R, T, TYPE> port, final TYPE value, final T time)
+            throws RemoteException
+    {
+        List<Route<A, R, T>> inputs = getRouting().inputRoutes.get(port);
+        if (inputs != null)
         {
-            if (o.getFromPort() == x)
+            for (Route<A, R, T> route : inputs)
+            {
+                receiveNested((InputPortInterface<A, R, T, TYPE>) route.port, value, time);
+            }
+        }
+    }
+
+    /**
+     * Deliver a message that passed the input port of a coupled model, which logs a simulation exception of the destination.
+     * @param <TYPE> the type of message / event being transferred
+     * @param port InputPortInterface&lt;A,R,T,TYPE&gt;; the destination
+     * @param value TYPE; the value being transferred
+     * @param time T; the time of the message
+     * @throws RemoteException remote exception
+     */
+    private <TYPE> void receiveNested(final InputPortInterface<A, R, T, TYPE> port, final TYPE value, final T time)
+            throws RemoteException
+    {
+        try
+        {
+            port.receive(value, time);
+        }
+        catch (SimRuntimeException e)
+        {
+            SimLogger.always().error(e);
+        }
+    }
+
+    /**
+     * Return the routing tables, and build them when the couplings have changed.
+     * @return Routing&lt;A,R,T&gt;; the routing tables
+     */
+    private Routing<A, R, T> getRouting()
+    {
+        Routing<A, R, T> tables = this.routing;
+        int couplings = this.internalCouplingSet.size() + this.externalInputCouplingSet.size()
+                + this.externalOutputCouplingSet.size();
+        if (tables == null || tables.couplings != couplings)
+        {
+            tables = new Routing<>(couplings);
+            for (IC<A, R, T, ?> ic : this.internalCouplingSet)
+            {
+                if (ic.getDelay() == null)
+                {
+                    addInputRoute(tables, ic.getFromPort(), ic.getToPort(), false);
+                }
+                else
+                {
+                    // a delayed message is routed further when it arrives
+                    List<Route<A, R, T>> inputs = tables.inputRoutes.get(ic.getFromPort());
+                    if (inputs == null)
+                    {
+                        inputs = new ArrayList<>();
+                        tables.inputRoutes.put(ic.getFromPort(), inputs);
+                    }
+                    inputs.add(new Route<A, R, T>(ic));
+                }
+            }
+            for (EIC<A, R, T, ?> eic : this.externalInputCouplingSet)
+            {
+                addInputRoute(tables, eic.getFromPort(), eic.getToPort(), true);
+            }
+            for (EOC<A, R, T, ?> eoc : this.externalOutputCouplingSet)
             {
-                ((IC<A, R, T, TYPE>) o).getToPort().receive(y, this.simulator.getSimTime());
+                List<OutputPortInterface<A, R, T, ?>> outputs = tables.outputRoutes.get(eoc.getFromPort());
+                if (outputs == null)
+                {
+                    outputs = new ArrayList<>();
+                    tables.outputRoutes.put(eoc.getFromPort(), outputs);
+                }
+                outputs.add(eoc.getToPort());
             }
+            this.routing = tables;
         }
-        for (EOC<A, R, T, ?> o : this.externalOutputCouplingSet)
+        return tables;
+    }
+
+    /**
+     * Add the destinations of a coupling to the routing tables. A coupling to the input port of a coupled component is
+     * flattened to the destinations of that input port within the component.
+     * @param tables Routing&lt;A,R,T&gt;; the routing tables
+     * @param fromPort Object; the start of the coupling
+     * @param toPort InputPortInterface&lt;A,R,T,?&gt;; the end of the coupling
+     * @param nested boolean; whether the coupling starts at an input port of this coupled model
+     */
+    @SuppressWarnings("unchecked")
+    private void addInputRoute(final Routing<A, R, T> tables, final Object fromPort,
+            final InputPortInterface<A, R, T, ?> toPort, final boolean nested)
+    {
+        List<Route<A, R, T>> inputs = tables.inputRoutes.get(fromPort);
+        if (inputs == null)
+        {
+            inputs = new ArrayList<>();
+            tables.inputRoutes.put(fromPort, inputs);
+        }
+        if (toPort instanceof InputPort && toPort.getModel() instanceof CoupledModel && toPort.getModel() != this)
         {
-            if (o.getFromPort() == x)
+            List<Route<A, R, T>> componentInputs =
+                    ((CoupledModel<A, R, T>) toPort.getModel()).getRouting().inputRoutes.get(toPort);
+            if (componentInputs != null)
             {
-                ((EOC<A, R, T, TYPE>) o).getToPort().send(y);
+                for (Route<A, R, T> route : componentInputs)
+                {
+                    inputs.add(new Route<A, R, T>(route.port, true));
+                }
             }
         }
+        else
+        {
+            inputs.add(new Route<A, R, T>(toPort, nested));
+        }
+    }
+
+    /**
+     * Discard the routing tables of this coupled model and of the coupled models above it, which contain the flattened
+     * routes into this coupled model.
+     */
+    private void invalidateRouting()
+    {
+        this.routing = null;
+        if (this.parentModel != null)
+        {
+            this.parentModel.invalidateRouting();
+        }
+    }
+
+    /**
+     * Number an internal coupling with a delay of this coupled model. The couplings of the top model and its submodels are
+     * numbered in the order in which they are made, so the numbers do not depend on other models in the same JVM.
+     * @return int; the number of the coupling, starting at 1
+     */
+    final synchronized int numberDelayedCoupling()
+    {
+        if (this.parentModel != null)
+        {
+            return this.parentModel.numberDelayedCoupling();
+        }
+        return ++this.delayedCouplings;
     }
 
     // ///////////////////////////////////////////////////////////////////////////
@@ -175,6 +361,7 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
         try
         {
             this.internalCouplingSet.add(new IC<A, R, T, TYPE>(fromPort, toPort));
+            invalidateRouting();
         }
         catch (Exception e)
         {
@@ -184,23 +371,46 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
     }
 
     /**
-     * @param <TYPE> the type of message / event for which the coupling is removed.
+     * Add an internal coupling with a delay, after which a message arrives at the input port. The couplings between the
+     * logical processes of a ConservativeSimulator need a delay, which is their lookahead.
+     * @param <TYPE> the type of message / event for which the coupling is added.
      * @param fromPort OutputPortInterface&lt;A,R,T,TYPE&gt;; the output port of an internal component that transfers
      *            the message / event to another internal component (start of the coupling)
      * @param toPort InputPortInterface&lt;A,R,T,TYPE&gt;; the input port of an internal component that receives a
      *            message / event from the other componet (end of the coupling)
+     * @param delay R; the delay after which a message arrives at the input port
+     * @throws IllegalArgumentException when the delay is not positive
      */
-    public final <TYPE> void removeInternalCoupling(final OutputPortInterface<A, R, T, TYPE> fromPort,
-            final InputPortInterface<A, R, T, TYPE> toPort)
+    public final <TYPE> void addInternalCoupling(final OutputPortInterface<A, R, T, TYPE> fromPort,
+            final InputPortInterface<A, R, T, TYPE> toPort, final R delay)
     {
-        for (IC<A, R, T, ?> ic : this.internalCouplingSet)
+        if (delay == null || delay.doubleValue() <= 0.0)
         {
-            if (ic.getFromPort().getModel() == fromPort && ic.getToPort().getModel() == toPort)
-            {
-                this.externalInputCouplingSet.remove(ic);
-            }
+            throw new IllegalArgumentException("delay " + delay + " of a coupling is not positive");
+        }
+        try
+        {
+            this.internalCouplingSet.add(new IC<A, R, T, TYPE>(fromPort, toPort, delay));
+            invalidateRouting();
         }
+        catch (Exception e)
+        {
+            SimLogger.always().error(e);
+        }
+    }
 
+    /**
+     * @param <TYPE> the type of message / event for which the coupling is removed.
+     * @param fromPort OutputPortInterface&lt;A,R,T,TYPE&gt;; the output port of an internal component that transfers
+     *            the message / event to another internal component (start of the coupling)
+     * @param toPort InputPortInterface&lt;A,R,T,TYPE&gt;; the input port of an internal component that receives a
+     *            message / event from the other componet (end of the coupling)
+     */
+    public final <TYPE> void removeInternalCoupling(final OutputPortInterface<A, R, T, TYPE> fromPort,
+            final InputPortInterface<A, R, T, TYPE> toPort)
+    {
+        this.internalCouplingSet.removeIf(ic -> ic.getFromPort() == fromPort && ic.getToPort() == toPort);
+        invalidateRouting();
     }
 
     /**
@@ -217,6 +427,7 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
         try
         {
             this.externalInputCouplingSet.add(new EIC<A, R, T, TYPE>(fromPort, toPort));
+            invalidateRouting();
         }
         catch (Exception e)
         {
@@ -235,13 +446,8 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
     public final <TYPE> void removeExternalInputCoupling(final InputPortInterface<A, R, T, TYPE> fromPort,
             final InputPortInterface<A, R, T, TYPE> toPort)
     {
-        for (EIC<A, R, T, ?> eic : this.externalInputCouplingSet)
-        {
-            if (eic.getFromPort() == fromPort && eic.getToPort() == toPort)
-            {
-                this.externalInputCouplingSet.remove(eic);
-            }
-        }
+        this.externalInputCouplingSet.removeIf(eic -> eic.getFromPort() == fromPort && eic.getToPort() == toPort);
+        invalidateRouting();
     }
 
     /**
@@ -258,6 +464,7 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
         try
         {
             this.externalOutputCouplingSet.add(new EOC<A, R, T, TYPE>(fromPort, toPort));
+            invalidateRouting();
         }
         catch (Exception e)
         {
@@ -276,13 +483,8 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
     public final <TYPE> void removeExternalOutputCoupling(final OutputPortInterface<A, R, T, TYPE> fromPort,
             final OutputPortInterface<A, R, T, TYPE> toPort)
     {
-        for (EOC<A, R, T, ?> eoc : this.externalOutputCouplingSet)
-        {
-            if (eoc.getFromPort() == fromPort && eoc.getToPort() == toPort)
-            {
-                this.externalOutputCouplingSet.remove(eoc);
-            }
-        }
+        this.externalOutputCouplingSet.removeIf(eoc -> eoc.getFromPort() == fromPort && eoc.getToPort() == toPort);
+        invalidateRouting();
     }
 
     // ///////////////////////////////////////////////////////////////////////////
@@ -317,29 +519,13 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
      */
     public final void removeModelComponent(final AbstractDEVSModel<A, R, T> model)
     {
-        for (EOC<A, R, T, ?> eoc : this.externalOutputCouplingSet)
-        {
-            if (eoc.getFromPort().getModel() == model || eoc.getToPort().getModel() == model)
-            {
-                this.externalOutputCouplingSet.remove(eoc);
-            }
-        }
-
-        for (EIC<A, R, T, ?> eic : this.externalInputCouplingSet)
-        {
-            if (eic.getFromPort().getModel() == model || eic.getToPort().getModel() == model)
-            {
-                this.externalInputCouplingSet.remove(eic);
-            }
-        }
-
-        for (IC<A, R, T, ?> ic : this.internalCouplingSet)
-        {
-            if (ic.getFromPort().getModel() == model || ic.getToPort().getModel() == model)
-            {
-                this.externalInputCouplingSet.remove(ic);
-            }
-        }
+        this.externalOutputCouplingSet
+                .removeIf(eoc -> eoc.getFromPort().getModel() == model || eoc.getToPort().getModel() == model);
+        this.externalInputCouplingSet
+                .removeIf(eic -> eic.getFromPort().getModel() == model || eic.getToPort().getModel() == model);
+        this.internalCouplingSet
+                .removeIf(ic -> ic.getFromPort().getModel() == model || ic.getToPort().getModel() == model);
+        invalidateRouting();
 
         // this will also take care of the removal of the ports as they are not
         // connected to anything anymore.
@@ -356,21 +542,14 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
         InputPortInterface<A, R, T, ?> inputPort = this.inputPortMap.get(name);
         super.removeInputPort(name); // throws exception in case nonexistent
 
-        for (EIC<A, R, T, ?> eic : this.externalInputCouplingSet)
-        {
-            if (eic.getFromPort() == inputPort || eic.getToPort() == inputPort)
-            {
-                this.externalInputCouplingSet.remove(eic);
-            }
-        }
-
-        for (IC<A, R, T, ?> ic : this.internalCouplingSet)
+        this.externalInputCouplingSet.removeIf(eic -> eic.getFromPort() == inputPort || eic.getToPort() == inputPort);
+        // the couplings that lead to the input port from outside this model are stored in the parent model
+        if (this.parentModel != null)
         {
-            if (ic.getToPort() == inputPort)
-            {
-                this.externalInputCouplingSet.remove(ic);
-            }
+            this.parentModel.internalCouplingSet.removeIf(ic -> ic.getToPort() == inputPort);
+            this.parentModel.externalInputCouplingSet.removeIf(eic -> eic.getToPort() == inputPort);
         }
+        invalidateRouting();
     }
 
     /**
@@ -382,21 +561,15 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
         OutputPortInterface<A, R, T, ?> outputPort = this.outputPortMap.get(name);
         super.removeOutputPort(name); // throws exception in case nonexistent
 
-        for (EOC<A, R, T, ?> eoc : this.externalOutputCouplingSet)
-        {
-            if (eoc.getFromPort() == outputPort || eoc.getToPort() == outputPort)
-            {
-                this.externalOutputCouplingSet.remove(eoc);
-            }
-        }
-
-        for (IC<A, R, T, ?> ic : this.internalCouplingSet)
+        this.externalOutputCouplingSet
+                .removeIf(eoc -> eoc.getFromPort() == outputPort || eoc.getToPort() == outputPort);
+        // the couplings that start at the output port towards the outside of this model are stored in the parent model
+        if (this.parentModel != null)
         {
-            if (ic.getFromPort() == outputPort)
-            {
-                this.externalInputCouplingSet.remove(ic);
-            }
+            this.parentModel.internalCouplingSet.removeIf(ic -> ic.getFromPort() == outputPort);
+            this.parentModel.externalOutputCouplingSet.removeIf(eoc -> eoc.getFromPort() == outputPort);
         }
+        invalidateRouting();
     }
 
     // ///////////////////////////////////////////////////////////////////////////
@@ -487,6 +660,72 @@ public abstract class CoupledModel<A extends Comparable<A>, R extends Number & C
         System.out.println(space + "================");
     }
 
+    /**
+     * The routing tables of a coupled model: the destinations of the ports at the start of the couplings.
+     * @param <A> the absolute storage type for the simulation time
+     * @param <R> the relative type for time storage
+     * @param <T> the simulation time type
+     */
+    private static final class Routing<A extends Comparable<A>, R extends Number & Comparable<R>,
+            T extends SimTime<A, R, T>>
+    {
+        /** the input ports that an output port of a component or an input port of this coupled model leads to. */
+        private final Map<Object, List<Route<A, R, T>>> inputRoutes = new IdentityHashMap<>();
+
+        /** the output ports of this coupled model that an output port of a component leads to. */
+        private final Map<Object, List<OutputPortInterface<A, R, T, ?>>> outputRoutes = new IdentityHashMap<>();
+
+        /** the number of couplings from which the tables were built. */
+        private final int couplings;
+
+        /**
+         * @param couplings int; the number of couplings from which the tables are built
+         */
+        Routing(final int couplings)
+        {
+            this.couplings = couplings;
+        }
+    }
+
+    /**
+     * A destination of a message.
+     * @param <A> the absolute storage type for the simulation time
+     * @param <R> the relative type for time storage
+     * @param <T> the simulation time type
+     */
+    private static final class Route<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+    {
+        /** the input port that receives the message. */
+        private final InputPortInterface<A, R, T, ?> port;
+
+        /** whether the message passes the input port of a coupled model, which logs the exceptions of the destination. */
+        private final boolean nested;
+
+        /** the coupling with a delay that transfers the message; null when the message arrives directly. */
+        private final IC<A, R, T, ?> coupling;
+
+        /**
+         * @param port InputPortInterface&lt;A,R,T,?&gt;; the input port that receives the message
+         * @param nested boolean; whether the message passes the input port of a coupled model
+         */
+        Route(final InputPortInterface<A, R, T, ?> port, final boolean nested)
+        {
+            this.port = port;
+            this.nested = nested;
+            this.coupling = null;
+        }
+
+        /**
+         * @param coupling IC&lt;A,R,T,?&gt;; the coupling with a delay that transfers the message
+         */
+        Route(final IC<A, R, T, ?> coupling)
+        {
+            this.port = coupling.getToPort();
+            this.nested = false;
+            this.coupling = coupling;
+        }
+    }
+
     /***********************************************************************************************************/
     /************************************* EASY ACCESS CLASS EXTENSIONS ****************************************/
     /***********************************************************************************************************/
@@ -45,9 +45,9 @@ public final class DoubleCompare
         if (Double.isNaN(d2))
             return -1;
         if (Double.isInfinite(d1))
-            return Double.isInfinite(d2) ? 0 : d1 > 0 ? -1 : 1;
+            return d1 == d2 ? 0 : d1 > 0 ? 1 : -1;
         if (Double.isInfinite(d2))
-            return d2 > 0 ? 1 : -1;
+            return d2 > 0 ? -1 : 1;
 
         if (diff > 0)
         {
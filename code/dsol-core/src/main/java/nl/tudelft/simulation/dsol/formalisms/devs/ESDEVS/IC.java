@@ -1,11 +1,24 @@
 package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
 
+import java.rmi.RemoteException;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
 
 /**
  * IC class. IC stands for Internal Coupling, which is a coupling between two components within a coupled model. The
  * definition can be found in Zeigler et al. (2000), p. 86-87.
  * <p>
+ * An internal coupling can have a delay, after which a message arrives at the receiving component. The delayed messages
+ * that arrive at the same time are delivered before the events of the model at that time, in the order in which the
+ * couplings of the top model were made and the messages were sent, so the order does not depend on the simulator or on the
+ * threads that construct the messages. The delay is the lookahead of a coupling between two logical processes of a
+ * ConservativeSimulator.
+ * </p>
+ * <p>
  * Copyright (c) 2009-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
  * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
@@ -28,6 +41,25 @@ public class IC<A extends Comparable<A>, R extends Number & Comparable<R>, T ext
     /** the input port of the receiving component. */
     private InputPortInterface<A, R, T, P> toPort;
 
+    /** the delay of the messages; null when a message arrives at the time it is sent. */
+    private R delay = null;
+
+    /**
+     * the number of the coupling with a delay among the couplings of the top model, which orders the messages of the
+     * couplings that arrive at the same time.
+     */
+    private int number = 0;
+
+    /** the number of messages that were sent over the coupling with a delay. */
+    private long messages = 0L;
+
+    /**
+     * the priority of a delayed message, above the priorities of the events of the model. It is the priority of the warmup
+     * event of the simulator; a delayed message has a positive order, so it is delivered after the warmup event at the same
+     * time, which has order 0.
+     */
+    private static final short DELAYED_MESSAGE_PRIORITY = SimEventInterface.MAX_PRIORITY + 1;
+
     /**
      * Make the wiring between output and input.
      * @param fromPort OutputPortInterface&lt;A,R,T,P&gt;; the output port of the sending component
@@ -47,6 +79,22 @@ public class IC<A extends Comparable<A>, R extends Number & Comparable<R>, T ext
 
     }
 
+    /**
+     * Make the wiring between output and input, with a delay after which a message arrives at the input.
+     * @param fromPort OutputPortInterface&lt;A,R,T,P&gt;; the output port of the sending component
+     * @param toPort InputPortInterface&lt;A,R,T,P&gt;; input port of the receiving component
+     * @param delay R; the delay of the messages
+     * @throws Exception in case of wiring to self
+     */
+    public IC(final OutputPortInterface<A, R, T, P> fromPort, final InputPortInterface<A, R, T, P> toPort, final R delay)
+            throws Exception
+    {
+        this(fromPort, toPort);
+        this.delay = delay;
+        CoupledModel<A, R, T> parent = fromPort.getModel().parentModel;
+        this.number = parent == null ? 0 : parent.numberDelayedCoupling();
+    }
+
     /**
      * @return the output port of the sending component.
      */
@@ -62,4 +110,79 @@ public class IC<A extends Comparable<A>, R extends Number & Comparable<R>, T ext
     {
         return this.toPort;
     }
+
+    /**
+     * @return the delay of the messages; null when a message arrives at the time it is sent.
+     */
+    public final R getDelay()
+    {
+        return this.delay;
+    }
+
+    /**
+     * Schedule the arrival of a message over the coupling with a delay, on the simulator of the receiving component.
+     * @param value Object; the message
+     * @param time T; the time at which the message is sent
+     * @throws SimRuntimeException when the message cannot be scheduled
+     */
+    final void transfer(final Object value, final T time) throws SimRuntimeException
+    {
+        DEVSSimulatorInterface<A, R, T> simulator = this.toPort.getModel().getSimulator();
+        DelayedMessage<A, R, T> message = new DelayedMessage<>(time.plus(this.delay), this.toPort, value,
+                ((long) this.number << Integer.SIZE) | (++this.messages & 0xFFFFFFFFL));
+        ModelExecutionInterface<A, R, T> execution = simulator.getModelExecution();
+        if (execution == null || !execution.postDelayed(message))
+        {
+            simulator.scheduleEvent(message);
+        }
+    }
+
+    /**
+     * A message over a coupling with a delay, which is the event that delivers the message at its time.
+     * @param <A> the absolute storage type for the simulation time
+     * @param <R> the relative type for time storage
+     * @param <T> the simulation time type
+     */
+    private static final class DelayedMessage<A extends Comparable<A>, R extends Number & Comparable<R>,
+            T extends SimTime<A, R, T>> extends AbstractSimEvent<T>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the input port of the receiving component. */
+        private final InputPortInterface<A, R, T, ?> port;
+
+        /** the message. */
+        private final Object value;
+
+        /**
+         * @param executionTime T; the time at which the message arrives
+         * @param port InputPortInterface&lt;A,R,T,?&gt;; the input port of the receiving component
+         * @param value Object; the message
+         * @param order long; the positive order of the message among the delayed messages that arrive at the same time
+         */
+        DelayedMessage(final T executionTime, final InputPortInterface<A, R, T, ?> port, final Object value,
+                final long order)
+        {
+            super(executionTime, DELAYED_MESSAGE_PRIORITY);
+            this.port = port;
+            this.value = value;
+            this.order = order;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void execute() throws SimRuntimeException
+        {
+            try
+            {
+                ((InputPortInterface<A, R, T, Object>) this.port).receive(this.value, this.absoluteExecutionTime);
+            }
+            catch (RemoteException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+    }
 }
@@ -2,11 +2,7 @@ package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
 
 import java.rmi.RemoteException;
 
-import org.djutils.logger.Cat;
-
 import nl.tudelft.simulation.dsol.SimRuntimeException;
-import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
-import nl.tudelft.simulation.dsol.logger.SimLogger;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 
 /**
@@ -63,103 +59,19 @@ public class InputPort<A extends Comparable<A>, R extends Number & Comparable<R>
      */
     @SuppressWarnings("unchecked")
     @Override
-    public final synchronized void receive(final TYPE value, final T time) throws RemoteException, SimRuntimeException
+    public final void receive(final TYPE value, final T time) throws RemoteException, SimRuntimeException
     {
         if (this.atomic)
         {
             // ATOMIC MODEL
-            AtomicModel<A, R, T> atomicModel = (AtomicModel<A, R, T>) this.model;
-            while (atomicModel.activePort != null)
-            {
-                SimLogger.filter(Cat.DSOL)
-                        .trace("receive: Waiting for event treatement // Another input is being processed");
-                try
-                {
-                    Thread.sleep(1); // added because of infinite loop
-                }
-                catch (InterruptedException exception)
-                {
-                    // do nothing -- just wait till activePort != null
-                }
-            }
-
-            if (atomicModel.activePort == null)
-            {
-                atomicModel.activePort = this;
-                boolean passivity = true;
-                SimEvent<T> nextEventCopy = null;
-                SimLogger.filter(Cat.DSOL).debug("receive: TIME IS {}", this.model.getSimulator().getSimulatorTime());
-
-                // Original: if (elapsedTime(time) - 0.000001 > timeAdvance())
-                int etminta = DoubleCompare.compare(atomicModel.elapsedTime(time).doubleValue(),
-                        atomicModel.timeAdvance().doubleValue());
-                if (etminta == 1)
-                {
-                    SimLogger.always().error("receive: {} - {}", atomicModel.elapsedTime(time),
-                            atomicModel.timeAdvance());
-                    SimLogger.always().error("receive - IMPOSSIBLE !!! TIME SYNCHRONIZATION PROBLEM {}",
-                            atomicModel.toString());
-                    System.err.println("IMPOSSIBLE !!! TIME SYNCHRONIZATION PROBLEM " + atomicModel.toString());
-                }
-                else
-                {
-                    if (etminta == 0 && atomicModel.elapsedTime(time).doubleValue() > 0.0) // 22-10-2009
-                    {
-                        atomicModel.setConflict(true);
-                        passivity = false;
-                        nextEventCopy = atomicModel.getNextEvent();
-                    }
-                    else
-                    {
-                        atomicModel.setConflict(false);
-                        if (atomicModel.timeAdvance().doubleValue() != Double.POSITIVE_INFINITY)
-                        {
-                            passivity = false;
-                            nextEventCopy = atomicModel.getNextEvent();
-                        }
-                        else
-                        {
-                            passivity = true;
-                        }
-                    }
-                }
-                if (atomicModel.isConflict())
-                {
-                    atomicModel.deltaConfluent(
-                            this.model.getSimulator().getSimTime().diff(atomicModel.getTimeLastEvent()), value);
-                }
-                else
-                {
-                    atomicModel.deltaExternalEventHandler(
-                            this.model.getSimulator().getSimTime().diff(atomicModel.getTimeLastEvent()), value);
-                }
-                if (!passivity)
-                {
-                    this.model.getSimulator().cancelEvent(nextEventCopy);
-                }
-            }
-            atomicModel.activePort = null;
+            ((AtomicModel<A, R, T>) this.model).receive(this, value, time);
         }
 
         else
 
         {
             // COUPLED MODEL
-            CoupledModel<A, R, T> coupledModel = (CoupledModel<A, R, T>) this.model;
-            for (EIC<A, R, T, ?> o : coupledModel.externalInputCouplingSet)
-            {
-                if (o.getFromPort() == this)
-                {
-                    try
-                    {
-                        ((EIC<A, R, T, TYPE>) o).getToPort().receive(value, time);
-                    }
-                    catch (SimRuntimeException e)
-                    {
-                        SimLogger.always().error(e);
-                    }
-                }
-            }
+            ((CoupledModel<A, R, T>) this.model).routeInput(this, value, time);
         }
 
     }
@@ -0,0 +1,110 @@
+package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * The execution of the models of the ESDEVS formalism by a simulator that does not execute the internal events and inputs
+ * of the atomic models one at a time, such as the cycles of a ParallelDEVSSimulator or the optimistic execution of a
+ * TimeWarpLogicalProcess. A simulator returns its execution with <code>getModelExecution</code>; the default methods
+ * describe the classic execution, so a simulator only overrides the methods that it needs.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, such as Double or
+ *            Long, the absolute and relative types are the same.
+ * @param <T> the simulation time type based on the absolute and relative time.
+ * @since 3.03.06
+ */
+public interface ModelExecutionInterface<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+{
+    /**
+     * Return whether the simulator executes a cycle, in which the atomic models keep their messages until they are routed,
+     * and the routed messages are collected in the bags of the receiving models.
+     * @return boolean; whether the simulator executes a cycle
+     */
+    default boolean isCollecting()
+    {
+        return false;
+    }
+
+    /**
+     * Add an atomic model whose internal event is executed at the current time point to the next cycle.
+     * @param model ParallelTransitionInterface; the imminent model
+     * @return boolean; whether the model is added to the cycle; false when the model executes its internal event directly
+     */
+    default boolean addImminent(final ParallelTransitionInterface model)
+    {
+        return false;
+    }
+
+    /**
+     * Add an atomic model that received its first message in the current routing to the transitions of the cycle.
+     * @param model ParallelTransitionInterface; the model that received a message
+     * @throws UnsupportedOperationException when the simulator does not execute cycles
+     */
+    default void addInfluencee(final ParallelTransitionInterface model)
+    {
+        throw new UnsupportedOperationException("the simulator does not execute cycles");
+    }
+
+    /**
+     * Defer a notification of the listeners of a model that executes its output or transition concurrently with other
+     * models, until the output or transition is committed, so the listeners are notified in the order of the models.
+     * @param notification Runnable; the notification
+     * @return boolean; whether the notification is deferred; false when the listeners should be notified directly
+     */
+    default boolean defer(final Runnable notification)
+    {
+        return false;
+    }
+
+    /**
+     * Post a message for an input port of a model, when the simulator delivers the message later as an event of its own.
+     * @param port InputPortInterface&lt;A,R,T,?&gt;; the input port
+     * @param value Object; the message
+     * @param time T; the time of the message
+     * @return boolean; whether the message is posted; false when the message has to be handled directly
+     */
+    default boolean post(final InputPortInterface<A, R, T, ?> port, final Object value, final T time)
+    {
+        return false;
+    }
+
+    /**
+     * Post the event that delivers a message of an internal coupling with a delay, when the simulator delivers the message in
+     * its own way, such as the channel of a ConservativeLogicalProcess.
+     * @param message SimEventInterface&lt;T&gt;; the event that delivers the message at its time
+     * @return boolean; whether the message is posted; false when the event has to be scheduled directly
+     * @throws SimRuntimeException when the simulator does not support couplings with a delay, or the message is too early
+     */
+    default boolean postDelayed(final SimEventInterface<T> message) throws SimRuntimeException
+    {
+        return false;
+    }
+
+    /**
+     * @return boolean; whether the atomic models save their state before their first transition at a time point
+     */
+    default boolean isSavingStates()
+    {
+        return false;
+    }
+
+    /**
+     * Save the state of an atomic model before its first transition at the current time point.
+     * @param state SavedStateInterface; the saved state
+     * @throws SimRuntimeException when the simulator does not save states
+     */
+    default void saveState(final SavedStateInterface state) throws SimRuntimeException
+    {
+        throw new SimRuntimeException("the simulator does not save states");
+    }
+}
@@ -57,6 +57,10 @@ public class OutputPort<A extends Comparable<A>, R extends Number & Comparable<R
     @Override
     public final void send(final TYPE value)
     {
+        if (this.model.keepOutput(this, value))
+        {
+            return;
+        }
         if (this.model.parentModel != null)
         {
             try
@@ -0,0 +1,44 @@
+package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+
+/**
+ * The steps of an atomic model in a cycle of the ParallelDEVSSimulator. The output and the transition of the models in a
+ * cycle can be executed concurrently, since they only change the state of their own model; the routing of the outputs and
+ * the commit of the next internal events are executed one model at a time, in a fixed order.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public interface ParallelTransitionInterface
+{
+    /**
+     * Compute the output of an imminent model with its lambda function. The messages are kept by the model until they are
+     * routed.
+     */
+    void output();
+
+    /**
+     * Route the messages of the model over the couplings to the bags of the receiving models.
+     * @throws SimRuntimeException when a message cannot be routed
+     */
+    void route() throws SimRuntimeException;
+
+    /**
+     * Execute the internal, external or confluent transition of the model, for its imminence and the bag of messages it
+     * received.
+     */
+    void transition();
+
+    /**
+     * Schedule the next internal event of the model after its transition.
+     * @throws SimRuntimeException when the event cannot be scheduled
+     */
+    void commit() throws SimRuntimeException;
+}
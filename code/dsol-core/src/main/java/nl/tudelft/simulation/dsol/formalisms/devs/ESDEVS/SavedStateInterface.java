@@ -0,0 +1,25 @@
+package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+
+/**
+ * A state of an atomic model that was saved before its first transition at a time point, so a TimeWarpLogicalProcess can
+ * roll the model back to that time point when a message arrives in its past.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public interface SavedStateInterface
+{
+    /**
+     * Restore the model to the saved state, and schedule its next internal event for that state.
+     * @throws SimRuntimeException when the state cannot be restored or the event cannot be scheduled
+     */
+    void restore() throws SimRuntimeException;
+}
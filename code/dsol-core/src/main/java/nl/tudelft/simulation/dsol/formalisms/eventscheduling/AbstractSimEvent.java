@@ -26,6 +26,9 @@ public abstract class AbstractSimEvent<T extends SimTime<?, ?, T>>
     /** */
     private static final long serialVersionUID = 20140804L;
 
+    /** the list index for an event whose index in an event list is not known, since it is in more than one list. */
+    public static final int UNKNOWN_LIST_INDEX = -2;
+
     /** a counter counting the number of constructed simEvents. */
     private static AtomicLong constructorCounter = new AtomicLong();
 
@@ -41,6 +44,22 @@ public abstract class AbstractSimEvent<T extends SimTime<?, ?, T>>
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected long id = 0L;
 
+    /**
+     * the order of the event among the events with the same execution time and priority, which is compared before the id;
+     * 0 for the events that are ordered by their id only.
+     */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected long order = 0L;
+
+    /** the array-based event list that holds the event, such as a QuaternaryHeap; null when no such list holds it. */
+    private transient Object eventList = null;
+
+    /** the index of the event in the array of its event list. */
+    private transient int listIndex = -1;
+
+    /** whether the event has been in more than one array-based event list at the same time. */
+    private transient boolean shared = false;
+
     /**
      * The constructor of the event stores the time the event must be executed and the object and method to invoke.
      * @param executionTime T; reflects the time the event has to be executed.
@@ -92,6 +111,10 @@ public abstract class AbstractSimEvent<T extends SimTime<?, ?, T>>
         {
             return -1;
         }
+        if (this.order != simEvent.order)
+        {
+            return this.order < simEvent.order ? -1 : 1;
+        }
         if (this.id < simEvent.id)
         {
             return -1;
@@ -121,4 +144,87 @@ public abstract class AbstractSimEvent<T extends SimTime<?, ?, T>>
         return this.priority;
     }
 
+    /**
+     * Return the id of the event, which orders events with the same execution time and priority in the order in which they
+     * were constructed.
+     * @return long; the id of the event
+     */
+    public final long getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * Return the order of the event among the events with the same execution time and priority, which is compared before the
+     * id. The order is 0 for the events that are ordered by their id only, i.e., in the order in which they were constructed.
+     * @return long; the order of the event
+     */
+    public final long getOrder()
+    {
+        return this.order;
+    }
+
+    /**
+     * Give the event a new id, as if it were constructed now. A simulator renumbers an event that was constructed
+     * concurrently with other events before it schedules the event, so the events get a fixed order. The event should not
+     * be in an event list when it is renumbered.
+     */
+    public final void renumber()
+    {
+        this.id = AbstractSimEvent.constructorCounter.incrementAndGet();
+    }
+
+    /**
+     * Register that an array-based event list, such as a QuaternaryHeap, added the event at an index of its array. The
+     * event list keeps the index up to date, so it can find the event without a search when the event is cancelled. An event
+     * that is added to a second list while it is still in the first one is marked as shared, and has no known index anymore.
+     * @param list Object; the event list
+     * @param index int; the index of the event in the array of the event list
+     */
+    public final void addedToList(final Object list, final int index)
+    {
+        if (this.eventList != null)
+        {
+            this.shared = true;
+        }
+        this.eventList = list;
+        this.listIndex = index;
+    }
+
+    /**
+     * Register that the array-based event list that holds the event moved it to another index of its array.
+     * @param index int; the new index of the event in the array of the event list
+     */
+    public final void movedInList(final int index)
+    {
+        this.listIndex = index;
+    }
+
+    /**
+     * Register that an array-based event list removed the event.
+     * @param list Object; the event list
+     */
+    public final void removedFromList(final Object list)
+    {
+        if (this.eventList == list)
+        {
+            this.eventList = null;
+            this.listIndex = -1;
+        }
+    }
+
+    /**
+     * Return the index of the event in the array of an array-based event list.
+     * @param list Object; the event list
+     * @return int; the index of the event in the array of the event list, -1 when the list does not hold the event, or
+     *         UNKNOWN_LIST_INDEX when the event has been in more than one list at the same time, and the list has to search
+     */
+    public final int getListIndex(final Object list)
+    {
+        if (this.shared)
+        {
+            return UNKNOWN_LIST_INDEX;
+        }
+        return this.eventList == list ? this.listIndex : -1;
+    }
 }
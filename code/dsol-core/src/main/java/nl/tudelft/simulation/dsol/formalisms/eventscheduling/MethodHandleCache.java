@@ -0,0 +1,212 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.djutils.reflection.ClassUtil;
+
+/**
+ * The MethodHandleCache resolves the method or constructor that a SimEvent invokes once for every combination of target
+ * class, source class, method name and argument types, and caches the result as a MethodHandle with the uniform type
+ * <code>(Object target, Object[] args)void</code>. SimEvents that are created for the same combination share the handle,
+ * so the execution of a SimEvent does not need a method lookup, a visibility check, or a call to setAccessible. The handles
+ * are stored with the target class in a ClassValue, so the cache does not keep the model classes and their class loader
+ * alive.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+final class MethodHandleCache
+{
+    /** the uniform type of the cached method handles. */
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object[].class);
+
+    /** the cache of resolved method handles, per target class. */
+    private static final ClassValue<Map<Key, MethodHandle>> CACHE = new ClassValue<Map<Key, MethodHandle>>()
+    {
+        /** {@inheritDoc} */
+        @Override
+        protected Map<Key, MethodHandle> computeValue(final Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /** the lookup to unreflect the methods with. */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Utility class.
+     */
+    private MethodHandleCache()
+    {
+        // Utility class.
+    }
+
+    /**
+     * Return the cached method handle to invoke a method or constructor, resolving it when it is not yet in the cache. The
+     * method handle should be invoked as <code>handle.invokeExact(target, args)</code>, where args should not be
+     * null. When the method cannot be resolved or is not visible for the source, null is returned, and the caller can fall
+     * back on the reflective invocation to produce a meaningful error.
+     * @param source Object; the source that scheduled the invocation
+     * @param target Object; the target object, or the class for a constructor invocation
+     * @param methodName String; the name of the method, or &lt;init&gt; for a constructor
+     * @param args Object[]; the arguments of the invocation, can be null
+     * @return MethodHandle; the handle of type (Object, Object[])void, or null when it cannot be resolved
+     */
+    static MethodHandle resolve(final Object source, final Object target, final String methodName, final Object[] args)
+    {
+        boolean classTarget = target instanceof Class;
+        Map<Key, MethodHandle> handles = CACHE.get(classTarget ? (Class<?>) target : target.getClass());
+        Key key = new Key(source, classTarget, methodName, args);
+        MethodHandle handle = handles.get(key);
+        if (handle == null)
+        {
+            handle = createHandle(source, target, methodName, args);
+            if (handle != null)
+            {
+                handles.put(key, handle);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Resolve the method or constructor with the same rules as the reflective invocation of the SimEvent, and convert it into
+     * a method handle of the uniform type.
+     * @param source Object; the source that scheduled the invocation
+     * @param target Object; the target object, or the class for a constructor invocation
+     * @param methodName String; the name of the method, or &lt;init&gt; for a constructor
+     * @param args Object[]; the arguments of the invocation, can be null
+     * @return MethodHandle; the handle of type (Object, Object[])void, or null when it cannot be resolved
+     */
+    private static MethodHandle createHandle(final Object source, final Object target, final String methodName,
+            final Object[] args)
+    {
+        try
+        {
+            MethodHandle handle;
+            int nrParameters;
+            if (methodName.equals("<init>"))
+            {
+                if (!(target instanceof Class))
+                {
+                    return null;
+                }
+                Constructor<?> constructor = ClassUtil.resolveConstructor((Class<?>) target, args);
+                if (!ClassUtil.isVisible(constructor, source.getClass()))
+                {
+                    return null;
+                }
+                constructor.setAccessible(true);
+                nrParameters = constructor.getParameterCount();
+                handle = MethodHandles.dropArguments(LOOKUP.unreflectConstructor(constructor), 0, Object.class);
+            }
+            else
+            {
+                Method method = ClassUtil.resolveMethod(target, methodName, args);
+                if (!ClassUtil.isVisible(method, source.getClass()))
+                {
+                    return null;
+                }
+                method.setAccessible(true);
+                nrParameters = method.getParameterCount();
+                handle = LOOKUP.unreflect(method);
+                if (Modifier.isStatic(method.getModifiers()))
+                {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+            }
+            return handle.asType(handle.type().generic()).asSpreader(Object[].class, nrParameters).asType(INVOKER_TYPE);
+        }
+        catch (Exception exception)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * The key of the cache within the handles of a target class (or of the target class itself for a constructor or static
+     * invocation on a Class): whether the target is a Class, the class of the source, the method name and the classes of the
+     * arguments.
+     */
+    private static final class Key
+    {
+        /** whether the target is a Class object. */
+        private final boolean classTarget;
+
+        /** the class of the source, for the visibility check. */
+        private final Class<?> sourceClass;
+
+        /** the method name. */
+        private final String methodName;
+
+        /** the classes of the arguments; null for a null argument. */
+        private final Class<?>[] argTypes;
+
+        /** the cached hash code. */
+        private final int hashCode;
+
+        /**
+         * @param source Object; the source that scheduled the invocation
+         * @param classTarget boolean; whether the target is a Class object
+         * @param methodName String; the name of the method
+         * @param args Object[]; the arguments of the invocation, can be null
+         */
+        Key(final Object source, final boolean classTarget, final String methodName, final Object[] args)
+        {
+            this.classTarget = classTarget;
+            this.sourceClass = source.getClass();
+            this.methodName = methodName;
+            int nrArgs = args == null ? 0 : args.length;
+            this.argTypes = new Class<?>[nrArgs];
+            for (int i = 0; i < nrArgs; i++)
+            {
+                this.argTypes[i] = args[i] == null ? null : args[i].getClass();
+            }
+            int hash = Boolean.hashCode(this.classTarget);
+            hash = 31 * hash + this.sourceClass.hashCode();
+            hash = 31 * hash + this.methodName.hashCode();
+            hash = 31 * hash + Arrays.hashCode(this.argTypes);
+            this.hashCode = hash;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode()
+        {
+            return this.hashCode;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (!(object instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) object;
+            return this.hashCode == other.hashCode && this.classTarget == other.classTarget
+                    && this.sourceClass == other.sourceClass && this.methodName.equals(other.methodName)
+                    && Arrays.equals(this.argTypes, other.argTypes);
+        }
+    }
+}
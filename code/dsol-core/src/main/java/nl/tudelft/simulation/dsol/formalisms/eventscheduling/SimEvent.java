@@ -1,5 +1,6 @@
 package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Arrays;
@@ -25,6 +26,12 @@ import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
  * they bundle the object on which the method is planned to be invoked together with the arguments and the name of the
  * method in a simEvent. The SimEvent is then stored in the eventList and executed.
  * <p>
+ * The method or constructor to invoke is resolved when the SimEvent is constructed, and shared with all SimEvents for the
+ * same target class, method name and argument types through a cache of MethodHandles. Executing the event is therefore a
+ * direct invocation without a reflective lookup. When the method cannot be resolved, the event falls back on reflection at
+ * execution time, which reports the same errors as before.
+ * </p>
+ * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
  * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
@@ -40,6 +47,9 @@ public class SimEvent<T extends SimTime<?, ?, T>> extends AbstractSimEvent<T>
     /** */
     private static final long serialVersionUID = 20140804L;
 
+    /** the empty argument array to use when args is null. */
+    private static final Object[] NO_ARGS = new Object[0];
+
     /** source the source that created the simevent. */
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected Object source = null;
@@ -56,6 +66,9 @@ public class SimEvent<T extends SimTime<?, ?, T>> extends AbstractSimEvent<T>
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected Object[] args = null;
 
+    /** the resolved method handle of type (Object, Object[])void, or null when it has not (yet) been resolved. */
+    private transient MethodHandle handle = null;
+
     /**
      * The constructor of the event stores the time the event must be executed and the object and method to invoke.
      * @param executionTime T; the absolute time the event has to be executed.
@@ -91,6 +104,7 @@ public class SimEvent<T extends SimTime<?, ?, T>> extends AbstractSimEvent<T>
         this.target = target;
         this.methodName = method;
         this.args = args;
+        this.handle = MethodHandleCache.resolve(source, target, method, args);
     }
 
     /** {@inheritDoc} */
@@ -98,6 +112,30 @@ public class SimEvent<T extends SimTime<?, ?, T>> extends AbstractSimEvent<T>
     @SuppressWarnings("checkstyle:designforextension")
     public synchronized void execute() throws SimRuntimeException
     {
+        if (this.handle == null)
+        {
+            // after deserialization, or when the method could not be resolved at construction
+            this.handle = MethodHandleCache.resolve(this.source, this.target, this.methodName, this.args);
+        }
+        if (this.handle != null)
+        {
+            Object[] arguments = this.args == null ? NO_ARGS : this.args;
+            try
+            {
+                this.handle.invokeExact(this.target, arguments);
+            }
+            catch (Error error)
+            {
+                throw error;
+            }
+            catch (Throwable exception)
+            {
+                System.err.println(exception.toString() + " calling " + this.target + "." + this.methodName
+                        + " with arguments " + Arrays.toString(this.getArgs()));
+                throw new SimRuntimeException(exception);
+            }
+            return;
+        }
         try
         {
             if (this.methodName.equals("<init>"))
@@ -0,0 +1,413 @@
+package nl.tudelft.simulation.dsol.formalisms.process;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.Semaphore;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.Resource;
+import nl.tudelft.simulation.dsol.formalisms.ResourceRequestorInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.logger.SimLogger;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simulators.DEVSBatchSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.Simulator;
+import nl.tudelft.simulation.event.EventProducer;
+import nl.tudelft.simulation.event.EventType;
+
+/**
+ * The ThreadedProcess for the process interaction formalism with hold(), suspend(), resume() and cancel() methods, of which
+ * the process() method is compiled code that runs on a thread of its own, instead of bytecode that is interpreted as for the
+ * Process. The thread of the process and the thread that resumes it hand over control to each other: resume() blocks the
+ * resuming thread, usually the simulator thread, until the process suspends, holds or ends, and suspend() blocks the
+ * process thread until the process is resumed. Only one of the threads executes at any moment, so the model needs no
+ * synchronization, and the order of execution is the same as for the Process: the process runs at the moment of the event
+ * that resumes it, and the events that it schedules are ordered by the simulator as usual.
+ * <p>
+ * The DEVSSimulator executes its events while it holds the lock on its semaphore. The resuming thread therefore waits on
+ * that semaphore, which releases the lock, so the process thread can schedule and cancel events in the meantime. The
+ * DEVSBatchSimulator takes no lock, but confines its event list to the thread that executes the events; that thread lends
+ * the direct access to the event list to the process thread during the turn of the process. A granted
+ * Resource request resumes the process with an event at the current time instead of directly, because the Resource hands
+ * out released capacity while it holds the lock on its queue of requests.
+ * </p>
+ * <p>
+ * Java 8 has no virtual threads or continuations, so every ThreadedProcess that has started and not ended holds a platform
+ * thread with its stack. The threads are daemon threads, so a process that is never resumed again does not prevent the JVM
+ * from exiting. A ThreadedProcess cannot be serialized while it is executing or suspended.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, the absolute
+ *            and relative types are the same.
+ * @param <T> the extended type itself to be able to implement a comparator on the simulation time.
+ * @since 3.03.06
+ */
+public abstract class ThreadedProcess<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+        extends EventProducer implements ResourceRequestorInterface<A, R, T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the initial state, before the process has been resumed for the first time. */
+    public static final short INITIAL = 0;
+
+    /** the state in which the process method executes. */
+    public static final short EXECUTING = 1;
+
+    /** the state in which the process waits to be resumed. */
+    public static final short SUSPENDED = 2;
+
+    /** the state after the process method has ended or the process has been cancelled. */
+    public static final short DEAD = 3;
+
+    /** STATE_CHANGE_EVENT is fired when the state of the process changes. */
+    public static final EventType STATE_CHANGE_EVENT = new EventType("STATE_CHANGE_EVENT");
+
+    /** The simulator to schedule on. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected DEVSSimulatorInterface<A, R, T> simulator = null;
+
+    /** the simEvent which is used to schedule the resume. */
+    private SimEventInterface<T> simEvent = null;
+
+    /** the state of the process; volatile because it is read by the thread that resumes or cancels the process. */
+    private volatile short state = INITIAL;
+
+    /** the thread that executes the process method, or null when the process has not been started yet. */
+    private transient Thread thread = null;
+
+    /** the permit for the process thread to continue. */
+    private transient Semaphore processPermit = new Semaphore(0);
+
+    /** the object on which the resuming thread waits; the semaphore of the simulator when available. */
+    private transient Object lock = null;
+
+    /** whether the process thread has control; guarded by the lock. */
+    private transient boolean processTurn = false;
+
+    /**
+     * constructs a new ThreadedProcess and IMMEDIATELY SCHEDULES THE START OF ITS PROCESS METHOD.
+     * @param simulator DEVSSimulatorInterface&lt;A,R,T&gt;; the simulator to schedule on
+     */
+    public ThreadedProcess(final DEVSSimulatorInterface<A, R, T> simulator)
+    {
+        this(simulator, true);
+    }
+
+    /**
+     * Constructs a new <code>ThreadedProcess</code>.
+     * @param simulator DEVSSimulatorInterface&lt;A,R,T&gt;; the simulator to schedule on
+     * @param start boolean; whether to schedule the start of this process at the current simulation time
+     */
+    public ThreadedProcess(final DEVSSimulatorInterface<A, R, T> simulator, final boolean start)
+    {
+        super();
+        this.simulator = simulator;
+        if (start)
+        {
+            try
+            {
+                this.simEvent = new LambdaSimEvent<T>(this.simulator.getSimTime().copy(), () -> resume());
+                this.simulator.scheduleEvent(this.simEvent);
+            }
+            catch (Exception exception)
+            {
+                SimLogger.always().error(exception, "<init>");
+            }
+        }
+    }
+
+    /**
+     * processes the process. The method is executed on the thread of the process.
+     * @throws RemoteException on network failure
+     * @throws SimRuntimeException on simulation failures.
+     */
+    public abstract void process() throws RemoteException, SimRuntimeException;
+
+    /**
+     * holds the process for a duration.
+     * @param duration R; the duration
+     * @throws SimRuntimeException on negative duration
+     * @throws RemoteException on network failure
+     */
+    protected void hold(final R duration) throws SimRuntimeException, RemoteException
+    {
+        // First we schedule the resume operation
+        this.simEvent = new LambdaSimEvent<T>(this.simulator.getSimTime().plus(duration), () -> resume());
+        this.simulator.scheduleEvent(this.simEvent);
+        // Now we suspend
+        this.suspend();
+    }
+
+    /**
+     * requests an amount of capacity from a resource, and suspends the process until the capacity has been granted.
+     * @param resource Resource&lt;A,R,T&gt;; the resource
+     * @param amount double; the requested amount
+     * @throws SimRuntimeException on a negative amount
+     * @throws RemoteException on network failure
+     */
+    protected void requestCapacity(final Resource<A, R, T> resource, final double amount)
+            throws SimRuntimeException, RemoteException
+    {
+        resource.requestCapacity(amount, this);
+        this.suspend();
+    }
+
+    /**
+     * cancels this process entirely. After the process.cancel() is invoked a process can no longer be resumed. When the
+     * process cancels itself, the process method does not continue after this call.
+     */
+    public void cancel()
+    {
+        if (this.simEvent != null)
+        {
+            try
+            {
+                this.simulator.cancelEvent(this.simEvent);
+            }
+            catch (Exception exception)
+            {
+                SimLogger.always().warn(exception, "cancel");
+            }
+            this.simEvent = null;
+        }
+        short oldState = this.state;
+        if (oldState == DEAD)
+        {
+            return;
+        }
+        setState(DEAD);
+        if (Thread.currentThread() == this.thread)
+        {
+            throw new ProcessCancelled();
+        }
+        if (oldState == SUSPENDED)
+        {
+            // let the process thread unwind its stack, and wait for it
+            handOverToProcess();
+        }
+    }
+
+    /**
+     * resumes this process. The calling thread is blocked until the process suspends, holds or ends.
+     */
+    public void resume()
+    {
+        if (this.state == DEAD)
+        {
+            return;
+        }
+        if (this.state == EXECUTING)
+        {
+            throw new IllegalStateException("Cannot resume a process in state==executing");
+        }
+        this.simEvent = null;
+        setState(EXECUTING);
+        if (this.thread == null)
+        {
+            this.thread = new Thread(new ProcessRunner(), getClass().getSimpleName() + "@" + Integer.toHexString(hashCode()));
+            this.thread.setDaemon(true);
+        }
+        handOverToProcess();
+    }
+
+    /**
+     * suspends this process. This method can only be called by the process itself, and returns when the process is resumed.
+     */
+    public void suspend()
+    {
+        if (Thread.currentThread() != this.thread)
+        {
+            throw new IllegalStateException("suspend can only be invoked by the process itself");
+        }
+        setState(SUSPENDED);
+        handBackToCaller();
+        this.processPermit.acquireUninterruptibly();
+        if (this.state == DEAD)
+        {
+            throw new ProcessCancelled();
+        }
+    }
+
+    /**
+     * gives control to the process thread, and waits until the process suspends, holds or ends. The wait releases the lock of
+     * the simulator, so the process thread can schedule events while the simulator thread executes the resuming event. When
+     * the event list of a DEVSBatchSimulator is confined to the resuming thread, the process thread borrows it for its turn.
+     */
+    private void handOverToProcess()
+    {
+        Object monitor = getLock();
+        DEVSBatchSimulator<A, R, T> batch = null;
+        Thread previous = null;
+        if (this.simulator instanceof DEVSBatchSimulator && ((DEVSBatchSimulator<A, R, T>) this.simulator).isConfined())
+        {
+            batch = (DEVSBatchSimulator<A, R, T>) this.simulator;
+            previous = batch.lendEventList(this.thread);
+        }
+        boolean interrupted = false;
+        synchronized (monitor)
+        {
+            this.processTurn = true;
+            if (this.thread.getState() == Thread.State.NEW)
+            {
+                this.thread.start();
+            }
+            else
+            {
+                this.processPermit.release();
+            }
+            while (this.processTurn)
+            {
+                try
+                {
+                    monitor.wait();
+                }
+                catch (InterruptedException exception)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+        if (batch != null)
+        {
+            batch.returnEventList(previous);
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * gives control back to the thread that resumed the process. Called on the process thread.
+     */
+    private void handBackToCaller()
+    {
+        Object monitor = getLock();
+        synchronized (monitor)
+        {
+            this.processTurn = false;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the object on which the resuming thread waits.
+     * @return Object; the semaphore of the simulator, or a private object when the simulator is not a local Simulator
+     */
+    private synchronized Object getLock()
+    {
+        if (this.lock == null)
+        {
+            this.lock =
+                    this.simulator instanceof Simulator ? ((Simulator<?, ?, ?>) this.simulator).getSemaphore() : new Object();
+        }
+        return this.lock;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void receiveRequestedResource(final double requestedCapacity, final Resource<A, R, T> resource)
+    {
+        try
+        {
+            this.simEvent = new LambdaSimEvent<T>(this.simulator.getSimTime().copy(), () -> resume());
+            this.simulator.scheduleEvent(this.simEvent);
+        }
+        catch (Exception exception)
+        {
+            SimLogger.always().error(exception, "receiveRequestedResource");
+        }
+    }
+
+    /**
+     * Returns the state of the process.
+     * @return short; the state, one of INITIAL, EXECUTING, SUSPENDED or DEAD
+     */
+    public final short getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * sets the state of the process.
+     * @param newState short; the new state
+     */
+    private void setState(final short newState)
+    {
+        this.state = newState;
+        if (hasListeners(STATE_CHANGE_EVENT))
+        {
+            fireEvent(STATE_CHANGE_EVENT, newState);
+        }
+    }
+
+    /**
+     * reads a serializable process from stream, and recreates the permits.
+     * @param in java.io.ObjectInputStream; the input stream
+     * @throws java.io.IOException on IOException
+     * @throws ClassNotFoundException on class cast exception when reading object
+     */
+    private void readObject(final java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.processPermit = new Semaphore(0);
+    }
+
+    /**
+     * The body of the process thread: it executes the process method, and returns control to the resuming thread when the
+     * process method ends, also when it ends with an exception or because the process has been cancelled.
+     */
+    private final class ProcessRunner implements Runnable
+    {
+        /** {@inheritDoc} */
+        @Override
+        public void run()
+        {
+            try
+            {
+                process();
+            }
+            catch (ProcessCancelled cancelled)
+            {
+                // the process has been cancelled; its stack has been unwound
+            }
+            catch (Exception exception)
+            {
+                SimLogger.always().error(exception, "process");
+            }
+            finally
+            {
+                ThreadedProcess.this.state = DEAD;
+                handBackToCaller();
+            }
+        }
+    }
+
+    /**
+     * The error that unwinds the stack of the process thread when the process is cancelled. It is an Error, so it passes the
+     * catch blocks for exceptions in the process method.
+     */
+    private static final class ProcessCancelled extends Error
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a ProcessCancelled error without a stack trace.
+         */
+        ProcessCancelled()
+        {
+            super("process cancelled", null, false, false);
+        }
+    }
+}
@@ -35,6 +35,15 @@ public abstract class SimTime<A extends Comparable<A>, R extends Number & Compar
         set(time);
     }
 
+    /**
+     * Constructor for subclasses that store the time in a primitive field and initialize it themselves, so the time does not
+     * have to be boxed into an A object.
+     */
+    protected SimTime()
+    {
+        // the subclass sets the time
+    }
+
     /**
      * add a relative time to this simtime.
      * @param relativeTime R; the time to add.
@@ -24,7 +24,8 @@ public class SimTimeDouble extends SimTime<Double, Double, SimTimeDouble>
      */
     public SimTimeDouble(final double time)
     {
-        super(time);
+        super();
+        this.time = time;
     }
 
     /** {@inheritDoc} */
@@ -62,6 +63,15 @@ public class SimTimeDouble extends SimTime<Double, Double, SimTimeDouble>
         return this.time;
     }
 
+    /**
+     * Return the time as a primitive double, without boxing it into a Double as <code>get()</code> does.
+     * @return double; the time
+     */
+    public final double doubleValue()
+    {
+        return this.time;
+    }
+
     /** {@inheritDoc} */
     @Override
     public final SimTimeDouble setZero()
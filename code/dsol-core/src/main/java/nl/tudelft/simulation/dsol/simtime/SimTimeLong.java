@@ -24,7 +24,8 @@ public class SimTimeLong extends SimTime<Long, Long, SimTimeLong>
      */
     public SimTimeLong(final long time)
     {
-        super(time);
+        super();
+        this.time = time;
     }
 
     /** {@inheritDoc} */
@@ -62,6 +63,15 @@ public class SimTimeLong extends SimTime<Long, Long, SimTimeLong>
         return this.time;
     }
 
+    /**
+     * Return the time as a primitive long, without boxing it into a Long as <code>get()</code> does.
+     * @return long; the time
+     */
+    public final long longValue()
+    {
+        return this.time;
+    }
+
     /** {@inheritDoc} */
     @Override
     public final SimTimeLong setZero()
@@ -0,0 +1,308 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Queue;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.ModelExecutionInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * A logical process of a ConservativeSimulator: the simulator of one partition of a DEVS model, with its own event list, that
+ * runs on its own thread. The logical process executes its events in windows; in a window it executes the events before its
+ * bound, the earliest time at which a message from another logical process can arrive, and not after the next event of the
+ * ConservativeSimulator itself. The messages from other logical processes are delayed messages of internal couplings, which
+ * arrive in the channel of the logical process, and are added to its event list between the windows. A logical process
+ * therefore never receives a message in its past, and executes its events in the same order as a sequential simulator.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, such as Double or
+ *            Long, the absolute and relative types are the same.
+ * @param <T> the simulation time type based on the absolute and relative time.
+ * @since 3.03.06
+ */
+public class ConservativeLogicalProcess<A extends Comparable<A>, R extends Number & Comparable<R>,
+        T extends SimTime<A, R, T>> extends DEVSSimulator<A, R, T> implements ModelExecutionInterface<A, R, T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the logical process that executes its events on the current thread. */
+    private static final ThreadLocal<ConservativeLogicalProcess<?, ?, ?>> CURRENT = new ThreadLocal<>();
+
+    /** the simulator of the logical process. */
+    private final ConservativeSimulator<A, R, T> conservative;
+
+    /** the name of the logical process. */
+    private final String name;
+
+    /** the channel with the messages from other logical processes that have not been added to the event list yet. */
+    private transient Queue<SimEventInterface<T>> channel = new ConcurrentLinkedQueue<>();
+
+    /** the time before which the events are executed in the current window; null when no message can arrive. */
+    private transient T bound = null;
+
+    /** the time after which the events are not executed in the current window; null when the simulator has no events. */
+    private transient T limit = null;
+
+    /** the number of windows in which the logical process executed events. */
+    private long windows = 0L;
+
+    /**
+     * Create a logical process for the current time and replication of the ConservativeSimulator.
+     * @param conservative ConservativeSimulator&lt;A,R,T&gt;; the simulator of the logical process
+     * @param name String; the name of the logical process
+     */
+    ConservativeLogicalProcess(final ConservativeSimulator<A, R, T> conservative, final String name)
+    {
+        // the logical process runs on a thread of the ConservativeSimulator, and does not need its own worker thread
+        cleanUp();
+        this.conservative = conservative;
+        this.name = name;
+        this.replication = conservative.getReplication();
+        this.simulatorTime = conservative.getSimTime().copy();
+    }
+
+    /**
+     * @return ConservativeSimulator&lt;A,R,T&gt;; the simulator of the logical process
+     */
+    public final ConservativeSimulator<A, R, T> getConservativeSimulator()
+    {
+        return this.conservative;
+    }
+
+    /**
+     * @return String; the name of the logical process
+     */
+    public final String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return long; the number of windows in which the logical process executed events
+     */
+    public final long getWindows()
+    {
+        return this.windows;
+    }
+
+    /**
+     * Post a delayed message for a model on this logical process. A message from another logical process is put in the
+     * channel, and added to the event list after the current window; other messages are scheduled directly.
+     * @param message SimEventInterface&lt;T&gt;; the event that delivers the message
+     * @return boolean; always true, since the message is posted or scheduled
+     * @throws SimRuntimeException when the message arrives before the bound of the current window, or in the past
+     */
+    @Override
+    public final boolean postDelayed(final SimEventInterface<T> message) throws SimRuntimeException
+    {
+        ConservativeLogicalProcess<?, ?, ?> sender = CURRENT.get();
+        if (sender == null || sender == this)
+        {
+            scheduleEvent(message);
+            return true;
+        }
+        if (this.bound != null && message.getAbsoluteExecutionTime().lt(this.bound))
+        {
+            throw new SimRuntimeException("message at " + message.getAbsoluteExecutionTime() + " for " + this.name
+                    + " is earlier than the lookahead bound " + this.bound);
+        }
+        this.channel.add(message);
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final ModelExecutionInterface<A, R, T> getModelExecution()
+    {
+        return this;
+    }
+
+    /**
+     * Execute an action of the ConservativeSimulator on the thread of a logical process, such as the computation of the next
+     * window, as if it is executed on the thread of the simulator: the delayed messages that the action sends are scheduled
+     * directly, since the logical processes wait.
+     * @param action Runnable; the action
+     */
+    static void executeOutside(final Runnable action)
+    {
+        ConservativeLogicalProcess<?, ?, ?> process = CURRENT.get();
+        CURRENT.remove();
+        try
+        {
+            action.run();
+        }
+        finally
+        {
+            if (process != null)
+            {
+                CURRENT.set(process);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void start(final boolean fireStartEvent) throws SimRuntimeException
+    {
+        throw new SimRuntimeException("a logical process is started by its ConservativeSimulator");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void step(final boolean fireStepEvent) throws SimRuntimeException
+    {
+        throw new SimRuntimeException("a logical process cannot step");
+    }
+
+    /**
+     * Execute the windows of the logical process on the current thread, until the ConservativeSimulator has finished the run.
+     * The logical process waits for the other logical processes after every window, while the ConservativeSimulator computes
+     * the bounds of the next window.
+     */
+    @Override
+    public final void run()
+    {
+        CURRENT.set(this);
+        this.running = true;
+        T endTime = this.replication.getTreatment().getEndSimTime();
+        try
+        {
+            while (true)
+            {
+                this.conservative.awaitWindow();
+                if (this.conservative.isFinished())
+                {
+                    break;
+                }
+                executeWindow(endTime);
+            }
+        }
+        catch (InterruptedException | BrokenBarrierException exception)
+        {
+            if (!this.conservative.isFinished())
+            {
+                this.conservative.fail(exception);
+            }
+        }
+        finally
+        {
+            this.running = false;
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Execute the events before the bound of the window that are not after the limit of the window and the end of the
+     * replication.
+     * @param endTime T; the end of the replication
+     */
+    private void executeWindow(final T endTime)
+    {
+        boolean executed = false;
+        while (this.conservative.isRunning() && !this.eventList.isEmpty())
+        {
+            synchronized (super.semaphore)
+            {
+                T time = this.eventList.first().getAbsoluteExecutionTime();
+                if (time.gt(endTime) || (this.bound != null && !time.lt(this.bound))
+                        || (this.limit != null && time.gt(this.limit)))
+                {
+                    break;
+                }
+                SimEventInterface<T> event = this.eventList.removeFirst();
+                this.simulatorTime = event.getAbsoluteExecutionTime();
+                try
+                {
+                    event.execute();
+                }
+                catch (Exception exception)
+                {
+                    this.conservative.handleError(exception);
+                }
+            }
+            executed = true;
+        }
+        if (executed)
+        {
+            this.windows++;
+        }
+    }
+
+    /**
+     * Add the messages in the channel to the event list, while the logical process waits for the next window.
+     * @throws SimRuntimeException when a message is in the past
+     */
+    final void receiveMessages() throws SimRuntimeException
+    {
+        SimEventInterface<T> message;
+        while ((message = this.channel.poll()) != null)
+        {
+            scheduleEvent(message);
+        }
+    }
+
+    /**
+     * @return T; the time of the earliest event of the logical process, or null when the logical process has no events
+     */
+    final T getNextTime()
+    {
+        return this.eventList.isEmpty() ? null : this.eventList.first().getAbsoluteExecutionTime();
+    }
+
+    /**
+     * Set the bound and the limit of the next window, while the logical process waits for the next window.
+     * @param bound T; the time before which the events are executed in the next window; null when no message can arrive
+     * @param limit T; the time after which the events are not executed in the next window, i.e., the time of the next event
+     *            of the simulator itself; null when the simulator has no events
+     */
+    final void setBound(final T bound, final T limit)
+    {
+        this.bound = bound;
+        this.limit = limit;
+    }
+
+    /**
+     * Advance the time of the logical process to the time of an event of the simulator itself, while the logical process
+     * waits for the next window, so the models of the logical process see the time of the event.
+     * @param time T; the time of the event of the simulator
+     */
+    final void advanceTime(final T time)
+    {
+        if (time.gt(this.simulatorTime))
+        {
+            this.simulatorTime = time.copy();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final String toString()
+    {
+        return "ConservativeLogicalProcess[" + this.name + "]";
+    }
+
+    /**
+     * reads the logical process from stream, and creates the transient channel.
+     * @param in java.io.ObjectInputStream; the inputstream
+     * @throws IOException on IOException
+     * @throws ClassNotFoundException when a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.channel = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,637 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import org.djunits.value.vdouble.scalar.Duration;
+import org.djunits.value.vdouble.scalar.Time;
+import org.djunits.value.vfloat.scalar.FloatDuration;
+import org.djunits.value.vfloat.scalar.FloatTime;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AbstractDEVSModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.EIC;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.EOC;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.IC;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.logger.SimLogger;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarLong;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDoubleUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloatUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
+
+/**
+ * The ConservativeSimulator executes the partitions of a DEVS model in parallel, without ever rolling back. Every partition
+ * is a coupled model that is assigned to a ConservativeLogicalProcess with addLogicalProcess(), in the constructModel()
+ * method, before the atomic models of the partition are initialized. The partitions are connected by internal couplings
+ * with a delay; the delay of a coupling is its lookahead, i.e., a message that is sent at time t arrives at t + delay.
+ * <p>
+ * The logical processes run on their own threads, and execute their events in synchronous windows. Between the windows, the
+ * logical processes wait while the simulator adds the messages in their channels to their event lists, and computes the
+ * bound of every logical process: the earliest time of the next event of a logical process that it is coupled to, plus the
+ * delay of the coupling. In the next window, a logical process executes its events before its bound, since no message can
+ * arrive earlier. The simulator time is the time of the earliest event in the logical processes, and the events of the
+ * simulator itself, such as the warmup and the end of the replication, are executed between the windows. A window does not
+ * pass the next event of the simulator, and the logical processes are at the time of an event of the simulator when it is
+ * executed, so the event can send messages to the models of the logical processes. At the same time, the events of the
+ * logical processes are executed before the events of the simulator.
+ * </p>
+ * <p>
+ * The delayed messages that arrive at the same time are ordered on their couplings and the order in which they were sent,
+ * and the events of a logical process are only affected by the models of its own partition and these messages. The results
+ * are therefore identical to the results of the same model on a DEVSSimulator. The couplings are checked when the run
+ * starts: a coupling between two logical processes needs a delay, and the models of a coupling into or out of a partition
+ * have to be in a partition as well.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, such as Double or
+ *            Long, the absolute and relative types are the same.
+ * @param <T> the simulation time type based on the absolute and relative time.
+ * @since 3.03.06
+ */
+public class ConservativeSimulator<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+        extends DEVSSimulator<A, R, T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the logical processes. */
+    private transient List<ConservativeLogicalProcess<A, R, T>> processes = new ArrayList<>();
+
+    /** the partitions of the logical processes. */
+    private transient List<CoupledModel<A, R, T>> partitions = new ArrayList<>();
+
+    /** the lookahead of the couplings into every logical process: the logical processes it is coupled to and the delays. */
+    private transient Map<ConservativeLogicalProcess<A, R, T>, Map<ConservativeLogicalProcess<A, R, T>, R>> lookahead =
+            new IdentityHashMap<>();
+
+    /** the barrier at which the logical processes wait for the next window. */
+    private transient CyclicBarrier barrier = null;
+
+    /** whether the logical processes run. */
+    private transient volatile boolean processing = false;
+
+    /** whether the logical processes have finished the run. */
+    private transient volatile boolean finished = false;
+
+    /** the exception that ended the run of the logical processes; null when none occurred. */
+    private transient volatile Exception failure = null;
+
+    /**
+     * Assign a coupled model and all its components to a new logical process. The models that are added to the coupled model
+     * afterwards are assigned to the logical process as well. The atomic models have to be initialized after the assignment.
+     * @param partition CoupledModel&lt;A,R,T&gt;; the coupled model
+     * @return ConservativeLogicalProcess&lt;A,R,T&gt;; the logical process
+     * @throws SimRuntimeException when the simulator is running
+     */
+    public final ConservativeLogicalProcess<A, R, T> addLogicalProcess(final CoupledModel<A, R, T> partition)
+            throws SimRuntimeException
+    {
+        if (isRunning())
+        {
+            throw new SimRuntimeException("cannot add a logical process to a running simulator");
+        }
+        ConservativeLogicalProcess<A, R, T> process = new ConservativeLogicalProcess<>(this, partition.getFullName());
+        assign(partition, process);
+        this.processes.add(process);
+        this.partitions.add(partition);
+        return process;
+    }
+
+    /**
+     * Assign a model and its components to a logical process.
+     * @param model AbstractDEVSModel&lt;A,R,T&gt;; the model
+     * @param process ConservativeLogicalProcess&lt;A,R,T&gt;; the logical process
+     */
+    private void assign(final AbstractDEVSModel<A, R, T> model, final ConservativeLogicalProcess<A, R, T> process)
+    {
+        model.setSimulator(process);
+        if (model instanceof CoupledModel)
+        {
+            for (AbstractDEVSModel<A, R, T> component : ((CoupledModel<A, R, T>) model).getModelComponents())
+            {
+                assign(component, process);
+            }
+        }
+    }
+
+    /**
+     * @return List&lt;ConservativeLogicalProcess&lt;A,R,T&gt;&gt;; the logical processes
+     */
+    public final List<ConservativeLogicalProcess<A, R, T>> getLogicalProcesses()
+    {
+        return Collections.unmodifiableList(this.processes);
+    }
+
+    /**
+     * @return boolean; whether the logical processes have finished the run
+     */
+    final boolean isFinished()
+    {
+        return this.finished;
+    }
+
+    /**
+     * Wait until all logical processes have finished their window, and the next window has been computed.
+     * @throws InterruptedException when the thread of the logical process is interrupted
+     * @throws BrokenBarrierException when another logical process is interrupted
+     */
+    final void awaitWindow() throws InterruptedException, BrokenBarrierException
+    {
+        this.barrier.await();
+    }
+
+    /**
+     * End the run of the logical processes after an exception in the synchronization, at the end of the window.
+     * @param exception Exception; the exception
+     */
+    final void fail(final Exception exception)
+    {
+        SimLogger.always().error(exception);
+        this.failure = exception;
+    }
+
+    /**
+     * Log an exception of an event, and stop the simulator when it pauses on errors.
+     * @param exception Exception; the exception
+     */
+    final void handleError(final Exception exception)
+    {
+        SimLogger.always().error(exception);
+        if (this.isPauseOnError() && isRunning())
+        {
+            try
+            {
+                this.stop();
+            }
+            catch (SimRuntimeException stopException)
+            {
+                SimLogger.always().error(stopException);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void initialize(final Replication<A, R, T, ? extends SimulatorInterface<A, R, T>> initReplication,
+            final ReplicationMode replicationMode) throws SimRuntimeException
+    {
+        this.processes.clear();
+        this.partitions.clear();
+        super.initialize(initReplication, replicationMode);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void step(final boolean fireStepEvent) throws SimRuntimeException
+    {
+        if (!this.processes.isEmpty())
+        {
+            throw new SimRuntimeException("a ConservativeSimulator with logical processes cannot step");
+        }
+        super.step(fireStepEvent);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void run()
+    {
+        if (this.processes.isEmpty())
+        {
+            super.run();
+            return;
+        }
+        // the worker thread executes its job with the interrupted status set
+        Thread.interrupted();
+        this.finished = false;
+        this.failure = null;
+        try
+        {
+            computeLookahead();
+        }
+        catch (SimRuntimeException exception)
+        {
+            fail(exception);
+            stopOnFailure();
+            return;
+        }
+        // the window is computed on the thread of the logical process that arrives last at the barrier
+        this.barrier =
+                new CyclicBarrier(this.processes.size(), () -> ConservativeLogicalProcess.executeOutside(this::computeWindow));
+        List<Thread> threads = new ArrayList<>();
+        this.processing = true;
+        try
+        {
+            for (ConservativeLogicalProcess<A, R, T> process : this.processes)
+            {
+                Thread thread = new Thread(process, process.getName());
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads)
+            {
+                while (thread.isAlive())
+                {
+                    try
+                    {
+                        thread.join();
+                    }
+                    catch (InterruptedException exception)
+                    {
+                        // keep waiting until the logical processes have finished
+                    }
+                }
+            }
+        }
+        finally
+        {
+            this.processing = false;
+        }
+    }
+
+    /**
+     * Collect the delays of the couplings between the logical processes, from the coupled models above the partitions.
+     * @throws SimRuntimeException when a coupling between two logical processes has no delay, or when a coupling connects a
+     *             partition to a model that is not in a partition
+     */
+    private void computeLookahead() throws SimRuntimeException
+    {
+        this.lookahead.clear();
+        for (ConservativeLogicalProcess<A, R, T> process : this.processes)
+        {
+            this.lookahead.put(process, new IdentityHashMap<>());
+        }
+        Set<CoupledModel<A, R, T>> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CoupledModel<A, R, T> partition : this.partitions)
+        {
+            CoupledModel<A, R, T> root = partition;
+            while (root.getParentModel() != null)
+            {
+                root = root.getParentModel();
+            }
+            roots.add(root);
+        }
+        for (CoupledModel<A, R, T> root : roots)
+        {
+            collectLookahead(root);
+        }
+    }
+
+    /**
+     * Collect the delays of the couplings between the logical processes in a coupled model and its coupled components.
+     * @param model CoupledModel&lt;A,R,T&gt;; the coupled model
+     * @throws SimRuntimeException when a coupling between two logical processes has no delay, or when a coupling connects a
+     *             partition to a model that is not in a partition
+     */
+    private void collectLookahead(final CoupledModel<A, R, T> model) throws SimRuntimeException
+    {
+        for (IC<A, R, T, ?> ic : model.getInternalCouplingSet())
+        {
+            addLookahead(ic.getFromPort().getModel(), ic.getToPort().getModel(), ic.getDelay());
+        }
+        for (EIC<A, R, T, ?> eic : model.getExternalInputCouplingSet())
+        {
+            addLookahead(eic.getFromPort().getModel(), eic.getToPort().getModel(), null);
+        }
+        for (EOC<A, R, T, ?> eoc : model.getExternalOutputCouplingSet())
+        {
+            addLookahead(eoc.getFromPort().getModel(), eoc.getToPort().getModel(), null);
+        }
+        for (AbstractDEVSModel<A, R, T> component : model.getModelComponents())
+        {
+            if (component instanceof CoupledModel)
+            {
+                collectLookahead((CoupledModel<A, R, T>) component);
+            }
+        }
+    }
+
+    /**
+     * Add the delay of a coupling to the lookahead when the coupling connects two logical processes.
+     * @param from AbstractDEVSModel&lt;A,R,T&gt;; the model at the start of the coupling
+     * @param to AbstractDEVSModel&lt;A,R,T&gt;; the model at the end of the coupling
+     * @param delay R; the delay of the coupling; null when the coupling has no delay
+     * @throws SimRuntimeException when the coupling connects two logical processes without a delay, or a logical process to
+     *             a model that is not in a logical process
+     */
+    @SuppressWarnings("unchecked")
+    private void addLookahead(final AbstractDEVSModel<A, R, T> from, final AbstractDEVSModel<A, R, T> to, final R delay)
+            throws SimRuntimeException
+    {
+        DEVSSimulatorInterface<A, R, T> source = from.getSimulator();
+        DEVSSimulatorInterface<A, R, T> target = to.getSimulator();
+        if (source == target || (!this.lookahead.containsKey(source) && !this.lookahead.containsKey(target)))
+        {
+            return;
+        }
+        if (!this.lookahead.containsKey(source) || !this.lookahead.containsKey(target))
+        {
+            throw new SimRuntimeException("the coupling from " + from.getFullName() + " to " + to.getFullName()
+                    + " connects a logical process to a model that is not in a logical process");
+        }
+        if (delay == null)
+        {
+            throw new SimRuntimeException("the coupling from " + from.getFullName() + " to " + to.getFullName()
+                    + " between two logical processes has no delay");
+        }
+        Map<ConservativeLogicalProcess<A, R, T>, R> delays = this.lookahead.get(target);
+        R lookaheadDelay = delays.get(source);
+        if (lookaheadDelay == null || delay.compareTo(lookaheadDelay) < 0)
+        {
+            delays.put((ConservativeLogicalProcess<A, R, T>) source, delay);
+        }
+    }
+
+    /**
+     * Compute the next window while all logical processes wait: add the messages in the channels to the event lists, execute
+     * the events of the simulator itself before the earliest event of the logical processes, compute the bounds of the
+     * logical processes and the limit of the window, and finish the run when the logical processes have no events left, or
+     * the simulator is stopped.
+     */
+    private void computeWindow()
+    {
+        synchronized (super.semaphore)
+        {
+            receiveMessages();
+            T next = getNextTime();
+            while (!this.eventList.isEmpty() && this.failure == null
+                    && (next == null || this.eventList.first().getAbsoluteExecutionTime().lt(next)))
+            {
+                SimEventInterface<T> event = this.eventList.removeFirst();
+                if (event.getAbsoluteExecutionTime().ne(super.simulatorTime))
+                {
+                    super.fireTimeChanged(event.getAbsoluteExecutionTime());
+                }
+                super.simulatorTime = event.getAbsoluteExecutionTime();
+                for (ConservativeLogicalProcess<A, R, T> process : this.processes)
+                {
+                    process.advanceTime(super.simulatorTime);
+                }
+                try
+                {
+                    event.execute();
+                }
+                catch (Exception exception)
+                {
+                    handleError(exception);
+                }
+                // the events of the simulator can schedule events and send messages to the logical processes
+                receiveMessages();
+                next = getNextTime();
+            }
+            if (next != null && isRunning() && next.gt(super.simulatorTime))
+            {
+                super.fireTimeChanged(next);
+                super.simulatorTime = next.copy();
+            }
+            T limit = this.eventList.isEmpty() ? null : this.eventList.first().getAbsoluteExecutionTime();
+            for (ConservativeLogicalProcess<A, R, T> process : this.processes)
+            {
+                T bound = null;
+                for (Map.Entry<ConservativeLogicalProcess<A, R, T>, R> entry : this.lookahead.get(process).entrySet())
+                {
+                    T sourceTime = entry.getKey().getNextTime();
+                    if (sourceTime != null)
+                    {
+                        T sourceBound = sourceTime.plus(entry.getValue());
+                        if (bound == null || sourceBound.lt(bound))
+                        {
+                            bound = sourceBound;
+                        }
+                    }
+                }
+                process.setBound(bound, limit);
+            }
+            stopOnFailure();
+            this.finished = !isRunning() || next == null;
+        }
+    }
+
+    /**
+     * Add the messages in the channels of the logical processes to their event lists.
+     */
+    private void receiveMessages()
+    {
+        try
+        {
+            for (ConservativeLogicalProcess<A, R, T> process : this.processes)
+            {
+                process.receiveMessages();
+            }
+        }
+        catch (SimRuntimeException exception)
+        {
+            fail(exception);
+        }
+    }
+
+    /**
+     * @return T; the time of the earliest event in the logical processes, or null when they have no events
+     */
+    private T getNextTime()
+    {
+        T next = null;
+        for (ConservativeLogicalProcess<A, R, T> process : this.processes)
+        {
+            T time = process.getNextTime();
+            if (time != null && (next == null || time.lt(next)))
+            {
+                next = time;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Stop the simulator when an exception ended the run of the logical processes.
+     */
+    private void stopOnFailure()
+    {
+        if (this.failure != null && isRunning())
+        {
+            try
+            {
+                this.stop();
+            }
+            catch (SimRuntimeException stopException)
+            {
+                SimLogger.always().error(stopException);
+            }
+        }
+    }
+
+    /**
+     * reads the simulator from stream, and creates the transient lists of logical processes and partitions, and the map of
+     * the lookahead.
+     * @param in java.io.ObjectInputStream; the inputstream
+     * @throws IOException on IOException
+     * @throws ClassNotFoundException when a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.processes = new ArrayList<>();
+        this.partitions = new ArrayList<>();
+        this.lookahead = new IdentityHashMap<>();
+    }
+
+    /***********************************************************************************************************/
+    /************************************* EASY ACCESS CLASS EXTENSIONS ****************************************/
+    /***********************************************************************************************************/
+
+    /** Easy access class ConservativeSimulator.TimeDouble. */
+    public static class TimeDouble extends ConservativeSimulator<Double, Double, SimTimeDouble>
+            implements DEVSSimulatorInterface.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeDouble<? extends DEVSSimulatorInterface.TimeDouble> getReplication()
+        {
+            return (Replication.TimeDouble<? extends DEVSSimulatorInterface.TimeDouble>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ConservativeSimulator.TimeFloat. */
+    public static class TimeFloat extends ConservativeSimulator<Float, Float, SimTimeFloat>
+            implements DEVSSimulatorInterface.TimeFloat
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeFloat<? extends DEVSSimulatorInterface.TimeFloat> getReplication()
+        {
+            return (Replication.TimeFloat<? extends DEVSSimulatorInterface.TimeFloat>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ConservativeSimulator.TimeLong. */
+    public static class TimeLong extends ConservativeSimulator<Long, Long, SimTimeLong>
+            implements DEVSSimulatorInterface.TimeLong
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeLong<? extends DEVSSimulatorInterface.TimeLong> getReplication()
+        {
+            return (Replication.TimeLong<? extends DEVSSimulatorInterface.TimeLong>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ConservativeSimulator.TimeDoubleUnit. */
+    public static class TimeDoubleUnit extends ConservativeSimulator<Time, Duration, SimTimeDoubleUnit>
+            implements DEVSSimulatorInterface.TimeDoubleUnit
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeDoubleUnit<? extends DEVSSimulatorInterface.TimeDoubleUnit> getReplication()
+        {
+            return (Replication.TimeDoubleUnit<? extends DEVSSimulatorInterface.TimeDoubleUnit>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ConservativeSimulator.TimeFloatUnit. */
+    public static class TimeFloatUnit extends ConservativeSimulator<FloatTime, FloatDuration, SimTimeFloatUnit>
+            implements DEVSSimulatorInterface.TimeFloatUnit
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeFloatUnit<? extends DEVSSimulatorInterface.TimeFloatUnit> getReplication()
+        {
+            return (Replication.TimeFloatUnit<? extends DEVSSimulatorInterface.TimeFloatUnit>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ConservativeSimulator.CalendarDouble. */
+    public static class CalendarDouble extends ConservativeSimulator<Calendar, Duration, SimTimeCalendarDouble>
+            implements DEVSSimulatorInterface.CalendarDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarDouble<? extends DEVSSimulatorInterface.CalendarDouble> getReplication()
+        {
+            return (Replication.CalendarDouble<? extends DEVSSimulatorInterface.CalendarDouble>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ConservativeSimulator.CalendarFloat. */
+    public static class CalendarFloat extends ConservativeSimulator<Calendar, FloatDuration, SimTimeCalendarFloat>
+            implements DEVSSimulatorInterface.CalendarFloat
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarFloat<? extends DEVSSimulatorInterface.CalendarFloat> getReplication()
+        {
+            return (Replication.CalendarFloat<? extends DEVSSimulatorInterface.CalendarFloat>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ConservativeSimulator.CalendarLong. */
+    public static class CalendarLong extends ConservativeSimulator<Calendar, Long, SimTimeCalendarLong>
+            implements DEVSSimulatorInterface.CalendarLong
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarLong<? extends DEVSSimulatorInterface.CalendarLong> getReplication()
+        {
+            return (Replication.CalendarLong<? extends DEVSSimulatorInterface.CalendarLong>) super.getReplication();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package nl.tudelft.simulation.dsol.simulators;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 
 import org.djunits.value.vdouble.scalar.Duration;
 import org.djunits.value.vdouble.scalar.Time;
@@ -10,6 +12,7 @@ import org.djunits.value.vfloat.scalar.FloatTime;
 import nl.tudelft.simulation.dsol.SimRuntimeException;
 import nl.tudelft.simulation.dsol.experiment.Replication;
 import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.dess.StateEventSourceInterface;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarFloat;
@@ -47,6 +50,9 @@ public class DESSSimulator<A extends Comparable<A>, R extends Number & Comparabl
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected R timeStep;
 
+    /** the sources of state events. */
+    private final List<StateEventSourceInterface<A, R, T>> stateEventSources = new ArrayList<>();
+
     /**
      * Construct a DESSSimulator with an initial time step for the integration process.
      * @param initialTimeStep R; the initial time step to use in the integration.
@@ -91,6 +97,46 @@ public class DESSSimulator<A extends Comparable<A>, R extends Number & Comparabl
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public final void addStateEventSource(final StateEventSourceInterface<A, R, T> source)
+    {
+        synchronized (super.semaphore)
+        {
+            this.stateEventSources.add(source);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean removeStateEventSource(final StateEventSourceInterface<A, R, T> source)
+    {
+        synchronized (super.semaphore)
+        {
+            return this.stateEventSources.remove(source);
+        }
+    }
+
+    /**
+     * ends a time step at the earliest state event that the state event sources locate in it. The next time step then starts
+     * at the state event.
+     * @param runUntil T; the end of the time step
+     * @return T; runUntil, or the time of the earliest state event when it is before runUntil
+     */
+    protected final T locateStateEvents(final T runUntil)
+    {
+        T until = runUntil;
+        for (StateEventSourceInterface<A, R, T> source : this.stateEventSources)
+        {
+            T located = source.locateStateEvent(this.simulatorTime, until);
+            if (located != null && located.gt(this.simulatorTime) && located.lt(until))
+            {
+                until = located;
+            }
+        }
+        return until;
+    }
+
     /** {@inheritDoc} */
     @Override
     @SuppressWarnings("checkstyle:designforextension")
@@ -100,13 +146,16 @@ public class DESSSimulator<A extends Comparable<A>, R extends Number & Comparabl
         {
             synchronized (super.semaphore)
             {
-                this.simulatorTime = this.simulatorTime.plus(this.timeStep);
+                this.simulatorTime = locateStateEvents(this.simulatorTime.plus(this.timeStep));
                 if (this.simulatorTime.gt(this.replication.getTreatment().getEndSimTime()))
                 {
                     this.simulatorTime = this.replication.getTreatment().getEndSimTime().copy();
                     this.endReplication();
                 }
-                this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+                if (this.hasListeners(SimulatorInterface.TIME_CHANGED_EVENT))
+                {
+                    this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+                }
             }
         }
     }
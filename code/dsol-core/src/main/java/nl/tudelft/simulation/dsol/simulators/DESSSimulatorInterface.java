@@ -8,6 +8,7 @@ import org.djunits.value.vfloat.scalar.FloatDuration;
 import org.djunits.value.vfloat.scalar.FloatTime;
 
 import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.dess.StateEventSourceInterface;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarFloat;
@@ -58,6 +59,20 @@ public interface DESSSimulatorInterface<A extends Comparable<A>, R extends Numbe
      */
     void setTimeStep(R timeStep) throws SimRuntimeException;
 
+    /**
+     * adds a source of state events. Before every time step, the simulator asks the sources to locate their state events,
+     * and ends the time step at the earliest one.
+     * @param source StateEventSourceInterface&lt;A,R,T&gt;; the source of state events
+     */
+    void addStateEventSource(StateEventSourceInterface<A, R, T> source);
+
+    /**
+     * removes a source of state events.
+     * @param source StateEventSourceInterface&lt;A,R,T&gt;; the source of state events
+     * @return boolean; whether the source was registered
+     */
+    boolean removeStateEventSource(StateEventSourceInterface<A, R, T> source);
+
     /***********************************************************************************************************/
     /*********************************** EASY ACCESS INTERFACE EXTENSIONS **************************************/
     /***********************************************************************************************************/
@@ -101,7 +101,7 @@ public class DEVDESSAnimator<A extends Comparable<A>, R extends Number & Compara
                 exception = null;
                 // Let's neglect this sleep..
             }
-            T runUntil = this.simulatorTime.plus(this.timeStep);
+            T runUntil = locateStateEvents(this.simulatorTime.plus(this.timeStep));
             while (!this.eventList.isEmpty() && this.running && runUntil.ge(this.eventList.first().getAbsoluteExecutionTime()))
             {
                 synchronized (super.semaphore)
@@ -109,8 +109,7 @@ public class DEVDESSAnimator<A extends Comparable<A>, R extends Number & Compara
                     SimEventInterface<T> event = this.eventList.removeFirst();
                     if (event.getAbsoluteExecutionTime().ne(super.simulatorTime))
                     {
-                        super.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, event.getAbsoluteExecutionTime(),
-                                event.getAbsoluteExecutionTime().get());
+                        integrateAndFireTimeChanged(event.getAbsoluteExecutionTime());
                     }
                     this.simulatorTime = event.getAbsoluteExecutionTime();
                     try
@@ -127,7 +126,7 @@ public class DEVDESSAnimator<A extends Comparable<A>, R extends Number & Compara
             {
                 this.simulatorTime = runUntil;
             }
-            this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+            integrateAndFireTimeChanged(this.simulatorTime);
         }
         updateAnimation();
         animationThread.stopAnimation();
@@ -1,6 +1,9 @@
 package nl.tudelft.simulation.dsol.simulators;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.djunits.value.vdouble.scalar.Duration;
 import org.djunits.value.vdouble.scalar.Time;
@@ -9,6 +12,9 @@ import org.djunits.value.vfloat.scalar.FloatTime;
 
 import nl.tudelft.simulation.dsol.SimRuntimeException;
 import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.dess.IntegrableInterface;
+import nl.tudelft.simulation.dsol.formalisms.dess.StateEventSourceInterface;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
 import nl.tudelft.simulation.dsol.logger.SimLogger;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
@@ -48,6 +54,12 @@ public class DEVDESSSimulator<A extends Comparable<A>, R extends Number & Compar
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected R timeStep;
 
+    /** the sources of state events. */
+    private final List<StateEventSourceInterface<A, R, T>> stateEventSources = new ArrayList<>();
+
+    /** the integrables, and the parallel integration of them. */
+    private final ParallelIntegration parallelIntegration = new ParallelIntegration();
+
     /**
      * Construct a DEVDESSSimulator with an initial time step for the integration process.
      * @param initialTimeStep R; the initial time step to use in the integration.
@@ -59,6 +71,26 @@ public class DEVDESSSimulator<A extends Comparable<A>, R extends Number & Compar
         setTimeStep(initialTimeStep);
     }
 
+    /**
+     * {@inheritDoc} The integrables of an earlier replication are removed before the model is constructed, as the model
+     * registers its integrables again.
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void initialize(final Replication<A, R, T, ? extends SimulatorInterface<A, R, T>> initReplication,
+            final ReplicationMode replicationMode) throws SimRuntimeException
+    {
+        if (this.isRunning())
+        {
+            throw new SimRuntimeException("Cannot initialize a running simulator");
+        }
+        synchronized (super.semaphore)
+        {
+            this.parallelIntegration.clear();
+            super.initialize(initReplication, replicationMode);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public final R getTimeStep()
@@ -81,6 +113,98 @@ public class DEVDESSSimulator<A extends Comparable<A>, R extends Number & Compar
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public final void addStateEventSource(final StateEventSourceInterface<A, R, T> source)
+    {
+        synchronized (super.semaphore)
+        {
+            this.stateEventSources.add(source);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean removeStateEventSource(final StateEventSourceInterface<A, R, T> source)
+    {
+        synchronized (super.semaphore)
+        {
+            return this.stateEventSources.remove(source);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void addIntegrable(final IntegrableInterface integrable)
+    {
+        synchronized (super.semaphore)
+        {
+            this.parallelIntegration.add(integrable);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean removeIntegrable(final IntegrableInterface integrable)
+    {
+        synchronized (super.semaphore)
+        {
+            return this.parallelIntegration.remove(integrable);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void setParallelIntegration(final ForkJoinPool pool, final int batchSize)
+    {
+        synchronized (super.semaphore)
+        {
+            this.parallelIntegration.setParallelism(pool, batchSize);
+        }
+    }
+
+    /**
+     * fires the TIME_CHANGED_EVENT, after the parallel integration of the integrables to the new time.
+     * @param time T; the new simulation time
+     */
+    protected final void integrateAndFireTimeChanged(final T time)
+    {
+        if (this.hasListeners(SimulatorInterface.TIME_CHANGED_EVENT))
+        {
+            this.parallelIntegration.integrate();
+            this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, time, time.get());
+        }
+    }
+
+    /**
+     * ends a time step at the earliest state event that the state event sources locate in it. When there are state event
+     * sources, the time step also ends at the first scheduled event, because the event can change the continuous state. The
+     * next time step then starts at the event or state event.
+     * @param runUntil T; the end of the time step
+     * @return T; runUntil, or the time of the first event or state event when it is before runUntil
+     */
+    protected final T locateStateEvents(final T runUntil)
+    {
+        if (this.stateEventSources.isEmpty())
+        {
+            return runUntil;
+        }
+        T until = runUntil;
+        if (!this.eventList.isEmpty() && this.eventList.first().getAbsoluteExecutionTime().lt(until))
+        {
+            until = this.eventList.first().getAbsoluteExecutionTime();
+        }
+        for (StateEventSourceInterface<A, R, T> source : this.stateEventSources)
+        {
+            T located = source.locateStateEvent(this.simulatorTime, until);
+            if (located != null && located.gt(this.simulatorTime) && located.lt(until))
+            {
+                until = located;
+            }
+        }
+        return until;
+    }
+
     /** {@inheritDoc} */
     @Override
     @SuppressWarnings("checkstyle:designforextension")
@@ -91,15 +215,14 @@ public class DEVDESSSimulator<A extends Comparable<A>, R extends Number & Compar
         {
             synchronized (super.semaphore)
             {
-                T runUntil = this.simulatorTime.plus(this.timeStep);
+                T runUntil = locateStateEvents(this.simulatorTime.plus(this.timeStep));
                 while (!this.eventList.isEmpty() && this.running
                         && runUntil.ge(this.eventList.first().getAbsoluteExecutionTime()))
                 {
                     SimEventInterface<T> event = this.eventList.removeFirst();
                     if (event.getAbsoluteExecutionTime().ne(super.simulatorTime))
                     {
-                        super.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, event.getAbsoluteExecutionTime(),
-                                event.getAbsoluteExecutionTime().get());
+                        integrateAndFireTimeChanged(event.getAbsoluteExecutionTime());
                     }
                     this.simulatorTime = event.getAbsoluteExecutionTime();
                     try
@@ -126,8 +249,7 @@ public class DEVDESSSimulator<A extends Comparable<A>, R extends Number & Compar
                 {
                     this.simulatorTime = runUntil;
                 }
-                this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime,
-                        this.simulatorTime.get());
+                integrateAndFireTimeChanged(this.simulatorTime);
             }
         }
     }
@@ -1,12 +1,14 @@
 package nl.tudelft.simulation.dsol.simulators;
 
 import java.util.Calendar;
+import java.util.concurrent.ForkJoinPool;
 
 import org.djunits.value.vdouble.scalar.Duration;
 import org.djunits.value.vdouble.scalar.Time;
 import org.djunits.value.vfloat.scalar.FloatDuration;
 import org.djunits.value.vfloat.scalar.FloatTime;
 
+import nl.tudelft.simulation.dsol.formalisms.dess.IntegrableInterface;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarFloat;
@@ -41,7 +43,29 @@ import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
 public interface DEVDESSSimulatorInterface<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
         extends DEVSSimulatorInterface<A, R, T>, DESSSimulatorInterface<A, R, T>
 {
-    // This interface combines the DESS and DEVS interfaces and does not add any operations.
+    /**
+     * adds a continuous model that can be integrated in parallel with the other integrables before the TIME_CHANGED_EVENT.
+     * @param integrable IntegrableInterface; the continuous model
+     */
+    void addIntegrable(IntegrableInterface integrable);
+
+    /**
+     * removes a continuous model that can be integrated in parallel.
+     * @param integrable IntegrableInterface; the continuous model
+     * @return boolean; whether the model was registered
+     */
+    boolean removeIntegrable(IntegrableInterface integrable);
+
+    /**
+     * sets the parallel integration of the integrables. Before every TIME_CHANGED_EVENT, the simulator then divides the
+     * integrables into batches, and integrates the batches in parallel on the pool. It fires the event when all batches are
+     * done, so the integrables fire their events in the same order as without parallel integration. The integrables should
+     * be independent: the integration of one should not read or change the state of another.
+     * @param pool ForkJoinPool; the pool to integrate on, or null to integrate every integrable when it is notified
+     * @param batchSize int; the number of integrables in a batch
+     * @throws IllegalArgumentException when the batch size is not positive
+     */
+    void setParallelIntegration(ForkJoinPool pool, int batchSize);
 
     /***********************************************************************************************************/
     /*********************************** EASY ACCESS INTERFACE EXTENSIONS **************************************/
@@ -94,8 +94,7 @@ public class DEVSAnimator<A extends Comparable<A>, R extends Number & Comparable
                     SimEventInterface<T> event = this.eventList.removeFirst();
                     if (event.getAbsoluteExecutionTime().ne(super.simulatorTime))
                     {
-                        super.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, event.getAbsoluteExecutionTime(),
-                                event.getAbsoluteExecutionTime().get());
+                        super.fireTimeChanged(event.getAbsoluteExecutionTime());
                     }
                     this.simulatorTime = event.getAbsoluteExecutionTime();
                     try
@@ -119,7 +118,10 @@ public class DEVSAnimator<A extends Comparable<A>, R extends Number & Comparable
                     }
                 }
             }
-            this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+            if (this.hasListeners(SimulatorInterface.TIME_CHANGED_EVENT))
+            {
+                this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+            }
         }
         updateAnimation();
         animationThread.stopAnimation();
@@ -0,0 +1,926 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.djunits.value.vdouble.scalar.Duration;
+import org.djunits.value.vdouble.scalar.Time;
+import org.djunits.value.vfloat.scalar.FloatDuration;
+import org.djunits.value.vfloat.scalar.FloatTime;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
+import nl.tudelft.simulation.dsol.eventlists.QuaternaryHeap;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.Executable;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.logger.SimLogger;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarLong;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDoubleUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloatUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
+import nl.tudelft.simulation.event.Event;
+
+/**
+ * The DEVSBatchSimulator is a DEVS simulator for models that run headless, e.g., in batch experiments without animation or
+ * remote control. Where the DEVSSimulator guards its event list with the simulator semaphore for every event that is
+ * scheduled or executed, the DEVSBatchSimulator confines the event list to the thread that executes the events, and does not
+ * take any monitor in the event loop or in the schedule methods that the model calls from within its events.
+ * <p>
+ * Other threads, such as a user interface, can still control the simulator while it runs. Their calls to
+ * <code>stop</code>, <code>scheduleEvent</code>, <code>scheduleEvents</code> and <code>cancelEvent</code> are posted as
+ * messages to a lock-free mailbox that the event loop checks between two events; <code>cancelEvent</code> waits until the
+ * event loop has removed the event, so it can return whether the event was still in the event list. While the simulator is
+ * not running, the event list is accessed directly by the calling thread; an idle DEVSBatchSimulator should therefore be
+ * controlled by one thread at a time. The event list that is returned by <code>getEventList</code> should only be inspected
+ * while the simulator is not running.
+ * </p>
+ * <p>
+ * The thread that executes the events can lend its direct access to the event list to a thread that executes on its behalf
+ * while it waits, such as the thread of a ThreadedProcess during the turn of the process. The schedule and cancel methods
+ * of that thread then access the event list directly, instead of posting a message that only the waiting thread processes.
+ * </p>
+ * <p>
+ * The default event list of the DEVSBatchSimulator is the QuaternaryHeap, which is not synchronized.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, such as Double or
+ *            Long, the absolute and relative types are the same.
+ * @param <T> the simulation time type based on the absolute and relative time.
+ * @since 3.03.06
+ */
+public class DEVSBatchSimulator<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+        extends Simulator<A, R, T> implements DEVSSimulatorInterface<A, R, T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the interval in milliseconds at which a thread that waits for a cancel checks whether the event loop has ended. */
+    private static final long CANCEL_CHECK_INTERVAL = 10L;
+
+    /** eventList represents the future event list. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected EventListInterface<T> eventList = new QuaternaryHeap<T>();
+
+    /** Does the simulation pause on error when executing an event? */
+    private boolean pauseOnError = false;
+
+    /** the mailbox with control messages from other threads, processed by the event loop between events. */
+    private transient Queue<ControlMessage<T>> mailbox = new ConcurrentLinkedQueue<>();
+
+    /** the thread that executes the events, or null when no thread is executing events. */
+    private transient volatile Thread loopThread = null;
+
+    /** the thread to which the direct access to the event list has been lent, or null when it has not been lent. */
+    private transient volatile Thread borrower = null;
+
+    /** the number of times the simulator has been started; used to discard stop messages for an earlier run. */
+    private transient volatile int runNumber = 0;
+
+    /**
+     * {@inheritDoc} When the event is cancelled by another thread than the thread that executes the events, the request is
+     * posted to the mailbox, and the calling thread waits until the event loop has processed it.
+     */
+    @Override
+    public final boolean cancelEvent(final SimEventInterface<T> event)
+    {
+        if (isConfined())
+        {
+            return this.eventList.remove(event);
+        }
+        ControlMessage<T> message = new ControlMessage<T>(ControlMessage.CANCEL, event, this.runNumber);
+        this.mailbox.add(message);
+        return awaitCancel(message);
+    }
+
+    /**
+     * Wait until a cancel message has been processed, and return whether the event was removed from the event list. When the
+     * event loop ends before it processes the message, the calling thread processes the mailbox itself.
+     * @param message ControlMessage&lt;T&gt;; the cancel message
+     * @return boolean; whether the event was removed from the event list
+     */
+    private boolean awaitCancel(final ControlMessage<T> message)
+    {
+        boolean interrupted = false;
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    return message.result.get(CANCEL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+                }
+                catch (TimeoutException exception)
+                {
+                    if (isConfined())
+                    {
+                        try
+                        {
+                            processMailbox();
+                        }
+                        catch (SimRuntimeException stopException)
+                        {
+                            SimLogger.always().error(stopException);
+                        }
+                    }
+                }
+                catch (InterruptedException exception)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException exception)
+                {
+                    SimLogger.always().error(exception);
+                    return false;
+                }
+            }
+        }
+        finally
+        {
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final EventListInterface<T> getEventList()
+    {
+        return this.eventList;
+    }
+
+    /**
+     * Return whether the current thread may access the event list directly: either the direct access has been lent to the
+     * current thread, or it has not been lent and the current thread executes the events, or no thread is executing events and
+     * the simulator is not running.
+     * @return boolean; whether the current thread may access the event list directly
+     */
+    public final boolean isConfined()
+    {
+        Thread lent = this.borrower;
+        if (lent != null)
+        {
+            return lent == Thread.currentThread();
+        }
+        Thread thread = this.loopThread;
+        return thread == Thread.currentThread() || (thread == null && !this.running);
+    }
+
+    /**
+     * Lend the direct access to the event list to a thread that executes on behalf of the current thread, while the current
+     * thread waits for it. The current thread gets the access back with <code>returnEventList</code>.
+     * @param thread Thread; the thread that executes on behalf of the current thread
+     * @return Thread; the thread to which the access had been lent before, to pass to <code>returnEventList</code>
+     * @throws IllegalStateException when the current thread may not access the event list directly
+     */
+    public final Thread lendEventList(final Thread thread)
+    {
+        if (!isConfined())
+        {
+            throw new IllegalStateException("the event list is not confined to " + Thread.currentThread());
+        }
+        Thread previous = this.borrower;
+        this.borrower = thread;
+        return previous;
+    }
+
+    /**
+     * Take the direct access to the event list back from the thread to which it was lent with <code>lendEventList</code>.
+     * @param previous Thread; the thread that was returned by <code>lendEventList</code>
+     */
+    public final void returnEventList(final Thread previous)
+    {
+        this.borrower = previous;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void initialize(final Replication<A, R, T, ? extends SimulatorInterface<A, R, T>> initReplication,
+            final ReplicationMode replicationMode) throws SimRuntimeException
+    {
+        if (this.isRunning())
+        {
+            throw new SimRuntimeException("Cannot initialize a running simulator");
+        }
+        this.mailbox.clear();
+        this.eventList.clear();
+        if (initReplication != null && initReplication.getEventListClass() != null
+                && !initReplication.getEventListClass().equals(this.eventList.getClass()))
+        {
+            this.eventList = createEventList(initReplication.getEventListClass());
+            this.fireEvent(EVENTLIST_CHANGED_EVENT);
+        }
+        super.initialize(initReplication, replicationMode);
+        this.scheduleEvent(new SimEvent<T>(this.getReplication().getTreatment().getEndSimTime(),
+                (short) (SimEventInterface.MIN_PRIORITY - 1), this, this, "endReplication", null));
+        Object[] args = {new Event(SimulatorInterface.WARMUP_EVENT, this, null)};
+        this.scheduleEvent(new SimEvent<T>(this.getReplication().getTreatment().getWarmupSimTime(),
+                (short) (SimEventInterface.MAX_PRIORITY + 1), this, this, "fireEvent", args));
+    }
+
+    /**
+     * Instantiate a new, empty event list of the given class.
+     * @param eventListClass Class&lt;? extends EventListInterface&gt;; the class of the event list
+     * @return EventListInterface&lt;T&gt;; a new instance of the event list class
+     * @throws SimRuntimeException when the event list class cannot be instantiated
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private EventListInterface<T> createEventList(final Class<? extends EventListInterface> eventListClass)
+            throws SimRuntimeException
+    {
+        try
+        {
+            return eventListClass.getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException exception)
+        {
+            throw new SimRuntimeException("cannot instantiate event list of " + eventListClass, exception);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEvent(final SimEventInterface<T> event) throws SimRuntimeException
+    {
+        if (event.getAbsoluteExecutionTime().lt(this.simulatorTime))
+        {
+            throw new SimRuntimeException("cannot schedule event " + event.toString() + " in past " + this.simulatorTime
+                    + ">" + event.getAbsoluteExecutionTime());
+        }
+        if (isConfined())
+        {
+            this.eventList.add(event);
+        }
+        else
+        {
+            this.mailbox.add(new ControlMessage<T>(ControlMessage.SCHEDULE, event, this.runNumber));
+        }
+        return event;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void scheduleEvents(final Collection<? extends SimEventInterface<T>> events) throws SimRuntimeException
+    {
+        if (events.isEmpty())
+        {
+            return;
+        }
+        for (SimEventInterface<T> event : events)
+        {
+            if (event.getAbsoluteExecutionTime().lt(this.simulatorTime))
+            {
+                throw new SimRuntimeException("cannot schedule event " + event.toString() + " in past " + this.simulatorTime
+                        + ">" + event.getAbsoluteExecutionTime());
+            }
+        }
+        if (isConfined())
+        {
+            this.eventList.addAll(events);
+        }
+        else
+        {
+            this.mailbox.add(new ControlMessage<T>(new ArrayList<>(events), this.runNumber));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventRel(final R relativeDelay, final short priority, final Object source,
+            final Object target, final String method, final Object[] args) throws SimRuntimeException
+    {
+        T absEventTime = this.simulatorTime.copy();
+        absEventTime.add(relativeDelay);
+        return scheduleEvent(new SimEvent<T>(absEventTime, priority, source, target, method, args));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventRel(final R relativeDelay, final Object source, final Object target,
+            final String method, final Object[] args) throws SimRuntimeException
+    {
+        return scheduleEventRel(relativeDelay, SimEventInterface.NORMAL_PRIORITY, source, target, method, args);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventAbs(final T absoluteTime, final short priority, final Object source,
+            final Object target, final String method, final Object[] args) throws SimRuntimeException
+    {
+        return scheduleEvent(new SimEvent<T>(absoluteTime, priority, source, target, method, args));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventAbs(final T absoluteTime, final Object source, final Object target,
+            final String method, final Object[] args) throws SimRuntimeException
+    {
+        return scheduleEventAbs(absoluteTime, SimEventInterface.NORMAL_PRIORITY, source, target, method, args);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventAbs(final A absoluteTime, final short priority, final Object source,
+            final Object target, final String method, final Object[] args) throws SimRuntimeException
+    {
+        T absTime = this.simulatorTime.copy();
+        absTime.set(absoluteTime);
+        return scheduleEvent(new SimEvent<T>(absTime, priority, source, target, method, args));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventAbs(final A absoluteTime, final Object source, final Object target,
+            final String method, final Object[] args) throws SimRuntimeException
+    {
+        return scheduleEventAbs(absoluteTime, SimEventInterface.NORMAL_PRIORITY, source, target, method, args);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventNow(final short priority, final Object source, final Object target,
+            final String method, final Object[] args) throws SimRuntimeException
+    {
+        T absEventTime = this.simulatorTime.copy();
+        return scheduleEvent(new SimEvent<T>(absEventTime, priority, source, target, method, args));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventNow(final Object source, final Object target, final String method,
+            final Object[] args) throws SimRuntimeException
+    {
+        return scheduleEventNow(SimEventInterface.NORMAL_PRIORITY, source, target, method, args);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventRel(final R relativeDelay, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        T absEventTime = this.simulatorTime.copy();
+        absEventTime.add(relativeDelay);
+        return scheduleEvent(new LambdaSimEvent<T>(absEventTime, priority, executable));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventRel(final R relativeDelay, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventRel(relativeDelay, SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventAbs(final A absoluteTime, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        T absTime = this.simulatorTime.copy();
+        absTime.set(absoluteTime);
+        return scheduleEvent(new LambdaSimEvent<T>(absTime, priority, executable));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventAbs(final A absoluteTime, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventAbs(absoluteTime, SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventAbs(final T absoluteTime, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEvent(new LambdaSimEvent<T>(absoluteTime, priority, executable));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventAbs(final T absoluteTime, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventAbs(absoluteTime, SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventNow(final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        T absEventTime = this.simulatorTime.copy();
+        return scheduleEvent(new LambdaSimEvent<T>(absEventTime, priority, executable));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final SimEventInterface<T> scheduleEventNow(final Executable executable) throws SimRuntimeException
+    {
+        return scheduleEventNow(SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void setEventList(final EventListInterface<T> eventList) throws SimRuntimeException
+    {
+        if (this.isRunning())
+        {
+            throw new SimRuntimeException("Cannot change the event list of a running simulator");
+        }
+        this.eventList = eventList;
+        this.fireEvent(EVENTLIST_CHANGED_EVENT);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void start(final boolean fireStartEvent) throws SimRuntimeException
+    {
+        this.runNumber++;
+        super.start(fireStartEvent);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void step(final boolean fireStepEvent) throws SimRuntimeException
+    {
+        super.step(fireStepEvent);
+        processMailbox();
+        if (!this.eventList.isEmpty())
+        {
+            this.running = true;
+            this.loopThread = Thread.currentThread();
+            try
+            {
+                SimEventInterface<T> event = this.eventList.removeFirst();
+                this.simulatorTime = event.getAbsoluteExecutionTime();
+                if (this.hasListeners(SimulatorInterface.TIME_CHANGED_EVENT))
+                {
+                    this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+                }
+                event.execute();
+            }
+            finally
+            {
+                this.loopThread = null;
+                this.running = false;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc} When the stop is requested by another thread than the thread that executes the events, the request is
+     * posted to the mailbox, and the simulator stops after the event that is being executed.
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void stop(final boolean fireStopEvent) throws SimRuntimeException
+    {
+        if (!this.isRunning())
+        {
+            throw new SimRuntimeException("Cannot stop an already stopped simulator");
+        }
+        if (isConfined())
+        {
+            super.stop(fireStopEvent);
+        }
+        else
+        {
+            this.mailbox.add(new ControlMessage<T>(fireStopEvent ? ControlMessage.STOP : ControlMessage.STOP_SILENT, null,
+                    this.runNumber));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void run()
+    {
+        this.loopThread = Thread.currentThread();
+        try
+        {
+            processMailbox();
+            while (this.running)
+            {
+                if (!this.mailbox.isEmpty())
+                {
+                    processMailbox();
+                    if (!this.running)
+                    {
+                        break;
+                    }
+                }
+                SimEventInterface<T> event = this.eventList.removeFirst();
+                if (event == null)
+                {
+                    super.stop(true);
+                    break;
+                }
+                T eventTime = event.getAbsoluteExecutionTime();
+                if (eventTime.ne(this.simulatorTime))
+                {
+                    super.fireTimeChanged(eventTime);
+                }
+                this.simulatorTime = eventTime;
+                try
+                {
+                    event.execute();
+                }
+                catch (Exception exception)
+                {
+                    SimLogger.always().error(exception);
+                    if (this.isPauseOnError() && this.running)
+                    {
+                        super.stop(true);
+                    }
+                }
+            }
+        }
+        catch (SimRuntimeException exception)
+        {
+            SimLogger.always().error(exception);
+        }
+        finally
+        {
+            this.loopThread = null;
+        }
+    }
+
+    /**
+     * Process the control messages that other threads posted to the mailbox. This method is only called by the thread that
+     * executes the events, or by a thread that controls the simulator while it is not running.
+     * @throws SimRuntimeException when stopping the simulator fails
+     */
+    private void processMailbox() throws SimRuntimeException
+    {
+        ControlMessage<T> message;
+        while ((message = this.mailbox.poll()) != null)
+        {
+            switch (message.type)
+            {
+                case ControlMessage.SCHEDULE:
+                    if (message.event.getAbsoluteExecutionTime().lt(this.simulatorTime))
+                    {
+                        SimLogger.always().error("cannot schedule event {} in past {} > {}", message.event,
+                                this.simulatorTime, message.event.getAbsoluteExecutionTime());
+                    }
+                    else
+                    {
+                        this.eventList.add(message.event);
+                    }
+                    break;
+
+                case ControlMessage.SCHEDULE_ALL:
+                    if (message.firstEventTime().lt(this.simulatorTime))
+                    {
+                        SimLogger.always().error("cannot schedule events {} in past {} > {}", message.events,
+                                this.simulatorTime, message.firstEventTime());
+                    }
+                    else
+                    {
+                        this.eventList.addAll(message.events);
+                    }
+                    break;
+
+                case ControlMessage.CANCEL:
+                    message.result.complete(this.eventList.remove(message.event));
+                    break;
+
+                default:
+                    // stop messages for an earlier run are discarded
+                    if (message.runNumber == this.runNumber && this.running)
+                    {
+                        super.stop(message.type == ControlMessage.STOP);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void endReplication()
+    {
+        // the event list is cleared before the simulator is seen as stopped by other threads
+        this.eventList.clear();
+        super.endReplication();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void runUpTo(final A when) throws SimRuntimeException
+    {
+        scheduleEventAbs(when, SimEventInterface.MAX_PRIORITY, this, this, "autoPauseSimulator", null);
+        if (!isRunning())
+        {
+            start();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void runUpToAndIncluding(final A when) throws SimRuntimeException
+    {
+        scheduleEventAbs(when, SimEventInterface.MIN_PRIORITY, this, this, "autoPauseSimulator", null);
+        if (!isRunning())
+        {
+            start();
+        }
+    }
+
+    /**
+     * Pause the simulator.
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    protected void autoPauseSimulator()
+    {
+        if (isRunning())
+        {
+            try
+            {
+                this.stop();
+            }
+            catch (SimRuntimeException stopException)
+            {
+                SimLogger.always().error(stopException);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean isPauseOnError()
+    {
+        return this.pauseOnError;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void setPauseOnError(final boolean pauseOnError)
+    {
+        this.pauseOnError = pauseOnError;
+    }
+
+    /**
+     * reads a serializable method from stream, and creates a new mailbox.
+     * @param in java.io.ObjectInputStream; the inputstream
+     * @throws IOException on IOException
+     * @throws ClassNotFoundException when a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.mailbox = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * A control message that is posted by another thread than the thread that executes the events.
+     * @param <T> the simulation time type based on the absolute and relative time.
+     */
+    private static final class ControlMessage<T extends SimTime<?, ?, T>>
+    {
+        /** schedule an event. */
+        static final int SCHEDULE = 0;
+
+        /** cancel an event. */
+        static final int CANCEL = 1;
+
+        /** stop the simulator, and fire a STOP_EVENT. */
+        static final int STOP = 2;
+
+        /** stop the simulator without firing a STOP_EVENT. */
+        static final int STOP_SILENT = 3;
+
+        /** schedule a batch of events. */
+        static final int SCHEDULE_ALL = 4;
+
+        /** the type of message. */
+        private final int type;
+
+        /** the event to schedule or cancel; null for a stop message or a batch. */
+        private final SimEventInterface<T> event;
+
+        /** the batch of events to schedule; null for the other messages. */
+        private final Collection<SimEventInterface<T>> events;
+
+        /** the run of the simulator in which the message was posted. */
+        private final int runNumber;
+
+        /** the result of a cancel message: whether the event was removed; null for the other messages. */
+        private final CompletableFuture<Boolean> result;
+
+        /**
+         * @param type int; the type of message
+         * @param event SimEventInterface&lt;T&gt;; the event to schedule or cancel; null for a stop message
+         * @param runNumber int; the run of the simulator in which the message was posted
+         */
+        ControlMessage(final int type, final SimEventInterface<T> event, final int runNumber)
+        {
+            this.type = type;
+            this.event = event;
+            this.events = null;
+            this.runNumber = runNumber;
+            this.result = type == CANCEL ? new CompletableFuture<>() : null;
+        }
+
+        /**
+         * @param events Collection&lt;SimEventInterface&lt;T&gt;&gt;; the batch of events to schedule
+         * @param runNumber int; the run of the simulator in which the message was posted
+         */
+        ControlMessage(final Collection<SimEventInterface<T>> events, final int runNumber)
+        {
+            this.type = SCHEDULE_ALL;
+            this.event = null;
+            this.events = events;
+            this.runNumber = runNumber;
+            this.result = null;
+        }
+
+        /**
+         * Return the earliest execution time of the batch of events.
+         * @return T; the earliest execution time of the batch of events
+         */
+        T firstEventTime()
+        {
+            T first = null;
+            for (SimEventInterface<T> batchEvent : this.events)
+            {
+                if (first == null || batchEvent.getAbsoluteExecutionTime().lt(first))
+                {
+                    first = batchEvent.getAbsoluteExecutionTime();
+                }
+            }
+            return first;
+        }
+    }
+
+    /***********************************************************************************************************/
+    /************************************* EASY ACCESS CLASS EXTENSIONS ****************************************/
+    /***********************************************************************************************************/
+
+    /** Easy access class DEVSBatchSimulator.TimeDouble. */
+    public static class TimeDouble extends DEVSBatchSimulator<Double, Double, SimTimeDouble>
+            implements DEVSSimulatorInterface.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeDouble<? extends DEVSSimulatorInterface.TimeDouble> getReplication()
+        {
+            return (Replication.TimeDouble<? extends DEVSSimulatorInterface.TimeDouble>) super.getReplication();
+        }
+    }
+
+    /** Easy access class DEVSBatchSimulator.TimeFloat. */
+    public static class TimeFloat extends DEVSBatchSimulator<Float, Float, SimTimeFloat>
+            implements DEVSSimulatorInterface.TimeFloat
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeFloat<? extends DEVSSimulatorInterface.TimeFloat> getReplication()
+        {
+            return (Replication.TimeFloat<? extends DEVSSimulatorInterface.TimeFloat>) super.getReplication();
+        }
+    }
+
+    /** Easy access class DEVSBatchSimulator.TimeLong. */
+    public static class TimeLong extends DEVSBatchSimulator<Long, Long, SimTimeLong> implements DEVSSimulatorInterface.TimeLong
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeLong<? extends DEVSSimulatorInterface.TimeLong> getReplication()
+        {
+            return (Replication.TimeLong<? extends DEVSSimulatorInterface.TimeLong>) super.getReplication();
+        }
+    }
+
+    /** Easy access class DEVSBatchSimulator.TimeDoubleUnit. */
+    public static class TimeDoubleUnit extends DEVSBatchSimulator<Time, Duration, SimTimeDoubleUnit>
+            implements DEVSSimulatorInterface.TimeDoubleUnit
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeDoubleUnit<? extends DEVSSimulatorInterface.TimeDoubleUnit> getReplication()
+        {
+            return (Replication.TimeDoubleUnit<? extends DEVSSimulatorInterface.TimeDoubleUnit>) super.getReplication();
+        }
+    }
+
+    /** Easy access class DEVSBatchSimulator.TimeFloatUnit. */
+    public static class TimeFloatUnit extends DEVSBatchSimulator<FloatTime, FloatDuration, SimTimeFloatUnit>
+            implements DEVSSimulatorInterface.TimeFloatUnit
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeFloatUnit<? extends DEVSSimulatorInterface.TimeFloatUnit> getReplication()
+        {
+            return (Replication.TimeFloatUnit<? extends DEVSSimulatorInterface.TimeFloatUnit>) super.getReplication();
+        }
+    }
+
+    /** Easy access class DEVSBatchSimulator.CalendarDouble. */
+    public static class CalendarDouble extends DEVSBatchSimulator<Calendar, Duration, SimTimeCalendarDouble>
+            implements DEVSSimulatorInterface.CalendarDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarDouble<? extends DEVSSimulatorInterface.CalendarDouble> getReplication()
+        {
+            return (Replication.CalendarDouble<? extends DEVSSimulatorInterface.CalendarDouble>) super.getReplication();
+        }
+    }
+
+    /** Easy access class DEVSBatchSimulator.CalendarFloat. */
+    public static class CalendarFloat extends DEVSBatchSimulator<Calendar, FloatDuration, SimTimeCalendarFloat>
+            implements DEVSSimulatorInterface.CalendarFloat
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarFloat<? extends DEVSSimulatorInterface.CalendarFloat> getReplication()
+        {
+            return (Replication.CalendarFloat<? extends DEVSSimulatorInterface.CalendarFloat>) super.getReplication();
+        }
+    }
+
+    /** Easy access class DEVSBatchSimulator.CalendarLong. */
+    public static class CalendarLong extends DEVSBatchSimulator<Calendar, Long, SimTimeCalendarLong>
+            implements DEVSSimulatorInterface.CalendarLong
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarLong<? extends DEVSSimulatorInterface.CalendarLong> getReplication()
+        {
+            return (Replication.CalendarLong<? extends DEVSSimulatorInterface.CalendarLong>) super.getReplication();
+        }
+    }
+
+}
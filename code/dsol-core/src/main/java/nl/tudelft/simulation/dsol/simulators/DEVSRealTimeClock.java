@@ -192,8 +192,7 @@ public abstract class DEVSRealTimeClock<A extends Comparable<A>, R extends Numbe
             {
                 if (event.getAbsoluteExecutionTime().ne(super.simulatorTime))
                 {
-                    super.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, event.getAbsoluteExecutionTime(),
-                            event.getAbsoluteExecutionTime().get());
+                    super.fireTimeChanged(event.getAbsoluteExecutionTime());
                 }
                 this.simulatorTime = event.getAbsoluteExecutionTime();
 
@@ -228,7 +227,10 @@ public abstract class DEVSRealTimeClock<A extends Comparable<A>, R extends Numbe
                 }
             }
         }
-        this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+        if (this.hasListeners(SimulatorInterface.TIME_CHANGED_EVENT))
+        {
+            this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+        }
         updateAnimation();
         animationThread.stopAnimation();
     }
@@ -1,6 +1,7 @@
 package nl.tudelft.simulation.dsol.simulators;
 
 import java.util.Calendar;
+import java.util.Collection;
 
 import org.djunits.value.vdouble.scalar.Duration;
 import org.djunits.value.vdouble.scalar.Time;
@@ -61,7 +62,8 @@ public class DEVSSimulator<A extends Comparable<A>, R extends Number & Comparabl
 
     /** {@inheritDoc} */
     @Override
-    public final boolean cancelEvent(final SimEventInterface<T> event)
+    @SuppressWarnings("checkstyle:designforextension")
+    public boolean cancelEvent(final SimEventInterface<T> event)
     {
         return this.eventList.remove(event);
     }
@@ -82,6 +84,12 @@ public class DEVSSimulator<A extends Comparable<A>, R extends Number & Comparabl
         synchronized (super.semaphore)
         {
             this.eventList.clear();
+            if (initReplication != null && initReplication.getEventListClass() != null
+                    && !initReplication.getEventListClass().equals(this.eventList.getClass()))
+            {
+                this.eventList = createEventList(initReplication.getEventListClass());
+                this.fireEvent(EVENTLIST_CHANGED_EVENT);
+            }
             super.initialize(initReplication, replicationMode);
             this.scheduleEvent(new SimEvent<T>(this.getReplication().getTreatment().getEndSimTime(),
                     (short) (SimEventInterface.MIN_PRIORITY - 1), this, this, "endReplication", null));
@@ -91,9 +99,30 @@ public class DEVSSimulator<A extends Comparable<A>, R extends Number & Comparabl
         }
     }
 
+    /**
+     * Instantiate a new, empty event list of the given class.
+     * @param eventListClass Class&lt;? extends EventListInterface&gt;; the class of the event list
+     * @return EventListInterface&lt;T&gt;; a new instance of the event list class
+     * @throws SimRuntimeException when the event list class cannot be instantiated
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private EventListInterface<T> createEventList(final Class<? extends EventListInterface> eventListClass)
+            throws SimRuntimeException
+    {
+        try
+        {
+            return eventListClass.getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException exception)
+        {
+            throw new SimRuntimeException("cannot instantiate event list of " + eventListClass, exception);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
-    public final SimEventInterface<T> scheduleEvent(final SimEventInterface<T> event) throws SimRuntimeException
+    @SuppressWarnings("checkstyle:designforextension")
+    public SimEventInterface<T> scheduleEvent(final SimEventInterface<T> event) throws SimRuntimeException
     {
         synchronized (super.semaphore)
         {
@@ -107,6 +136,25 @@ public class DEVSSimulator<A extends Comparable<A>, R extends Number & Comparabl
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void scheduleEvents(final Collection<? extends SimEventInterface<T>> events) throws SimRuntimeException
+    {
+        synchronized (super.semaphore)
+        {
+            for (SimEventInterface<T> event : events)
+            {
+                if (event.getAbsoluteExecutionTime().lt(super.simulatorTime))
+                {
+                    throw new SimRuntimeException("cannot schedule event " + event.toString() + " in past "
+                            + this.simulatorTime + ">" + event.getAbsoluteExecutionTime());
+                }
+            }
+            this.eventList.addAll(events);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public final SimEventInterface<T> scheduleEventRel(final R relativeDelay, final short priority, final Object source,
@@ -283,7 +331,10 @@ public class DEVSSimulator<A extends Comparable<A>, R extends Number & Comparabl
                 this.running = true;
                 SimEventInterface<T> event = this.eventList.removeFirst();
                 this.simulatorTime = event.getAbsoluteExecutionTime();
-                this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+                if (this.hasListeners(SimulatorInterface.TIME_CHANGED_EVENT))
+                {
+                    this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+                }
                 event.execute();
                 this.running = false;
             }
@@ -302,8 +353,7 @@ public class DEVSSimulator<A extends Comparable<A>, R extends Number & Comparabl
                 SimEventInterface<T> event = this.eventList.removeFirst();
                 if (event.getAbsoluteExecutionTime().ne(super.simulatorTime))
                 {
-                    super.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, event.getAbsoluteExecutionTime(),
-                            event.getAbsoluteExecutionTime().get());
+                    super.fireTimeChanged(event.getAbsoluteExecutionTime());
                 }
                 super.simulatorTime = event.getAbsoluteExecutionTime();
                 try
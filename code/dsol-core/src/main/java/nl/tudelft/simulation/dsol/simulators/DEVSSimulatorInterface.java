@@ -1,6 +1,7 @@
 package nl.tudelft.simulation.dsol.simulators;
 
 import java.util.Calendar;
+import java.util.Collection;
 
 import org.djunits.value.vdouble.scalar.Duration;
 import org.djunits.value.vdouble.scalar.Time;
@@ -9,7 +10,9 @@ import org.djunits.value.vfloat.scalar.FloatTime;
 
 import nl.tudelft.simulation.dsol.SimRuntimeException;
 import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.ModelExecutionInterface;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.Executable;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
@@ -60,6 +63,16 @@ public interface DEVSSimulatorInterface<A extends Comparable<A>, R extends Numbe
      */
     EventListInterface<T> getEventList();
 
+    /**
+     * Return how the atomic models of the ESDEVS formalism execute their internal events, inputs and outputs on this
+     * simulator. The classic execution, one internal event or input at a time, needs no execution.
+     * @return ModelExecutionInterface&lt;A,R,T&gt;; the execution of the models, or null for the classic execution
+     */
+    default ModelExecutionInterface<A, R, T> getModelExecution()
+    {
+        return null;
+    }
+
     /**
      * Method scheduleEvent schedules an event on the eventlist.
      * @param event SimEventInterface&lt;T&gt;; a simulation event
@@ -68,6 +81,15 @@ public interface DEVSSimulatorInterface<A extends Comparable<A>, R extends Numbe
      */
     SimEventInterface<T> scheduleEvent(SimEventInterface<T> event) throws SimRuntimeException;
 
+    /**
+     * Method scheduleEvents schedules a batch of events on the eventlist, e.g., a stream of arrivals that is known in
+     * advance. All events are checked before the first one is scheduled, and the events are added to the eventlist at once,
+     * which the array-based eventlists handle in linear time.
+     * @param events Collection&lt;? extends SimEventInterface&lt;T&gt;&gt;; the simulation events
+     * @throws SimRuntimeException whenever one of the events is scheduled in past; none of the events is scheduled then.
+     */
+    void scheduleEvents(Collection<? extends SimEventInterface<T>> events) throws SimRuntimeException;
+
     /**
      * schedules a methodCall at a relative duration. The executionTime is thus
      * simulator.getSimulatorTime()+relativeDuration.
@@ -293,7 +315,62 @@ public interface DEVSSimulatorInterface<A extends Comparable<A>, R extends Numbe
     public interface TimeDouble
             extends DEVSSimulatorInterface<Double, Double, SimTimeDouble>, SimulatorInterface.TimeDouble
     {
-        // typed extension
+        /**
+         * schedules a lambda expression at a relative duration, without boxing the delay or copying the simulation time. The
+         * executionTime is thus simulator.getSimulatorTime()+relativeDuration.
+         * @param relativeDelay double; the relativeDelay in timeUnits of the simulator.
+         * @param priority short; the priority compared to other events scheduled at the same time.
+         * @param executable Executable; the lambda expression to execute
+         * @return the simulation event so it can be cancelled later
+         * @throws SimRuntimeException whenever the event is scheduled in the past.
+         */
+        default SimEventInterface<SimTimeDouble> scheduleEventRel(final double relativeDelay, final short priority,
+                final Executable executable) throws SimRuntimeException
+        {
+            SimTimeDouble absEventTime = new SimTimeDouble(getSimTime().doubleValue() + relativeDelay);
+            return scheduleEvent(new LambdaSimEvent<SimTimeDouble>(absEventTime, priority, executable));
+        }
+
+        /**
+         * schedules a lambda expression at a relative duration, without boxing the delay or copying the simulation time. The
+         * executionTime is thus simulator.getSimulatorTime()+relativeDuration.
+         * @param relativeDelay double; the relativeDelay in timeUnits of the simulator.
+         * @param executable Executable; the lambda expression to execute
+         * @return the simulation event so it can be cancelled later
+         * @throws SimRuntimeException whenever the event is scheduled in the past.
+         */
+        default SimEventInterface<SimTimeDouble> scheduleEventRel(final double relativeDelay, final Executable executable)
+                throws SimRuntimeException
+        {
+            return scheduleEventRel(relativeDelay, SimEventInterface.NORMAL_PRIORITY, executable);
+        }
+
+        /**
+         * schedules a lambda expression at an absolute time, without boxing the time.
+         * @param absoluteTime double; the exact time to schedule the method on the simulator.
+         * @param priority short; the priority compared to other events scheduled at the same time.
+         * @param executable Executable; the lambda expression to execute
+         * @return the simulation event so it can be cancelled later
+         * @throws SimRuntimeException whenever the event is scheduled in the past.
+         */
+        default SimEventInterface<SimTimeDouble> scheduleEventAbs(final double absoluteTime, final short priority,
+                final Executable executable) throws SimRuntimeException
+        {
+            return scheduleEvent(new LambdaSimEvent<SimTimeDouble>(new SimTimeDouble(absoluteTime), priority, executable));
+        }
+
+        /**
+         * schedules a lambda expression at an absolute time, without boxing the time.
+         * @param absoluteTime double; the exact time to schedule the method on the simulator.
+         * @param executable Executable; the lambda expression to execute
+         * @return the simulation event so it can be cancelled later
+         * @throws SimRuntimeException whenever the event is scheduled in the past.
+         */
+        default SimEventInterface<SimTimeDouble> scheduleEventAbs(final double absoluteTime, final Executable executable)
+                throws SimRuntimeException
+        {
+            return scheduleEventAbs(absoluteTime, SimEventInterface.NORMAL_PRIORITY, executable);
+        }
     }
 
     /** Easy access interface DEVSSimulatorInterface.TimeFloat. */
@@ -305,7 +382,62 @@ public interface DEVSSimulatorInterface<A extends Comparable<A>, R extends Numbe
     /** Easy access interface DEVSSimulatorInterface.TimeLong. */
     public interface TimeLong extends DEVSSimulatorInterface<Long, Long, SimTimeLong>, SimulatorInterface.TimeLong
     {
-        // typed extension
+        /**
+         * schedules a lambda expression at a relative duration, without boxing the delay or copying the simulation time. The
+         * executionTime is thus simulator.getSimulatorTime()+relativeDuration.
+         * @param relativeDelay long; the relativeDelay in timeUnits of the simulator.
+         * @param priority short; the priority compared to other events scheduled at the same time.
+         * @param executable Executable; the lambda expression to execute
+         * @return the simulation event so it can be cancelled later
+         * @throws SimRuntimeException whenever the event is scheduled in the past.
+         */
+        default SimEventInterface<SimTimeLong> scheduleEventRel(final long relativeDelay, final short priority,
+                final Executable executable) throws SimRuntimeException
+        {
+            SimTimeLong absEventTime = new SimTimeLong(getSimTime().longValue() + relativeDelay);
+            return scheduleEvent(new LambdaSimEvent<SimTimeLong>(absEventTime, priority, executable));
+        }
+
+        /**
+         * schedules a lambda expression at a relative duration, without boxing the delay or copying the simulation time. The
+         * executionTime is thus simulator.getSimulatorTime()+relativeDuration.
+         * @param relativeDelay long; the relativeDelay in timeUnits of the simulator.
+         * @param executable Executable; the lambda expression to execute
+         * @return the simulation event so it can be cancelled later
+         * @throws SimRuntimeException whenever the event is scheduled in the past.
+         */
+        default SimEventInterface<SimTimeLong> scheduleEventRel(final long relativeDelay, final Executable executable)
+                throws SimRuntimeException
+        {
+            return scheduleEventRel(relativeDelay, SimEventInterface.NORMAL_PRIORITY, executable);
+        }
+
+        /**
+         * schedules a lambda expression at an absolute time, without boxing the time.
+         * @param absoluteTime long; the exact time to schedule the method on the simulator.
+         * @param priority short; the priority compared to other events scheduled at the same time.
+         * @param executable Executable; the lambda expression to execute
+         * @return the simulation event so it can be cancelled later
+         * @throws SimRuntimeException whenever the event is scheduled in the past.
+         */
+        default SimEventInterface<SimTimeLong> scheduleEventAbs(final long absoluteTime, final short priority,
+                final Executable executable) throws SimRuntimeException
+        {
+            return scheduleEvent(new LambdaSimEvent<SimTimeLong>(new SimTimeLong(absoluteTime), priority, executable));
+        }
+
+        /**
+         * schedules a lambda expression at an absolute time, without boxing the time.
+         * @param absoluteTime long; the exact time to schedule the method on the simulator.
+         * @param executable Executable; the lambda expression to execute
+         * @return the simulation event so it can be cancelled later
+         * @throws SimRuntimeException whenever the event is scheduled in the past.
+         */
+        default SimEventInterface<SimTimeLong> scheduleEventAbs(final long absoluteTime, final Executable executable)
+                throws SimRuntimeException
+        {
+            return scheduleEventAbs(absoluteTime, SimEventInterface.NORMAL_PRIORITY, executable);
+        }
     }
 
     /** Easy access interface DEVSSimulatorInterface.TimeDoubleUnit. */
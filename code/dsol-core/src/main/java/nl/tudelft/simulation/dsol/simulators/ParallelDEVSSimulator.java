@@ -0,0 +1,759 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.djunits.value.vdouble.scalar.Duration;
+import org.djunits.value.vdouble.scalar.Time;
+import org.djunits.value.vfloat.scalar.FloatDuration;
+import org.djunits.value.vfloat.scalar.FloatTime;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.ModelExecutionInterface;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.ParallelTransitionInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.logger.SimLogger;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarLong;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDoubleUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloatUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
+
+/**
+ * The ParallelDEVSSimulator executes the atomic models of the ESDEVS formalism with the Parallel DEVS (PDEVS) abstract
+ * simulator of Chow and Zeigler, instead of one internal event at a time. The internal events of the atomic models at a time
+ * point are collected, and after the other events with normal or higher priority at that time point, the simulator executes
+ * one cycle for all imminent models:
+ * <ol>
+ * <li>the imminent models compute their output with lambda;</li>
+ * <li>the outputs are routed over the couplings to the bags of the receiving models;</li>
+ * <li>every imminent or receiving model executes its internal, external or confluent transition for its bag of messages;</li>
+ * <li>the next internal events of the models are scheduled.</li>
+ * </ol>
+ * With a pool, the outputs and the transitions are executed concurrently, since they only change the state of their own
+ * model. The routing and the scheduling are executed one model at a time, in the order of the internal events of the
+ * imminent models followed by the order in which the other models received their first message, so a replication gives the
+ * same results with or without a pool. Messages that a model sends in a transition are routed after the transitions, and
+ * handled in a next round of transitions at the same time point. The events that a model schedules or cancels in its
+ * output or transition, and the state updates that it fires, are deferred until its messages are routed or its transition is
+ * committed, and the events are renumbered then, so they get the same order with or without a pool.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, such as Double or
+ *            Long, the absolute and relative types are the same.
+ * @param <T> the simulation time type based on the absolute and relative time.
+ * @since 3.03.06
+ */
+public class ParallelDEVSSimulator<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+        extends DEVSSimulator<A, R, T> implements ModelExecutionInterface<A, R, T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the imminent models at the current time point, in the order of their internal events. */
+    private transient List<ParallelTransitionInterface> imminents = new ArrayList<>();
+
+    /** the models that received their first message in the current routing, in the order of their first message. */
+    private transient List<ParallelTransitionInterface> influencees = new ArrayList<>();
+
+    /** whether the simulator executes a cycle, in which the messages of the atomic models are collected in bags. */
+    private transient volatile boolean collecting = false;
+
+    /** the pool to execute the outputs and the transitions on; null when they are executed on the simulator thread. */
+    private transient ForkJoinPool pool = null;
+
+    /** the number of models in a batch. */
+    private int batchSize = 1;
+
+    /** the actions of the model whose output or transition is executed on the current thread. */
+    private transient ThreadLocal<Deferral> deferral = new ThreadLocal<>();
+
+    /**
+     * Set the pool and the batch size for the outputs and the transitions of the models.
+     * @param transitionPool ForkJoinPool; the pool to execute the outputs and transitions on, or null to execute them on the
+     *            simulator thread
+     * @param transitionBatchSize int; the number of models in a batch
+     * @throws IllegalArgumentException when the batch size is not positive
+     */
+    public final void setParallelism(final ForkJoinPool transitionPool, final int transitionBatchSize)
+    {
+        if (transitionBatchSize < 1)
+        {
+            throw new IllegalArgumentException("batch size " + transitionBatchSize + " < 1");
+        }
+        this.pool = transitionPool;
+        this.batchSize = transitionBatchSize;
+    }
+
+    /**
+     * @return ForkJoinPool; the pool to execute the outputs and the transitions on, or null when they are executed on the
+     *         simulator thread
+     */
+    public final ForkJoinPool getPool()
+    {
+        return this.pool;
+    }
+
+    /**
+     * @return int; the number of models in a batch
+     */
+    public final int getBatchSize()
+    {
+        return this.batchSize;
+    }
+
+    /**
+     * Return whether the simulator executes a cycle, in which the atomic models keep their messages until they are routed,
+     * and the routed messages are collected in the bags of the receiving models.
+     * @return boolean; whether the simulator executes a cycle
+     */
+    @Override
+    public final boolean isCollecting()
+    {
+        return this.collecting;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean addImminent(final ParallelTransitionInterface model)
+    {
+        this.imminents.add(model);
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void addInfluencee(final ParallelTransitionInterface model)
+    {
+        this.influencees.add(model);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean defer(final Runnable notification)
+    {
+        Deferral actions = this.deferral.get();
+        if (actions == null)
+        {
+            return false;
+        }
+        actions.add(notification::run);
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final ModelExecutionInterface<A, R, T> getModelExecution()
+    {
+        return this;
+    }
+
+    /**
+     * Schedule an event; when the event is scheduled in the output or transition of a model in a cycle, it is added to the
+     * event list when the messages of the model are routed or its transition is committed.
+     * @param event SimEventInterface&lt;T&gt;; a simulation event
+     * @return the simulation event so it can be cancelled later
+     * @throws SimRuntimeException whenever event is scheduled in past.
+     */
+    @Override
+    public final SimEventInterface<T> scheduleEvent(final SimEventInterface<T> event) throws SimRuntimeException
+    {
+        Deferral actions = this.deferral.get();
+        if (actions == null)
+        {
+            return super.scheduleEvent(event);
+        }
+        checkFuture(event);
+        actions.add(new DeferredEvent<T>(this, event));
+        return event;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void scheduleEvents(final Collection<? extends SimEventInterface<T>> events) throws SimRuntimeException
+    {
+        Deferral actions = this.deferral.get();
+        if (actions == null)
+        {
+            super.scheduleEvents(events);
+            return;
+        }
+        for (SimEventInterface<T> event : events)
+        {
+            checkFuture(event);
+        }
+        for (SimEventInterface<T> event : events)
+        {
+            actions.add(new DeferredEvent<T>(this, event));
+        }
+    }
+
+    /**
+     * Cancel an event; when the event is cancelled in the output or transition of a model in a cycle, an event that the model
+     * scheduled in the same output or transition is never added to the event list, and another event is removed from the
+     * event list when the messages of the model are routed or its transition is committed.
+     * @param event SimEventInterface&lt;T&gt;; a simulation event to be canceled.
+     * @return boolean the succes of the operation.
+     */
+    @Override
+    public final boolean cancelEvent(final SimEventInterface<T> event)
+    {
+        Deferral actions = this.deferral.get();
+        if (actions == null)
+        {
+            return super.cancelEvent(event);
+        }
+        if (actions.removeEvent(event))
+        {
+            return true;
+        }
+        actions.add(() -> super.cancelEvent(event));
+        synchronized (super.semaphore)
+        {
+            return this.eventList.contains(event);
+        }
+    }
+
+    /**
+     * Check that an event that is scheduled in the output or transition of a model is not in the past.
+     * @param event SimEventInterface&lt;T&gt;; the event
+     * @throws SimRuntimeException whenever event is scheduled in past.
+     */
+    private void checkFuture(final SimEventInterface<T> event) throws SimRuntimeException
+    {
+        if (event.getAbsoluteExecutionTime().lt(super.simulatorTime))
+        {
+            throw new SimRuntimeException("cannot schedule event " + event.toString() + " in past " + this.simulatorTime
+                    + ">" + event.getAbsoluteExecutionTime());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void initialize(final Replication<A, R, T, ? extends SimulatorInterface<A, R, T>> initReplication,
+            final ReplicationMode replicationMode) throws SimRuntimeException
+    {
+        this.imminents.clear();
+        this.influencees.clear();
+        super.initialize(initReplication, replicationMode);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void step(final boolean fireStepEvent) throws SimRuntimeException
+    {
+        super.step(fireStepEvent);
+        while (!this.imminents.isEmpty())
+        {
+            if (isCycleReady())
+            {
+                runCycle();
+            }
+            else
+            {
+                synchronized (super.semaphore)
+                {
+                    this.eventList.removeFirst().execute();
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void run()
+    {
+        while (super.isRunning())
+        {
+            boolean cycle = false;
+            synchronized (super.semaphore)
+            {
+                SimEventInterface<T> event = this.eventList.removeFirst();
+                if (event.getAbsoluteExecutionTime().ne(super.simulatorTime))
+                {
+                    super.fireTimeChanged(event.getAbsoluteExecutionTime());
+                }
+                super.simulatorTime = event.getAbsoluteExecutionTime();
+                try
+                {
+                    event.execute();
+                }
+                catch (Exception exception)
+                {
+                    handleError(exception);
+                }
+                cycle = isCycleReady();
+            }
+            if (cycle)
+            {
+                try
+                {
+                    runCycle();
+                }
+                catch (Exception exception)
+                {
+                    handleError(exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * Return whether the cycle for the imminent models can be executed, which is when no other event with normal or higher
+     * priority is scheduled at the current time point.
+     * @return boolean; whether the cycle for the imminent models can be executed
+     */
+    private boolean isCycleReady()
+    {
+        if (this.imminents.isEmpty())
+        {
+            return false;
+        }
+        if (this.eventList.isEmpty())
+        {
+            return true;
+        }
+        SimEventInterface<T> next = this.eventList.first();
+        return next.getAbsoluteExecutionTime().ne(super.simulatorTime)
+                || next.getPriority() < SimEventInterface.NORMAL_PRIORITY;
+    }
+
+    /**
+     * Execute a cycle for the imminent models, and the rounds of transitions for the messages that are sent in transitions.
+     * The outputs and the transitions are executed without holding the semaphore of the simulator.
+     * @throws SimRuntimeException when a message cannot be routed or an event cannot be scheduled
+     */
+    private void runCycle() throws SimRuntimeException
+    {
+        List<ParallelTransitionInterface> models = this.imminents;
+        this.imminents = new ArrayList<>();
+        this.collecting = true;
+        try
+        {
+            Deferral[] actions = execute(models, false);
+            synchronized (super.semaphore)
+            {
+                for (int i = 0; i < models.size(); i++)
+                {
+                    Deferral.execute(actions[i]);
+                    models.get(i).route();
+                }
+            }
+            while (!models.isEmpty())
+            {
+                models.addAll(this.influencees);
+                this.influencees.clear();
+                actions = execute(models, true);
+                synchronized (super.semaphore)
+                {
+                    for (int i = 0; i < models.size(); i++)
+                    {
+                        Deferral.execute(actions[i]);
+                        models.get(i).commit();
+                    }
+                    for (ParallelTransitionInterface model : models)
+                    {
+                        model.route();
+                    }
+                }
+                models = new ArrayList<>(this.influencees);
+                this.influencees.clear();
+            }
+        }
+        finally
+        {
+            this.influencees.clear();
+            this.collecting = false;
+        }
+    }
+
+    /**
+     * Execute the outputs or the transitions of the models, in parallel when there is a pool and more than one batch.
+     * @param models List&lt;ParallelTransitionInterface&gt;; the models
+     * @param transition boolean; whether to execute the transitions rather than the outputs
+     * @return Deferral[]; the deferred actions of each model, or null for a model without deferred actions
+     */
+    private Deferral[] execute(final List<ParallelTransitionInterface> models, final boolean transition)
+    {
+        Deferral[] actions = new Deferral[models.size()];
+        if (this.pool != null && models.size() > this.batchSize)
+        {
+            this.pool.invoke(new Batch(models, actions, transition, 0, models.size()));
+        }
+        else
+        {
+            execute(models, actions, transition, 0, models.size());
+        }
+        return actions;
+    }
+
+    /**
+     * Execute the outputs or the transitions of a range of models on the current thread, and keep the actions that each model
+     * defers.
+     * @param models List&lt;ParallelTransitionInterface&gt;; the models
+     * @param actions Deferral[]; the deferred actions of each model, filled for the range
+     * @param transition boolean; whether to execute the transitions rather than the outputs
+     * @param from int; the index of the first model
+     * @param to int; the index after the last model
+     */
+    private void execute(final List<ParallelTransitionInterface> models, final Deferral[] actions, final boolean transition,
+            final int from, final int to)
+    {
+        Deferral deferred = new Deferral();
+        this.deferral.set(deferred);
+        try
+        {
+            for (int i = from; i < to; i++)
+            {
+                if (transition)
+                {
+                    models.get(i).transition();
+                }
+                else
+                {
+                    models.get(i).output();
+                }
+                if (!deferred.isEmpty())
+                {
+                    actions[i] = deferred;
+                    deferred = new Deferral();
+                    this.deferral.set(deferred);
+                }
+            }
+        }
+        finally
+        {
+            this.deferral.remove();
+        }
+    }
+
+    /**
+     * Log an exception of an event or a cycle, and stop the simulator when it pauses on errors.
+     * @param exception Exception; the exception
+     */
+    private void handleError(final Exception exception)
+    {
+        SimLogger.always().error(exception);
+        if (this.isPauseOnError())
+        {
+            try
+            {
+                this.stop();
+            }
+            catch (SimRuntimeException stopException)
+            {
+                SimLogger.always().error(stopException);
+            }
+        }
+    }
+
+    /**
+     * reads the simulator from stream, and creates the transient lists of the cycles.
+     * @param in java.io.ObjectInputStream; the inputstream
+     * @throws IOException on IOException
+     * @throws ClassNotFoundException when a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.imminents = new ArrayList<>();
+        this.influencees = new ArrayList<>();
+        this.deferral = new ThreadLocal<>();
+    }
+
+    /** A Batch executes the outputs or transitions of a range of models, and splits itself when the range is too large. */
+    private final class Batch extends RecursiveAction
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the models. */
+        private final List<ParallelTransitionInterface> models;
+
+        /** the deferred actions of each model. */
+        private final Deferral[] actions;
+
+        /** whether to execute the transitions rather than the outputs. */
+        private final boolean transition;
+
+        /** the index of the first model. */
+        private final int from;
+
+        /** the index after the last model. */
+        private final int to;
+
+        /**
+         * @param models List&lt;ParallelTransitionInterface&gt;; the models
+         * @param actions Deferral[]; the deferred actions of each model
+         * @param transition boolean; whether to execute the transitions rather than the outputs
+         * @param from int; the index of the first model
+         * @param to int; the index after the last model
+         */
+        Batch(final List<ParallelTransitionInterface> models, final Deferral[] actions, final boolean transition,
+                final int from, final int to)
+        {
+            this.models = models;
+            this.actions = actions;
+            this.transition = transition;
+            this.from = from;
+            this.to = to;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute()
+        {
+            int size = getBatchSize();
+            if (this.to - this.from <= size)
+            {
+                ParallelDEVSSimulator.this.execute(this.models, this.actions, this.transition, this.from, this.to);
+                return;
+            }
+            // split at a whole number of batches
+            int middle = this.from + (this.to - this.from + size) / (2 * size) * size;
+            invokeAll(new Batch(this.models, this.actions, this.transition, this.from, middle),
+                    new Batch(this.models, this.actions, this.transition, middle, this.to));
+        }
+    }
+
+    /** An action of a model in its output or transition that is executed when its output or transition is committed. */
+    @FunctionalInterface
+    private interface DeferredAction
+    {
+        /**
+         * Execute the action.
+         * @throws SimRuntimeException when an event cannot be scheduled
+         */
+        void execute() throws SimRuntimeException;
+    }
+
+    /**
+     * An event that a model scheduled in its output or transition.
+     * @param <T> the simulation time type
+     */
+    private static final class DeferredEvent<T extends SimTime<?, ?, T>> implements DeferredAction
+    {
+        /** the simulator. */
+        private final DEVSSimulator<?, ?, T> simulator;
+
+        /** the event. */
+        private final SimEventInterface<T> event;
+
+        /**
+         * @param simulator DEVSSimulator&lt;?,?,T&gt;; the simulator
+         * @param event SimEventInterface&lt;T&gt;; the event
+         */
+        DeferredEvent(final DEVSSimulator<?, ?, T> simulator, final SimEventInterface<T> event)
+        {
+            this.simulator = simulator;
+            this.event = event;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void execute()
+        {
+            // the event was constructed on a thread of the pool; its id should follow the order of the models
+            if (this.event instanceof AbstractSimEvent)
+            {
+                ((AbstractSimEvent<T>) this.event).renumber();
+            }
+            this.simulator.eventList.add(this.event);
+        }
+    }
+
+    /** The actions that one model deferred in its output or transition, in the order in which the model executed them. */
+    private static final class Deferral extends ArrayList<DeferredAction>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * Remove an event that the model scheduled in the same output or transition.
+         * @param event SimEventInterface&lt;?&gt;; the event
+         * @return boolean; whether the event was scheduled in the same output or transition
+         */
+        boolean removeEvent(final SimEventInterface<?> event)
+        {
+            Iterator<DeferredAction> iterator = iterator();
+            while (iterator.hasNext())
+            {
+                DeferredAction action = iterator.next();
+                if (action instanceof DeferredEvent && ((DeferredEvent<?>) action).event == event)
+                {
+                    iterator.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Execute the deferred actions of a model, while the simulator holds its semaphore.
+         * @param actions Deferral; the deferred actions, or null when the model deferred no actions
+         * @throws SimRuntimeException when an event cannot be scheduled
+         */
+        static void execute(final Deferral actions) throws SimRuntimeException
+        {
+            if (actions != null)
+            {
+                for (DeferredAction action : actions)
+                {
+                    action.execute();
+                }
+            }
+        }
+    }
+
+    /** Easy access class ParallelDEVSSimulator.TimeDouble. */
+    public static class TimeDouble extends ParallelDEVSSimulator<Double, Double, SimTimeDouble>
+            implements DEVSSimulatorInterface.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeDouble<? extends DEVSSimulatorInterface.TimeDouble> getReplication()
+        {
+            return (Replication.TimeDouble<? extends DEVSSimulatorInterface.TimeDouble>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ParallelDEVSSimulator.TimeFloat. */
+    public static class TimeFloat extends ParallelDEVSSimulator<Float, Float, SimTimeFloat>
+            implements DEVSSimulatorInterface.TimeFloat
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeFloat<? extends DEVSSimulatorInterface.TimeFloat> getReplication()
+        {
+            return (Replication.TimeFloat<? extends DEVSSimulatorInterface.TimeFloat>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ParallelDEVSSimulator.TimeLong. */
+    public static class TimeLong extends ParallelDEVSSimulator<Long, Long, SimTimeLong>
+            implements DEVSSimulatorInterface.TimeLong
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeLong<? extends DEVSSimulatorInterface.TimeLong> getReplication()
+        {
+            return (Replication.TimeLong<? extends DEVSSimulatorInterface.TimeLong>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ParallelDEVSSimulator.TimeDoubleUnit. */
+    public static class TimeDoubleUnit extends ParallelDEVSSimulator<Time, Duration, SimTimeDoubleUnit>
+            implements DEVSSimulatorInterface.TimeDoubleUnit
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeDoubleUnit<? extends DEVSSimulatorInterface.TimeDoubleUnit> getReplication()
+        {
+            return (Replication.TimeDoubleUnit<? extends DEVSSimulatorInterface.TimeDoubleUnit>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ParallelDEVSSimulator.TimeFloatUnit. */
+    public static class TimeFloatUnit extends ParallelDEVSSimulator<FloatTime, FloatDuration, SimTimeFloatUnit>
+            implements DEVSSimulatorInterface.TimeFloatUnit
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeFloatUnit<? extends DEVSSimulatorInterface.TimeFloatUnit> getReplication()
+        {
+            return (Replication.TimeFloatUnit<? extends DEVSSimulatorInterface.TimeFloatUnit>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ParallelDEVSSimulator.CalendarDouble. */
+    public static class CalendarDouble extends ParallelDEVSSimulator<Calendar, Duration, SimTimeCalendarDouble>
+            implements DEVSSimulatorInterface.CalendarDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarDouble<? extends DEVSSimulatorInterface.CalendarDouble> getReplication()
+        {
+            return (Replication.CalendarDouble<? extends DEVSSimulatorInterface.CalendarDouble>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ParallelDEVSSimulator.CalendarFloat. */
+    public static class CalendarFloat extends ParallelDEVSSimulator<Calendar, FloatDuration, SimTimeCalendarFloat>
+            implements DEVSSimulatorInterface.CalendarFloat
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarFloat<? extends DEVSSimulatorInterface.CalendarFloat> getReplication()
+        {
+            return (Replication.CalendarFloat<? extends DEVSSimulatorInterface.CalendarFloat>) super.getReplication();
+        }
+    }
+
+    /** Easy access class ParallelDEVSSimulator.CalendarLong. */
+    public static class CalendarLong extends ParallelDEVSSimulator<Calendar, Long, SimTimeCalendarLong>
+            implements DEVSSimulatorInterface.CalendarLong
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarLong<? extends DEVSSimulatorInterface.CalendarLong> getReplication()
+        {
+            return (Replication.CalendarLong<? extends DEVSSimulatorInterface.CalendarLong>) super.getReplication();
+        }
+    }
+}
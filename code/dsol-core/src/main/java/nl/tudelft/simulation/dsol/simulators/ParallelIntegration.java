@@ -0,0 +1,150 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import nl.tudelft.simulation.dsol.formalisms.dess.IntegrableInterface;
+
+/**
+ * ParallelIntegration integrates the registered integrables of a simulator in batches on a ForkJoinPool, and returns when all
+ * batches are done. Without a pool, or with at most one batch, it does nothing, and the integrables integrate themselves when
+ * they are notified of the time change.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class ParallelIntegration implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the integrables, in the order of registration. */
+    private final List<IntegrableInterface> integrables = new ArrayList<>();
+
+    /** the pool to integrate on; null when the integration is not parallel. */
+    private transient ForkJoinPool pool = null;
+
+    /** the number of integrables in a batch. */
+    private int batchSize = 1;
+
+    /**
+     * adds an integrable.
+     * @param integrable IntegrableInterface; the integrable
+     */
+    public final void add(final IntegrableInterface integrable)
+    {
+        this.integrables.add(integrable);
+    }
+
+    /**
+     * removes an integrable.
+     * @param integrable IntegrableInterface; the integrable
+     * @return boolean; whether the integrable was registered
+     */
+    public final boolean remove(final IntegrableInterface integrable)
+    {
+        return this.integrables.remove(integrable);
+    }
+
+    /**
+     * removes all integrables, e.g., when the simulator is initialized for a new replication and the model registers its
+     * integrables again.
+     */
+    public final void clear()
+    {
+        this.integrables.clear();
+    }
+
+    /**
+     * sets the pool and the batch size of the parallel integration.
+     * @param integrationPool ForkJoinPool; the pool to integrate on, or null to let the integrables integrate themselves
+     * @param integrationBatchSize int; the number of integrables in a batch
+     * @throws IllegalArgumentException when the batch size is not positive
+     */
+    public final void setParallelism(final ForkJoinPool integrationPool, final int integrationBatchSize)
+    {
+        if (integrationBatchSize < 1)
+        {
+            throw new IllegalArgumentException("batch size " + integrationBatchSize + " < 1");
+        }
+        this.pool = integrationPool;
+        this.batchSize = integrationBatchSize;
+    }
+
+    /**
+     * @return ForkJoinPool; the pool to integrate on, or null when the integration is not parallel
+     */
+    public final ForkJoinPool getPool()
+    {
+        return this.pool;
+    }
+
+    /**
+     * @return int; the number of integrables in a batch
+     */
+    public final int getBatchSize()
+    {
+        return this.batchSize;
+    }
+
+    /**
+     * integrates all integrables to the current simulation time in parallel, when there is a pool and more than one batch.
+     */
+    public final void integrate()
+    {
+        if (this.pool != null && this.integrables.size() > this.batchSize)
+        {
+            this.pool.invoke(new Batch(0, this.integrables.size()));
+        }
+    }
+
+    /** A Batch integrates a range of integrables, and splits itself when the range is larger than the batch size. */
+    private class Batch extends RecursiveAction
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the index of the first integrable. */
+        private final int from;
+
+        /** the index after the last integrable. */
+        private final int to;
+
+        /**
+         * @param from int; the index of the first integrable
+         * @param to int; the index after the last integrable
+         */
+        Batch(final int from, final int to)
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute()
+        {
+            int size = ParallelIntegration.this.batchSize;
+            if (this.to - this.from <= size)
+            {
+                for (int i = this.from; i < this.to; i++)
+                {
+                    ParallelIntegration.this.integrables.get(i).integrate();
+                }
+                return;
+            }
+            // split at a whole number of batches
+            int middle = this.from + (this.to - this.from + size) / (2 * size) * size;
+            invokeAll(new Batch(this.from, middle), new Batch(middle, this.to));
+        }
+    }
+}
@@ -53,9 +53,9 @@ public abstract class Simulator<A extends Comparable<A>, R extends Number & Comp
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected T simulatorTime;
 
-    /** running represents the binary state of the simulator. */
+    /** running represents the binary state of the simulator; volatile because other threads poll and change it. */
     @SuppressWarnings("checkstyle:visibilitymodifier")
-    protected transient boolean running = false;
+    protected transient volatile boolean running = false;
 
     /** replication represents the currently active replication. */
     @SuppressWarnings("checkstyle:visibilitymodifier")
@@ -69,6 +69,12 @@ public abstract class Simulator<A extends Comparable<A>, R extends Number & Comp
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected transient Object semaphore = new Object();
 
+    /** the minimum wall clock interval between two coalesced TIME_CHANGED_EVENTs in nanoseconds; 0 means no coalescing. */
+    private long timeChangedInterval = 0L;
+
+    /** the wall clock time in nanoseconds at which the last coalesced TIME_CHANGED_EVENT was fired. */
+    private long lastTimeChanged = 0L;
+
     /**
      * constructs a new Simulator.
      */
@@ -130,6 +136,7 @@ public abstract class Simulator<A extends Comparable<A>, R extends Number & Comp
     public void endReplication()
     {
         this.running = false;
+        flushTimeChanged();
         this.fireEvent(SimulatorInterface.STOP_EVENT);
         this.fireTimedEvent(SimulatorInterface.END_REPLICATION_EVENT, this, this.simulatorTime.get());
 
@@ -240,6 +247,7 @@ public abstract class Simulator<A extends Comparable<A>, R extends Number & Comp
             throw new SimRuntimeException("Cannot stop an already stopped simulator");
         }
         this.running = false;
+        flushTimeChanged();
         if (fireStopEvent)
         {
             this.fireEvent(SimulatorInterface.STOP_EVENT);
@@ -254,6 +262,84 @@ public abstract class Simulator<A extends Comparable<A>, R extends Number & Comp
         stop(true);
     }
 
+    /**
+     * Set the minimum wall clock interval between two TIME_CHANGED_EVENTs that the event loop fires. A graphical user
+     * interface that only displays the simulation time does not need a notification for every event time; with an interval of,
+     * e.g., 40 ms, at most 25 notifications per second are fired, and the simulator does not construct events that would be
+     * discarded by the screen anyway. The latest simulation time is always fired when the simulator stops. An interval of 0,
+     * the default, fires a TIME_CHANGED_EVENT for every change of the simulation time.<br>
+     * Simulators with a continuous part ignore the interval, because their DifferentialEquations are integrated on the
+     * TIME_CHANGED_EVENTs. For the same reason, the interval should not be set when other objects depend on every time change.
+     * @param timeChangedInterval long; the minimum interval between two TIME_CHANGED_EVENTs in milliseconds, or 0 to fire
+     *            every time change
+     */
+    public final void setTimeChangedInterval(final long timeChangedInterval)
+    {
+        if (timeChangedInterval < 0L)
+        {
+            throw new IllegalArgumentException("timeChangedInterval cannot be negative");
+        }
+        this.timeChangedInterval = timeChangedInterval * 1000000L;
+        this.lastTimeChanged = System.nanoTime() - this.timeChangedInterval;
+    }
+
+    /**
+     * Return the minimum wall clock interval between two TIME_CHANGED_EVENTs that the event loop fires.
+     * @return long; the minimum interval between two TIME_CHANGED_EVENTs in milliseconds, or 0 when every time change is fired
+     */
+    public final long getTimeChangedInterval()
+    {
+        return this.timeChangedInterval / 1000000L;
+    }
+
+    /**
+     * Return the object on which the simulator synchronizes the execution of events and the changes to the event list. Code
+     * that executes on behalf of an event on another thread, while the thread of the simulator waits for it, such as a
+     * ThreadedProcess, waits on this object so the other thread can schedule and cancel events.
+     * @return Object; the object on which the simulator synchronizes
+     */
+    public final Object getSemaphore()
+    {
+        return this.semaphore;
+    }
+
+    /**
+     * Fire a TIME_CHANGED_EVENT for a new simulation time from the event loop. No event is constructed, and the time is not
+     * boxed, when no listener is subscribed to the TIME_CHANGED_EVENT, or when the previous TIME_CHANGED_EVENT was fired less
+     * than the time changed interval ago.
+     * @param time T; the new simulation time
+     */
+    protected final void fireTimeChanged(final T time)
+    {
+        if (!hasListeners(SimulatorInterface.TIME_CHANGED_EVENT))
+        {
+            return;
+        }
+        if (this.timeChangedInterval > 0L)
+        {
+            long now = System.nanoTime();
+            if (now - this.lastTimeChanged < this.timeChangedInterval)
+            {
+                return;
+            }
+            this.lastTimeChanged = now;
+        }
+        this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, time, time.get());
+    }
+
+    /**
+     * Fire the current simulation time when TIME_CHANGED_EVENTs are coalesced, so the listeners do not miss the time at which
+     * the simulator stopped.
+     */
+    private void flushTimeChanged()
+    {
+        if (this.timeChangedInterval > 0L && this.simulatorTime != null
+                && hasListeners(SimulatorInterface.TIME_CHANGED_EVENT))
+        {
+            this.fireTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, this.simulatorTime, this.simulatorTime.get());
+        }
+    }
+
     /**
      * Clean up the simulator. Remove the worker thread.
      */
@@ -0,0 +1,662 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.InputPortInterface;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.ModelExecutionInterface;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.SavedStateInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+
+/**
+ * A logical process of a TimeWarpSimulator: the simulator of one partition of a DEVS model, with its own event list, that
+ * runs on its own thread and executes its events optimistically, ahead of the other logical processes. Messages from models
+ * on other logical processes arrive in the inbox of the logical process, and are delivered as events at their time. A
+ * message in the past of the logical process, a straggler, rolls the logical process back to the time of the message:
+ * <ul>
+ * <li>the atomic models restore the state that they saved before their first transition after that time;</li>
+ * <li>the messages that were sent to other logical processes after that time are cancelled with anti-messages;</li>
+ * <li>the messages that were delivered after that time are delivered again.</li>
+ * </ul>
+ * The messages at the same time are delivered after the internal events at that time, in an order that does not depend on
+ * the threads: a message that is sent after the delivery of another message at the same time is delivered after that
+ * message, and other ties are ordered by the sending logical process, and the order in which it sent the messages. The
+ * events at the time of a straggler are not rolled back, unless a message after the straggler in this order has been
+ * delivered at that time; then the logical process rolls back to the state before its first event at that time. An
+ * anti-message removes a message that has not been delivered yet, and rolls the logical process back to the state before
+ * its first event at the time of the message when the message has been delivered. The states and messages before the global
+ * virtual time (GVT) can never be rolled back, and are removed by the TimeWarpSimulator when it computes the GVT. Only the
+ * internal events and messages of the atomic models are rolled back; other events should not be scheduled on a logical
+ * process.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, such as Double or
+ *            Long, the absolute and relative types are the same.
+ * @param <T> the simulation time type based on the absolute and relative time.
+ * @since 3.03.06
+ */
+public class TimeWarpLogicalProcess<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+        extends DEVSSimulator<A, R, T> implements ModelExecutionInterface<A, R, T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the largest number of logical processes of a TimeWarpSimulator. */
+    static final int MAX_PROCESSES = Message.MAX;
+
+    /** the logical process that executes its events on the current thread. */
+    private static final ThreadLocal<TimeWarpLogicalProcess<?, ?, ?>> CURRENT = new ThreadLocal<>();
+
+    /** the simulator of the logical process. */
+    private final TimeWarpSimulator<A, R, T> timeWarp;
+
+    /** the name of the logical process. */
+    private final String name;
+
+    /** the number of the logical process in the order of the messages; 0 is the TimeWarpSimulator itself. */
+    private final int index;
+
+    /** the messages and anti-messages from other logical processes that have not been received yet. */
+    private transient Queue<Message<A, R, T>> inbox = new ConcurrentLinkedQueue<>();
+
+    /** the received messages after the GVT, in the order of their delivery events. */
+    private transient TreeSet<Message<A, R, T>> inputs = new TreeSet<>();
+
+    /** the messages that were sent to other logical processes after the GVT, in the order in which they were sent. */
+    private transient ArrayDeque<Message<A, R, T>> outputs = new ArrayDeque<>();
+
+    /** the saved states of the atomic models after the GVT, in the order in which they were saved. */
+    private transient ArrayDeque<SavedState<T>> states = new ArrayDeque<>();
+
+    /** the largest depth of the messages that were delivered at the current time. */
+    private transient int depth = 0;
+
+    /** the number of messages that were sent to other logical processes at the current time. */
+    private transient int sequence = 0;
+
+    /** whether the logical process had no events to execute when it last asked for the GVT. */
+    private transient boolean idle = false;
+
+    /** the number of events that were executed since the last request for the GVT. */
+    private transient int eventsSinceGvt = 0;
+
+    /** the number of rollbacks. */
+    private long rollbacks = 0L;
+
+    /** the number of anti-messages that were sent. */
+    private long antiMessages = 0L;
+
+    /**
+     * Create a logical process for the current time and replication of the TimeWarpSimulator.
+     * @param timeWarp TimeWarpSimulator&lt;A,R,T&gt;; the simulator of the logical process
+     * @param name String; the name of the logical process
+     * @param index int; the number of the logical process in the order of the messages, starting at 1
+     */
+    TimeWarpLogicalProcess(final TimeWarpSimulator<A, R, T> timeWarp, final String name, final int index)
+    {
+        // the logical process runs on a thread of the TimeWarpSimulator, and does not need its own worker thread
+        cleanUp();
+        this.timeWarp = timeWarp;
+        this.name = name;
+        this.index = index;
+        this.replication = timeWarp.getReplication();
+        this.simulatorTime = timeWarp.getSimTime().copy();
+    }
+
+    /**
+     * @return TimeWarpSimulator&lt;A,R,T&gt;; the simulator of the logical process
+     */
+    public final TimeWarpSimulator<A, R, T> getTimeWarpSimulator()
+    {
+        return this.timeWarp;
+    }
+
+    /**
+     * @return String; the name of the logical process
+     */
+    public final String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return long; the number of rollbacks
+     */
+    public final long getRollbacks()
+    {
+        return this.rollbacks;
+    }
+
+    /**
+     * @return long; the number of anti-messages that were sent
+     */
+    public final long getAntiMessages()
+    {
+        return this.antiMessages;
+    }
+
+    /**
+     * @return int; the number of saved states after the GVT
+     */
+    final int getSavedStates()
+    {
+        return this.states.size();
+    }
+
+    /**
+     * @return int; the number of messages that were sent to other logical processes after the GVT
+     */
+    final int getSentMessages()
+    {
+        return this.outputs.size();
+    }
+
+    /**
+     * Post a message for an input port of a model on this logical process in the inbox, when the message is sent from a model
+     * on another logical process, or from the TimeWarpSimulator while the logical processes run. The message is kept by the
+     * sending logical process, to cancel it when the sender rolls back.
+     * @param port InputPortInterface&lt;A,R,T,?&gt;; the input port
+     * @param value Object; the message
+     * @param time T; the time of the message
+     * @return boolean; whether the message is posted; false when the message has to be handled directly
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public final boolean post(final InputPortInterface<A, R, T, ?> port, final Object value, final T time)
+    {
+        TimeWarpLogicalProcess<A, R, T> sender = (TimeWarpLogicalProcess<A, R, T>) CURRENT.get();
+        if (sender == this || (sender == null && !this.timeWarp.isProcessing()))
+        {
+            return false;
+        }
+        Message<A, R, T> message;
+        if (sender != null)
+        {
+            message = new Message<>(this, port, value, time.copy(), sender.depth + 1, sender.index, sender.sequence++);
+            sender.outputs.add(message);
+        }
+        else
+        {
+            message = new Message<>(this, port, value, time.copy(), 1, 0, this.timeWarp.nextSequence(time));
+        }
+        this.inbox.add(message);
+        return true;
+    }
+
+    /**
+     * Execute an action of the TimeWarpSimulator on the thread of a logical process, such as the computation of the GVT, as if
+     * it is executed on the thread of the simulator: the messages that the action sends are not kept by the logical process.
+     * @param action Runnable; the action
+     */
+    static void executeOutside(final Runnable action)
+    {
+        TimeWarpLogicalProcess<?, ?, ?> process = CURRENT.get();
+        CURRENT.remove();
+        try
+        {
+            action.run();
+        }
+        finally
+        {
+            if (process != null)
+            {
+                CURRENT.set(process);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean postDelayed(final SimEventInterface<T> message) throws SimRuntimeException
+    {
+        throw new SimRuntimeException("a coupling with a delay is not supported on a TimeWarpSimulator");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final boolean isSavingStates()
+    {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void saveState(final SavedStateInterface state)
+    {
+        this.states.add(new SavedState<T>(this.simulatorTime.copy(), state));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final ModelExecutionInterface<A, R, T> getModelExecution()
+    {
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void start(final boolean fireStartEvent) throws SimRuntimeException
+    {
+        throw new SimRuntimeException("a logical process is started by its TimeWarpSimulator");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void step(final boolean fireStepEvent) throws SimRuntimeException
+    {
+        throw new SimRuntimeException("a logical process cannot step");
+    }
+
+    /**
+     * Execute the events of the logical process on the current thread, until the TimeWarpSimulator has finished the run. The
+     * logical process receives its messages before every event, and waits for the computation of the GVT when it is
+     * requested.
+     */
+    @Override
+    public final void run()
+    {
+        CURRENT.set(this);
+        this.running = true;
+        this.idle = false;
+        T endTime = this.replication.getTreatment().getEndSimTime();
+        try
+        {
+            while (true)
+            {
+                if (this.timeWarp.isGvtRequested())
+                {
+                    this.timeWarp.awaitGvt();
+                }
+                if (this.timeWarp.isFinished())
+                {
+                    break;
+                }
+                try
+                {
+                    receiveMessages();
+                    if (!this.eventList.isEmpty() && this.eventList.first().getAbsoluteExecutionTime().le(endTime))
+                    {
+                        executeEvent();
+                    }
+                    else if (!this.idle)
+                    {
+                        this.idle = true;
+                        this.timeWarp.requestGvt();
+                    }
+                    else
+                    {
+                        Thread.yield();
+                    }
+                }
+                catch (SimRuntimeException exception)
+                {
+                    this.timeWarp.fail(exception);
+                }
+            }
+        }
+        catch (InterruptedException | BrokenBarrierException exception)
+        {
+            if (!this.timeWarp.isFinished())
+            {
+                this.timeWarp.fail(exception);
+            }
+        }
+        finally
+        {
+            this.running = false;
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Execute the first event of the event list, and request the GVT after the interval of the TimeWarpSimulator.
+     */
+    private void executeEvent()
+    {
+        synchronized (super.semaphore)
+        {
+            SimEventInterface<T> event = this.eventList.removeFirst();
+            if (event.getAbsoluteExecutionTime().ne(this.simulatorTime))
+            {
+                this.depth = 0;
+                this.sequence = 0;
+            }
+            this.simulatorTime = event.getAbsoluteExecutionTime();
+            try
+            {
+                event.execute();
+            }
+            catch (Exception exception)
+            {
+                this.timeWarp.handleError(exception);
+            }
+        }
+        this.idle = false;
+        if (++this.eventsSinceGvt >= this.timeWarp.getGvtInterval())
+        {
+            this.eventsSinceGvt = 0;
+            this.timeWarp.requestGvt();
+        }
+    }
+
+    /**
+     * Receive the messages and anti-messages in the inbox, and roll back for the stragglers and the anti-messages of
+     * delivered messages.
+     * @throws SimRuntimeException when a state cannot be restored or an event cannot be scheduled
+     */
+    private void receiveMessages() throws SimRuntimeException
+    {
+        Message<A, R, T> message;
+        while ((message = this.inbox.poll()) != null)
+        {
+            this.idle = false;
+            if (message.positive == null)
+            {
+                boolean overtaken = isOvertaken(message);
+                if (overtaken || message.getAbsoluteExecutionTime().lt(this.simulatorTime))
+                {
+                    rollback(message.getAbsoluteExecutionTime(), overtaken);
+                }
+                this.inputs.add(message);
+                scheduleEvent(message);
+            }
+            else
+            {
+                Message<A, R, T> positive = message.positive;
+                if (positive.delivered)
+                {
+                    rollback(positive.getAbsoluteExecutionTime(), true);
+                }
+                this.inputs.remove(positive);
+                this.eventList.remove(positive);
+            }
+        }
+    }
+
+    /**
+     * @param message Message&lt;A,R,T&gt;; a received message
+     * @return boolean; whether a message at the same time that is delivered after the received message has been delivered
+     */
+    private boolean isOvertaken(final Message<A, R, T> message)
+    {
+        for (Message<A, R, T> input : this.inputs.tailSet(message, false))
+        {
+            if (input.getAbsoluteExecutionTime().ne(message.getAbsoluteExecutionTime()))
+            {
+                return false;
+            }
+            if (input.delivered)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Roll the logical process back to the state before its first event after a time, or at a time.
+     * @param time T; the time to roll back to
+     * @param inclusive boolean; whether the events at the time are rolled back as well
+     * @throws SimRuntimeException when a state cannot be restored or an event cannot be scheduled
+     */
+    private void rollback(final T time, final boolean inclusive) throws SimRuntimeException
+    {
+        this.rollbacks++;
+        this.simulatorTime = time.copy();
+        // the earliest saved state of a model after the time is restored last
+        while (!this.states.isEmpty() && isRolledBack(this.states.peekLast().time, time, inclusive))
+        {
+            this.states.pollLast().state.restore();
+        }
+        while (!this.outputs.isEmpty() && isRolledBack(this.outputs.peekLast().getAbsoluteExecutionTime(), time, inclusive))
+        {
+            Message<A, R, T> output = this.outputs.pollLast();
+            output.receiver.inbox.add(new Message<>(output));
+            this.antiMessages++;
+        }
+        this.depth = 0;
+        this.sequence = 0;
+        Iterator<Message<A, R, T>> iterator = this.inputs.descendingIterator();
+        while (iterator.hasNext())
+        {
+            Message<A, R, T> input = iterator.next();
+            if (!isRolledBack(input.getAbsoluteExecutionTime(), time, inclusive))
+            {
+                // the messages that remain delivered at the time determine the depth of the next messages
+                if (input.delivered && input.getAbsoluteExecutionTime().eq(time))
+                {
+                    this.depth = Math.max(this.depth, input.depth);
+                }
+                else if (input.getAbsoluteExecutionTime().lt(time))
+                {
+                    break;
+                }
+            }
+            else if (input.delivered)
+            {
+                input.delivered = false;
+                this.eventList.add(input);
+            }
+        }
+        Iterator<Message<A, R, T>> sent = this.outputs.descendingIterator();
+        while (sent.hasNext() && sent.next().getAbsoluteExecutionTime().eq(time))
+        {
+            this.sequence++;
+        }
+    }
+
+    /**
+     * @param eventTime T; the time of a saved state or message
+     * @param time T; the time to roll back to
+     * @param inclusive boolean; whether the events at the time are rolled back as well
+     * @return boolean; whether the saved state or message is rolled back
+     */
+    private boolean isRolledBack(final T eventTime, final T time, final boolean inclusive)
+    {
+        return inclusive ? eventTime.ge(time) : eventTime.gt(time);
+    }
+
+    /**
+     * Return the time of the earliest event or message of the logical process, while it waits for the computation of the
+     * GVT. The logical process cannot roll back to an earlier time.
+     * @return T; the time of the earliest event or message, or null when the logical process has no events and messages
+     */
+    final T getLocalTime()
+    {
+        T localTime = this.eventList.isEmpty() ? null : this.eventList.first().getAbsoluteExecutionTime();
+        for (Message<A, R, T> message : this.inbox)
+        {
+            if (localTime == null || message.getAbsoluteExecutionTime().lt(localTime))
+            {
+                localTime = message.getAbsoluteExecutionTime();
+            }
+        }
+        return localTime;
+    }
+
+    /**
+     * Remove the saved states and the messages before the GVT, while the logical process waits for the computation of the
+     * GVT.
+     * @param gvt T; the global virtual time
+     */
+    final void collectFossils(final T gvt)
+    {
+        while (!this.states.isEmpty() && this.states.peekFirst().time.lt(gvt))
+        {
+            this.states.pollFirst();
+        }
+        while (!this.outputs.isEmpty() && this.outputs.peekFirst().getAbsoluteExecutionTime().lt(gvt))
+        {
+            this.outputs.pollFirst();
+        }
+        Iterator<Message<A, R, T>> iterator = this.inputs.iterator();
+        while (iterator.hasNext())
+        {
+            Message<A, R, T> input = iterator.next();
+            if (input.getAbsoluteExecutionTime().ge(gvt))
+            {
+                break;
+            }
+            if (input.delivered)
+            {
+                iterator.remove();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final String toString()
+    {
+        return "TimeWarpLogicalProcess[" + this.name + "]";
+    }
+
+    /**
+     * reads the logical process from stream, and creates the transient queues of messages and states.
+     * @param in java.io.ObjectInputStream; the inputstream
+     * @throws IOException on IOException
+     * @throws ClassNotFoundException when a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.inputs = new TreeSet<>();
+        this.outputs = new ArrayDeque<>();
+        this.states = new ArrayDeque<>();
+    }
+
+    /**
+     * A saved state of an atomic model, with the time at which it was saved.
+     * @param <T> the simulation time type
+     */
+    private static final class SavedState<T extends SimTime<?, ?, T>>
+    {
+        /** the time at which the state was saved. */
+        private final T time;
+
+        /** the saved state. */
+        private final SavedStateInterface state;
+
+        /**
+         * @param time T; the time at which the state was saved
+         * @param state SavedStateInterface; the saved state
+         */
+        SavedState(final T time, final SavedStateInterface state)
+        {
+            this.time = time;
+            this.state = state;
+        }
+    }
+
+    /**
+     * A message for an input port of a model on a logical process, which is the event that delivers the message at its time,
+     * or an anti-message that cancels such a message. The id of a message orders it after the internal events at the same
+     * time, by its depth, the number of the sending logical process, and its sequence number at the sender.
+     * @param <A> the absolute storage type for the simulation time
+     * @param <R> the relative type for time storage
+     * @param <T> the simulation time type
+     */
+    private static final class Message<A extends Comparable<A>, R extends Number & Comparable<R>,
+            T extends SimTime<A, R, T>> extends AbstractSimEvent<T>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the logical process of the receiving model. */
+        private final TimeWarpLogicalProcess<A, R, T> receiver;
+
+        /** the input port; null for an anti-message. */
+        private final InputPortInterface<A, R, T, ?> port;
+
+        /** the message; null for an anti-message. */
+        private final Object value;
+
+        /** the message that an anti-message cancels; null for a message. */
+        private final Message<A, R, T> positive;
+
+        /** the id of the first message, after the ids of the internal events. */
+        private static final long FIRST_ID = 1L << 62;
+
+        /** the largest depth and the largest number of a logical process in the id. */
+        private static final int MAX = (1 << 15) - 1;
+
+        /** the depth of the message: one more than the largest depth of the delivered messages at the time of the sender. */
+        private final int depth;
+
+        /** whether the message has been delivered. */
+        private boolean delivered = false;
+
+        /**
+         * Create a message.
+         * @param receiver TimeWarpLogicalProcess&lt;A,R,T&gt;; the logical process of the receiving model
+         * @param port InputPortInterface&lt;A,R,T,?&gt;; the input port
+         * @param value Object; the message
+         * @param time T; the time of the message
+         * @param depth int; the depth of the message
+         * @param sender int; the number of the sending logical process, or 0 for the TimeWarpSimulator
+         * @param sequence int; the sequence number of the message at the sender at its time
+         */
+        @SuppressWarnings("checkstyle:parameternumber")
+        Message(final TimeWarpLogicalProcess<A, R, T> receiver, final InputPortInterface<A, R, T, ?> port, final Object value,
+                final T time, final int depth, final int sender, final int sequence)
+        {
+            super(time);
+            this.receiver = receiver;
+            this.port = port;
+            this.value = value;
+            this.positive = null;
+            // a deeper chain of messages than MAX at one time is only ordered by sender and sequence number
+            this.depth = Math.min(depth, MAX);
+            this.id = FIRST_ID + ((long) this.depth << 47) + ((long) sender << 32) + (sequence & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Create an anti-message.
+         * @param positive Message&lt;A,R,T&gt;; the message to cancel
+         */
+        Message(final Message<A, R, T> positive)
+        {
+            super(positive.getAbsoluteExecutionTime());
+            this.receiver = positive.receiver;
+            this.port = null;
+            this.value = null;
+            this.positive = positive;
+            this.depth = positive.depth;
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public void execute() throws SimRuntimeException
+        {
+            this.delivered = true;
+            this.receiver.depth = Math.max(this.receiver.depth, this.depth);
+            try
+            {
+                ((InputPortInterface<A, R, T, Object>) this.port).receive(this.value, this.absoluteExecutionTime);
+            }
+            catch (RemoteException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,557 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import org.djunits.value.vdouble.scalar.Duration;
+import org.djunits.value.vdouble.scalar.Time;
+import org.djunits.value.vfloat.scalar.FloatDuration;
+import org.djunits.value.vfloat.scalar.FloatTime;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AbstractDEVSModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.logger.SimLogger;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarLong;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDoubleUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloatUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
+
+/**
+ * The TimeWarpSimulator executes the partitions of a DEVS model optimistically in parallel, with the Time Warp mechanism of
+ * Jefferson. Every partition is a coupled model that is assigned to a TimeWarpLogicalProcess with addLogicalProcess(), in the
+ * constructModel() method, before the atomic models of the partition are initialized. The logical processes run on their own
+ * threads, execute their events ahead of each other, and roll back when a message arrives in their past; the atomic models
+ * save their state incrementally, i.e., once per time point in which they have a transition.
+ * <p>
+ * The simulator computes the global virtual time (GVT) when a logical process has executed a number of events since its last
+ * request, or has run out of events: all logical processes wait, the GVT is the time of the earliest event or message in the
+ * logical processes, and the saved states and messages before the GVT are removed. The simulator time is the GVT, and the
+ * events of the simulator itself before the GVT, such as the warmup and the end of the replication, are executed while the
+ * logical processes wait. The run ends when the GVT passes the end of the replication. Simultaneous messages from other
+ * logical processes are delivered in an order that does not depend on the threads of the logical processes, so a run gives
+ * the same results for the same partitions.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute storage type for the simulation time, e.g. Calendar, Duration, or Double.
+ * @param <R> the relative type for time storage, e.g. Long for the Calendar. For most non-calendar types, such as Double or
+ *            Long, the absolute and relative types are the same.
+ * @param <T> the simulation time type based on the absolute and relative time.
+ * @since 3.03.06
+ */
+public class TimeWarpSimulator<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+        extends DEVSSimulator<A, R, T>
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the logical processes. */
+    private transient List<TimeWarpLogicalProcess<A, R, T>> processes = new ArrayList<>();
+
+    /** the number of events after which a logical process requests the computation of the GVT. */
+    private int gvtInterval = 1000;
+
+    /** the barrier at which the logical processes wait for the computation of the GVT. */
+    private transient CyclicBarrier barrier = null;
+
+    /** whether the logical processes run. */
+    private transient volatile boolean processing = false;
+
+    /** whether a logical process requested the computation of the GVT. */
+    private transient volatile boolean gvtRequested = false;
+
+    /** whether the logical processes have finished the run. */
+    private transient volatile boolean finished = false;
+
+    /** the exception that ended the run of the logical processes; null when none occurred. */
+    private transient volatile Exception failure = null;
+
+    /** the time of the last message that the events of the simulator itself sent to a logical process. */
+    private transient T sequenceTime = null;
+
+    /** the number of messages that the events of the simulator itself sent to the logical processes at that time. */
+    private transient int sequence = 0;
+
+    /**
+     * Assign a coupled model and all its components to a new logical process. The models that are added to the coupled model
+     * afterwards are assigned to the logical process as well. The atomic models have to be initialized after the assignment.
+     * @param partition CoupledModel&lt;A,R,T&gt;; the coupled model
+     * @return TimeWarpLogicalProcess&lt;A,R,T&gt;; the logical process
+     * @throws SimRuntimeException when the simulator is running, or has the largest number of logical processes
+     */
+    public final TimeWarpLogicalProcess<A, R, T> addLogicalProcess(final CoupledModel<A, R, T> partition)
+            throws SimRuntimeException
+    {
+        if (isRunning())
+        {
+            throw new SimRuntimeException("cannot add a logical process to a running simulator");
+        }
+        if (this.processes.size() >= TimeWarpLogicalProcess.MAX_PROCESSES)
+        {
+            throw new SimRuntimeException("more than " + TimeWarpLogicalProcess.MAX_PROCESSES + " logical processes");
+        }
+        TimeWarpLogicalProcess<A, R, T> process =
+                new TimeWarpLogicalProcess<>(this, partition.getFullName(), this.processes.size() + 1);
+        assign(partition, process);
+        this.processes.add(process);
+        return process;
+    }
+
+    /**
+     * Assign a model and its components to a logical process.
+     * @param model AbstractDEVSModel&lt;A,R,T&gt;; the model
+     * @param process TimeWarpLogicalProcess&lt;A,R,T&gt;; the logical process
+     */
+    private void assign(final AbstractDEVSModel<A, R, T> model, final TimeWarpLogicalProcess<A, R, T> process)
+    {
+        model.setSimulator(process);
+        if (model instanceof CoupledModel)
+        {
+            for (AbstractDEVSModel<A, R, T> component : ((CoupledModel<A, R, T>) model).getModelComponents())
+            {
+                assign(component, process);
+            }
+        }
+    }
+
+    /**
+     * @return List&lt;TimeWarpLogicalProcess&lt;A,R,T&gt;&gt;; the logical processes
+     */
+    public final List<TimeWarpLogicalProcess<A, R, T>> getLogicalProcesses()
+    {
+        return Collections.unmodifiableList(this.processes);
+    }
+
+    /**
+     * Set the number of events after which a logical process requests the computation of the GVT. A smaller interval removes
+     * the saved states earlier, at the cost of more waiting of the logical processes.
+     * @param gvtInterval int; the number of events after which a logical process requests the computation of the GVT
+     * @throws IllegalArgumentException when the interval is not positive
+     */
+    public final void setGvtInterval(final int gvtInterval)
+    {
+        if (gvtInterval < 1)
+        {
+            throw new IllegalArgumentException("GVT interval " + gvtInterval + " < 1");
+        }
+        this.gvtInterval = gvtInterval;
+    }
+
+    /**
+     * @return int; the number of events after which a logical process requests the computation of the GVT
+     */
+    public final int getGvtInterval()
+    {
+        return this.gvtInterval;
+    }
+
+    /**
+     * @return boolean; whether the logical processes run
+     */
+    final boolean isProcessing()
+    {
+        return this.processing;
+    }
+
+    /**
+     * @return boolean; whether a logical process requested the computation of the GVT
+     */
+    final boolean isGvtRequested()
+    {
+        return this.gvtRequested;
+    }
+
+    /**
+     * @return boolean; whether the logical processes have finished the run
+     */
+    final boolean isFinished()
+    {
+        return this.finished;
+    }
+
+    /**
+     * Request the computation of the GVT by all logical processes.
+     */
+    final void requestGvt()
+    {
+        this.gvtRequested = true;
+    }
+
+    /**
+     * Wait until all logical processes wait for the computation of the GVT, and the GVT has been computed.
+     * @throws InterruptedException when the thread of the logical process is interrupted
+     * @throws BrokenBarrierException when another logical process is interrupted
+     */
+    final void awaitGvt() throws InterruptedException, BrokenBarrierException
+    {
+        this.barrier.await();
+    }
+
+    /**
+     * End the run of the logical processes after an exception in the Time Warp mechanism, at the next computation of the GVT.
+     * @param exception Exception; the exception
+     */
+    final void fail(final Exception exception)
+    {
+        SimLogger.always().error(exception);
+        this.failure = exception;
+        this.gvtRequested = true;
+    }
+
+    /**
+     * Return the sequence number of a message that an event of the simulator itself sends to a logical process, which orders
+     * the messages of the simulator at the same time.
+     * @param time T; the time of the message
+     * @return int; the number of messages that the simulator sent before at the time
+     */
+    final int nextSequence(final T time)
+    {
+        if (this.sequenceTime == null || this.sequenceTime.ne(time))
+        {
+            this.sequenceTime = time.copy();
+            this.sequence = 0;
+        }
+        return this.sequence++;
+    }
+
+    /**
+     * Log an exception of an event, and stop the simulator when it pauses on errors.
+     * @param exception Exception; the exception
+     */
+    final void handleError(final Exception exception)
+    {
+        SimLogger.always().error(exception);
+        if (this.isPauseOnError() && isRunning())
+        {
+            try
+            {
+                this.stop();
+            }
+            catch (SimRuntimeException stopException)
+            {
+                SimLogger.always().error(stopException);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void initialize(final Replication<A, R, T, ? extends SimulatorInterface<A, R, T>> initReplication,
+            final ReplicationMode replicationMode) throws SimRuntimeException
+    {
+        this.processes.clear();
+        super.initialize(initReplication, replicationMode);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void step(final boolean fireStepEvent) throws SimRuntimeException
+    {
+        if (!this.processes.isEmpty())
+        {
+            throw new SimRuntimeException("a TimeWarpSimulator with logical processes cannot step");
+        }
+        super.step(fireStepEvent);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void stop(final boolean fireStopEvent) throws SimRuntimeException
+    {
+        super.stop(fireStopEvent);
+        this.gvtRequested = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void run()
+    {
+        if (this.processes.isEmpty())
+        {
+            super.run();
+            return;
+        }
+        // the worker thread executes its job with the interrupted status set
+        Thread.interrupted();
+        this.finished = false;
+        this.gvtRequested = false;
+        this.failure = null;
+        this.sequenceTime = null;
+        // the GVT is computed on the thread of the logical process that arrives last at the barrier
+        this.barrier = new CyclicBarrier(this.processes.size(), () -> TimeWarpLogicalProcess.executeOutside(this::computeGvt));
+        List<Thread> threads = new ArrayList<>();
+        this.processing = true;
+        try
+        {
+            for (TimeWarpLogicalProcess<A, R, T> process : this.processes)
+            {
+                Thread thread = new Thread(process, process.getName());
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads)
+            {
+                while (thread.isAlive())
+                {
+                    try
+                    {
+                        thread.join();
+                    }
+                    catch (InterruptedException exception)
+                    {
+                        // keep waiting until the logical processes have finished
+                    }
+                }
+            }
+        }
+        finally
+        {
+            this.processing = false;
+        }
+    }
+
+    /**
+     * Compute the GVT while all logical processes wait: execute the events of the simulator itself before the GVT, remove the
+     * saved states and messages before the GVT, and finish the run when the GVT passes the end of the replication, or the
+     * simulator is stopped.
+     */
+    private void computeGvt()
+    {
+        synchronized (super.semaphore)
+        {
+            T gvt = getLocalTime();
+            while (!this.eventList.isEmpty() && this.failure == null
+                    && (gvt == null || this.eventList.first().getAbsoluteExecutionTime().lt(gvt)))
+            {
+                SimEventInterface<T> event = this.eventList.removeFirst();
+                if (event.getAbsoluteExecutionTime().ne(super.simulatorTime))
+                {
+                    super.fireTimeChanged(event.getAbsoluteExecutionTime());
+                }
+                super.simulatorTime = event.getAbsoluteExecutionTime();
+                try
+                {
+                    event.execute();
+                }
+                catch (Exception exception)
+                {
+                    handleError(exception);
+                }
+                // the events of the simulator can send messages to the logical processes
+                gvt = getLocalTime();
+            }
+            if (gvt != null)
+            {
+                for (TimeWarpLogicalProcess<A, R, T> process : this.processes)
+                {
+                    process.collectFossils(gvt);
+                }
+                if (isRunning() && gvt.gt(super.simulatorTime))
+                {
+                    super.fireTimeChanged(gvt);
+                    super.simulatorTime = gvt.copy();
+                }
+            }
+            if (this.failure != null && isRunning())
+            {
+                try
+                {
+                    this.stop();
+                }
+                catch (SimRuntimeException stopException)
+                {
+                    SimLogger.always().error(stopException);
+                }
+            }
+            this.finished = !isRunning() || gvt == null;
+            this.gvtRequested = false;
+        }
+    }
+
+    /**
+     * @return T; the time of the earliest event or message in the logical processes, or null when they have no events and
+     *         messages
+     */
+    private T getLocalTime()
+    {
+        T gvt = null;
+        for (TimeWarpLogicalProcess<A, R, T> process : this.processes)
+        {
+            T localTime = process.getLocalTime();
+            if (localTime != null && (gvt == null || localTime.lt(gvt)))
+            {
+                gvt = localTime;
+            }
+        }
+        return gvt;
+    }
+
+    /**
+     * reads the simulator from stream, and creates the transient list of logical processes.
+     * @param in java.io.ObjectInputStream; the inputstream
+     * @throws IOException on IOException
+     * @throws ClassNotFoundException when a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.processes = new ArrayList<>();
+    }
+
+    /***********************************************************************************************************/
+    /************************************* EASY ACCESS CLASS EXTENSIONS ****************************************/
+    /***********************************************************************************************************/
+
+    /** Easy access class TimeWarpSimulator.TimeDouble. */
+    public static class TimeDouble extends TimeWarpSimulator<Double, Double, SimTimeDouble>
+            implements DEVSSimulatorInterface.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeDouble<? extends DEVSSimulatorInterface.TimeDouble> getReplication()
+        {
+            return (Replication.TimeDouble<? extends DEVSSimulatorInterface.TimeDouble>) super.getReplication();
+        }
+    }
+
+    /** Easy access class TimeWarpSimulator.TimeFloat. */
+    public static class TimeFloat extends TimeWarpSimulator<Float, Float, SimTimeFloat>
+            implements DEVSSimulatorInterface.TimeFloat
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeFloat<? extends DEVSSimulatorInterface.TimeFloat> getReplication()
+        {
+            return (Replication.TimeFloat<? extends DEVSSimulatorInterface.TimeFloat>) super.getReplication();
+        }
+    }
+
+    /** Easy access class TimeWarpSimulator.TimeLong. */
+    public static class TimeLong extends TimeWarpSimulator<Long, Long, SimTimeLong>
+            implements DEVSSimulatorInterface.TimeLong
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeLong<? extends DEVSSimulatorInterface.TimeLong> getReplication()
+        {
+            return (Replication.TimeLong<? extends DEVSSimulatorInterface.TimeLong>) super.getReplication();
+        }
+    }
+
+    /** Easy access class TimeWarpSimulator.TimeDoubleUnit. */
+    public static class TimeDoubleUnit extends TimeWarpSimulator<Time, Duration, SimTimeDoubleUnit>
+            implements DEVSSimulatorInterface.TimeDoubleUnit
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeDoubleUnit<? extends DEVSSimulatorInterface.TimeDoubleUnit> getReplication()
+        {
+            return (Replication.TimeDoubleUnit<? extends DEVSSimulatorInterface.TimeDoubleUnit>) super.getReplication();
+        }
+    }
+
+    /** Easy access class TimeWarpSimulator.TimeFloatUnit. */
+    public static class TimeFloatUnit extends TimeWarpSimulator<FloatTime, FloatDuration, SimTimeFloatUnit>
+            implements DEVSSimulatorInterface.TimeFloatUnit
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.TimeFloatUnit<? extends DEVSSimulatorInterface.TimeFloatUnit> getReplication()
+        {
+            return (Replication.TimeFloatUnit<? extends DEVSSimulatorInterface.TimeFloatUnit>) super.getReplication();
+        }
+    }
+
+    /** Easy access class TimeWarpSimulator.CalendarDouble. */
+    public static class CalendarDouble extends TimeWarpSimulator<Calendar, Duration, SimTimeCalendarDouble>
+            implements DEVSSimulatorInterface.CalendarDouble
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarDouble<? extends DEVSSimulatorInterface.CalendarDouble> getReplication()
+        {
+            return (Replication.CalendarDouble<? extends DEVSSimulatorInterface.CalendarDouble>) super.getReplication();
+        }
+    }
+
+    /** Easy access class TimeWarpSimulator.CalendarFloat. */
+    public static class CalendarFloat extends TimeWarpSimulator<Calendar, FloatDuration, SimTimeCalendarFloat>
+            implements DEVSSimulatorInterface.CalendarFloat
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarFloat<? extends DEVSSimulatorInterface.CalendarFloat> getReplication()
+        {
+            return (Replication.CalendarFloat<? extends DEVSSimulatorInterface.CalendarFloat>) super.getReplication();
+        }
+    }
+
+    /** Easy access class TimeWarpSimulator.CalendarLong. */
+    public static class CalendarLong extends TimeWarpSimulator<Calendar, Long, SimTimeCalendarLong>
+            implements DEVSSimulatorInterface.CalendarLong
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Replication.CalendarLong<? extends DEVSSimulatorInterface.CalendarLong> getReplication()
+        {
+            return (Replication.CalendarLong<? extends DEVSSimulatorInterface.CalendarLong>) super.getReplication();
+        }
+    }
+}
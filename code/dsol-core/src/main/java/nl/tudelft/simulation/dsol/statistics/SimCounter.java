@@ -4,7 +4,6 @@ import java.rmi.RemoteException;
 import java.util.Calendar;
 
 import javax.naming.Context;
-import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
 import org.djunits.value.vdouble.scalar.Duration;
@@ -147,6 +146,21 @@ public class SimCounter<A extends Comparable<A>, R extends Number & Comparable<R
         }
     }
 
+    /**
+     * processes a measurement that is offered as a primitive value, but only after the warmup period and before the end of
+     * the replication.
+     * @param value long; the value to add to the counter
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void ingest(final long value)
+    {
+        if (!this.stopped && this.isInitialized())
+        {
+            super.ingest(value);
+        }
+    }
+
     /**
      * endOfReplication is invoked to store the final results. A special Tally is created in the Context to tally the counters
      * of all replications. Herewith the confidence interval of the average counter results over the different replications can
@@ -157,25 +171,18 @@ public class SimCounter<A extends Comparable<A>, R extends Number & Comparable<R
     {
         try
         {
-            String[] parts = nl.tudelft.simulation.naming.context.ContextUtil.resolveKey(this).split("/");
-            String key = "";
-            for (int i = 0; i < parts.length; i++)
-            {
-                if (i != parts.length - 2)
-                {
-                    key = key + parts[i] + "/";
-                }
-            }
-            key = key.substring(0, key.length() - 1);
+            Context context = this.simulator.getReplication().getTreatment().getExperiment().getContext();
+            context = ContextUtil.lookup(context, "average");
+            context = ContextUtil.lookup(context, "statistics");
             Tally tally = null;
             try
             {
-                tally = (Tally) new InitialContext().lookup(key);
+                tally = (Tally) context.lookup(this.description);
             }
             catch (NamingException exception)
             {
                 tally = new Tally(this.description);
-                new InitialContext().bind(key, tally);
+                context.bind(this.description, tally);
                 tally.initialize();
             }
             tally.notify(new Event(null, this, new Long(this.count)));
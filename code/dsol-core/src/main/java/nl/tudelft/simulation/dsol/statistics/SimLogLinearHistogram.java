@@ -0,0 +1,568 @@
+package nl.tudelft.simulation.dsol.statistics;
+
+import java.rmi.RemoteException;
+import java.util.Calendar;
+
+import javax.naming.Context;
+import javax.naming.NamingException;
+
+import org.djunits.value.vdouble.scalar.Duration;
+import org.djunits.value.vdouble.scalar.Time;
+import org.djunits.value.vfloat.scalar.FloatDuration;
+import org.djunits.value.vfloat.scalar.FloatTime;
+
+import nl.tudelft.simulation.dsol.logger.SimLogger;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeCalendarLong;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDoubleUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloat;
+import nl.tudelft.simulation.dsol.simtime.SimTimeFloatUnit;
+import nl.tudelft.simulation.dsol.simtime.SimTimeLong;
+import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventProducerInterface;
+import nl.tudelft.simulation.event.EventType;
+import nl.tudelft.simulation.jstats.statistics.LogLinearHistogram;
+import nl.tudelft.simulation.naming.context.ContextUtil;
+
+/**
+ * The time-aware LogLinearHistogram extends the log-linear histogram and links it to the dsol framework: samples are only
+ * processed after the warmup period and until the end of the replication. At the end of the replication, the counts are
+ * added to a histogram with the same configuration in the experiment context, which holds the counts of all replications.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @param <A> the absolute time type to use in timed events
+ * @param <R> the relative time type
+ * @param <T> the absolute simulation time to use in the warmup event
+ * @since 3.03.06
+ */
+public class SimLogLinearHistogram<A extends Comparable<A>, R extends Number & Comparable<R>, T extends SimTime<A, R, T>>
+        extends LogLinearHistogram
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** TIMED_QUANTILES_EVENT is fired with a double[] of the reported quantiles, time stamped with the simulator time. */
+    public static final EventType TIMED_QUANTILES_EVENT = new EventType("TIMED_QUANTILES_EVENT");
+
+    /** the simulator. */
+    private SimulatorInterface<A, R, T> simulator = null;
+
+    /** after the END_OF_REPLICATION we stop. */
+    private boolean stopped = false;
+
+    /**
+     * constructs a new SimLogLinearHistogram.
+     * @param description String; the description of this histogram
+     * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+     * @param highestTrackableValue double; the highest value that is counted in the buckets
+     * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+     * @param simulator SimulatorInterface&lt;A,R,T&gt;; the simulator to schedule on
+     * @throws RemoteException on network error for one of the listeners
+     */
+    public SimLogLinearHistogram(final String description,
+            final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+            final SimulatorInterface<A, R, T> simulator) throws RemoteException
+    {
+        super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits);
+        this.simulator = simulator;
+        if (this.simulator.getSimTime().gt(this.simulator.getReplication().getTreatment().getWarmupSimTime()))
+        {
+            this.initialize();
+        }
+        else
+        {
+            this.simulator.addListener(this, SimulatorInterface.WARMUP_EVENT, false);
+        }
+        this.simulator.addListener(this, SimulatorInterface.END_REPLICATION_EVENT, false);
+        try
+        {
+            Context context = ContextUtil.lookup(this.simulator.getReplication().getContext(), "/statistics");
+            ContextUtil.bind(context, this);
+        }
+        catch (NamingException exception)
+        {
+            SimLogger.always().warn(exception, "<init>");
+        }
+    }
+
+    /**
+     * constructs a new SimLogLinearHistogram.
+     * @param description String; the description of this histogram
+     * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+     * @param highestTrackableValue double; the highest value that is counted in the buckets
+     * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+     * @param simulator SimulatorInterface&lt;A,R,T&gt;; the simulator to schedule on
+     * @param target EventProducerInterface; the target on which to subscribe
+     * @param eventType EventType; the eventType for which statistics are sampled
+     * @throws RemoteException on network error for one of the listeners
+     */
+    public SimLogLinearHistogram(final String description,
+            final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+            final SimulatorInterface<A, R, T> simulator, final EventProducerInterface target, final EventType eventType)
+            throws RemoteException
+    {
+        this(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        target.addListener(this, eventType, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void notify(final EventInterface event)
+    {
+        if (this.stopped)
+        {
+            return;
+        }
+        if (event.getSource().equals(this.simulator))
+        {
+            if (event.getType().equals(SimulatorInterface.WARMUP_EVENT))
+            {
+                try
+                {
+                    this.simulator.removeListener(this, SimulatorInterface.WARMUP_EVENT);
+                }
+                catch (RemoteException exception)
+                {
+                    SimLogger.always().warn(exception, "problem removing Listener for SimulatorIterface.WARMUP_EVENT");
+                }
+                super.initialize();
+                return;
+            }
+            if (event.getType().equals(SimulatorInterface.END_REPLICATION_EVENT))
+            {
+                this.stopped = true;
+                try
+                {
+                    this.simulator.removeListener(this, SimulatorInterface.END_REPLICATION_EVENT);
+                }
+                catch (RemoteException exception)
+                {
+                    SimLogger.always().warn(exception,
+                            "problem removing Listener for SimulatorIterface.END_OF_REPLICATION_EVENT");
+                }
+                this.endOfReplication();
+                return;
+            }
+        }
+        else if (this.isInitialized())
+        {
+            super.notify(event);
+        }
+    }
+
+    /**
+     * processes a sample that is offered as a primitive value, but only after the warmup period and before the end of the
+     * replication.
+     * @param value double; the value of the sample
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void ingest(final double value)
+    {
+        if (!this.stopped && this.isInitialized())
+        {
+            super.ingest(value);
+        }
+    }
+
+    /**
+     * fires the statistics, and the time stamped version of the quantiles with the current simulator time.
+     * @param newMin boolean; whether a new minimum has been reached since the previous publication
+     * @param newMax boolean; whether a new maximum has been reached since the previous publication
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    protected void fireStatistics(final boolean newMin, final boolean newMax)
+    {
+        super.fireStatistics(newMin, newMax);
+        if (hasListeners(TIMED_QUANTILES_EVENT))
+        {
+            fireTimedEvent(TIMED_QUANTILES_EVENT, getQuantiles(getReportedProbabilities()),
+                    this.simulator.getSimulatorTime());
+        }
+    }
+
+    /**
+     * endOfReplication is invoked to store the final results. A special LogLinearHistogram is created in the Context, into
+     * which the histograms of all replications are combined. Herewith the quantiles over all replications can be
+     * estimated.
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    protected void endOfReplication()
+    {
+        try
+        {
+            Context context = this.simulator.getReplication().getTreatment().getExperiment().getContext();
+            context = ContextUtil.lookup(context, "average");
+            context = ContextUtil.lookup(context, "statistics");
+            LogLinearHistogram all = null;
+            try
+            {
+                all = (LogLinearHistogram) context.lookup(this.description);
+            }
+            catch (NamingException exception)
+            {
+                all = new LogLinearHistogram(this.description, getLowestDiscernibleValue(), getHighestTrackableValue(),
+                        getSignificantDigits());
+                context.bind(this.description, all);
+                all.initialize();
+            }
+            all.combine(this);
+        }
+        catch (Exception exception)
+        {
+            SimLogger.always().warn(exception, "endOfReplication");
+        }
+    }
+
+    /***********************************************************************************************************/
+    /************************************* EASY ACCESS CLASS EXTENSIONS ****************************************/
+    /***********************************************************************************************************/
+
+    /** Easy access class SimLogLinearHistogram.TimeDouble. */
+    public static class TimeDouble extends SimLogLinearHistogram<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeDouble.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeDouble; the simulator to schedule on
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeDouble(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeDouble simulator) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        }
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeDouble.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeDouble; the simulator to schedule on
+         * @param target EventProducerInterface; the target on which to subscribe
+         * @param eventType EventType; the eventType for which statistics are sampled
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeDouble(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeDouble simulator, final EventProducerInterface target,
+                final EventType eventType) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator, target, eventType);
+        }
+    }
+
+    /** Easy access class SimLogLinearHistogram.TimeFloat. */
+    public static class TimeFloat extends SimLogLinearHistogram<Float, Float, SimTimeFloat>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeFloat.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeFloat; the simulator to schedule on
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeFloat(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeFloat simulator) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        }
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeFloat.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeFloat; the simulator to schedule on
+         * @param target EventProducerInterface; the target on which to subscribe
+         * @param eventType EventType; the eventType for which statistics are sampled
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeFloat(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeFloat simulator, final EventProducerInterface target,
+                final EventType eventType) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator, target, eventType);
+        }
+    }
+
+    /** Easy access class SimLogLinearHistogram.TimeLong. */
+    public static class TimeLong extends SimLogLinearHistogram<Long, Long, SimTimeLong>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeLong.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeLong; the simulator to schedule on
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeLong(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeLong simulator) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        }
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeLong.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeLong; the simulator to schedule on
+         * @param target EventProducerInterface; the target on which to subscribe
+         * @param eventType EventType; the eventType for which statistics are sampled
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeLong(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeLong simulator, final EventProducerInterface target,
+                final EventType eventType) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator, target, eventType);
+        }
+    }
+
+    /** Easy access class SimLogLinearHistogram.TimeDoubleUnit. */
+    public static class TimeDoubleUnit extends SimLogLinearHistogram<Time, Duration, SimTimeDoubleUnit>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeDoubleUnit.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeDoubleUnit; the simulator to schedule on
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeDoubleUnit(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeDoubleUnit simulator) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        }
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeDoubleUnit.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeDoubleUnit; the simulator to schedule on
+         * @param target EventProducerInterface; the target on which to subscribe
+         * @param eventType EventType; the eventType for which statistics are sampled
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeDoubleUnit(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeDoubleUnit simulator, final EventProducerInterface target,
+                final EventType eventType) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator, target, eventType);
+        }
+    }
+
+    /** Easy access class SimLogLinearHistogram.TimeFloatUnit. */
+    public static class TimeFloatUnit extends SimLogLinearHistogram<FloatTime, FloatDuration, SimTimeFloatUnit>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeFloatUnit.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeFloatUnit; the simulator to schedule on
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeFloatUnit(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeFloatUnit simulator) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        }
+
+        /**
+         * constructs a new SimLogLinearHistogram.TimeFloatUnit.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.TimeFloatUnit; the simulator to schedule on
+         * @param target EventProducerInterface; the target on which to subscribe
+         * @param eventType EventType; the eventType for which statistics are sampled
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public TimeFloatUnit(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.TimeFloatUnit simulator, final EventProducerInterface target,
+                final EventType eventType) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator, target, eventType);
+        }
+    }
+
+    /** Easy access class SimLogLinearHistogram.CalendarDouble. */
+    public static class CalendarDouble extends SimLogLinearHistogram<Calendar, Duration, SimTimeCalendarDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a new SimLogLinearHistogram.CalendarDouble.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.CalendarDouble; the simulator to schedule on
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public CalendarDouble(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.CalendarDouble simulator) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        }
+
+        /**
+         * constructs a new SimLogLinearHistogram.CalendarDouble.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.CalendarDouble; the simulator to schedule on
+         * @param target EventProducerInterface; the target on which to subscribe
+         * @param eventType EventType; the eventType for which statistics are sampled
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public CalendarDouble(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.CalendarDouble simulator, final EventProducerInterface target,
+                final EventType eventType) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator, target, eventType);
+        }
+    }
+
+    /** Easy access class SimLogLinearHistogram.CalendarFloat. */
+    public static class CalendarFloat extends SimLogLinearHistogram<Calendar, FloatDuration, SimTimeCalendarFloat>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a new SimLogLinearHistogram.CalendarFloat.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.CalendarFloat; the simulator to schedule on
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public CalendarFloat(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.CalendarFloat simulator) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        }
+
+        /**
+         * constructs a new SimLogLinearHistogram.CalendarFloat.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.CalendarFloat; the simulator to schedule on
+         * @param target EventProducerInterface; the target on which to subscribe
+         * @param eventType EventType; the eventType for which statistics are sampled
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public CalendarFloat(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.CalendarFloat simulator, final EventProducerInterface target,
+                final EventType eventType) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator, target, eventType);
+        }
+    }
+
+    /** Easy access class SimLogLinearHistogram.CalendarLong. */
+    public static class CalendarLong extends SimLogLinearHistogram<Calendar, Long, SimTimeCalendarLong>
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /**
+         * constructs a new SimLogLinearHistogram.CalendarLong.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.CalendarLong; the simulator to schedule on
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public CalendarLong(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.CalendarLong simulator) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator);
+        }
+
+        /**
+         * constructs a new SimLogLinearHistogram.CalendarLong.
+         * @param description String; the description of this histogram
+         * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished
+         * @param highestTrackableValue double; the highest value that is counted in the buckets
+         * @param significantDigits int; the number of significant decimal digits, between 1 and 5
+         * @param simulator SimulatorInterface.CalendarLong; the simulator to schedule on
+         * @param target EventProducerInterface; the target on which to subscribe
+         * @param eventType EventType; the eventType for which statistics are sampled
+         * @throws RemoteException on network error for one of the listeners
+         */
+        public CalendarLong(final String description,
+                final double lowestDiscernibleValue, final double highestTrackableValue, final int significantDigits,
+                final SimulatorInterface.CalendarLong simulator, final EventProducerInterface target,
+                final EventType eventType) throws RemoteException
+        {
+            super(description, lowestDiscernibleValue, highestTrackableValue, significantDigits, simulator, target, eventType);
+        }
+    }
+}
@@ -107,15 +107,6 @@ public class SimPersistent<A extends Comparable<A>, R extends Number & Comparabl
         {
             SimLogger.always().warn(exception, "<init>");
         }
-
-        // subscribe to the events from the super Persistent to send timed events by this simulator aware tally
-        super.addListener(this, Tally.MAX_EVENT, true);
-        super.addListener(this, Tally.MIN_EVENT, true);
-        super.addListener(this, Tally.N_EVENT, true);
-        super.addListener(this, Tally.SAMPLE_MEAN_EVENT, true);
-        super.addListener(this, Tally.SAMPLE_VARIANCE_EVENT, true);
-        super.addListener(this, Tally.STANDARD_DEVIATION_EVENT, true);
-        super.addListener(this, Tally.SUM_EVENT, true);
     }
 
     /**
@@ -143,42 +134,6 @@ public class SimPersistent<A extends Comparable<A>, R extends Number & Comparabl
             // we are no longer active..
             return;
         }
-        if (event.getType().equals(MAX_EVENT))
-        {
-            fireTimedEvent(TIMED_MAX_EVENT, event.getContent(), this.simulator.getSimulatorTime());
-            return;
-        }
-        if (event.getType().equals(MIN_EVENT))
-        {
-            fireTimedEvent(TIMED_MIN_EVENT, event.getContent(), this.simulator.getSimulatorTime());
-            return;
-        }
-        if (event.getType().equals(N_EVENT))
-        {
-            fireTimedEvent(TIMED_N_EVENT, event.getContent(), this.simulator.getSimulatorTime());
-            return;
-        }
-        if (event.getType().equals(SAMPLE_MEAN_EVENT))
-        {
-            fireTimedEvent(TIMED_SAMPLE_MEAN_EVENT, event.getContent(), this.simulator.getSimulatorTime());
-            return;
-        }
-        if (event.getType().equals(SAMPLE_VARIANCE_EVENT))
-        {
-            fireTimedEvent(TIMED_SAMPLE_VARIANCE_EVENT, event.getContent(), this.simulator.getSimulatorTime());
-            return;
-        }
-        if (event.getType().equals(STANDARD_DEVIATION_EVENT))
-        {
-            fireTimedEvent(TIMED_STANDARD_DEVIATION_EVENT, event.getContent(), this.simulator.getSimulatorTime());
-            return;
-        }
-        if (event.getType().equals(SUM_EVENT))
-        {
-            fireTimedEvent(TIMED_SUM_EVENT, event.getContent(), this.simulator.getSimulatorTime());
-            return;
-        }
-
         if (event.getSource().equals(this.simulator))
         {
             if (event.getType().equals(SimulatorInterface.WARMUP_EVENT))
@@ -233,6 +188,66 @@ public class SimPersistent<A extends Comparable<A>, R extends Number & Comparabl
         }
     }
 
+    /**
+     * processes a sample that is offered as primitive values, but only after the warmup period and before the end of the
+     * replication.
+     * @param timestamp double; the time from which the value holds
+     * @param value double; the value of the sample
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void ingest(final double timestamp, final double value)
+    {
+        if (!this.stopped && this.isInitialized())
+        {
+            super.ingest(timestamp, value);
+        }
+    }
+
+    /**
+     * fires the statistics, and the time stamped versions of the statistics with the current simulator time.
+     * @param newMin boolean; whether a new minimum has been reached since the previous publication
+     * @param newMax boolean; whether a new maximum has been reached since the previous publication
+     */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    protected void fireStatistics(final boolean newMin, final boolean newMax)
+    {
+        super.fireStatistics(newMin, newMax);
+        A time = this.simulator.getSimulatorTime();
+        if (hasListeners(TIMED_SAMPLE_MEAN_EVENT))
+        {
+            fireTimedEvent(TIMED_SAMPLE_MEAN_EVENT, this.sampleMean, time);
+        }
+        if (hasListeners(TIMED_SUM_EVENT))
+        {
+            fireTimedEvent(TIMED_SUM_EVENT, this.sum, time);
+        }
+        if (hasListeners(TIMED_N_EVENT))
+        {
+            fireTimedEvent(TIMED_N_EVENT, this.n, time);
+        }
+        if (newMin && hasListeners(TIMED_MIN_EVENT))
+        {
+            fireTimedEvent(TIMED_MIN_EVENT, this.min, time);
+        }
+        if (newMax && hasListeners(TIMED_MAX_EVENT))
+        {
+            fireTimedEvent(TIMED_MAX_EVENT, this.max, time);
+        }
+        if (this.n > 1)
+        {
+            if (hasListeners(TIMED_STANDARD_DEVIATION_EVENT))
+            {
+                fireTimedEvent(TIMED_STANDARD_DEVIATION_EVENT, getStdDev(), time);
+            }
+            if (hasListeners(TIMED_SAMPLE_VARIANCE_EVENT))
+            {
+                fireTimedEvent(TIMED_SAMPLE_VARIANCE_EVENT, getSampleVariance(), time);
+            }
+        }
+    }
+
     /**
      * endOfReplication is invoked to store the final results. A special Tally is created in the Context to tally the average
      * results of all replications. Herewith the confidence interval of the means of the Persistent over the different
@@ -39,4 +39,19 @@ public abstract class Dist implements java.io.Serializable
     {
         return this.stream;
     }
+
+    /**
+     * checks the range of an array that has to be filled by a bulk draw.
+     * @param length int; the length of the array
+     * @param off int; the index of the first element to fill
+     * @param len int; the number of elements to fill
+     * @throws IndexOutOfBoundsException when off or len is negative, or off + len is larger than the length of the array
+     */
+    protected static void checkRange(final int length, final int off, final int len)
+    {
+        if (off < 0 || len < 0 || len > length - off)
+        {
+            throw new IndexOutOfBoundsException("off=" + off + ", len=" + len + ", length=" + length);
+        }
+    }
 }
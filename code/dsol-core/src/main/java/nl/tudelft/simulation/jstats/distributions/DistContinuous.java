@@ -36,6 +36,25 @@ public abstract class DistContinuous extends Dist
      */
     public abstract double draw();
 
+    /**
+     * draws a number of values at once, and stores them in an array. The values are the same as those of len calls to
+     * draw(), unless the distribution implements a faster algorithm for bulk draws; the values are always reproducible for
+     * the seed of the stream.
+     * @param out double[]; the array to store the values in
+     * @param off int; the index in the array of the first value
+     * @param len int; the number of values to draw
+     * @throws IndexOutOfBoundsException when off or len is negative, or off + len is larger than the length of the array
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public void draw(final double[] out, final int off, final int len)
+    {
+        checkRange(out.length, off, len);
+        for (int i = off; i < off + len; i++)
+        {
+            out[i] = draw();
+        }
+    }
+
     /**
      * returns the probability density value of an observation.
      * @param observation double; the observation.
@@ -10,7 +10,12 @@ import nl.tudelft.simulation.jstats.distributions.empirical.ObservationsInterfac
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
- * The discrete empirical distribution as defined on page 326 of Law &amp; Kelton.
+ * The discrete empirical distribution as defined on page 326 of Law &amp; Kelton. The distribution is drawn with the alias
+ * method of Walker, in the construction of Vose (A Linear Algorithm for Generating Random Numbers with a Given
+ * Distribution, IEEE Transactions on Software Engineering 17(9), 1991): the alias table is built once at construction in
+ * O(n) time for n observations, after which every draw takes one uniform and O(1) time, independent of the number of
+ * observations. The integer part of the scaled uniform selects a column of the table and the fractional part decides
+ * between the observation and its alias, so the resolution of the decision is that of the uniform divided by n.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -29,6 +34,18 @@ public class DistDiscreteEmpirical extends DistDiscrete
     /** the observations. */
     private ObservationsInterface observations = null;
 
+    /** the distinct observations, in ascending order. */
+    private long[] values;
+
+    /** the probability of every observation. */
+    private double[] probabilities;
+
+    /** the probability to draw the observation of a column of the alias table rather than its alias. */
+    private double[] aliasThreshold;
+
+    /** the index of the alias of every column of the alias table. */
+    private int[] alias;
+
     /**
      * constructs a new DistDiscreteEmpirical distribution.
      * @param stream StreamInterface; the stream to use
@@ -49,6 +66,7 @@ public class DistDiscreteEmpirical extends DistDiscrete
         {
             this.observations = observations;
         }
+        buildAliasTable();
     }
 
     /**
@@ -63,6 +81,7 @@ public class DistDiscreteEmpirical extends DistDiscrete
         super(stream);
         this.observations =
                 new Observations(DistDiscreteEmpirical.constructGroupedMap(Arrays.asList(observations)), false);
+        buildAliasTable();
     }
 
     /**
@@ -75,12 +94,13 @@ public class DistDiscreteEmpirical extends DistDiscrete
     public DistDiscreteEmpirical(final StreamInterface stream, final long[] observations)
     {
         super(stream);
-        Long[] values = new Long[observations.length];
-        for (int i = 0; i < values.length; i++)
+        Long[] boxed = new Long[observations.length];
+        for (int i = 0; i < boxed.length; i++)
         {
-            values[i] = new Long(observations[i]);
+            boxed[i] = new Long(observations[i]);
         }
-        this.observations = new Observations(DistDiscreteEmpirical.constructGroupedMap(Arrays.asList(values)), false);
+        this.observations = new Observations(DistDiscreteEmpirical.constructGroupedMap(Arrays.asList(boxed)), false);
+        buildAliasTable();
     }
 
     /**
@@ -96,31 +116,113 @@ public class DistDiscreteEmpirical extends DistDiscrete
     {
         super(stream);
         this.observations = new Observations(observations, cumulative);
+        buildAliasTable();
+    }
+
+    /**
+     * builds the alias table from the cumulative probabilities of the observations.
+     * @throws IllegalArgumentException when there are no observations, or when the probabilities do not increase
+     */
+    private void buildAliasTable()
+    {
+        List<Number> observationList = this.observations.getObservations();
+        List<Double> cumProbabilities = this.observations.getCumProbabilities();
+        int n = observationList.size();
+        if (n == 0)
+        {
+            throw new IllegalArgumentException("DistDiscreteEmpirical without observations");
+        }
+        this.values = new long[n];
+        this.probabilities = new double[n];
+        double previous = 0.0;
+        for (int i = 0; i < n; i++)
+        {
+            this.values[i] = observationList.get(i).longValue();
+            double cumProbability = cumProbabilities.get(i);
+            this.probabilities[i] = cumProbability - previous;
+            if (this.probabilities[i] < 0.0)
+            {
+                throw new IllegalArgumentException("DistDiscreteEmpirical with decreasing cumulative probabilities");
+            }
+            previous = cumProbability;
+        }
+        if (!(previous > 0.0))
+        {
+            throw new IllegalArgumentException("DistDiscreteEmpirical with a total probability of 0");
+        }
+
+        // Vose: columns with a scaled probability below 1 are topped up by an alias with a scaled probability above 1
+        this.aliasThreshold = new double[n];
+        this.alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int nSmall = 0;
+        int nLarge = 0;
+        for (int i = 0; i < n; i++)
+        {
+            scaled[i] = this.probabilities[i] * n / previous;
+            if (scaled[i] < 1.0)
+            {
+                small[nSmall++] = i;
+            }
+            else
+            {
+                large[nLarge++] = i;
+            }
+        }
+        while (nSmall > 0 && nLarge > 0)
+        {
+            int s = small[--nSmall];
+            int l = large[--nLarge];
+            this.aliasThreshold[s] = scaled[s];
+            this.alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0)
+            {
+                small[nSmall++] = l;
+            }
+            else
+            {
+                large[nLarge++] = l;
+            }
+        }
+        // what remains has a scaled probability of 1, up to rounding
+        while (nLarge > 0)
+        {
+            int l = large[--nLarge];
+            this.aliasThreshold[l] = 1.0;
+            this.alias[l] = l;
+        }
+        while (nSmall > 0)
+        {
+            int s = small[--nSmall];
+            this.aliasThreshold[s] = 1.0;
+            this.alias[s] = s;
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public long draw()
     {
-        double u = super.stream.nextDouble();
-        return this.observations.getCeilingEntry(new Double(u), ObservationsInterface.CUMPROBABILITY, true)
-                .getObservation().longValue();
+        double u = super.stream.nextDouble() * this.values.length;
+        int column = Math.min((int) u, this.values.length - 1);
+        if (u - column < this.aliasThreshold[column])
+        {
+            return this.values[column];
+        }
+        return this.values[this.alias[column]];
     }
 
     /** {@inheritDoc} */
     @Override
     public double probability(final int observation)
     {
-        if (this.observations.contains(new Long(observation), ObservationsInterface.OBSERVATION))
+        int index = Arrays.binarySearch(this.values, observation);
+        if (index >= 0)
         {
-            int index = this.observations
-                    .getIndex(this.observations.getEntry(new Long(observation), ObservationsInterface.OBSERVATION));
-            if (index > 0)
-            {
-                return this.observations.get(index).getCumProbability().doubleValue()
-                        - this.observations.get(index - 1).getCumProbability().doubleValue();
-            }
-            return this.observations.get(index).getCumProbability().doubleValue();
+            return this.probabilities[index];
         }
         return 0.0;
     }
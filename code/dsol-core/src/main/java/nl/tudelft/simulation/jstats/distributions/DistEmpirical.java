@@ -8,7 +8,10 @@ import nl.tudelft.simulation.jstats.distributions.empirical.ObservationsInterfac
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
- * The empirical distribution is a distribution based on a sorted list of observations.
+ * The empirical distribution is a distribution based on a sorted list of observations. The observations and their
+ * cumulative probabilities are copied into primitive arrays at construction. A draw from non-grouped observations takes
+ * O(1) time, and a draw from grouped observations a binary search on the cumulative probabilities, in O(log n) time for n
+ * observations.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -27,6 +30,15 @@ public class DistEmpirical extends DistContinuous
     /** is the distribution grouped? */
     private ObservationsInterface observations = null;
 
+    /** the observations, in ascending order. */
+    private double[] values;
+
+    /** the cumulative probabilities of the observations. */
+    private double[] cumProbabilities;
+
+    /** whether the observations are grouped. */
+    private boolean grouped;
+
     /**
      * constructs a new DistEmpirical.
      * @param stream StreamInterface; the stream to use
@@ -37,6 +49,7 @@ public class DistEmpirical extends DistContinuous
     {
         super(stream);
         this.observations = observations;
+        cacheObservations();
     }
 
     /**
@@ -49,6 +62,7 @@ public class DistEmpirical extends DistContinuous
     {
         super(stream);
         this.observations = new Observations(observations);
+        cacheObservations();
     }
 
     /**
@@ -74,36 +88,89 @@ public class DistEmpirical extends DistContinuous
     {
         super(stream);
         this.observations = new Observations(observations, cumulative);
+        cacheObservations();
+    }
+
+    /**
+     * copies the observations and their cumulative probabilities into primitive arrays.
+     * @throws IllegalArgumentException when there are less than two observations
+     */
+    private void cacheObservations()
+    {
+        List<Number> observationList = this.observations.getObservations();
+        List<Double> cumProbabilityList = this.observations.getCumProbabilities();
+        int n = observationList.size();
+        if (n < 2)
+        {
+            throw new IllegalArgumentException("DistEmpirical needs at least two observations");
+        }
+        this.values = new double[n];
+        this.cumProbabilities = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            this.values[i] = observationList.get(i).doubleValue();
+            this.cumProbabilities[i] = cumProbabilityList.get(i);
+        }
+        this.grouped = this.observations.isGrouped();
     }
 
     /** {@inheritDoc} */
     @Override
     public double draw()
     {
-        if (this.observations.isGrouped())
+        if (this.grouped)
         {
             return this.drawGrouped();
         }
         return this.drawNonGrouped();
     }
 
+    /**
+     * returns the index of the last element of a sorted array that is smaller than a value, with a binary search.
+     * @param array double[]; the sorted array
+     * @param value double; the value
+     * @return int; the index of the last element that is smaller than the value, or -1 when there is no such element
+     */
+    private static int precedingIndex(final double[] array, final double value)
+    {
+        int low = 0;
+        int high = array.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < value)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
     /**
      * draws a new random value based on the empirical distribution and considers the underlying observations as
-     * grouped. The formula used reflects Law and Kelton, Simulation Modeling and Analysis, page 470 of grouped data.
+     * grouped. The formula used reflects Law and Kelton, Simulation Modeling and Analysis, page 470 of grouped data. The
+     * draw interpolates between the observations j and j + 1 for which the cumulative probabilities enclose the uniform.
      * @return the next random value.
      */
     private double drawGrouped()
     {
         double u = super.stream.nextDouble();
-        ObservationsInterface.Entry p =
-                this.observations.getPrecedingEntry(new Double(u), ObservationsInterface.CUMPROBABILITY, true);
-        int j = this.observations.getIndex(p);
-        ObservationsInterface.Entry q = this.observations.get(j + 1);
-        double result = p.getObservation().doubleValue();
-        result = result + (u - p.getCumProbability().doubleValue())
-                * (q.getObservation().doubleValue() - p.getObservation().doubleValue())
-                / (q.getCumProbability().doubleValue() - p.getCumProbability().doubleValue());
-        return result;
+        int j = precedingIndex(this.cumProbabilities, u);
+        if (j < 0)
+        {
+            return this.values[0];
+        }
+        if (j >= this.values.length - 1)
+        {
+            return this.values[this.values.length - 1];
+        }
+        double p = this.cumProbabilities[j];
+        return this.values[j]
+                + (u - p) * (this.values[j + 1] - this.values[j]) / (this.cumProbabilities[j + 1] - p);
     }
 
     /**
@@ -114,64 +181,34 @@ public class DistEmpirical extends DistContinuous
     private double drawNonGrouped()
     {
         double u = super.stream.nextDouble();
-        double p = (this.observations.size() - 1) * u;
+        double p = (this.values.length - 1) * u;
         int i = (int) (Math.floor(p) + 1);
-        double xi = this.observations.get(i - 1).getObservation().doubleValue();
-        return +xi + (p - i + 1) * (this.observations.get(i).getObservation().doubleValue() - xi);
+        double xi = this.values[i - 1];
+        return +xi + (p - i + 1) * (this.values[i] - xi);
     }
 
     /** {@inheritDoc} */
     @Override
     public double probDensity(final double observation)
     {
-        if (observation < this.observations.get(0).getObservation().doubleValue())
+        if (observation < this.values[0])
         {
             return 0;
         }
-        if (this.observations.get(this.observations.size() - 1).getObservation().doubleValue() <= observation)
+        if (this.values[this.values.length - 1] <= observation)
         {
             return 1;
         }
-        if (this.observations.isGrouped())
+        // the index of the last observation that is at most the observation
+        int p = precedingIndex(this.values, Math.nextUp(observation));
+        int q = p + 1;
+        if (this.grouped)
         {
-            return this.probDensityGrouped(observation);
+            // Law and Kelton, Simulation Modeling and Analysis, page 327 of grouped data
+            return this.cumProbabilities[p] + (observation - this.values[p]) / (this.values[q] - this.values[p])
+                    * (this.cumProbabilities[q] - this.cumProbabilities[p]);
         }
-        return this.probDensityNonGrouped(observation);
-    }
-
-    /**
-     * returns the probability density of the observation. This method is based on the underlying empirical distribution
-     * and considers the underlying observations as grouped. The formula used reflects Law and Kelton, Simulation
-     * Modeling and Analysis, page 327 of grouped data.
-     * @param observation double; the observation whose cumulative probability is returned.
-     * @return the cumulative probability of observation
-     */
-    private double probDensityGrouped(final double observation)
-    {
-        ObservationsInterface.Entry p =
-                this.observations.getPrecedingEntry(new Double(observation), ObservationsInterface.OBSERVATION, true);
-        int j = this.observations.getIndex(p);
-        ObservationsInterface.Entry q = this.observations.get(j + 1);
-        return p.getCumProbability().doubleValue() + (observation - p.getObservation().doubleValue())
-                / (q.getObservation().doubleValue() - p.getObservation().doubleValue())
-                * (q.getCumProbability().doubleValue() - p.getCumProbability().doubleValue());
-    }
-
-    /**
-     * returns the probability density of the observation. This method is based on the underlying empirical distribution
-     * and considers the underlying observations as grouped. The formula used reflects Law and Kelton, Simulation
-     * Modeling and Analysis, page 327 of grouped data.
-     * @param observation double; the observation whose cumulative probability is returned.
-     * @return the cumulative probability of observation
-     */
-    private double probDensityNonGrouped(final double observation)
-    {
-        ObservationsInterface.Entry p =
-                this.observations.getPrecedingEntry(new Double(observation), ObservationsInterface.OBSERVATION, true);
-        int i = this.observations.getIndex(p) + 1;
-        ObservationsInterface.Entry q = this.observations.get(i);
-        return ((i - 1) / ((double) (this.observations.size() - 1)))
-                + ((observation - p.getObservation().doubleValue())) / ((this.observations.size() - 1)
-                        * (q.getObservation().doubleValue() - p.getObservation().doubleValue()));
+        return (q - 1) / ((double) (this.values.length - 1))
+                + (observation - this.values[p]) / ((this.values.length - 1) * (this.values[q] - this.values[p]));
     }
 }
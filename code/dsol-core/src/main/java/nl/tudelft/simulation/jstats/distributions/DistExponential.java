@@ -50,6 +50,23 @@ public class DistExponential extends DistContinuous
         return -this.mean * Math.log(this.stream.nextDouble());
     }
 
+    /**
+     * draws the values with the ziggurat method, which avoids the logarithm of draw() for about 98% of the values. The
+     * values are reproducible for the seed of the stream, but differ from those of successive calls to draw().
+     * @param out double[]; the array to store the values in
+     * @param off int; the index in the array of the first value
+     * @param len int; the number of values to draw
+     */
+    @Override
+    public void draw(final double[] out, final int off, final int len)
+    {
+        checkRange(out.length, off, len);
+        for (int i = off; i < off + len; i++)
+        {
+            out[i] = this.mean * Ziggurat.exponential(this.stream);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public double probDensity(final double observation)
@@ -49,6 +49,49 @@ public class DistLogNormal extends DistNormal
         return Math.exp(y);
     }
 
+    /**
+     * draws the values as the exponent of ziggurat normals. The values are reproducible for the seed of the stream, but
+     * differ from those of successive calls to draw().
+     * @param out double[]; the array to store the values in
+     * @param off int; the index in the array of the first value
+     * @param len int; the number of values to draw
+     */
+    @Override
+    public void draw(final double[] out, final int off, final int len)
+    {
+        checkRange(out.length, off, len);
+        for (int i = off; i < off + len; i++)
+        {
+            out[i] = Math.exp(this.mu + this.sigma * Ziggurat.normal(this.stream));
+        }
+    }
+
+    /**
+     * returns the cumulative probability of the x-value, which is the cumulative normal probability of ln(x).
+     * @param x double; the obsevervation x
+     * @return double the cumulative probability
+     */
+    @Override
+    public double getCumulativeProbability(final double x)
+    {
+        if (x <= 0.0)
+        {
+            return 0.0;
+        }
+        return cumulativeStandardNormal((Math.log(x) - this.mu) / this.sigma);
+    }
+
+    /**
+     * returns the x-value of the given cumulativePropability, which is the exponent of the normal x-value.
+     * @param cumulativeProbability double; reflects cum prob
+     * @return double the inverse cumulative probability
+     */
+    @Override
+    public double getInverseCumulativeProbability(final double cumulativeProbability)
+    {
+        return Math.exp(super.getInverseCumulativeProbability(cumulativeProbability));
+    }
+
     /** {@inheritDoc} */
     @Override
     public double probDensity(final double observation)
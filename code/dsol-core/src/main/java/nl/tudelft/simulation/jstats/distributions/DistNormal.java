@@ -1,5 +1,6 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import nl.tudelft.simulation.jstats.math.ProbMath;
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
@@ -29,6 +30,9 @@ public class DistNormal extends DistContinuous
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected double sigma;
 
+    /** sqrt(0.5), to compute the cumulative probability from the complementary error function. */
+    private static final double SQRT_HALF = Math.sqrt(0.5);
+
     /** nextNextGaussian is a helper attribute. */
     private double nextNextGaussian;
 
@@ -77,27 +81,41 @@ public class DistNormal extends DistContinuous
     }
 
     /**
-     * returns the cumulative probability of the x-value.
+     * draws the values with the ziggurat method, which avoids the logarithm and square root of the polar method of draw()
+     * for about 99% of the values. The values are reproducible for the seed of the stream, but differ from those of
+     * successive calls to draw().
+     * @param out double[]; the array to store the values in
+     * @param off int; the index in the array of the first value
+     * @param len int; the number of values to draw
+     */
+    @Override
+    public void draw(final double[] out, final int off, final int len)
+    {
+        checkRange(out.length, off, len);
+        for (int i = off; i < off + len; i++)
+        {
+            out[i] = this.mu + this.sigma * Ziggurat.normal(this.stream);
+        }
+    }
+
+    /**
+     * returns the cumulative probability of the x-value, with a relative error below 10<sup>-14</sup> within 8 standard
+     * deviations of the mean.
      * @param x double; the obsevervation x
      * @return double the cumulative probability
      */
     public double getCumulativeProbability(final double x)
     {
-        int z = (int) Math.rint((x - this.mu) / this.sigma * 100);
-        int absZ = Math.abs(z);
-        if (absZ > 1000)
-        {
-            absZ = 1000;
-        }
-        if (z >= 0)
+        if (this.sigma == 0.0)
         {
-            return DistNormal.CUMULATIVE_NORMAL_PROBABILITIES[absZ];
+            return x < this.mu ? 0.0 : 1.0;
         }
-        return 1 - DistNormal.CUMULATIVE_NORMAL_PROBABILITIES[absZ];
+        return cumulativeStandardNormal((x - this.mu) / this.sigma);
     }
 
     /**
-     * returns the x-value of the given cumulativePropability.
+     * returns the x-value of the given cumulativePropability, with a relative error of about 10<sup>-16</sup>. The x-value
+     * for a cumulative probability of 0 is minus infinity, and for a cumulative probability of 1 plus infinity.
      * @param cumulativeProbability double; reflects cum prob
      * @return double the inverse cumulative probability
      */
@@ -107,27 +125,76 @@ public class DistNormal extends DistContinuous
         {
             throw new IllegalArgumentException("1<cumulativeProbability<0 ?");
         }
-        boolean located = false;
-        double prob = cumulativeProbability;
-        if (cumulativeProbability < 0.5)
+        return this.mu + this.sigma * inverseCumulativeStandardNormal(cumulativeProbability);
+    }
+
+    /**
+     * returns the cumulative probability of the standard normal distribution, as 0.5 * erfc(-z / sqrt(2)). The relative
+     * error is below 10<sup>-14</sup> for |z| &lt; 8, and also in the lower tail it stays below 10<sup>-12</sup>, until the
+     * probability underflows for z &lt; -37.5.
+     * @param z double; the value
+     * @return double; the probability that a standard normal variate is at most z
+     */
+    public static double cumulativeStandardNormal(final double z)
+    {
+        return 0.5 * ProbMath.erfc(-z * SQRT_HALF);
+    }
+
+    /**
+     * returns the value of which the cumulative probability of the standard normal distribution is the given probability,
+     * with algorithm AS241 (PPND16) of Wichura (The Percentage Points of the Normal Distribution, Applied Statistics 37(3),
+     * 1988). The rational approximations have a relative error of about 10<sup>-16</sup>, and take no iteration or table
+     * search.
+     * @param probability double; the cumulative probability, between 0 and 1
+     * @return double; the value z for which the cumulative probability is the given probability; minus infinity for 0, and
+     *         plus infinity for 1
+     * @throws IllegalArgumentException when the probability is not between 0 and 1
+     */
+    public static double inverseCumulativeStandardNormal(final double probability)
+    {
+        if (!(probability >= 0.0 && probability <= 1.0))
+        {
+            throw new IllegalArgumentException("probability " + probability + " not in [0, 1]");
+        }
+        double q = probability - 0.5;
+        if (Math.abs(q) <= 0.425)
         {
-            prob = 1 - cumulativeProbability;
+            double r = 0.180625 - q * q;
+            return q * (((((((2.5090809287301226727e+3 * r + 3.3430575583588128105e+4) * r + 6.7265770927008700853e+4) * r
+                    + 4.5921953931549871457e+4) * r + 1.3731693765509461125e+4) * r + 1.9715909503065514427e+3) * r
+                    + 1.3314166789178437745e+2) * r + 3.3871328727963666080e0)
+                    / (((((((5.2264952788528545610e+3 * r + 2.8729085735721942674e+4) * r + 3.9307895800092710610e+4) * r
+                            + 2.1213794301586595867e+4) * r + 5.3941960214247511077e+3) * r + 6.8718700749205790830e+2) * r
+                            + 4.2313330701600911252e+1) * r + 1.0);
         }
-        int i = 0;
-        while (!located)
+        double r = q < 0.0 ? probability : 1.0 - probability;
+        if (r == 0.0)
         {
-            if (DistNormal.CUMULATIVE_NORMAL_PROBABILITIES[i] < prob
-                    && DistNormal.CUMULATIVE_NORMAL_PROBABILITIES[i + 1] > prob)
-            {
-                located = true;
-            }
-            i++;
+            return q < 0.0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
         }
-        if (cumulativeProbability < 0.5)
+        r = Math.sqrt(-Math.log(r));
+        double value;
+        if (r <= 5.0)
+        {
+            r -= 1.6;
+            value = (((((((7.74545014278341407640e-4 * r + 2.27238449892691845833e-2) * r + 2.41780725177450611770e-1) * r
+                    + 1.27045825245236838258e0) * r + 3.64784832476320460504e0) * r + 5.76949722146069140550e0) * r
+                    + 4.63033784615654529590e0) * r + 1.42343711074968357734e0)
+                    / (((((((1.05075007164441684324e-9 * r + 5.47593808499534494600e-4) * r + 1.51986665636164571966e-2) * r
+                            + 1.48103976427480074590e-1) * r + 6.89767334985100004550e-1) * r + 1.67638483018380384940e0) * r
+                            + 2.05319162663775882187e0) * r + 1.0);
+        }
+        else
         {
-            return (0 + i / 100.0) * this.sigma - this.mu;
+            r -= 5.0;
+            value = (((((((2.01033439929228813265e-7 * r + 2.71155556874348757815e-5) * r + 1.24266094738807843860e-3) * r
+                    + 2.65321895265761230930e-2) * r + 2.96560571828504891230e-1) * r + 1.78482653991729133580e0) * r
+                    + 5.46378491116411436990e0) * r + 6.65790464350110377720e0)
+                    / (((((((2.04426310338993978564e-15 * r + 1.42151175831644588870e-7) * r + 1.84631831751005468180e-5) * r
+                            + 7.86869131145613259100e-4) * r + 1.48753612908506148525e-2) * r + 1.36929880922735805310e-1) * r
+                            + 5.99832206555887937690e-1) * r + 1.0);
         }
-        return (0 + i / 100.0) * this.sigma + this.mu;
+        return q < 0.0 ? -value : value;
     }
 
     /**
@@ -175,7 +242,8 @@ public class DistNormal extends DistContinuous
 
     /**
      * CUMULATIVE_NORMAL_PROBABILITIES represents the NORMAL DISTRIBUTION FUNCTION TABLE. In order to keep this table as
-     * fast as possible no x values are stored. The range of the table is {0.00,0.01,0.02,...,10.00}
+     * fast as possible no x values are stored. The range of the table is {0.00,0.01,0.02,...,10.00}. The table is no longer
+     * used by the distribution itself, which computes the cumulative probability with cumulativeStandardNormal.
      */
     public static final double[] CUMULATIVE_NORMAL_PROBABILITIES = {0.5000000000000000, 0.5039873616189113,
             0.5079763193203305, 0.5119644795160448, 0.5159514436524734, 0.5199368135347197, 0.5239201914458871,
@@ -64,6 +64,39 @@ public class DistPoisson extends DistDiscrete
         return x;
     }
 
+    /**
+     * draws the values by inversion with a sequential search from 0, which takes one uniform per value instead of the
+     * lambda + 1 uniforms of draw(). The values are reproducible for the seed of the stream, but differ from those of
+     * successive calls to draw(). When exp(-lambda) underflows, the values are drawn with draw().
+     * @param out long[]; the array to store the values in
+     * @param off int; the index in the array of the first value
+     * @param len int; the number of values to draw
+     */
+    @Override
+    public void draw(final long[] out, final int off, final int len)
+    {
+        checkRange(out.length, off, len);
+        if (this.expl == 0.0)
+        {
+            super.draw(out, off, len);
+            return;
+        }
+        for (int i = off; i < off + len; i++)
+        {
+            double u = this.stream.nextDouble();
+            double p = this.expl;
+            double cumulative = p;
+            long x = 0;
+            while (u > cumulative && p > 0.0)
+            {
+                x++;
+                p *= this.lambda / x;
+                cumulative += p;
+            }
+            out[i] = x;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public double probability(final int observation)
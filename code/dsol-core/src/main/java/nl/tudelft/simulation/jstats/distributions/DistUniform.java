@@ -55,6 +55,24 @@ public class DistUniform extends DistContinuous
         return this.a + (this.b - this.a) * this.stream.nextDouble();
     }
 
+    /**
+     * draws the values with the same algorithm as draw(), so the values are the same as those of successive calls to draw().
+     * @param out double[]; the array to store the values in
+     * @param off int; the index in the array of the first value
+     * @param len int; the number of values to draw
+     */
+    @Override
+    public void draw(final double[] out, final int off, final int len)
+    {
+        checkRange(out.length, off, len);
+        this.stream.nextDouble(out, off, len);
+        double range = this.b - this.a;
+        for (int i = off; i < off + len; i++)
+        {
+            out[i] = this.a + range * out[i];
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public double probDensity(final double observation)
@@ -54,6 +54,24 @@ public class DistWeibull extends DistContinuous
         return this.beta * Math.pow(-Math.log(this.stream.nextDouble()), 1.0d / this.alpha);
     }
 
+    /**
+     * draws the values as a power of ziggurat exponentials. The values are reproducible for the seed of the stream, but
+     * differ from those of successive calls to draw().
+     * @param out double[]; the array to store the values in
+     * @param off int; the index in the array of the first value
+     * @param len int; the number of values to draw
+     */
+    @Override
+    public void draw(final double[] out, final int off, final int len)
+    {
+        checkRange(out.length, off, len);
+        double power = 1.0d / this.alpha;
+        for (int i = off; i < off + len; i++)
+        {
+            out[i] = this.beta * Math.pow(Ziggurat.exponential(this.stream), power);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public double probDensity(final double observation)
@@ -0,0 +1,195 @@
+package nl.tudelft.simulation.jstats.distributions;
+
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * The ziggurat method of Marsaglia and Tsang (The Ziggurat Method for Generating Random Variables, Journal of Statistical
+ * Software 5(8), 2000) for standard normal and standard exponential variates, in the floating point form of Doornik (An
+ * Improved Ziggurat Method to Generate Normal Random Samples, 2005). The density is covered by layers of equal area; a
+ * sample falls inside the rectangular part of its layer in about 99% of the cases, and then costs one uniform draw, a
+ * multiplication and a comparison, without the logarithm and square root of the polar or inversion method. Only the
+ * wedges and the tail evaluate the density. The integer part of the uniform, scaled by the number of layers, selects the
+ * layer, and the fractional part gives the position within the layer, so the position has 7 (normal) or 8 (exponential)
+ * bits less resolution than the uniform of the stream. The method uses nothing but the nextDouble values of the stream,
+ * so the samples are reproducible for the seed of the stream.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+final class Ziggurat
+{
+    /** the number of layers of the normal ziggurat. */
+    private static final int NORMAL_LAYERS = 128;
+
+    /** the start of the tail of the normal ziggurat. */
+    private static final double NORMAL_R = 3.442619855899;
+
+    /** the area of every layer of the normal ziggurat. */
+    private static final double NORMAL_V = 9.91256303526217e-3;
+
+    /** the number of layers of the exponential ziggurat. */
+    private static final int EXPONENTIAL_LAYERS = 256;
+
+    /** the start of the tail of the exponential ziggurat. */
+    private static final double EXPONENTIAL_R = 7.69711747013104972;
+
+    /** the area of every layer of the exponential ziggurat. */
+    private static final double EXPONENTIAL_V = 3.949659822581572e-3;
+
+    /** the right edges of the layers of the normal ziggurat; element 0 is the width of the base layer. */
+    private static final double[] NORMAL_X = new double[NORMAL_LAYERS + 1];
+
+    /** the ratio of the right edges of the layer above and the layer, for the normal ziggurat. */
+    private static final double[] NORMAL_RATIO = new double[NORMAL_LAYERS];
+
+    /** the right edges of the layers of the exponential ziggurat; element 0 is the width of the base layer. */
+    private static final double[] EXPONENTIAL_X = new double[EXPONENTIAL_LAYERS + 1];
+
+    /** the ratio of the right edges of the layer above and the layer, for the exponential ziggurat. */
+    private static final double[] EXPONENTIAL_RATIO = new double[EXPONENTIAL_LAYERS];
+
+    /** the density at the right edges of the layers of the exponential ziggurat. */
+    private static final double[] EXPONENTIAL_F = new double[EXPONENTIAL_LAYERS + 1];
+
+    static
+    {
+        double f = Math.exp(-0.5 * NORMAL_R * NORMAL_R);
+        NORMAL_X[0] = NORMAL_V / f;
+        NORMAL_X[1] = NORMAL_R;
+        for (int i = 2; i < NORMAL_LAYERS; i++)
+        {
+            NORMAL_X[i] = Math.sqrt(-2.0 * Math.log(NORMAL_V / NORMAL_X[i - 1] + f));
+            f = Math.exp(-0.5 * NORMAL_X[i] * NORMAL_X[i]);
+        }
+        for (int i = 0; i < NORMAL_LAYERS; i++)
+        {
+            NORMAL_RATIO[i] = NORMAL_X[i + 1] / NORMAL_X[i];
+        }
+
+        f = Math.exp(-EXPONENTIAL_R);
+        EXPONENTIAL_X[0] = EXPONENTIAL_V / f;
+        EXPONENTIAL_X[1] = EXPONENTIAL_R;
+        for (int i = 2; i < EXPONENTIAL_LAYERS; i++)
+        {
+            EXPONENTIAL_X[i] = -Math.log(EXPONENTIAL_V / EXPONENTIAL_X[i - 1] + f);
+            f = Math.exp(-EXPONENTIAL_X[i]);
+        }
+        for (int i = 0; i < EXPONENTIAL_LAYERS; i++)
+        {
+            EXPONENTIAL_RATIO[i] = EXPONENTIAL_X[i + 1] / EXPONENTIAL_X[i];
+            EXPONENTIAL_F[i] = Math.exp(-EXPONENTIAL_X[i]);
+        }
+        EXPONENTIAL_F[EXPONENTIAL_LAYERS] = 1.0;
+    }
+
+    /**
+     * Utility class; no instances.
+     */
+    private Ziggurat()
+    {
+        // Utility class
+    }
+
+    /**
+     * returns a standard normal variate, with mean 0 and standard deviation 1.
+     * @param stream StreamInterface; the stream to draw the uniform values from
+     * @return double; the standard normal variate
+     */
+    static double normal(final StreamInterface stream)
+    {
+        while (true)
+        {
+            double t = stream.nextDouble() * NORMAL_LAYERS;
+            int i = (int) t;
+            double u = 2.0 * (t - i) - 1.0;
+            if (Math.abs(u) < NORMAL_RATIO[i])
+            {
+                return u * NORMAL_X[i];
+            }
+            if (i == 0)
+            {
+                // the tail beyond R, with the method of Marsaglia
+                double x;
+                double y;
+                do
+                {
+                    x = Math.log(1.0 - stream.nextDouble()) / NORMAL_R;
+                    y = Math.log(1.0 - stream.nextDouble());
+                }
+                while (-2.0 * y < x * x);
+                return u < 0.0 ? x - NORMAL_R : NORMAL_R - x;
+            }
+            double x = u * NORMAL_X[i];
+            double f0 = Math.exp(-0.5 * (NORMAL_X[i] * NORMAL_X[i] - x * x));
+            double f1 = Math.exp(-0.5 * (NORMAL_X[i + 1] * NORMAL_X[i + 1] - x * x));
+            if (f1 + stream.nextDouble() * (f0 - f1) < 1.0)
+            {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * returns a standard exponential variate, with mean 1.
+     * @param stream StreamInterface; the stream to draw the uniform values from
+     * @return double; the standard exponential variate
+     */
+    static double exponential(final StreamInterface stream)
+    {
+        while (true)
+        {
+            double t = stream.nextDouble() * EXPONENTIAL_LAYERS;
+            int i = (int) t;
+            double u = t - i;
+            if (u < EXPONENTIAL_RATIO[i])
+            {
+                return u * EXPONENTIAL_X[i];
+            }
+            if (i == 0)
+            {
+                // the exponential distribution is memoryless, so the tail is a shifted exponential
+                return EXPONENTIAL_R - Math.log(1.0 - stream.nextDouble());
+            }
+            double x = u * EXPONENTIAL_X[i];
+            if (EXPONENTIAL_F[i] + stream.nextDouble() * (EXPONENTIAL_F[i + 1] - EXPONENTIAL_F[i]) < Math.exp(-x))
+            {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * returns a gamma variate with shape alpha and scale 1, with the method of Marsaglia and Tsang (A Simple Method for
+     * Generating Gamma Variables, ACM Transactions on Mathematical Software 26(3), 2000), using ziggurat normals.
+     * @param stream StreamInterface; the stream to draw the uniform values from
+     * @param alpha double; the shape, at least 1
+     * @return double; the gamma variate
+     */
+    static double gamma(final StreamInterface stream, final double alpha)
+    {
+        double d = alpha - 1.0 / 3.0;
+        double c = 1.0 / Math.sqrt(9.0 * d);
+        while (true)
+        {
+            double x = normal(stream);
+            double v = 1.0 + c * x;
+            if (v <= 0.0)
+            {
+                continue;
+            }
+            v = v * v * v;
+            double u = 1.0 - stream.nextDouble();
+            double x2 = x * x;
+            if (u < 1.0 - 0.0331 * x2 * x2 || Math.log(u) < 0.5 * x2 + d * (1.0 - v + Math.log(v)))
+            {
+                return d * v;
+            }
+        }
+    }
+}
@@ -3,10 +3,14 @@ package nl.tudelft.simulation.jstats.distributions.empirical;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedMap;
 
 /**
- * Observations for the empirical distributions.
+ * Observations for the empirical distributions. The observations and their cumulative probabilities are stored in two
+ * primitive double arrays, so a large number of observations takes 16 bytes per observation, and lookups are binary
+ * searches on doubles without unboxing. Observations that are all integer numbers are returned as Long, and otherwise as
+ * Double; integer observations are therefore exact up to 2<sup>53</sup>.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -19,8 +23,14 @@ import java.util.SortedMap;
  */
 public class Observations implements ObservationsInterface
 {
-    /** the data. */
-    private Number[][] data = null;
+    /** the observations, in ascending order. */
+    private double[] values = null;
+
+    /** the cumulative probabilities of the observations. */
+    private double[] cumProbabilities = null;
+
+    /** are all observations integer numbers (Long, Integer, Short or Byte)? Then they are returned as Long. */
+    private boolean integral = true;
 
     /** is the data grouped ? */
     private boolean grouped = false;
@@ -34,11 +44,12 @@ public class Observations implements ObservationsInterface
         super();
         Arrays.sort(observations);
         double probability = 1.0 / observations.length;
-        this.data = new Number[2][observations.length];
+        this.values = new double[observations.length];
+        this.cumProbabilities = new double[observations.length];
         for (int i = 0; i < observations.length; i++)
         {
-            this.data[OBSERVATION][i] = observations[i];
-            this.data[CUMPROBABILITY][i] = new Double((i + 1) * probability);
+            setObservation(i, observations[i]);
+            this.cumProbabilities[i] = (i + 1) * probability;
         }
         this.grouped = false;
     }
@@ -52,12 +63,13 @@ public class Observations implements ObservationsInterface
     public Observations(final SortedMap<Number, Double> observations, final boolean cumulative)
     {
         super();
-        this.data = new Number[2][observations.size()];
+        this.values = new double[observations.size()];
+        this.cumProbabilities = new double[observations.size()];
         int counter = 0;
-        for (Number key : observations.keySet())
+        for (Map.Entry<Number, Double> entry : observations.entrySet())
         {
-            this.data[OBSERVATION][counter] = key;
-            this.data[CUMPROBABILITY][counter] = observations.get(key);
+            setObservation(counter, entry.getKey());
+            this.cumProbabilities[counter] = entry.getValue();
             counter++;
         }
         this.normalize();
@@ -77,11 +89,12 @@ public class Observations implements ObservationsInterface
     public Observations(final Number[][] observations, final boolean cumulative)
     {
         super();
-        this.data = new Number[2][observations.length];
+        this.values = new double[observations.length];
+        this.cumProbabilities = new double[observations.length];
         for (int i = 0; i < observations.length; i++)
         {
-            this.data[OBSERVATION][i] = observations[i][0];
-            this.data[CUMPROBABILITY][i] = observations[i][1];
+            setObservation(i, observations[i][0]);
+            this.cumProbabilities[i] = observations[i][1].doubleValue();
         }
         this.normalize();
         if (!cumulative)
@@ -91,32 +104,62 @@ public class Observations implements ObservationsInterface
         this.grouped = true;
     }
 
+    /**
+     * stores an observation as a double, and keeps track of whether all observations are integer numbers.
+     * @param index int; the index of the observation
+     * @param observation Number; the observation
+     */
+    private void setObservation(final int index, final Number observation)
+    {
+        this.values[index] = observation.doubleValue();
+        this.integral &= observation instanceof Long || observation instanceof Integer || observation instanceof Short
+                || observation instanceof Byte;
+    }
+
+    /**
+     * returns an observation as a Number: a Long when all observations are integer numbers, and a Double otherwise.
+     * @param index int; the index of the observation
+     * @return Number; the observation
+     */
+    private Number getObservation(final int index)
+    {
+        if (this.integral)
+        {
+            return Long.valueOf((long) this.values[index]);
+        }
+        return Double.valueOf(this.values[index]);
+    }
+
+    /**
+     * returns a copy of the observations in ascending order, as doubles, without boxing.
+     * @return double[]; the observations
+     */
+    public final double[] getObservationValues()
+    {
+        return this.values.clone();
+    }
+
+    /**
+     * returns a copy of the cumulative probabilities of the observations, without boxing.
+     * @return double[]; the cumulative probabilities
+     */
+    public final double[] getCumProbabilityValues()
+    {
+        return this.cumProbabilities.clone();
+    }
+
     /** {@inheritDoc} */
     @Override
     public int size()
     {
-        return this.data[ObservationsInterface.OBSERVATION].length;
+        return this.values.length;
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean isEmpty()
     {
-        if (this.data == null)
-        {
-            return true;
-        }
-        for (int i = 0; i < this.data.length; i++)
-        {
-            for (int j = 0; j < this.data[0].length; j++)
-            {
-                if (this.data[i][j] != null)
-                {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return this.values == null || this.values.length == 0;
     }
 
     /** {@inheritDoc} */
@@ -142,11 +185,10 @@ public class Observations implements ObservationsInterface
     @Override
     public List<Double> getCumProbabilities()
     {
-        List<Number> list = Arrays.asList(this.data[CUMPROBABILITY]);
-        List<Double> result = new ArrayList<Double>();
-        for (Number i : list)
+        List<Double> result = new ArrayList<Double>(this.cumProbabilities.length);
+        for (double cumProbability : this.cumProbabilities)
         {
-            result.add(i.doubleValue());
+            result.add(cumProbability);
         }
         return result;
     }
@@ -155,7 +197,12 @@ public class Observations implements ObservationsInterface
     @Override
     public List<Number> getObservations()
     {
-        return Arrays.asList(this.data[OBSERVATION]);
+        List<Number> result = new ArrayList<Number>(this.values.length);
+        for (int i = 0; i < this.values.length; i++)
+        {
+            result.add(getObservation(i));
+        }
+        return result;
     }
 
     /** {@inheritDoc} */
@@ -201,7 +248,7 @@ public class Observations implements ObservationsInterface
         int precedingIndex = this.getPrecedingIndex(object, type);
         if (precedingIndex < 0)
         {
-            if (object.doubleValue() < this.data[type][0].doubleValue())
+            if (object.doubleValue() < array(type)[0])
             {
                 return this.get(0);
             }
@@ -218,59 +265,65 @@ public class Observations implements ObservationsInterface
     @Override
     public Entry get(final int index)
     {
-        if (index < 0 || index >= this.data[OBSERVATION].length)
+        if (index < 0 || index >= this.values.length)
         {
             return null;
         }
-        return new Observations.Observation(this.data[OBSERVATION][index], (Double) this.data[CUMPROBABILITY][index]);
+        return new Observations.Observation(getObservation(index), this.cumProbabilities[index]);
+    }
+
+    /**
+     * returns the array with the observations or the cumulative probabilities.
+     * @param type byte; the type, OBSERVATION or CUMPROBABILITY
+     * @return double[]; the array of the type
+     */
+    private double[] array(final byte type)
+    {
+        return type == OBSERVATION ? this.values : this.cumProbabilities;
     }
 
     /**
-     * returns the preceding index of the object.
+     * returns the index of the object, or a negative number when the object is not present.
      * @param object Number; the object
      * @param type byte; the type
      * @return the index.
      */
     protected int getIndex(final Number object, final byte type)
     {
-        return Arrays.binarySearch(this.data[type], object);
+        return Arrays.binarySearch(array(type), object.doubleValue());
     }
 
     /**
-     * returns the preceding index of the object.
+     * returns the preceding index of the object: the index of the last value that is smaller than the object, or -1 when the
+     * object is not larger than the first value or not smaller than the last value.
      * @param object Number; the object
      * @param type byte; the type
      * @return the index.
      */
     protected int getPrecedingIndex(final Number object, final byte type)
     {
-        if (object.doubleValue() <= this.data[type][0].doubleValue())
+        double[] array = array(type);
+        double value = object.doubleValue();
+        if (value <= array[0] || array[array.length - 1] <= value)
         {
             return -1;
         }
-        if (this.data[type][this.size() - 1].doubleValue() <= object.doubleValue())
+        // binary search for the first index with a value >= the object
+        int low = 0;
+        int high = array.length - 1;
+        while (low < high)
         {
-            return -1;
-        }
-        int index = (int) Math.ceil(this.size() / 2.0);
-        double stepSize = index;
-        while (true)
-        {
-            stepSize = 0.5 * stepSize;
-            if (this.data[type][index].doubleValue() < object.doubleValue()
-                    && this.data[type][index + 1].doubleValue() >= object.doubleValue())
-            {
-                return index;
-            }
-            if (this.data[type][index].doubleValue() >= object.doubleValue())
+            int mid = (low + high) >>> 1;
+            if (array[mid] < value)
             {
-                index = (int) Math.floor(index - stepSize);
+                low = mid + 1;
             }
             else
             {
-                index = (int) Math.ceil(index + stepSize);
+                high = mid;
             }
         }
+        return low - 1;
     }
 
     /**
@@ -278,27 +331,27 @@ public class Observations implements ObservationsInterface
      */
     private void normalize()
     {
-        if (this.data[OBSERVATION].length <= 1)
+        if (this.values.length <= 1)
         {
             return;
         }
         double sum = 0;
         boolean toBeConverted = false;
-        for (int i = 0; i < this.data[CUMPROBABILITY].length; i++)
+        for (int i = 0; i < this.cumProbabilities.length; i++)
         {
-            if (!toBeConverted && this.data[CUMPROBABILITY][i].doubleValue() > 1.0)
+            if (!toBeConverted && this.cumProbabilities[i] > 1.0)
             {
                 toBeConverted = true;
             }
-            sum = sum + this.data[CUMPROBABILITY][i].doubleValue();
+            sum = sum + this.cumProbabilities[i];
         }
         if (!toBeConverted)
         {
             return;
         }
-        for (int i = 0; i < this.data[CUMPROBABILITY].length; i++)
+        for (int i = 0; i < this.cumProbabilities.length; i++)
         {
-            this.data[CUMPROBABILITY][i] = new Double(this.data[CUMPROBABILITY][i].doubleValue() / sum);
+            this.cumProbabilities[i] = this.cumProbabilities[i] / sum;
         }
     }
 
@@ -308,10 +361,10 @@ public class Observations implements ObservationsInterface
     private void makecumulative()
     {
         double value = 0.0;
-        for (int i = 0; i < this.data[CUMPROBABILITY].length; i++)
+        for (int i = 0; i < this.cumProbabilities.length; i++)
         {
-            value = value + this.data[CUMPROBABILITY][i].doubleValue();
-            this.data[CUMPROBABILITY][i] = new Double(value);
+            value = value + this.cumProbabilities[i];
+            this.cumProbabilities[i] = value;
         }
     }
 
@@ -320,9 +373,9 @@ public class Observations implements ObservationsInterface
     public String toString()
     {
         String result = "DistDiscreteEmpirical[\n";
-        for (int i = 0; i < this.data[0].length; i++)
+        for (int i = 0; i < this.values.length; i++)
         {
-            result = result + "(" + this.data[0][i] + ";" + this.data[1][i] + ")\n";
+            result = result + "(" + getObservation(i) + ";" + this.cumProbabilities[i] + ")\n";
         }
         return result;
     }
@@ -1,10 +1,16 @@
 package nl.tudelft.simulation.jstats.ode;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import nl.tudelft.simulation.event.EventProducer;
 import nl.tudelft.simulation.jstats.ode.integrators.NumericalIntegrator;
 
 /**
- * The DifferentialEquation is the abstract basis for the DESS formalism.
+ * The DifferentialEquation is the abstract basis for the DESS formalism. The equation is integrated with the fixed timeStep,
+ * or, after <code>setTolerances</code>, with an adaptive step size that keeps the error estimate of an embedded Runge-Kutta
+ * integrator within the tolerances, and that is at most the timeStep. The value within the last step is available as dense
+ * output, which is also used to locate the zero crossings of the registered zero crossing functions.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -35,6 +41,63 @@ public abstract class DifferentialEquation extends EventProducer implements Diff
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected double x0 = Double.NaN;
 
+    /** the safety factor for the new step size of the adaptive integration. */
+    private static final double SAFETY = 0.9;
+
+    /** the minimum factor for the new step size of the adaptive integration. */
+    private static final double MIN_FACTOR = 0.2;
+
+    /** the maximum factor for the new step size of the adaptive integration. */
+    private static final double MAX_FACTOR = 5.0;
+
+    /** the exponent of the error for the new step size, for the error estimates of order 5 of the embedded integrators. */
+    private static final double EXPONENT = -0.2;
+
+    /** the absolute tolerance of the adaptive integration; NaN when the timeStep is fixed. */
+    private double absoluteTolerance = Double.NaN;
+
+    /** the relative tolerance of the adaptive integration; NaN when the timeStep is fixed. */
+    private double relativeTolerance = Double.NaN;
+
+    /** the size of the next step of the adaptive integration. */
+    private double adaptiveStep = Double.NaN;
+
+    /** the zero crossing functions. */
+    private final List<ZeroCrossingInterface> zeroCrossings = new ArrayList<>();
+
+    /** the directions of the zero crossing functions. */
+    private final List<Integer> zeroCrossingDirections = new ArrayList<>();
+
+    /** the zero crossing function at which the last integration stopped, or null. */
+    private ZeroCrossingInterface zeroCrossing = null;
+
+    /** the x-value of the start of the last step. */
+    private double stepStartX = Double.NaN;
+
+    /** the x-value at which the last step ended: its end, or the zero crossing at which the integration stopped. */
+    private double stepEndX = Double.NaN;
+
+    /** the length of the last step, over which the dense output interpolates. */
+    private double stepLength = Double.NaN;
+
+    /** whether the derivatives at the start and end of the last step have been computed. */
+    private boolean stepDerivatives = false;
+
+    /** the value at the start of the last step. */
+    private transient double[] startY = null;
+
+    /** the value at the end of the last step. */
+    private transient double[] nextY = null;
+
+    /** the derivative at the start of the last step. */
+    private transient double[] startDY = null;
+
+    /** the derivative at the end of the last step. */
+    private transient double[] endDY = null;
+
+    /** the buffer for the interpolated values during the location of a zero crossing. */
+    private transient double[] crossingY = null;
+
     /**
      * constructs a new DifferentialEquation with default integrator.
      * @param timeStep double; the timeStep to use.
@@ -96,27 +159,393 @@ public abstract class DifferentialEquation extends EventProducer implements Diff
     /**
      * integrates Y.
      * @param x double; the x-value
-     * @param initialX double; the initial X value, non-final (will be updated)
-     * @param initialY double[]; the initial Y value, non-final (will be updated)
+     * @param initialX double; the initial X value
+     * @param initialY double[]; the initial Y value, which is not changed
      * @return the new Y value
      */
-    @SuppressWarnings("checkstyle:finalparameters")
-    protected double[] integrateY(final double x, /* non-final */ double initialX, /* non-final */ double[] initialY)
+    protected double[] integrateY(final double x, final double initialX, final double[] initialY)
     {
+        double[] y = initialY.clone();
+        double reachedX = this.advanceY(x, initialX, y);
+        while (reachedX < x)
+        {
+            reachedX = this.advanceY(x, reachedX, y);
+        }
+        return y;
+    }
+
+    /**
+     * integrates Y in place, without allocating arrays when the integrator and the in-place <code>dy</code> method of the
+     * equation do not allocate. The integration stops early at the first zero crossing of a zero crossing function, which is
+     * then returned by <code>getZeroCrossing</code>.
+     * @param x double; the x-value
+     * @param initialX double; the initial X value
+     * @param y double[]; the initial Y value, which is replaced by the Y value at the returned x-value
+     * @return double; x, or the x-value of the first zero crossing when it is before or at x
+     */
+    protected double advanceY(final double x, final double initialX, final double[] y)
+    {
+        this.zeroCrossing = null;
+        if (this.startY == null || this.startY.length != y.length)
+        {
+            this.startY = new double[y.length];
+            this.nextY = new double[y.length];
+        }
+        if (isAdaptive())
+        {
+            return advanceAdaptive(x, initialX, y);
+        }
         // we request the new value from the integrator.
-        while (x > initialX + this.timeStep)
+        double stepX = initialX;
+        while (true)
         {
-            initialY = this.integrator.next(initialX, initialY);
-            initialX = initialX + this.timeStep;
+            System.arraycopy(y, 0, this.startY, 0, y.length);
+            this.integrator.next(stepX, this.startY, this.nextY);
+            setStep(stepX, stepX + this.timeStep);
+            if (x > stepX + this.timeStep)
+            {
+                System.arraycopy(this.nextY, 0, y, 0, y.length);
+                if (locateZeroCrossing(stepX, stepX + this.timeStep, y))
+                {
+                    return this.stepEndX;
+                }
+                stepX = stepX + this.timeStep;
+            }
+            else
+            {
+                // We are in our final step.
+                double ratio = (x - stepX) / this.timeStep;
+                for (int i = 0; i < y.length; i++)
+                {
+                    y[i] = this.startY[i] + ratio * (this.nextY[i] - this.startY[i]);
+                }
+                if (locateZeroCrossing(stepX, x, y))
+                {
+                    return this.stepEndX;
+                }
+                return x;
+            }
         }
-        // We are in our final step.
-        double[] nextValue = this.integrator.next(initialX, initialY);
-        double ratio = (x - initialX) / this.timeStep;
-        for (int i = 0; i < initialY.length; i++)
+    }
+
+    /**
+     * integrates Y in place with the adaptive step size.
+     * @param x double; the x-value
+     * @param initialX double; the initial X value
+     * @param y double[]; the initial Y value, which is replaced by the Y value at the returned x-value
+     * @return double; x, or the x-value of the first zero crossing when it is before or at x
+     */
+    private double advanceAdaptive(final double x, final double initialX, final double[] y)
+    {
+        double stepX = initialX;
+        while (stepX < x)
+        {
+            double h = Math.min(this.adaptiveStep, x - stepX);
+            boolean lastStep = h == x - stepX;
+            System.arraycopy(y, 0, this.startY, 0, y.length);
+            this.integrator.setTimeStep(h);
+            this.integrator.next(stepX, this.startY, this.nextY);
+            double error = errorNorm(this.integrator.getError());
+            if (!(error <= 1.0))
+            {
+                // reject the step, and retry with a smaller step
+                double factor = Double.isNaN(error) ? MIN_FACTOR : Math.max(MIN_FACTOR, SAFETY * Math.pow(error, EXPONENT));
+                this.adaptiveStep = h * factor;
+                if (stepX + this.adaptiveStep <= stepX)
+                {
+                    throw new IllegalStateException("step size underflow at x=" + stepX);
+                }
+                continue;
+            }
+            double endX = lastStep ? x : stepX + h;
+            setStep(stepX, endX);
+            System.arraycopy(this.nextY, 0, y, 0, y.length);
+            double factor = error == 0.0 ? MAX_FACTOR : Math.min(MAX_FACTOR, SAFETY * Math.pow(error, EXPONENT));
+            // a last step that was shortened to end at x does not limit the next step
+            this.adaptiveStep = Math.min(this.timeStep, lastStep ? Math.max(this.adaptiveStep, h * factor) : h * factor);
+            if (locateZeroCrossing(stepX, endX, y))
+            {
+                return this.stepEndX;
+            }
+            stepX = endX;
+        }
+        return x;
+    }
+
+    /**
+     * returns the norm of the error estimate of the last step, relative to the tolerances.
+     * @param error double[]; the error estimate of the integrator
+     * @return double; the largest ratio of the error and the tolerance of a component
+     */
+    private double errorNorm(final double[] error)
+    {
+        double norm = 0.0;
+        for (int i = 0; i < error.length; i++)
+        {
+            double scale = this.absoluteTolerance
+                    + this.relativeTolerance * Math.max(Math.abs(this.startY[i]), Math.abs(this.nextY[i]));
+            double ratio = Math.abs(error[i]) / scale;
+            if (!(ratio <= norm))
+            {
+                norm = ratio;
+            }
+        }
+        return norm;
+    }
+
+    /**
+     * records the last step for the dense output.
+     * @param startX double; the x-value of the start of the step
+     * @param endX double; the x-value of the end of the step
+     */
+    private void setStep(final double startX, final double endX)
+    {
+        this.stepStartX = startX;
+        this.stepEndX = endX;
+        this.stepLength = endX - startX;
+        this.stepDerivatives = false;
+    }
+
+    /**
+     * returns the dense output: the value at an x-value within the last step of the integration, as the cubic Hermite
+     * interpolation of the values and derivatives at the start and end of the step.
+     * @param x double; the x-value, within the last step
+     * @param result double[]; the array to store the value in
+     * @throws IllegalArgumentException when x is not within the last step
+     */
+    public void interpolate(final double x, final double[] result)
+    {
+        if (!(x >= this.stepStartX && x <= this.stepStartX + this.stepLength))
+        {
+            throw new IllegalArgumentException("x=" + x + " is not within the last step [" + this.stepStartX + ", "
+                    + (this.stepStartX + this.stepLength) + "]");
+        }
+        double s = (x - this.stepStartX) / this.stepLength;
+        if (!this.stepDerivatives)
+        {
+            if (this.startDY == null || this.startDY.length != this.startY.length)
+            {
+                this.startDY = new double[this.startY.length];
+                this.endDY = new double[this.startY.length];
+            }
+            this.dy(this.stepStartX, this.startY, this.startDY);
+            this.dy(this.stepStartX + this.stepLength, this.nextY, this.endDY);
+            this.stepDerivatives = true;
+        }
+        double r = 1.0 - s;
+        double h00 = (1.0 + 2.0 * s) * r * r;
+        double h10 = s * r * r * this.stepLength;
+        double h01 = s * s * (3.0 - 2.0 * s);
+        double h11 = -s * s * r * this.stepLength;
+        for (int i = 0; i < result.length; i++)
         {
-            initialY[i] = initialY[i] + ratio * (nextValue[i] - initialY[i]);
+            result[i] = h00 * this.startY[i] + h10 * this.startDY[i] + h01 * this.nextY[i] + h11 * this.endDY[i];
         }
-        return initialY;
+    }
+
+    /**
+     * looks for the first zero crossing within the last step, up to endX, and locates it with the Illinois variant of the
+     * regula falsi on the dense output.
+     * @param startX double; the x-value of the start of the step
+     * @param endX double; the x-value up to which to look for zero crossings
+     * @param y double[]; the value at endX, which is replaced by the value at the zero crossing
+     * @return boolean; whether a zero crossing was found; its x-value is then stored as the end of the step
+     */
+    private boolean locateZeroCrossing(final double startX, final double endX, final double[] y)
+    {
+        double root = Double.NaN;
+        for (int k = 0; k < this.zeroCrossings.size(); k++)
+        {
+            ZeroCrossingInterface function = this.zeroCrossings.get(k);
+            int direction = this.zeroCrossingDirections.get(k);
+            double ga = function.value(startX, this.startY);
+            double gb = function.value(endX, y);
+            if ((direction >= 0 && ga < 0.0 && gb >= 0.0) || (direction <= 0 && ga > 0.0 && gb <= 0.0))
+            {
+                double x = findRoot(function, startX, ga, endX, gb);
+                if (this.zeroCrossing == null || x < root)
+                {
+                    root = x;
+                    this.zeroCrossing = function;
+                }
+            }
+        }
+        if (this.zeroCrossing == null)
+        {
+            return false;
+        }
+        if (root < endX)
+        {
+            interpolate(root, y);
+        }
+        this.stepEndX = root;
+        return true;
+    }
+
+    /**
+     * finds the first x-value after the zero crossing of a function within a bracket, with the Illinois algorithm.
+     * @param function ZeroCrossingInterface; the zero crossing function
+     * @param startX double; the start of the bracket
+     * @param startG double; the value of the function at the start of the bracket, not zero
+     * @param endX double; the end of the bracket
+     * @param endG double; the value of the function at the end of the bracket, zero or with the other sign
+     * @return double; the end of the final bracket, where the function has crossed zero
+     */
+    private double findRoot(final ZeroCrossingInterface function, final double startX, final double startG,
+            final double endX, final double endG)
+    {
+        if (this.crossingY == null || this.crossingY.length != this.startY.length)
+        {
+            this.crossingY = new double[this.startY.length];
+        }
+        double a = startX;
+        double ga = startG;
+        double b = endX;
+        double gb = endG;
+        int side = 0;
+        for (int i = 0; i < 100 && b - a > 1E-12 * Math.max(1.0, Math.abs(b)); i++)
+        {
+            double c = (a * gb - b * ga) / (gb - ga);
+            if (!(c > a && c < b))
+            {
+                c = 0.5 * (a + b);
+            }
+            interpolate(c, this.crossingY);
+            double gc = function.value(c, this.crossingY);
+            if (startG < 0.0 ? gc >= 0.0 : gc <= 0.0)
+            {
+                b = c;
+                gb = gc;
+                if (side == -1)
+                {
+                    ga /= 2.0;
+                }
+                side = -1;
+            }
+            else
+            {
+                a = c;
+                ga = gc;
+                if (side == 1)
+                {
+                    gb /= 2.0;
+                }
+                side = 1;
+            }
+        }
+        return b;
+    }
+
+    /**
+     * computes dy as a function of x,y into an array of the caller. The integrators use this method for the evaluation of
+     * the equation. The default implementation copies the result of <code>dy(x, y)</code>; equations with many state
+     * variables can override it to compute the derivative without allocating an array.
+     * @param x double; the x-value
+     * @param y double[]; the y-value
+     * @param dy double[]; the array to store dy/dx in, with the length of y
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public void dy(final double x, final double[] y, final double[] dy)
+    {
+        System.arraycopy(this.dy(x, y), 0, dy, 0, y.length);
+    }
+
+    /**
+     * integrates the equation from now on with an adaptive step size, that is at most the timeStep. The integrator should
+     * estimate the error of every step, as the embedded Runge-Kutta integrators do.
+     * @param absoluteTolerance double; the absolute tolerance of the error of every step
+     * @param relativeTolerance double; the tolerance of the error of every step, relative to the value
+     * @throws IllegalArgumentException when a tolerance is negative, both are zero, or the integrator does not estimate the
+     *             error
+     */
+    public void setTolerances(final double absoluteTolerance, final double relativeTolerance)
+    {
+        if (!(absoluteTolerance >= 0.0) || !(relativeTolerance >= 0.0) || absoluteTolerance + relativeTolerance == 0.0)
+        {
+            throw new IllegalArgumentException("tolerances should be non-negative, and not both zero");
+        }
+        if (!this.integrator.hasErrorEstimate())
+        {
+            throw new IllegalArgumentException("adaptive step size needs an integrator with an error estimate");
+        }
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.adaptiveStep = this.timeStep;
+    }
+
+    /**
+     * integrates the equation from now on with the fixed timeStep again.
+     */
+    public void clearTolerances()
+    {
+        this.absoluteTolerance = Double.NaN;
+        this.relativeTolerance = Double.NaN;
+        this.integrator.setTimeStep(this.timeStep);
+    }
+
+    /**
+     * @return boolean; whether the equation is integrated with an adaptive step size
+     */
+    public boolean isAdaptive()
+    {
+        return !Double.isNaN(this.absoluteTolerance);
+    }
+
+    /**
+     * @return double; the absolute tolerance of the adaptive integration, or NaN when the timeStep is fixed
+     */
+    public double getAbsoluteTolerance()
+    {
+        return this.absoluteTolerance;
+    }
+
+    /**
+     * @return double; the relative tolerance of the adaptive integration, or NaN when the timeStep is fixed
+     */
+    public double getRelativeTolerance()
+    {
+        return this.relativeTolerance;
+    }
+
+    /**
+     * adds a zero crossing function. The integration stops at the first zero crossing of any of the functions.
+     * @param function ZeroCrossingInterface; the zero crossing function
+     * @param direction int; the direction of the crossings: ZeroCrossingInterface.RISING, FALLING or BOTH
+     */
+    public void addZeroCrossing(final ZeroCrossingInterface function, final int direction)
+    {
+        if (direction < ZeroCrossingInterface.FALLING || direction > ZeroCrossingInterface.RISING)
+        {
+            throw new IllegalArgumentException("unknown direction " + direction);
+        }
+        this.zeroCrossings.add(function);
+        this.zeroCrossingDirections.add(direction);
+    }
+
+    /**
+     * removes a zero crossing function.
+     * @param function ZeroCrossingInterface; the zero crossing function
+     * @return boolean; whether the function was registered
+     */
+    public boolean removeZeroCrossing(final ZeroCrossingInterface function)
+    {
+        int index = this.zeroCrossings.indexOf(function);
+        if (index < 0)
+        {
+            return false;
+        }
+        this.zeroCrossings.remove(index);
+        this.zeroCrossingDirections.remove(index);
+        return true;
+    }
+
+    /**
+     * @return ZeroCrossingInterface; the zero crossing function at which the last integration stopped, or null when it did
+     *         not stop at a zero crossing
+     */
+    public ZeroCrossingInterface getZeroCrossing()
+    {
+        return this.zeroCrossing;
     }
 
     /**
@@ -129,9 +558,14 @@ public abstract class DifferentialEquation extends EventProducer implements Diff
 
     /**
      * @param integrator NumericalIntegrator; The integrator to set.
+     * @throws IllegalArgumentException when the step size is adaptive and the integrator does not estimate the error
      */
     public void setIntegrator(final NumericalIntegrator integrator)
     {
+        if (isAdaptive() && !integrator.hasErrorEstimate())
+        {
+            throw new IllegalArgumentException("adaptive step size needs an integrator with an error estimate");
+        }
         this.integrator = integrator;
     }
 
@@ -0,0 +1,34 @@
+package nl.tudelft.simulation.jstats.ode;
+
+/**
+ * A zero crossing function g(x, y) of the state of a differential equation. The integration of the equation stops at the
+ * first x where the function crosses zero in the direction it was registered for, so the equation can react to it.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public interface ZeroCrossingInterface
+{
+    /** the direction of a crossing from negative to zero or positive. */
+    int RISING = 1;
+
+    /** the direction of a crossing from positive to zero or negative. */
+    int FALLING = -1;
+
+    /** both directions of crossing. */
+    int BOTH = 0;
+
+    /**
+     * returns the value of the zero crossing function.
+     * @param x double; the x-value
+     * @param y double[]; the y-value, which should not be changed
+     * @return double; g(x, y)
+     */
+    double value(double x, double[] y);
+}
@@ -47,17 +47,31 @@ public class Adams extends CachingNumericalIntegrator
     @Override
     public double[] next(final double x)
     {
-        double[] y0 = super.getY(0);
-        double[] dy0 = super.getDY(0);
-        double[] dy1 = super.getDY(1);
-        double[] dy2 = super.getDY(2);
-        double[] dy3 = super.getDY(3);
-        double[] sum = super.add(super.multiply(-9, dy3), super.multiply(37, dy2), super.multiply(-59, dy1),
-                super.multiply(55, dy0));
-        sum = super.multiply(this.timeStep / 24.0, sum);
-        double[] p = super.add(y0, sum);
-        sum = super.add(dy2, super.multiply(-5, dy1), super.multiply(19, dy0),
-                super.multiply(9, this.equation.dy(x + this.timeStep, p)));
-        return super.add(y0, super.multiply(this.timeStep / 24.0, sum));
+        double[] result = new double[getCachedY(0).length];
+        nextFromCache(x, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void nextFromCache(final double x, final double[] result)
+    {
+        double[] y0 = super.getCachedY(0);
+        double[] dy0 = super.getCachedDY(0);
+        double[] dy1 = super.getCachedDY(1);
+        double[] dy2 = super.getCachedDY(2);
+        double[] dy3 = super.getCachedDY(3);
+        double[][] work = getWorkBuffers(2, y0.length);
+        double[] p = work[0];
+        double[] dp = work[1];
+        for (int i = 0; i < y0.length; i++)
+        {
+            p[i] = y0[i] + this.timeStep / 24.0 * (-9 * dy3[i] + 37 * dy2[i] + -59 * dy1[i] + 55 * dy0[i]);
+        }
+        this.evaluate(x + this.timeStep, p, dp);
+        for (int i = 0; i < y0.length; i++)
+        {
+            result[i] = y0[i] + this.timeStep / 24.0 * (dy2[i] + -5 * dy1[i] + 19 * dy0[i] + 9 * dp[i]);
+        }
     }
 }
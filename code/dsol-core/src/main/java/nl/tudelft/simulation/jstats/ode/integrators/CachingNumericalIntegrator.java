@@ -71,29 +71,42 @@ public abstract class CachingNumericalIntegrator extends NumericalIntegrator
     @Override
     public double[] next(final double x, final double[] y)
     {
-        double[] ynext = null;
+        double[] result = new double[y.length];
+        next(x, y, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void next(final double x, final double[] y, final double[] result)
+    {
         // look whether we have to prime, or can calculate
         if (this.lastCachePlace < this.cachePlaces)
         {
             // calculate next y-value using the primer, which can have a
             // much smaller timestep
-            ynext = y.clone();
+            System.arraycopy(y, 0, result, 0, y.length);
             double xstep = x;
             for (int i = 0; i < this.startingSubSteps; i++)
             {
-                ynext = this.startingIntegrator.next(xstep, ynext);
+                this.startingIntegrator.next(xstep, result, result);
                 xstep += this.timeStep / (1.0d * this.startingSubSteps);
             }
         }
         else
         {
             // calculate next y-value using the intended method
-            ynext = next(x);
+            nextFromCache(x, result);
         }
         this.lastCachePlace++;
-        this.cacheY[this.lastCachePlace % this.cachePlaces] = ynext;
-        this.cacheDY[this.lastCachePlace % this.cachePlaces] = this.equation.dy(x + this.timeStep, ynext);
-        return ynext;
+        int place = this.lastCachePlace % this.cachePlaces;
+        if (this.cacheY[place] == null || this.cacheY[place].length != y.length)
+        {
+            this.cacheY[place] = new double[y.length];
+            this.cacheDY[place] = new double[y.length];
+        }
+        System.arraycopy(result, 0, this.cacheY[place], 0, y.length);
+        evaluate(x + this.timeStep, this.cacheY[place], this.cacheDY[place]);
     }
 
     /**
@@ -103,15 +116,7 @@ public abstract class CachingNumericalIntegrator extends NumericalIntegrator
      */
     public double[] getY(final int numberDown)
     {
-        if (this.lastCachePlace < this.cachePlaces)
-        {
-            throw new RuntimeException("Tried to retrieve y-value that was not yet primed");
-        }
-        if (numberDown >= this.cachePlaces)
-        {
-            throw new RuntimeException("Tried to retrieve y-value beyond cache limits");
-        }
-        return this.cacheY[(this.lastCachePlace - numberDown) % this.cachePlaces].clone();
+        return getCachedY(numberDown).clone();
     }
 
     /**
@@ -120,16 +125,47 @@ public abstract class CachingNumericalIntegrator extends NumericalIntegrator
      * @return the corresponding dY-value
      */
     public double[] getDY(final int numberDown)
+    {
+        return getCachedDY(numberDown).clone();
+    }
+
+    /**
+     * get a cached Y-value without copying it, for the in-place integration of the subclasses.
+     * @param numberDown int; the number of the previous value we want
+     * @return the corresponding Y-value, which should not be changed
+     */
+    protected final double[] getCachedY(final int numberDown)
+    {
+        checkCache(numberDown, "y");
+        return this.cacheY[(this.lastCachePlace - numberDown) % this.cachePlaces];
+    }
+
+    /**
+     * get a cached dY-value without copying it, for the in-place integration of the subclasses.
+     * @param numberDown int; the number of the previous value we want
+     * @return the corresponding dY-value, which should not be changed
+     */
+    protected final double[] getCachedDY(final int numberDown)
+    {
+        checkCache(numberDown, "dy");
+        return this.cacheDY[(this.lastCachePlace - numberDown) % this.cachePlaces];
+    }
+
+    /**
+     * checks whether a cached value can be retrieved.
+     * @param numberDown int; the number of the previous value we want
+     * @param name String; the name of the value for the message of the exception
+     */
+    private void checkCache(final int numberDown, final String name)
     {
         if (this.lastCachePlace < this.cachePlaces)
         {
-            throw new RuntimeException("Tried to retrieve dy-value that was not yet primed");
+            throw new RuntimeException("Tried to retrieve " + name + "-value that was not yet primed");
         }
         if (numberDown >= this.cachePlaces)
         {
-            throw new RuntimeException("Tried to retrieve dy-value beyond cache limits");
+            throw new RuntimeException("Tried to retrieve " + name + "-value beyond cache limits");
         }
-        return this.cacheDY[(this.lastCachePlace - numberDown) % this.cachePlaces].clone();
     }
 
     /**
@@ -139,4 +175,18 @@ public abstract class CachingNumericalIntegrator extends NumericalIntegrator
      * @return the value of y(x+timeStep)
      */
     public abstract double[] next(double x);
+
+    /**
+     * calculates the value of y(x+timeStep) from the cache into an array of the caller, like <code>next(x)</code>. The
+     * default implementation copies the result of <code>next(x)</code>; the integrators in this package override it with an
+     * implementation that does not allocate arrays for the intermediate results.
+     * @param x double; the x-value to use in the calculation
+     * @param result double[]; the array to store the value of y(x+timeStep) in
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public void nextFromCache(final double x, final double[] result)
+    {
+        double[] ynext = next(x);
+        System.arraycopy(ynext, 0, result, 0, ynext.length);
+    }
 }
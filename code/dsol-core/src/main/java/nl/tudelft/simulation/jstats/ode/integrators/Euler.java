@@ -34,6 +34,20 @@ public class Euler extends NumericalIntegrator
     @Override
     public double[] next(final double x, final double[] y)
     {
-        return super.add(y, super.multiply(this.timeStep, this.equation.dy(x, y)));
+        double[] result = new double[y.length];
+        next(x, y, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void next(final double x, final double[] y, final double[] result)
+    {
+        double[] k1 = getWorkBuffers(1, y.length)[0];
+        evaluate(x, y, k1);
+        for (int i = 0; i < y.length; i++)
+        {
+            result[i] = y[i] + this.timeStep * k1[i];
+        }
     }
 }
@@ -40,14 +40,41 @@ public class Gill extends NumericalIntegrator
     @Override
     public double[] next(final double x, final double[] y)
     {
-        double[] k1 = this.equation.dy(x, y);
-        double[] k2 = this.equation.dy(x + 0.5d * this.timeStep, super.add(y, super.multiply(0.5d, k1)));
-        double[] k3 = this.equation.dy(x + 0.5d * this.timeStep,
-                super.add(y, super.multiply((-0.5d + Gill.SQRT2D2), k1), super.multiply((1.0d - Gill.SQRT2D2), k2)));
-        double[] k4 = this.equation.dy(x + this.timeStep,
-                super.add(y, super.multiply((-Gill.SQRT2D2), k2), super.multiply((1.0d + Gill.SQRT2D2), k3)));
-        double[] sum =
-                super.add(k1, super.multiply((2.0d - Gill.SQRT2), k2), super.multiply((2.0d + Gill.SQRT2), k3), k4);
-        return super.add(y, super.multiply(this.timeStep / 6.0d, sum));
+        double[] result = new double[y.length];
+        next(x, y, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void next(final double x, final double[] y, final double[] result)
+    {
+        double[][] work = getWorkBuffers(5, y.length);
+        double[] k1 = work[0];
+        double[] k2 = work[1];
+        double[] k3 = work[2];
+        double[] k4 = work[3];
+        double[] yk = work[4];
+        evaluate(x, y, k1);
+        for (int i = 0; i < y.length; i++)
+        {
+            yk[i] = y[i] + 0.5d * k1[i];
+        }
+        evaluate(x + 0.5d * this.timeStep, yk, k2);
+        for (int i = 0; i < y.length; i++)
+        {
+            yk[i] = y[i] + (-0.5d + Gill.SQRT2D2) * k1[i] + (1.0d - Gill.SQRT2D2) * k2[i];
+        }
+        evaluate(x + 0.5d * this.timeStep, yk, k3);
+        for (int i = 0; i < y.length; i++)
+        {
+            yk[i] = y[i] + (-Gill.SQRT2D2) * k2[i] + (1.0d + Gill.SQRT2D2) * k3[i];
+        }
+        evaluate(x + this.timeStep, yk, k4);
+        for (int i = 0; i < y.length; i++)
+        {
+            result[i] = y[i] + this.timeStep / 6.0d
+                    * (k1[i] + (2.0d - Gill.SQRT2) * k2[i] + (2.0d + Gill.SQRT2) * k3[i] + k4[i]);
+        }
     }
 }
@@ -33,8 +33,28 @@ public class Heun extends NumericalIntegrator
     @Override
     public double[] next(final double x, final double[] y)
     {
-        double[] f0 = this.equation.dy(x, y);
-        double[] p = super.add(y, super.multiply(this.timeStep, f0));
-        return super.add(y, super.multiply(0.5 * this.timeStep, super.add(f0, this.equation.dy(x + this.timeStep, p))));
+        double[] result = new double[y.length];
+        next(x, y, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void next(final double x, final double[] y, final double[] result)
+    {
+        double[][] work = getWorkBuffers(3, y.length);
+        double[] f0 = work[0];
+        double[] p = work[1];
+        double[] f1 = work[2];
+        evaluate(x, y, f0);
+        for (int i = 0; i < y.length; i++)
+        {
+            p[i] = y[i] + this.timeStep * f0[i];
+        }
+        evaluate(x + this.timeStep, p, f1);
+        for (int i = 0; i < y.length; i++)
+        {
+            result[i] = y[i] + 0.5 * this.timeStep * (f0[i] + f1[i]);
+        }
     }
 }
@@ -47,18 +47,35 @@ public class Milne extends CachingNumericalIntegrator
     @Override
     public double[] next(final double x)
     {
-        double[] y3 = super.getY(3);
-        double[] y1 = super.getY(1);
-        double[] dy2 = super.getDY(2);
-        double[] dy1 = super.getDY(1);
-        double[] dy0 = super.getDY(0);
+        double[] result = new double[getCachedY(0).length];
+        nextFromCache(x, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void nextFromCache(final double x, final double[] result)
+    {
+        double[] y3 = super.getCachedY(3);
+        double[] y1 = super.getCachedY(1);
+        double[] dy2 = super.getCachedDY(2);
+        double[] dy1 = super.getCachedDY(1);
+        double[] dy0 = super.getCachedDY(0);
+        double[][] work = getWorkBuffers(2, y1.length);
+        double[] p = work[0];
+        double[] dp = work[1];
 
         // Let's evaluate the predictor
-        double[] p = super.add(y3, super.multiply(4 * this.timeStep / 3.0,
-                super.add(super.multiply(2.0, dy0), super.multiply(-1.0, dy1), super.multiply(2.0, dy2))));
+        for (int i = 0; i < y1.length; i++)
+        {
+            p[i] = y3[i] + 4 * this.timeStep / 3.0 * (2.0 * dy0[i] + -1.0 * dy1[i] + 2.0 * dy2[i]);
+        }
 
         // Now we compute the corrector
-        return super.add(y1, super.multiply(this.timeStep / 3.0,
-                super.add(super.multiply(1.0, dy1), super.multiply(4.0, dy0), this.equation.dy(x + this.timeStep, p))));
+        this.evaluate(x + this.timeStep, p, dp);
+        for (int i = 0; i < y1.length; i++)
+        {
+            result[i] = y1[i] + this.timeStep / 3.0 * (dy1[i] + 4.0 * dy0[i] + dp[i]);
+        }
     }
 }
@@ -2,10 +2,14 @@ package nl.tudelft.simulation.jstats.ode.integrators;
 
 import java.io.Serializable;
 
+import nl.tudelft.simulation.jstats.ode.DifferentialEquation;
 import nl.tudelft.simulation.jstats.ode.DifferentialEquationInterface;
 
 /**
- * Provides basic methods for all numerical integration methods. They mostly include matrix computation.
+ * Provides basic methods for all numerical integration methods. They mostly include matrix computation. Next to the
+ * <code>next(x, y)</code> method that returns a new array, the integrators provide an in-place <code>next(x, y, result)</code>
+ * that writes the new value into an array of the caller, and keeps its intermediate results in work buffers of the integrator
+ * that are allocated once. An integrator that uses the in-place method can therefore only be used by one thread at a time.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -97,6 +101,9 @@ public abstract class NumericalIntegrator implements Serializable
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected DifferentialEquationInterface equation = null;
 
+    /** the work buffers for the intermediate results of the in-place integration, allocated on first use. */
+    private transient double[][] workBuffers = null;
+
     /**
      * constructs a new NumericalIntegrator.
      * @param timeStep double; the timeStep
@@ -116,6 +123,55 @@ public abstract class NumericalIntegrator implements Serializable
      */
     public abstract double[] next(double x, double[] y);
 
+    /**
+     * computes the next value into an array of the caller. The result array may be the array y itself, in which case the
+     * value is advanced in place. The default implementation copies the result of <code>next(x, y)</code>; the integrators
+     * in this package override it with an implementation that does not allocate arrays for the intermediate results.
+     * @param x double; the x value corresponding to the last y-value computed
+     * @param y double[]; the last y value
+     * @param result double[]; the array to store the new value in, with the length of y, and possibly y itself
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public void next(final double x, final double[] y, final double[] result)
+    {
+        System.arraycopy(next(x, y), 0, result, 0, y.length);
+    }
+
+    /**
+     * returns the work buffers of this integrator, allocating them when they do not exist yet or have another length. The
+     * contents of the buffers are undefined.
+     * @param count int; the number of buffers
+     * @param length int; the length of each buffer
+     * @return double[][]; at least count buffers of the given length
+     */
+    protected final double[][] getWorkBuffers(final int count, final int length)
+    {
+        if (this.workBuffers == null || this.workBuffers.length < count || this.workBuffers[0].length != length)
+        {
+            this.workBuffers = new double[count][length];
+        }
+        return this.workBuffers;
+    }
+
+    /**
+     * evaluates the derivative of the equation into an array. When the equation is a DifferentialEquation, its in-place
+     * <code>dy(x, y, dy)</code> method is used; otherwise the result of <code>dy(x, y)</code> is copied.
+     * @param x double; the x-value
+     * @param y double[]; the y-value
+     * @param dy double[]; the array to store dy/dx in, with the length of y; not the array y itself
+     */
+    protected final void evaluate(final double x, final double[] y, final double[] dy)
+    {
+        if (this.equation instanceof DifferentialEquation)
+        {
+            ((DifferentialEquation) this.equation).dy(x, y, dy);
+        }
+        else
+        {
+            System.arraycopy(this.equation.dy(x, y), 0, dy, 0, y.length);
+        }
+    }
+
     /**
      * multiplies a vector with a constant.
      * @param constant double; the constant
@@ -240,7 +296,18 @@ public abstract class NumericalIntegrator implements Serializable
     }
 
     /**
-     * @return Returns the error.
+     * returns whether the integrator estimates the local error of every step, as the embedded Runge-Kutta methods do. Only
+     * these integrators can be used with an adaptive step size.
+     * @return boolean; whether getError returns the error estimate of the last step
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public boolean hasErrorEstimate()
+    {
+        return false;
+    }
+
+    /**
+     * @return Returns the error. The in-place integrators reuse the array for the error of the next step.
      */
     public double[] getError()
     {
@@ -33,10 +33,35 @@ public class RungeKutta3 extends NumericalIntegrator
     @Override
     public double[] next(final double x, final double[] y)
     {
-        double[] k1 = this.equation.dy(x, y);
-        double[] k2 = this.equation.dy(x + 0.5 * this.timeStep, super.add(y, super.multiply(0.5 * this.timeStep, k1)));
-        double[] k3 = this.equation.dy(x + 0.5 * this.timeStep, super.add(y, super.multiply(0.5 * this.timeStep, k2)));
-        double[] sum = super.add(k1, super.multiply(4.0, k2), k3);
-        return super.add(y, super.multiply(this.timeStep / 6.0, sum));
+        double[] result = new double[y.length];
+        next(x, y, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void next(final double x, final double[] y, final double[] result)
+    {
+        double[][] work = getWorkBuffers(4, y.length);
+        double[] k1 = work[0];
+        double[] k2 = work[1];
+        double[] k3 = work[2];
+        double[] yk = work[3];
+        double halfStep = 0.5 * this.timeStep;
+        evaluate(x, y, k1);
+        for (int i = 0; i < y.length; i++)
+        {
+            yk[i] = y[i] + halfStep * k1[i];
+        }
+        evaluate(x + halfStep, yk, k2);
+        for (int i = 0; i < y.length; i++)
+        {
+            yk[i] = y[i] + halfStep * k2[i];
+        }
+        evaluate(x + halfStep, yk, k3);
+        for (int i = 0; i < y.length; i++)
+        {
+            result[i] = y[i] + this.timeStep / 6.0 * (k1[i] + 4.0 * k2[i] + k3[i]);
+        }
     }
 }
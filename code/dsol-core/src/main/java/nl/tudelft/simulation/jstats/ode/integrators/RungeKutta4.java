@@ -33,11 +33,41 @@ public class RungeKutta4 extends NumericalIntegrator
     @Override
     public double[] next(final double x, final double[] y)
     {
-        double[] k1 = this.equation.dy(x, y);
-        double[] k2 = this.equation.dy(x + 0.5 * this.timeStep, super.add(y, super.multiply(0.5 * this.timeStep, k1)));
-        double[] k3 = this.equation.dy(x + 0.5 * this.timeStep, super.add(y, super.multiply(0.5 * this.timeStep, k2)));
-        double[] k4 = this.equation.dy(x + this.timeStep, super.add(y, super.multiply(this.timeStep, k3)));
-        double[] sum = super.add(k1, super.multiply(2.0, k2), super.multiply(2.0, k3), k4);
-        return super.add(y, super.multiply(this.timeStep / 6.0, sum));
+        double[] result = new double[y.length];
+        next(x, y, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void next(final double x, final double[] y, final double[] result)
+    {
+        double[][] work = getWorkBuffers(5, y.length);
+        double[] k1 = work[0];
+        double[] k2 = work[1];
+        double[] k3 = work[2];
+        double[] k4 = work[3];
+        double[] yk = work[4];
+        double halfStep = 0.5 * this.timeStep;
+        evaluate(x, y, k1);
+        for (int i = 0; i < y.length; i++)
+        {
+            yk[i] = y[i] + halfStep * k1[i];
+        }
+        evaluate(x + halfStep, yk, k2);
+        for (int i = 0; i < y.length; i++)
+        {
+            yk[i] = y[i] + halfStep * k2[i];
+        }
+        evaluate(x + halfStep, yk, k3);
+        for (int i = 0; i < y.length; i++)
+        {
+            yk[i] = y[i] + this.timeStep * k3[i];
+        }
+        evaluate(x + this.timeStep, yk, k4);
+        for (int i = 0; i < y.length; i++)
+        {
+            result[i] = y[i] + this.timeStep / 6.0 * (k1[i] + 2.0 * k2[i] + 2.0 * k3[i] + k4[i]);
+        }
     }
 }
@@ -22,11 +22,14 @@ public class RungeKuttaCashCarp extends NumericalIntegrator
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected static double[] a = new double[]{0d, 1d / 5d, 3d / 10d, 3d / 5d, 1d, 7d / 8d};
 
-    /** the parameters for b_ij, in f(., y_n + b_p1 k1 + bp2 k2 + ...). */
+    /**
+     * the parameters for b_ij, in f(., y_n + b_p1 k1 + bp2 k2 + ...). Column p-2 holds the parameters of stage p, and row j
+     * the parameter for k_j.
+     */
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected static double[][] b =
             new double[][]{{0d, 0d, 0d, 0d, 0d}, {1d / 5d, 3d / 40d, 3d / 10d, -11d / 54d, 1631d / 55296d},
-                    {0d, 9d / 40d, -9d / 10d, 5d / 2d, 175d / 212d}, {0d, 0d, 6d / 5d, -70d / 27d, 575d / 13824d},
+                    {0d, 9d / 40d, -9d / 10d, 5d / 2d, 175d / 512d}, {0d, 0d, 6d / 5d, -70d / 27d, 575d / 13824d},
                     {0d, 0d, 0d, 35 / 27d, 44275d / 110592d}, {0d, 0d, 0d, 0d, 253d / 4096d}};
 
     /** the parameters for c_i, in y_n+1 = y_n + c_1 k_1 + c_2 k_2 + ... */
@@ -56,26 +59,59 @@ public class RungeKuttaCashCarp extends NumericalIntegrator
     @Override
     public double[] next(final double x, final double[] y)
     {
-        double[][] k = new double[nk][];
+        double[] result = new double[y.length];
+        next(x, y, result);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void next(final double x, final double[] y, final double[] result)
+    {
+        double[][] k = getWorkBuffers(nk + 1, y.length);
+        double[] ysum = k[nk];
         for (int i = 0; i < nk; i++)
         {
-            double[] ysum = y.clone();
-            for (int j = 0; j < i; j++)
+            for (int m = 0; m < y.length; m++)
             {
-                if (b[i][j] != 0.0)
+                double sum = y[m];
+                for (int j = 0; j < i; j++)
                 {
-                    ysum = this.add(ysum, this.multiply(b[i][j], k[j]));
+                    if (b[j + 1][i - 1] != 0.0)
+                    {
+                        sum += b[j + 1][i - 1] * k[j][m];
+                    }
                 }
+                ysum[m] = sum;
+            }
+            evaluate(x + a[i] * this.timeStep, ysum, k[i]);
+            for (int m = 0; m < y.length; m++)
+            {
+                k[i][m] *= this.timeStep;
             }
-            k[i] = this.multiply(this.timeStep, this.equation.dy(x + a[i] * this.timeStep, ysum));
         }
-        double[] sum = y.clone();
-        super.error = new double[y.length];
-        for (int i = 0; i < nk; i++)
+        if (super.error == null || super.error.length != y.length)
         {
-            sum = this.add(sum, this.multiply(c[i], k[i]));
-            super.error = this.add(super.error, this.multiply(c[i] - c4[i], k[i]));
+            super.error = new double[y.length];
         }
-        return sum;
+        for (int m = 0; m < y.length; m++)
+        {
+            double sum = y[m];
+            double error = 0.0;
+            for (int i = 0; i < nk; i++)
+            {
+                sum += c[i] * k[i][m];
+                error += (c[i] - c4[i]) * k[i][m];
+            }
+            result[m] = sum;
+            super.error[m] = error;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasErrorEstimate()
+    {
+        return true;
     }
 }
@@ -8,7 +8,8 @@ import nl.tudelft.simulation.event.EventListenerInterface;
 import nl.tudelft.simulation.event.EventType;
 
 /**
- * The Counter class defines a statistics event counter.
+ * The Counter class defines a statistics event counter. Counters that have been filled separately, e.g., per replication
+ * or per thread, can be merged with <code>combine</code>.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -85,13 +86,74 @@ public class Counter extends StatisticsObject implements EventListenerInterface
 
         synchronized (this.semaphore)
         {
-            this.setCount(this.count + value);
-            this.setN(this.n + 1);
-            if (!super.listeners.isEmpty())
+            ingest(value);
+        }
+    }
+
+    /**
+     * processes a measurement that is offered as a primitive value. Contrary to notify, this method takes no lock and does not
+     * box the value; when the counter has no listeners, no objects are allocated at all. The method is therefore meant for a
+     * counter that is updated by a single thread, such as the thread that executes the simulation events. The COUNT_EVENT and
+     * N_EVENT are published when the publication interval says so.
+     * @param value long; the value to add to the counter
+     */
+    public void ingest(final long value)
+    {
+        this.count += value;
+        this.n++;
+        if (isPublicationDue(this.n))
+        {
+            publish();
+        }
+    }
+
+    /**
+     * adds the count and the number of measurements of another counter to this counter, as if the measurements of the other
+     * counter had been offered to this counter as well. This makes it possible to count per replication or per thread, and to
+     * reduce the counters afterwards in constant time. An uninitialized other counter leaves this counter unchanged; an
+     * uninitialized counter is initialized before the merge. The COUNT_EVENT and N_EVENT are published afterwards, unless the
+     * publication interval is 0.
+     * @param other Counter; the counter to merge into this counter
+     */
+    public void combine(final Counter other)
+    {
+        long otherCount;
+        long otherN;
+        synchronized (other.semaphore)
+        {
+            if (!other.isInitialized())
+            {
+                return;
+            }
+            otherCount = other.count;
+            otherN = other.n;
+        }
+        synchronized (this.semaphore)
+        {
+            if (!isInitialized())
             {
-                this.fireEvent(Counter.COUNT_EVENT, this.count);
-                this.fireEvent(Counter.N_EVENT, this.n);
+                initialize();
             }
+            this.count += otherCount;
+            this.n += otherN;
+            if (getPublicationInterval() > 0)
+            {
+                publish();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void publish()
+    {
+        if (hasListeners(Counter.COUNT_EVENT))
+        {
+            this.fireEvent(Counter.COUNT_EVENT, this.count);
+        }
+        if (hasListeners(Counter.N_EVENT))
+        {
+            this.fireEvent(Counter.N_EVENT, this.n);
         }
     }
 
@@ -0,0 +1,300 @@
+package nl.tudelft.simulation.jstats.statistics;
+
+import java.util.Arrays;
+
+/**
+ * The LogLinearHistogram class counts samples in a histogram with a fixed relative accuracy, in the style of the
+ * HdrHistogram of Gil Tene. The range of values is divided into buckets that each cover a power of two, and every bucket is
+ * divided linearly into sub-buckets, so the width of a sub-bucket is a fixed fraction of the values it holds. With d
+ * significant digits, a sample is counted in a sub-bucket whose width is at most 10<sup>-d</sup> times its value, or at most
+ * the lowest discernible value for small values. The memory is fixed at construction: recording a sample is an index
+ * computation and an increment, without allocation, and quantiles are found by a scan over the counts. Counts of histograms
+ * with the same configuration can be added exactly, so the merge of histograms of replications or threads does not depend on
+ * the merge order.
+ * <p>
+ * The histogram records nonnegative values, such as waiting times. Values above the highest trackable value are counted as
+ * overflow; their quantiles are estimated by the maximum.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class LogLinearHistogram extends QuantileEstimator
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the lowest discernible value, which is the width of the sub-buckets of the first bucket. */
+    private final double lowestDiscernibleValue;
+
+    /** the highest trackable value. */
+    private final double highestTrackableValue;
+
+    /** the number of significant decimal digits. */
+    private final int significantDigits;
+
+    /** the number of bits of the sub-bucket index. */
+    private final int subBucketBits;
+
+    /** the number of sub-buckets of the first bucket, 2<sup>subBucketBits</sup>. */
+    private final int subBucketCount;
+
+    /** half the number of sub-buckets; the buckets above the first each add this number of sub-buckets. */
+    private final int subBucketHalfCount;
+
+    /** the counts per sub-bucket. */
+    private final long[] counts;
+
+    /** the number of samples above the highest trackable value. */
+    private long overflow = 0;
+
+    /**
+     * Constructs a new LogLinearHistogram.
+     * @param description String; the description of this histogram
+     * @param lowestDiscernibleValue double; the smallest difference between values that is distinguished, e.g., 0.001
+     * @param highestTrackableValue double; the highest value that is counted in the buckets
+     * @param significantDigits int; the number of significant decimal digits of the counted values, between 1 and 5
+     * @throws IllegalArgumentException when the values or the number of digits are out of range
+     */
+    public LogLinearHistogram(final String description, final double lowestDiscernibleValue,
+            final double highestTrackableValue, final int significantDigits)
+    {
+        super(description);
+        if (!(lowestDiscernibleValue > 0.0) || Double.isInfinite(lowestDiscernibleValue))
+        {
+            throw new IllegalArgumentException("lowestDiscernibleValue should be positive and finite");
+        }
+        if (!(highestTrackableValue >= 2.0 * lowestDiscernibleValue) || Double.isInfinite(highestTrackableValue))
+        {
+            throw new IllegalArgumentException("highestTrackableValue should be finite and >= 2 * lowestDiscernibleValue");
+        }
+        if (significantDigits < 1 || significantDigits > 5)
+        {
+            throw new IllegalArgumentException("significantDigits not in [1, 5]: " + significantDigits);
+        }
+        this.lowestDiscernibleValue = lowestDiscernibleValue;
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+        this.subBucketBits = (int) Math.ceil(Math.log(2.0 * Math.pow(10.0, significantDigits)) / Math.log(2.0));
+        this.subBucketCount = 1 << this.subBucketBits;
+        this.subBucketHalfCount = this.subBucketCount / 2;
+        this.counts = new long[index(highestTrackableValue / lowestDiscernibleValue) + 1];
+    }
+
+    /**
+     * returns the index of the sub-bucket of a value. Values below subBucketCount are counted in the linear first bucket with
+     * width 1; a larger value with binary exponent e is counted in bucket b = e - subBucketBits + 1, in which the sub-buckets
+     * have width 2<sup>b</sup>.
+     * @param scaled double; the value, divided by the lowest discernible value
+     * @return int; the index of the sub-bucket
+     */
+    private int index(final double scaled)
+    {
+        if (scaled < this.subBucketCount)
+        {
+            return (int) scaled;
+        }
+        int bucket = Math.getExponent(scaled) - this.subBucketBits + 1;
+        return bucket * this.subBucketHalfCount + (int) Math.scalb(scaled, -bucket);
+    }
+
+    /**
+     * returns the lowest value that is counted in a sub-bucket.
+     * @param index int; the index of the sub-bucket
+     * @return double; the lowest value of the sub-bucket
+     */
+    private double lowestValue(final int index)
+    {
+        if (index < this.subBucketCount)
+        {
+            return index * this.lowestDiscernibleValue;
+        }
+        int bucket = index / this.subBucketHalfCount - 1;
+        return Math.scalb((double) (index - bucket * this.subBucketHalfCount), bucket) * this.lowestDiscernibleValue;
+    }
+
+    /**
+     * returns the width of a sub-bucket.
+     * @param index int; the index of the sub-bucket
+     * @return double; the width of the sub-bucket
+     */
+    private double width(final int index)
+    {
+        if (index < this.subBucketCount)
+        {
+            return this.lowestDiscernibleValue;
+        }
+        return Math.scalb(this.lowestDiscernibleValue, index / this.subBucketHalfCount - 1);
+    }
+
+    /**
+     * returns the lowest discernible value.
+     * @return double; the lowest discernible value
+     */
+    public final double getLowestDiscernibleValue()
+    {
+        return this.lowestDiscernibleValue;
+    }
+
+    /**
+     * returns the highest trackable value.
+     * @return double; the highest trackable value
+     */
+    public final double getHighestTrackableValue()
+    {
+        return this.highestTrackableValue;
+    }
+
+    /**
+     * returns the number of significant decimal digits.
+     * @return int; the number of significant digits
+     */
+    public final int getSignificantDigits()
+    {
+        return this.significantDigits;
+    }
+
+    /**
+     * returns the number of sub-buckets, which determines the memory use of the histogram.
+     * @return int; the number of sub-buckets
+     */
+    public final int getBucketCount()
+    {
+        return this.counts.length;
+    }
+
+    /**
+     * returns the number of samples above the highest trackable value.
+     * @return long; the number of samples above the highest trackable value
+     */
+    public final long getOverflow()
+    {
+        return this.overflow;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final void clear()
+    {
+        Arrays.fill(this.counts, 0L);
+        this.overflow = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException when the value is negative
+     */
+    @Override
+    protected final void record(final double value)
+    {
+        if (value < 0.0)
+        {
+            throw new IllegalArgumentException("LogLinearHistogram does not accept negative value " + value);
+        }
+        if (value > this.highestTrackableValue)
+        {
+            this.overflow++;
+            return;
+        }
+        this.counts[index(value / this.lowestDiscernibleValue)]++;
+    }
+
+    /**
+     * The quantile is the middle of the sub-bucket that contains the sample with rank ceil(probability * n).
+     * @param probability double; the probability, strictly between 0 and 1
+     * @return double; the estimate of the quantile
+     */
+    @Override
+    protected final double quantile(final double probability)
+    {
+        long rank = Math.max(1L, (long) Math.ceil(probability * this.n));
+        long cumulative = 0;
+        for (int i = 0; i < this.counts.length; i++)
+        {
+            cumulative += this.counts[i];
+            if (cumulative >= rank)
+            {
+                return lowestValue(i) + width(i) / 2.0;
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * The cumulative probability counts all samples in the sub-buckets below the sub-bucket of the value, and the samples in
+     * the sub-bucket of the value in proportion to the part of the sub-bucket up to the value.
+     * @param value double; the value, at least the minimum and smaller than the maximum
+     * @return double; the estimate of the fraction of the samples that is smaller than or equal to the value
+     */
+    @Override
+    protected final double cumulativeProbability(final double value)
+    {
+        if (value > this.highestTrackableValue)
+        {
+            return (double) (this.n - this.overflow) / this.n;
+        }
+        int index = index(Math.max(0.0, value) / this.lowestDiscernibleValue);
+        long cumulative = 0;
+        for (int i = 0; i < index; i++)
+        {
+            cumulative += this.counts[i];
+        }
+        double fraction = Math.min(1.0, (value - lowestValue(index)) / width(index));
+        return (cumulative + fraction * this.counts[index]) / this.n;
+    }
+
+    /**
+     * adds the counts of another histogram to the counts of this histogram, as if the samples of the other histogram had been
+     * offered to this histogram as well. The result is exact, so it does not depend on the order in which histograms are
+     * combined. An uninitialized or empty other histogram leaves this histogram unchanged; an uninitialized histogram is
+     * initialized before the merge.
+     * @param other LogLinearHistogram; the histogram to merge into this histogram
+     * @throws IllegalArgumentException when the other histogram has a different lowest discernible value, highest trackable
+     *             value, or number of significant digits
+     */
+    public void combine(final LogLinearHistogram other)
+    {
+        if (other.lowestDiscernibleValue != this.lowestDiscernibleValue
+                || other.highestTrackableValue != this.highestTrackableValue
+                || other.significantDigits != this.significantDigits)
+        {
+            throw new IllegalArgumentException("LogLinearHistogram " + other + " has a different configuration than " + this);
+        }
+        long otherN;
+        double otherMin;
+        double otherMax;
+        long otherOverflow;
+        long[] otherCounts;
+        synchronized (other.semaphore)
+        {
+            if (!other.isInitialized() || other.n == 0)
+            {
+                return;
+            }
+            otherN = other.n;
+            otherMin = other.min;
+            otherMax = other.max;
+            otherOverflow = other.overflow;
+            otherCounts = other.counts.clone();
+        }
+        synchronized (this.semaphore)
+        {
+            if (!isInitialized())
+            {
+                initialize();
+            }
+            for (int i = 0; i < this.counts.length; i++)
+            {
+                this.counts[i] += otherCounts[i];
+            }
+            this.overflow += otherOverflow;
+            combineSummary(otherN, otherMin, otherMax);
+        }
+    }
+}
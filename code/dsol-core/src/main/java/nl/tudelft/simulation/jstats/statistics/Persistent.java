@@ -8,7 +8,9 @@ import nl.tudelft.simulation.event.EventType;
 import nl.tudelft.simulation.event.TimedEvent;
 
 /**
- * The Persistent class defines a statistics event persistent. A Persistent is a time-averaged tally.
+ * The Persistent class defines a statistics event persistent. A Persistent is a time-averaged tally. Persistents that have
+ * been filled separately, e.g., per replication, can be merged with <code>combine</code>, which weighs them with the
+ * durations of their observation periods.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
@@ -98,80 +100,181 @@ public class Persistent extends Tally
             throw new IllegalArgumentException("Persistent: event != TimedEvent || event.conent != Number ("
                     + event.getContent().getClass().toString() + ")");
         }
-        if (event instanceof TimedEvent<?>)
+        TimedEvent<?> timedEvent = (TimedEvent<?>) event;
+        double value = ((Number) event.getContent()).doubleValue();
+        double timestamp = 0;
+        if (timedEvent.getTimeStamp() instanceof Number)
         {
-            TimedEvent<?> timedEvent = (TimedEvent<?>) event;
-            double value = 0.0;
-            if (event.getContent() instanceof Number)
-            {
-                value = ((Number) event.getContent()).doubleValue();
-            }
-            else
-            {
-                SimLogger.always().warn("Persistent.notify: Content {} should be a Number", event.getContent());
-            }
+            timestamp = ((Number) timedEvent.getTimeStamp()).doubleValue();
+        }
+        else if (timedEvent.getTimeStamp() instanceof Calendar)
+        {
+            timestamp = ((Calendar) timedEvent.getTimeStamp()).getTimeInMillis();
+        }
+        else
+        {
+            SimLogger.always().warn("Persistent.notify: Timestamp {} should be a Number or Calendar", event.getContent());
+        }
 
-            synchronized (this.semaphore)
+        synchronized (this.semaphore)
+        {
+            if (hasListeners(Persistent.VALUE_EVENT))
             {
                 @SuppressWarnings({"rawtypes", "unchecked"})
                 TimedEvent lastValueEvent =
                         new TimedEvent(Persistent.VALUE_EVENT, this, this.lastValue, timedEvent.getTimeStamp());
                 fireEvent(lastValueEvent);
                 @SuppressWarnings({"rawtypes", "unchecked"})
-                TimedEvent valueEvent =
-                        new TimedEvent(Persistent.VALUE_EVENT, this, value, timedEvent.getTimeStamp());
+                TimedEvent valueEvent = new TimedEvent(Persistent.VALUE_EVENT, this, value, timedEvent.getTimeStamp());
                 fireEvent(valueEvent);
-                double timestamp = 0;
-                if (timedEvent.getTimeStamp() instanceof Number)
-                {
-                    timestamp = ((Number) timedEvent.getTimeStamp()).doubleValue();
-                }
-                else if (timedEvent.getTimeStamp() instanceof Calendar)
-                {
-                    timestamp = ((Calendar) timedEvent.getTimeStamp()).getTimeInMillis();
-                }
-                else
-                {
-                    SimLogger.always().warn("Persistent.notify: Timestamp {} should be a Number or Calendar",
-                            event.getContent());
-                }
-                super.setN(super.n + 1); // we increase the number of measurements.
-                if (value < super.min)
-                {
-                    super.setMin(value);
-                }
-                if (value > super.max)
-                {
-                    super.setMax(value);
-                }
-                super.setSum(super.sum + value);
-
-                // see Knuth's The Art Of Computer Programming Volume II: Seminumerical Algorithms
-                if (this.n == 1)
-                {
-                    super.setSampleMean(value);
-                    this.startTime = timestamp;
-                }
-                else
-                {
-                    this.deltaTime = timestamp - (this.elapsedTime + this.startTime);
-                    if (this.deltaTime > 0.0)
-                    {
-                        double newAverage = ((super.sampleMean * (this.elapsedTime)) + (this.lastValue * this.deltaTime))
-                                / (this.elapsedTime + this.deltaTime);
-                        super.varianceSum +=
-                                (this.lastValue - super.sampleMean) * (this.lastValue - newAverage) * this.deltaTime;
-                        super.setSampleMean(newAverage);
-                        this.elapsedTime = this.elapsedTime + this.deltaTime;
-                    }
-                }
-                if (this.n > 1)
-                {
-                    super.fireEvent(Tally.STANDARD_DEVIATION_EVENT, this.getStdDev());
-                    this.fireEvent(Tally.SAMPLE_VARIANCE_EVENT, this.getSampleVariance());
-                }
-                this.lastValue = value;
             }
+            accumulate(timestamp, value);
+        }
+    }
+
+    /**
+     * processes a sample without a timestamp. A Persistent weighs its samples with the time during which they hold, so the
+     * sample is taken one time unit after the latest sample, or at time 0.0 when it is the first sample: a series of untimed
+     * samples is weighed as a series of equidistant samples. Like ingest(timestamp, value), this method takes no lock.
+     * @param value double; the value of the sample
+     */
+    @Override
+    public void ingest(final double value)
+    {
+        ingest(super.n > 0 ? this.startTime + this.elapsedTime + 1.0 : 0.0, value);
+    }
+
+    /**
+     * processes a sample that is offered as primitive values. Contrary to notify, this method takes no lock and does not box
+     * the values; when the persistent has no listeners, no objects are allocated at all. The method is therefore meant for a
+     * persistent that is updated by a single thread, such as the thread that executes the simulation events. The derived
+     * statistics are published when the publication interval says so.
+     * @param timestamp double; the time from which the value holds
+     * @param value double; the value of the sample
+     */
+    public void ingest(final double timestamp, final double value)
+    {
+        if (hasListeners(Persistent.VALUE_EVENT))
+        {
+            Double time = Double.valueOf(timestamp);
+            fireTimedEvent(Persistent.VALUE_EVENT, this.lastValue, time);
+            fireTimedEvent(Persistent.VALUE_EVENT, value, time);
+        }
+        accumulate(timestamp, value);
+    }
+
+    /**
+     * merges the time-weighted statistics of another persistent into this persistent. The observation period of the other
+     * persistent is appended to the observation period of this persistent, so the means and the variances are combined with
+     * the durations of the periods as weights, using the parallel algorithm of Chan, Golub and LeVeque. The merge takes
+     * constant time and is deterministic for a fixed merge order. The combined persistent is meant to report the statistics
+     * over all periods, e.g., over all replications; it does not make sense to offer it new samples afterwards, since there is
+     * no common time line. An uninitialized or empty other persistent leaves this persistent unchanged.
+     * @param other Tally; the persistent to merge into this persistent
+     * @throws IllegalArgumentException when the other tally is not a Persistent
+     */
+    @Override
+    public void combine(final Tally other)
+    {
+        if (!(other instanceof Persistent))
+        {
+            throw new IllegalArgumentException("Persistent can only combine another Persistent, not " + other);
+        }
+        Persistent persistent = (Persistent) other;
+        long otherN;
+        double otherSum;
+        double otherMin;
+        double otherMax;
+        double otherMean;
+        double otherVarianceSum;
+        double otherStartTime;
+        double otherElapsedTime;
+        double otherDeltaTime;
+        double otherLastValue;
+        synchronized (persistent.semaphore)
+        {
+            if (!persistent.isInitialized() || persistent.n == 0)
+            {
+                return;
+            }
+            otherN = persistent.n;
+            otherSum = persistent.sum;
+            otherMin = persistent.min;
+            otherMax = persistent.max;
+            otherMean = persistent.sampleMean;
+            otherVarianceSum = persistent.varianceSum;
+            otherStartTime = persistent.startTime;
+            otherElapsedTime = persistent.elapsedTime;
+            otherDeltaTime = persistent.deltaTime;
+            otherLastValue = persistent.lastValue;
+        }
+        synchronized (this.semaphore)
+        {
+            if (!isInitialized())
+            {
+                initialize();
+            }
+            if (super.n == 0)
+            {
+                super.sampleMean = otherMean;
+                super.varianceSum = otherVarianceSum;
+                this.startTime = otherStartTime;
+                this.lastValue = otherLastValue;
+            }
+            else if (otherElapsedTime > 0.0)
+            {
+                double newElapsedTime = this.elapsedTime + otherElapsedTime;
+                double delta = otherMean - super.sampleMean;
+                super.sampleMean += delta * otherElapsedTime / newElapsedTime;
+                super.varianceSum += otherVarianceSum + delta * delta * this.elapsedTime * otherElapsedTime / newElapsedTime;
+            }
+            // the variance is normalized per period with the elapsed time minus the duration of the last interval
+            this.elapsedTime += otherElapsedTime;
+            this.deltaTime += otherDeltaTime;
+            super.n += otherN;
+            super.sum += otherSum;
+            updateExtremes(otherMin);
+            updateExtremes(otherMax);
+            if (getPublicationInterval() > 0)
+            {
+                publish();
+            }
+        }
+    }
+
+    /**
+     * updates the time-weighted statistics with a new sample.
+     * @param timestamp double; the time from which the value holds
+     * @param value double; the value of the sample
+     */
+    private void accumulate(final double timestamp, final double value)
+    {
+        super.n++; // we increase the number of measurements.
+        updateExtremes(value);
+        super.sum += value;
+
+        // see Knuth's The Art Of Computer Programming Volume II: Seminumerical Algorithms
+        if (this.n == 1)
+        {
+            super.sampleMean = value;
+            this.startTime = timestamp;
+        }
+        else
+        {
+            this.deltaTime = timestamp - (this.elapsedTime + this.startTime);
+            if (this.deltaTime > 0.0)
+            {
+                double newAverage = ((super.sampleMean * (this.elapsedTime)) + (this.lastValue * this.deltaTime))
+                        / (this.elapsedTime + this.deltaTime);
+                super.varianceSum += (this.lastValue - super.sampleMean) * (this.lastValue - newAverage) * this.deltaTime;
+                super.sampleMean = newAverage;
+                this.elapsedTime = this.elapsedTime + this.deltaTime;
+            }
+        }
+        this.lastValue = value;
+        if (isPublicationDue(this.n))
+        {
+            publish();
         }
     }
 }
@@ -0,0 +1,448 @@
+package nl.tudelft.simulation.jstats.statistics;
+
+import javax.swing.table.TableModel;
+
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.event.EventType;
+
+/**
+ * The QuantileEstimator class is the abstract parent of the statistics objects that estimate the quantiles (percentiles) of
+ * a stream of samples in a fixed amount of memory, without storing the samples themselves. Next to the quantiles, the
+ * estimators keep the exact number of samples, minimum and maximum. Like the Tally, samples can be offered as events through
+ * <code>notify</code>, which synchronizes on the semaphore of the estimator, or as primitive values through
+ * <code>ingest</code>, which takes no lock and does not box the value. The minimum, maximum and the reported quantiles are
+ * published as events according to the publication interval.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public abstract class QuantileEstimator extends StatisticsObject implements EventListenerInterface
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** N_EVENT is fired whenever the number of samples changes. */
+    public static final EventType N_EVENT = new EventType("N_EVENT");
+
+    /** MIN_EVENT is fired whenever a new minimum value has been reached. */
+    public static final EventType MIN_EVENT = new EventType("MIN_EVENT");
+
+    /** MAX_EVENT is fired whenever a new maximum value has been reached. */
+    public static final EventType MAX_EVENT = new EventType("MAX_EVENT");
+
+    /** QUANTILES_EVENT is fired with a double[] of the estimates of the reported quantiles. */
+    public static final EventType QUANTILES_EVENT = new EventType("QUANTILES_EVENT");
+
+    /** the probabilities of the quantiles that are reported by default: the median and the 90th, 95th and 99th percentile. */
+    private static final double[] DEFAULT_REPORTED_PROBABILITIES = {0.5, 0.9, 0.95, 0.99};
+
+    /** description refers to the description of this estimator. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected String description;
+
+    /** n refers to the number of samples. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected long n = Long.MIN_VALUE;
+
+    /** min refers to the smallest sample. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected double min = Double.NaN;
+
+    /** max refers to the largest sample. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected double max = Double.NaN;
+
+    /** the semaphore. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected Object semaphore = new Object();
+
+    /** the probabilities of the quantiles that are published and shown in the table. */
+    private double[] reportedProbabilities = DEFAULT_REPORTED_PROBABILITIES.clone();
+
+    /** whether a new minimum has been reached since the last publication. */
+    private boolean minChanged = false;
+
+    /** whether a new maximum has been reached since the last publication. */
+    private boolean maxChanged = false;
+
+    /**
+     * Constructs a new QuantileEstimator.
+     * @param description String; the description of this estimator
+     */
+    public QuantileEstimator(final String description)
+    {
+        super();
+        this.description = description;
+    }
+
+    /**
+     * initializes the estimator. This method forgets all samples.
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public void initialize()
+    {
+        synchronized (this.semaphore)
+        {
+            this.n = 0;
+            this.min = Double.MAX_VALUE;
+            this.max = -Double.MAX_VALUE;
+            this.minChanged = false;
+            this.maxChanged = false;
+            clear();
+        }
+    }
+
+    /**
+     * is this estimator initialized?
+     * @return true whenever this.initialize is invoked.
+     */
+    public final boolean isInitialized()
+    {
+        return this.n != Long.MIN_VALUE;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public void notify(final EventInterface event)
+    {
+        if (!(event.getContent() instanceof Number))
+        {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " does not accept " + event);
+        }
+        double value = ((Number) event.getContent()).doubleValue();
+
+        synchronized (this.semaphore)
+        {
+            ingest(value);
+        }
+    }
+
+    /**
+     * processes a sample that is offered as a primitive value. Contrary to notify, this method takes no lock and does not box
+     * the value, and it allocates no objects as long as the estimator has no listeners. The method is therefore meant for an
+     * estimator that is updated by a single thread, such as the thread that executes the simulation events. The statistics
+     * are published when the publication interval says so.
+     * @param value double; the value of the sample
+     * @throws IllegalArgumentException when the value is NaN, or cannot be recorded by the estimator
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public void ingest(final double value)
+    {
+        if (Double.isNaN(value))
+        {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " does not accept NaN");
+        }
+        record(value);
+        this.n++;
+        if (value < this.min)
+        {
+            this.min = value;
+            this.minChanged = true;
+        }
+        if (value > this.max)
+        {
+            this.max = value;
+            this.maxChanged = true;
+        }
+        if (isPublicationDue(this.n))
+        {
+            publish();
+        }
+    }
+
+    /**
+     * returns the estimate of the quantile for a probability, i.e., the value below which the given fraction of the samples
+     * lies. The quantile for probability 0 is the minimum, and the quantile for probability 1 the maximum of the samples.
+     * @param probability double; the probability, between 0 and 1 (inclusive)
+     * @return double; the estimate of the quantile, or NaN when there are no samples
+     * @throws IllegalArgumentException when the probability is not between 0 and 1
+     */
+    public final double getQuantile(final double probability)
+    {
+        if (!(probability >= 0.0 && probability <= 1.0))
+        {
+            throw new IllegalArgumentException("probability not in [0, 1]: " + probability);
+        }
+        synchronized (this.semaphore)
+        {
+            if (this.n <= 0)
+            {
+                return Double.NaN;
+            }
+            if (probability == 0.0)
+            {
+                return this.min;
+            }
+            if (probability == 1.0)
+            {
+                return this.max;
+            }
+            return Math.max(this.min, Math.min(this.max, quantile(probability)));
+        }
+    }
+
+    /**
+     * returns the estimates of the quantiles for a number of probabilities.
+     * @param probabilities double...; the probabilities, each between 0 and 1 (inclusive)
+     * @return double[]; the estimates of the quantiles, in the order of the probabilities
+     * @throws IllegalArgumentException when one of the probabilities is not between 0 and 1
+     */
+    public final double[] getQuantiles(final double... probabilities)
+    {
+        double[] result = new double[probabilities.length];
+        for (int i = 0; i < probabilities.length; i++)
+        {
+            result[i] = getQuantile(probabilities[i]);
+        }
+        return result;
+    }
+
+    /**
+     * returns the estimate of the fraction of the samples that is smaller than or equal to a value.
+     * @param value double; the value
+     * @return double; the estimate of the cumulative probability of the value, or NaN when there are no samples
+     */
+    public final double getCumulativeProbability(final double value)
+    {
+        synchronized (this.semaphore)
+        {
+            if (this.n <= 0)
+            {
+                return Double.NaN;
+            }
+            if (value < this.min)
+            {
+                return 0.0;
+            }
+            if (value >= this.max)
+            {
+                return 1.0;
+            }
+            return Math.max(0.0, Math.min(1.0, cumulativeProbability(value)));
+        }
+    }
+
+    /**
+     * forgets all samples of the estimator; called from initialize.
+     */
+    protected abstract void clear();
+
+    /**
+     * records a sample in the estimator. The number of samples, the minimum and the maximum have not yet been updated.
+     * @param value double; the value of the sample, not NaN
+     */
+    protected abstract void record(double value);
+
+    /**
+     * estimates the quantile for a probability. The result is clipped to the minimum and maximum by the caller.
+     * @param probability double; the probability, strictly between 0 and 1
+     * @return double; the estimate of the quantile
+     */
+    protected abstract double quantile(double probability);
+
+    /**
+     * estimates the cumulative probability of a value. The result is clipped to [0, 1] by the caller.
+     * @param value double; the value, at least the minimum and smaller than the maximum
+     * @return double; the estimate of the fraction of the samples that is smaller than or equal to the value
+     */
+    protected abstract double cumulativeProbability(double value);
+
+    /**
+     * adds the number of samples and the extremes of another estimator to the ones of this estimator, and publishes the
+     * statistics, unless the publication interval is 0. To be called by the combine methods of the subclasses, after they
+     * have merged the estimates, while holding the semaphore.
+     * @param otherN long; the number of samples of the other estimator
+     * @param otherMin double; the minimum of the other estimator
+     * @param otherMax double; the maximum of the other estimator
+     */
+    protected final void combineSummary(final long otherN, final double otherMin, final double otherMax)
+    {
+        this.n += otherN;
+        if (otherMin < this.min)
+        {
+            this.min = otherMin;
+            this.minChanged = true;
+        }
+        if (otherMax > this.max)
+        {
+            this.max = otherMax;
+            this.maxChanged = true;
+        }
+        if (getPublicationInterval() > 0)
+        {
+            publish();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void publish()
+    {
+        if (numberOfListeners() > 0)
+        {
+            fireStatistics(this.minChanged, this.maxChanged);
+        }
+        this.minChanged = false;
+        this.maxChanged = false;
+    }
+
+    /**
+     * fires the events with the current values of the statistics. Only the events that have listeners are constructed; the
+     * quantiles are only estimated when the QUANTILES_EVENT has listeners. The MIN_EVENT and MAX_EVENT are only fired when a
+     * new minimum or maximum has been reached since the previous publication.
+     * @param newMin boolean; whether a new minimum has been reached since the previous publication
+     * @param newMax boolean; whether a new maximum has been reached since the previous publication
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    protected void fireStatistics(final boolean newMin, final boolean newMax)
+    {
+        if (hasListeners(N_EVENT))
+        {
+            this.fireEvent(N_EVENT, this.n);
+        }
+        if (newMin && hasListeners(MIN_EVENT))
+        {
+            this.fireEvent(MIN_EVENT, this.min);
+        }
+        if (newMax && hasListeners(MAX_EVENT))
+        {
+            this.fireEvent(MAX_EVENT, this.max);
+        }
+        if (hasListeners(QUANTILES_EVENT))
+        {
+            this.fireEvent(QUANTILES_EVENT, getQuantiles(this.reportedProbabilities));
+        }
+    }
+
+    /**
+     * sets the probabilities of the quantiles that are published with the QUANTILES_EVENT and shown in the table.
+     * @param probabilities double...; the probabilities, each between 0 and 1 (inclusive)
+     * @throws IllegalArgumentException when one of the probabilities is not between 0 and 1
+     */
+    public final void setReportedProbabilities(final double... probabilities)
+    {
+        for (double probability : probabilities)
+        {
+            if (!(probability >= 0.0 && probability <= 1.0))
+            {
+                throw new IllegalArgumentException("probability not in [0, 1]: " + probability);
+            }
+        }
+        this.reportedProbabilities = probabilities.clone();
+    }
+
+    /**
+     * returns the probabilities of the quantiles that are published with the QUANTILES_EVENT and shown in the table.
+     * @return double[]; a copy of the reported probabilities
+     */
+    public final double[] getReportedProbabilities()
+    {
+        return this.reportedProbabilities.clone();
+    }
+
+    /**
+     * returns the description of this estimator.
+     * @return String; the description
+     */
+    public final String getDescription()
+    {
+        return this.description;
+    }
+
+    /**
+     * Returns the number of samples.
+     * @return long; the number of samples
+     */
+    public final long getN()
+    {
+        return this.n;
+    }
+
+    /**
+     * Returns the smallest sample.
+     * @return double; the minimum
+     */
+    public final double getMin()
+    {
+        return this.min;
+    }
+
+    /**
+     * Returns the largest sample.
+     * @return double; the maximum
+     */
+    public final double getMax()
+    {
+        return this.max;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final TableModel getTable()
+    {
+        final double[] probabilities = this.reportedProbabilities;
+        String[] columnNames = {"field", "value"};
+        EventType[] eventTypes = new EventType[4 + probabilities.length];
+        eventTypes[1] = N_EVENT;
+        eventTypes[2] = MIN_EVENT;
+        eventTypes[3] = MAX_EVENT;
+        StatisticsTableModel result = new StatisticsTableModel(columnNames, eventTypes, eventTypes.length)
+        {
+            /** */
+            private static final long serialVersionUID = 20190601L;
+
+            /** {@inheritDoc} */
+            @Override
+            public void notify(final EventInterface event)
+            {
+                if (event.getType().equals(QUANTILES_EVENT))
+                {
+                    double[] quantiles = (double[]) event.getContent();
+                    for (int i = 0; i < quantiles.length && i < probabilities.length; i++)
+                    {
+                        setValueAt(quantiles[i], 4 + i, 1);
+                    }
+                }
+                else
+                {
+                    super.notify(event);
+                }
+            }
+        };
+        this.addListener(result, N_EVENT, true);
+        this.addListener(result, MIN_EVENT, true);
+        this.addListener(result, MAX_EVENT, true);
+        this.addListener(result, QUANTILES_EVENT, true);
+
+        result.setValueAt("name", 0, 0);
+        result.setValueAt("n", 1, 0);
+        result.setValueAt("min", 2, 0);
+        result.setValueAt("max", 3, 0);
+        result.setValueAt(this.description, 0, 1);
+        result.setValueAt(this.n, 1, 1);
+        result.setValueAt(this.min, 2, 1);
+        result.setValueAt(this.max, 3, 1);
+        for (int i = 0; i < probabilities.length; i++)
+        {
+            result.setValueAt("p" + 100.0 * probabilities[i], 4 + i, 0);
+            result.setValueAt(isInitialized() ? getQuantile(probabilities[i]) : Double.NaN, 4 + i, 1);
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("checkstyle:designforextension")
+    public String toString()
+    {
+        return this.description;
+    }
+}
@@ -14,7 +14,10 @@ import nl.tudelft.simulation.jstats.Swingable;
 
 /**
  * The StatisticsObject class defines a statistics object. This abstract class is used to create general table
- * representations for the Counter, the Tally and the Persistent.
+ * representations for the Counter, the Tally and the Persistent. It also governs how often the statistics publish their
+ * values as events: after every sample (the default), after every n-th sample, or only when <code>publish()</code> is called.
+ * The samples themselves are always processed; the publication interval only determines how often the listeners are
+ * informed about the resulting statistics.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -31,6 +34,9 @@ public abstract class StatisticsObject extends EventProducer implements Swingabl
     /** */
     private static final long serialVersionUID = 20140804L;
 
+    /** the number of samples between two publications of the statistics; 0 means only on a call of publish(). */
+    private long publicationInterval = 1L;
+
     /**
      * represents the statistics object as Table.
      * @return TableModel the result
@@ -38,6 +44,46 @@ public abstract class StatisticsObject extends EventProducer implements Swingabl
      */
     public abstract TableModel getTable() throws RemoteException;
 
+    /**
+     * fires the events with the current values of the statistics to the listeners. Nothing is fired, and nothing is
+     * allocated, when the statistics object has no listeners.
+     */
+    public abstract void publish();
+
+    /**
+     * sets the number of samples between two publications of the statistics. An interval of 1 publishes the statistics
+     * after every sample, an interval of n after every n-th sample, and an interval of 0 only when publish() is called.
+     * @param publicationInterval long; the number of samples between two publications, or 0 to publish on demand only
+     * @throws IllegalArgumentException when the interval is negative
+     */
+    public final void setPublicationInterval(final long publicationInterval)
+    {
+        if (publicationInterval < 0)
+        {
+            throw new IllegalArgumentException("publicationInterval < 0");
+        }
+        this.publicationInterval = publicationInterval;
+    }
+
+    /**
+     * returns the number of samples between two publications of the statistics.
+     * @return long; the number of samples between two publications, or 0 when the statistics are published on demand only
+     */
+    public final long getPublicationInterval()
+    {
+        return this.publicationInterval;
+    }
+
+    /**
+     * returns whether the statistics should be published after the given number of samples.
+     * @param samples long; the number of samples that has been processed
+     * @return boolean; whether a publication is due
+     */
+    protected final boolean isPublicationDue(final long samples)
+    {
+        return this.publicationInterval > 0 && samples % this.publicationInterval == 0;
+    }
+
     /**
      * represents this statisticsObject as Container.
      * @return Container; the result
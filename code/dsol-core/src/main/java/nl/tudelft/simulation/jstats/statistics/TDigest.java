@@ -0,0 +1,384 @@
+package nl.tudelft.simulation.jstats.statistics;
+
+import java.util.Arrays;
+
+/**
+ * The TDigest class estimates quantiles with the merging t-digest of Dunning and Ertl (Computing Extremely Accurate
+ * Quantiles Using t-Digests, 2019). The samples are summarized in a sorted list of centroids, each with a mean and a weight.
+ * The scale function k(q) = compression / (2 pi) asin(2q - 1) limits the weight of the centroids, so they are small in the
+ * tails and large around the median: the relative accuracy is best for the extreme quantiles, such as the 99th or 99.9th
+ * percentile, which matters most for service levels. The number of centroids is bounded by the compression, whatever the
+ * number of samples; samples are collected in a buffer, which is sorted and merged into the centroids when it is full.
+ * Ingesting a sample therefore allocates nothing, and takes constant amortized time.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class TDigest extends QuantileEstimator
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the default compression, which gives about 60 centroids, and errors in the rank of the quantiles below 0.1%. */
+    public static final double DEFAULT_COMPRESSION = 100.0;
+
+    /** the compression; the number of centroids is at most about the compression. */
+    private final double compression;
+
+    /** the normalizer of the scale function: compression / (2 pi). */
+    private final double normalizer;
+
+    /** the means of the centroids, in ascending order. */
+    private double[] mean;
+
+    /** the weights of the centroids. */
+    private double[] weight;
+
+    /** the means of the centroids during a merge. */
+    private double[] mergedMean;
+
+    /** the weights of the centroids during a merge. */
+    private double[] mergedWeight;
+
+    /** the number of centroids. */
+    private int centroids = 0;
+
+    /** the total weight of the centroids. */
+    private double totalWeight = 0.0;
+
+    /** the samples that have not yet been merged into the centroids. */
+    private final double[] buffer;
+
+    /** the weights of the buffered samples, which are all 1. */
+    private final double[] unitWeights;
+
+    /** the number of buffered samples. */
+    private int buffered = 0;
+
+    /** whether the next merge traverses the centroids in ascending order. */
+    private boolean ascending = true;
+
+    /**
+     * Constructs a new TDigest with the default compression.
+     * @param description String; the description of this t-digest
+     */
+    public TDigest(final String description)
+    {
+        this(description, DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructs a new TDigest.
+     * @param description String; the description of this t-digest
+     * @param compression double; the compression, which bounds the number of centroids; higher values give more accurate
+     *            estimates at the cost of more memory
+     * @throws IllegalArgumentException when the compression is smaller than 10
+     */
+    public TDigest(final String description, final double compression)
+    {
+        super(description);
+        if (!(compression >= 10.0))
+        {
+            throw new IllegalArgumentException("compression < 10: " + compression);
+        }
+        this.compression = compression;
+        this.normalizer = compression / (2.0 * Math.PI);
+        int capacity = 2 * (int) Math.ceil(compression) + 10;
+        int bufferSize = 5 * (int) Math.ceil(compression);
+        this.mean = new double[capacity + bufferSize];
+        this.weight = new double[capacity + bufferSize];
+        this.mergedMean = new double[capacity + bufferSize];
+        this.mergedWeight = new double[capacity + bufferSize];
+        this.buffer = new double[bufferSize];
+        this.unitWeights = new double[bufferSize];
+        Arrays.fill(this.unitWeights, 1.0);
+    }
+
+    /**
+     * returns the compression of this t-digest.
+     * @return double; the compression
+     */
+    public final double getCompression()
+    {
+        return this.compression;
+    }
+
+    /**
+     * returns the number of centroids after merging the buffered samples.
+     * @return int; the number of centroids
+     */
+    public final int getCentroidCount()
+    {
+        synchronized (this.semaphore)
+        {
+            flush();
+            return this.centroids;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final void clear()
+    {
+        this.centroids = 0;
+        this.totalWeight = 0.0;
+        this.buffered = 0;
+        this.ascending = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final void record(final double value)
+    {
+        this.buffer[this.buffered++] = value;
+        if (this.buffered == this.buffer.length)
+        {
+            flush();
+        }
+    }
+
+    /**
+     * merges the buffered samples into the centroids.
+     */
+    private void flush()
+    {
+        if (this.buffered > 0)
+        {
+            Arrays.sort(this.buffer, 0, this.buffered);
+            merge(this.buffer, this.unitWeights, this.buffered);
+            this.buffered = 0;
+        }
+    }
+
+    /**
+     * merges a sorted list of weighted points into the centroids. Both lists are traversed in the same order, and each
+     * point is added to the current centroid as long as the weight of that centroid stays within the limit that the scale
+     * function sets for its position; otherwise the point starts a new centroid. Successive merges alternate between an
+     * ascending and a descending traversal.
+     * @param inMean double[]; the values of the points, in ascending order
+     * @param inWeight double[]; the weights of the points
+     * @param inCount int; the number of points
+     */
+    private void merge(final double[] inMean, final double[] inWeight, final int inCount)
+    {
+        if (this.centroids + inCount > this.mergedMean.length)
+        {
+            int capacity = this.centroids + inCount;
+            this.mean = Arrays.copyOf(this.mean, capacity);
+            this.weight = Arrays.copyOf(this.weight, capacity);
+            this.mergedMean = new double[capacity];
+            this.mergedWeight = new double[capacity];
+        }
+        double total = this.totalWeight;
+        for (int j = 0; j < inCount; j++)
+        {
+            total += inWeight[j];
+        }
+        int merged = 0;
+        double weightSoFar = 0.0;
+        double weightLimit = total * weightLimit(0.0);
+        double currentMean = 0.0;
+        double currentWeight = 0.0;
+        // the direction alternates between merges, since each pass biases the centroids towards the side it starts from
+        boolean ascending = this.ascending;
+        this.ascending = !ascending;
+        int i = ascending ? 0 : this.centroids - 1;
+        int j = ascending ? 0 : inCount - 1;
+        int step = ascending ? 1 : -1;
+        while ((i >= 0 && i < this.centroids) || (j >= 0 && j < inCount))
+        {
+            double pointMean;
+            double pointWeight;
+            boolean fromCentroids = j < 0 || j >= inCount
+                    || (i >= 0 && i < this.centroids && (ascending ? this.mean[i] <= inMean[j] : this.mean[i] >= inMean[j]));
+            if (fromCentroids)
+            {
+                pointMean = this.mean[i];
+                pointWeight = this.weight[i];
+                i += step;
+            }
+            else
+            {
+                pointMean = inMean[j];
+                pointWeight = inWeight[j];
+                j += step;
+            }
+            if (currentWeight == 0.0)
+            {
+                currentMean = pointMean;
+                currentWeight = pointWeight;
+            }
+            else if (weightSoFar + currentWeight + pointWeight <= weightLimit)
+            {
+                currentWeight += pointWeight;
+                currentMean += (pointMean - currentMean) * pointWeight / currentWeight;
+            }
+            else
+            {
+                this.mergedMean[merged] = currentMean;
+                this.mergedWeight[merged++] = currentWeight;
+                weightSoFar += currentWeight;
+                weightLimit = total * weightLimit(weightSoFar / total);
+                currentMean = pointMean;
+                currentWeight = pointWeight;
+            }
+        }
+        if (currentWeight > 0.0)
+        {
+            this.mergedMean[merged] = currentMean;
+            this.mergedWeight[merged++] = currentWeight;
+        }
+        if (!ascending)
+        {
+            for (int k = 0, l = merged - 1; k < l; k++, l--)
+            {
+                double m = this.mergedMean[k];
+                this.mergedMean[k] = this.mergedMean[l];
+                this.mergedMean[l] = m;
+                double w = this.mergedWeight[k];
+                this.mergedWeight[k] = this.mergedWeight[l];
+                this.mergedWeight[l] = w;
+            }
+        }
+
+        double[] swap = this.mean;
+        this.mean = this.mergedMean;
+        this.mergedMean = swap;
+        swap = this.weight;
+        this.weight = this.mergedWeight;
+        this.mergedWeight = swap;
+        this.centroids = merged;
+        this.totalWeight = total;
+    }
+
+    /**
+     * returns the cumulative probability up to which a centroid that starts at cumulative probability q may extend, which is
+     * the probability that lies one unit further on the scale function k(q) = compression / (2 pi) asin(2q - 1).
+     * @param q double; the cumulative probability at the start of the centroid
+     * @return double; the cumulative probability at which the centroid has to end
+     */
+    private double weightLimit(final double q)
+    {
+        double k = this.normalizer * Math.asin(2.0 * Math.min(1.0, q) - 1.0) + 1.0;
+        if (k >= this.compression / 4.0)
+        {
+            return 1.0;
+        }
+        return (Math.sin(k / this.normalizer) + 1.0) / 2.0;
+    }
+
+    /**
+     * The quantile is interpolated linearly between the means of the centroids, where each centroid is taken to sit at the
+     * middle of its weight; below the first and above the last centroid, the interpolation uses the minimum and maximum.
+     * @param probability double; the probability, strictly between 0 and 1
+     * @return double; the estimate of the quantile
+     */
+    @Override
+    protected final double quantile(final double probability)
+    {
+        flush();
+        if (this.centroids == 1)
+        {
+            return this.mean[0];
+        }
+        double index = probability * this.totalWeight;
+        double halfFirst = this.weight[0] / 2.0;
+        if (index < halfFirst)
+        {
+            return this.min + (this.mean[0] - this.min) * index / halfFirst;
+        }
+        double cumulative = halfFirst;
+        for (int i = 0; i < this.centroids - 1; i++)
+        {
+            double step = (this.weight[i] + this.weight[i + 1]) / 2.0;
+            if (cumulative + step > index)
+            {
+                return this.mean[i] + (this.mean[i + 1] - this.mean[i]) * (index - cumulative) / step;
+            }
+            cumulative += step;
+        }
+        int last = this.centroids - 1;
+        return this.mean[last] + (this.max - this.mean[last]) * (index - cumulative) / (this.weight[last] / 2.0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final double cumulativeProbability(final double value)
+    {
+        flush();
+        if (this.centroids == 1)
+        {
+            return value < this.mean[0] ? 0.0 : 1.0;
+        }
+        double halfFirst = this.weight[0] / 2.0;
+        if (value < this.mean[0])
+        {
+            return halfFirst * (value - this.min) / (this.mean[0] - this.min) / this.totalWeight;
+        }
+        double cumulative = halfFirst;
+        for (int i = 0; i < this.centroids - 1; i++)
+        {
+            double step = (this.weight[i] + this.weight[i + 1]) / 2.0;
+            if (value < this.mean[i + 1])
+            {
+                return (cumulative + step * (value - this.mean[i]) / (this.mean[i + 1] - this.mean[i])) / this.totalWeight;
+            }
+            cumulative += step;
+        }
+        int last = this.centroids - 1;
+        double halfLast = this.weight[last] / 2.0;
+        return (cumulative + halfLast * (value - this.mean[last]) / (this.max - this.mean[last])) / this.totalWeight;
+    }
+
+    /**
+     * merges the centroids and buffered samples of another t-digest into this t-digest, as if the samples of the other
+     * t-digest had been offered to this t-digest as well. The merge takes time proportional to the number of centroids, not to
+     * the number of samples, so t-digests that have been filled per replication or per thread can be reduced cheaply. The
+     * result is deterministic for a fixed merge order. The other t-digest may have a different compression; the result has the
+     * compression of this t-digest. An uninitialized or empty other t-digest leaves this t-digest unchanged; an uninitialized
+     * t-digest is initialized before the merge.
+     * @param other TDigest; the t-digest to merge into this t-digest
+     */
+    public void combine(final TDigest other)
+    {
+        long otherN;
+        double otherMin;
+        double otherMax;
+        double[] otherMean;
+        double[] otherWeight;
+        double[] otherBuffer;
+        synchronized (other.semaphore)
+        {
+            if (!other.isInitialized() || other.n == 0)
+            {
+                return;
+            }
+            otherN = other.n;
+            otherMin = other.min;
+            otherMax = other.max;
+            otherMean = Arrays.copyOf(other.mean, other.centroids);
+            otherWeight = Arrays.copyOf(other.weight, other.centroids);
+            otherBuffer = Arrays.copyOf(other.buffer, other.buffered);
+        }
+        Arrays.sort(otherBuffer);
+        double[] otherBufferWeights = new double[otherBuffer.length];
+        Arrays.fill(otherBufferWeights, 1.0);
+        synchronized (this.semaphore)
+        {
+            if (!isInitialized())
+            {
+                initialize();
+            }
+            flush();
+            merge(otherMean, otherWeight, otherMean.length);
+            merge(otherBuffer, otherBufferWeights, otherBuffer.length);
+            combineSummary(otherN, otherMin, otherMax);
+        }
+    }
+}
@@ -6,10 +6,12 @@ import nl.tudelft.simulation.event.EventInterface;
 import nl.tudelft.simulation.event.EventListenerInterface;
 import nl.tudelft.simulation.event.EventType;
 import nl.tudelft.simulation.jstats.distributions.DistNormal;
-import nl.tudelft.simulation.jstats.streams.MersenneTwister;
 
 /**
- * The Tally class defines a statistics event tally.
+ * The Tally class defines a statistics event tally. Samples can be offered as events through <code>notify</code>, which
+ * synchronizes on the semaphore of the tally, or as primitive values through <code>ingest</code>, which takes no lock and
+ * does not box the value. The derived statistics are published as events according to the publication interval. Tallies
+ * that have been filled separately, e.g., per replication or per thread, can be merged with <code>combine</code>.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -85,13 +87,16 @@ public class Tally extends StatisticsObject implements EventListenerInterface
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected String description;
 
-    /** the confidenceDistribution. */
-    private DistNormal confidenceDistribution = new DistNormal(new MersenneTwister());
-
     /** the semaphore. */
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected Object semaphore = new Object();
 
+    /** whether a new minimum has been reached since the last publication. */
+    private boolean minChanged = false;
+
+    /** whether a new maximum has been reached since the last publication. */
+    private boolean maxChanged = false;
+
     /**
      * Constructs a new Tally.
      * @param description String; the description of this tally
@@ -150,8 +155,17 @@ public class Tally extends StatisticsObject implements EventListenerInterface
             {
                 level = 1 - alpha / 2.0;
             }
-            double z = this.confidenceDistribution.getInverseCumulativeProbability(level);
-            double confidence = z * Math.sqrt(this.getSampleVariance() / this.n);
+            double z = DistNormal.inverseCumulativeStandardNormal(level);
+            double confidence = 0.0;
+            if (Double.isInfinite(z))
+            {
+                // a confidence of 100% covers the whole range, even when the variance is 0
+                confidence = z;
+            }
+            else if (z > 0.0)
+            {
+                confidence = z * Math.sqrt(this.getSampleVariance() / this.n);
+            }
             double[] result = {this.sampleMean - confidence, this.sampleMean + confidence};
             if (side == Tally.LEFT_SIDE_CONFIDENCE)
             {
@@ -297,6 +311,8 @@ public class Tally extends StatisticsObject implements EventListenerInterface
             this.setN(0);
             this.setSum(0.0);
             this.varianceSum = 0.0;
+            this.minChanged = false;
+            this.maxChanged = false;
         }
     }
 
@@ -322,28 +338,174 @@ public class Tally extends StatisticsObject implements EventListenerInterface
 
         synchronized (this.semaphore)
         {
-            if (new Double(this.sampleMean).isNaN())
+            ingest(value);
+        }
+    }
+
+    /**
+     * processes a sample that is offered as a primitive value. Contrary to notify, this method takes no lock and does not box
+     * the value; when the tally has no listeners, no objects are allocated at all. The method is therefore meant for a tally
+     * that is updated by a single thread, such as the thread that executes the simulation events. The derived statistics are
+     * published when the publication interval says so.
+     * @param value double; the value of the sample
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public void ingest(final double value)
+    {
+        if (Double.isNaN(this.sampleMean))
+        {
+            this.sampleMean = 0.0;
+        }
+        // see Knuth's The Art Of Computer Programming
+        // Volume II: Seminumerical Algorithms
+        double newSampleMean = this.sampleMean + (value - this.sampleMean) / (this.n + 1);
+        this.varianceSum += (value - this.sampleMean) * (value - newSampleMean);
+        this.sampleMean = newSampleMean;
+        this.sum += value;
+        this.n++;
+        updateExtremes(value);
+        if (isPublicationDue(this.n))
+        {
+            publish();
+        }
+    }
+
+    /**
+     * updates the minimum and the maximum with a new sample, and registers for the next publication whether they changed.
+     * @param value double; the value of the sample
+     */
+    protected final void updateExtremes(final double value)
+    {
+        if (value < this.min)
+        {
+            this.min = value;
+            this.minChanged = true;
+        }
+        if (value > this.max)
+        {
+            this.max = value;
+            this.maxChanged = true;
+        }
+    }
+
+    /**
+     * merges the statistics of another tally into this tally, as if the samples of the other tally had been offered to this
+     * tally as well. The merge takes constant time, whatever the number of samples: the means and variances are combined with
+     * the parallel algorithm of Chan, Golub and LeVeque. This makes it possible to collect the samples of replications or
+     * threads in separate tallies, and to reduce them afterwards. The result is deterministic: combining the same tallies in
+     * the same order gives a bitwise identical result; combining into a freshly initialized tally copies the other tally
+     * exactly. An uninitialized or empty other tally leaves this tally unchanged; an uninitialized tally is initialized
+     * before the merge. The other tally is not changed. The derived statistics are published afterwards, unless the
+     * publication interval is 0.
+     * @param other Tally; the tally to merge into this tally
+     * @throws IllegalArgumentException when the other tally is a Persistent, whose samples are weighted with time
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public void combine(final Tally other)
+    {
+        if (other instanceof Persistent)
+        {
+            throw new IllegalArgumentException("Tally cannot combine the time-weighted statistics of Persistent " + other);
+        }
+        long otherN;
+        double otherSum;
+        double otherMin;
+        double otherMax;
+        double otherMean;
+        double otherVarianceSum;
+        synchronized (other.semaphore)
+        {
+            if (!other.isInitialized() || other.n == 0)
+            {
+                return;
+            }
+            otherN = other.n;
+            otherSum = other.sum;
+            otherMin = other.min;
+            otherMax = other.max;
+            otherMean = other.sampleMean;
+            otherVarianceSum = other.varianceSum;
+        }
+        synchronized (this.semaphore)
+        {
+            if (!isInitialized())
             {
-                this.sampleMean = 0.0;
+                initialize();
             }
-            // see Knuth's The Art Of Computer Programming
-            // Volume II: Seminumerical Algorithms
-            double newsampleMean = this.sampleMean + (value - this.sampleMean) / (this.n + 1);
-            this.varianceSum += (value - this.sampleMean) * (value - newsampleMean);
-            this.setSampleMean(newsampleMean);
-            this.setSum(this.sum + value);
-            this.setN(this.n + 1);
-            if (value < this.min)
+            if (this.n == 0)
             {
-                this.setMin(value);
+                this.sampleMean = otherMean;
+                this.varianceSum = otherVarianceSum;
             }
-            if (value > this.max)
+            else
             {
-                this.setMax(value);
+                // Chan, Golub and LeVeque, Updating Formulae and a Pairwise Algorithm for Computing Sample Variances (1979)
+                double newN = this.n + otherN;
+                double delta = otherMean - this.sampleMean;
+                this.sampleMean += delta * otherN / newN;
+                this.varianceSum += otherVarianceSum + delta * delta * this.n * otherN / newN;
             }
-            if (this.n > 1)
+            this.n += otherN;
+            this.sum += otherSum;
+            updateExtremes(otherMin);
+            updateExtremes(otherMax);
+            if (getPublicationInterval() > 0)
+            {
+                publish();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void publish()
+    {
+        if (numberOfListeners() > 0)
+        {
+            fireStatistics(this.minChanged, this.maxChanged);
+        }
+        this.minChanged = false;
+        this.maxChanged = false;
+    }
+
+    /**
+     * fires the events with the current values of the statistics. Only the events that have listeners are constructed. The
+     * MIN_EVENT and MAX_EVENT are only fired when a new minimum or maximum has been reached since the previous publication.
+     * Subclasses can extend this method to publish additional events, e.g., time stamped versions of the statistics.
+     * @param newMin boolean; whether a new minimum has been reached since the previous publication
+     * @param newMax boolean; whether a new maximum has been reached since the previous publication
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    protected void fireStatistics(final boolean newMin, final boolean newMax)
+    {
+        if (hasListeners(Tally.SAMPLE_MEAN_EVENT))
+        {
+            this.fireEvent(Tally.SAMPLE_MEAN_EVENT, this.sampleMean);
+        }
+        if (hasListeners(Tally.SUM_EVENT))
+        {
+            this.fireEvent(Tally.SUM_EVENT, this.sum);
+        }
+        if (hasListeners(Tally.N_EVENT))
+        {
+            this.fireEvent(Tally.N_EVENT, this.n);
+        }
+        if (newMin && hasListeners(Tally.MIN_EVENT))
+        {
+            this.fireEvent(Tally.MIN_EVENT, this.min);
+        }
+        if (newMax && hasListeners(Tally.MAX_EVENT))
+        {
+            this.fireEvent(Tally.MAX_EVENT, this.max);
+        }
+        if (this.n > 1)
+        {
+            if (hasListeners(Tally.STANDARD_DEVIATION_EVENT))
             {
                 this.fireEvent(Tally.STANDARD_DEVIATION_EVENT, getStdDev());
+            }
+            if (hasListeners(Tally.SAMPLE_VARIANCE_EVENT))
+            {
                 this.fireEvent(Tally.SAMPLE_VARIANCE_EVENT, getSampleVariance());
             }
         }
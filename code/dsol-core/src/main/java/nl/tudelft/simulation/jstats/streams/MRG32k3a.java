@@ -0,0 +1,338 @@
+package nl.tudelft.simulation.jstats.streams;
+
+/**
+ * The MRG32k3a combined multiple recursive generator of L'Ecuyer (Good Parameter Sets for Combined Multiple Recursive Random
+ * Number Generators, Operations Research 47(1), 1999), with the streams and substreams of L'Ecuyer, Simard, Chen and Kelton
+ * (An Object-Oriented Random-Number Package with Many Long Streams and Substreams, Operations Research 50(6), 2002). The
+ * generator combines two recursions of order 3 modulo primes of about 2<sup>32</sup>, and has a period of about
+ * 2<sup>191</sup>. The streams are 2<sup>127</sup> and the substreams 2<sup>76</sup> draws apart. The jumps are done by
+ * multiplying the state with powers of the transition matrices, so splitting off a stream or substream takes time that is
+ * logarithmic in its index: the generator can hand out a stream per replication and a substream per purpose with arbitrary
+ * indices. This makes it the default generator of the StreamFactory.
+ * <p>
+ * The state is initialized from the seed by scrambling it with SplitMix64; <code>nextDouble</code> returns the standard
+ * MRG32k3a uniform on the open interval (0, 1), with a resolution of 2<sup>-32</sup>. The generator is not synchronized: it is
+ * meant to be used by a single thread, such as the thread of one simulator.
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class MRG32k3a extends RandomNumberGenerator implements SplittableStreamInterface
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the modulus of the first component. */
+    static final long M1 = 4294967087L;
+
+    /** the modulus of the second component. */
+    static final long M2 = 4294944443L;
+
+    /** multiplier a12 of the first component. */
+    private static final long A12 = 1403580L;
+
+    /** negated multiplier a13 of the first component. */
+    private static final long A13N = 810728L;
+
+    /** multiplier a21 of the second component. */
+    private static final long A21 = 527612L;
+
+    /** negated multiplier a23 of the second component. */
+    private static final long A23N = 1370589L;
+
+    /** the normalization factor 1 / (M1 + 1). */
+    private static final double NORM = 2.328306549295727688e-10;
+
+    /** the transition matrix of the first component to the power 2<sup>76</sup>, for the substreams. */
+    static final long[][] A1P76 = {{82758667L, 1871391091L, 4127413238L}, {3672831523L, 69195019L, 1871391091L},
+            {3672091415L, 3528743235L, 69195019L}};
+
+    /** the transition matrix of the second component to the power 2<sup>76</sup>, for the substreams. */
+    static final long[][] A2P76 = {{1511326704L, 3759209742L, 1610795712L}, {4292754251L, 1511326704L, 3889917532L},
+            {3859662829L, 4292754251L, 3708466080L}};
+
+    /** the transition matrix of the first component to the power 2<sup>127</sup>, for the streams. */
+    static final long[][] A1P127 = {{2427906178L, 3580155704L, 949770784L}, {226153695L, 1230515664L, 3580155704L},
+            {1988835001L, 986791581L, 1230515664L}};
+
+    /** the transition matrix of the second component to the power 2<sup>127</sup>, for the streams. */
+    static final long[][] A2P127 = {{1464411153L, 277697599L, 1610723613L}, {32183930L, 1464411153L, 1022607788L},
+            {2824425944L, 32183930L, 2093834863L}};
+
+    /** the state of the first component. */
+    private long s10;
+
+    /** the state of the first component. */
+    private long s11;
+
+    /** the state of the first component. */
+    private long s12;
+
+    /** the state of the second component. */
+    private long s20;
+
+    /** the state of the second component. */
+    private long s21;
+
+    /** the state of the second component. */
+    private long s22;
+
+    /** the index of the stream; not initialized in the declaration, since setSeed is called by the super constructor. */
+    private long stream;
+
+    /** the index of the substream; not initialized in the declaration, since setSeed is called by the super constructor. */
+    private long substream;
+
+    /**
+     * constructs a new MRG32k3a. <code>System.currentTimeMillis()</code> is used as seed value.
+     */
+    public MRG32k3a()
+    {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * constructs a new MRG32k3a, positioned at stream 0, substream 0 of the seed.
+     * @param seed long; the seed, which should be positive
+     */
+    public MRG32k3a(final long seed)
+    {
+        super(seed);
+    }
+
+    /**
+     * constructs a new MRG32k3a, positioned at the start of a substream of a stream of the seed.
+     * @param seed long; the seed, which should be positive
+     * @param stream long; the index of the stream, 0 or higher
+     * @param substream long; the index of the substream within the stream, 0 or higher
+     * @throws IllegalArgumentException when one of the indices is negative
+     */
+    public MRG32k3a(final long seed, final long stream, final long substream)
+    {
+        super(seed);
+        if (stream < 0 || substream < 0)
+        {
+            throw new IllegalArgumentException("stream (" + stream + ") or substream (" + substream + ") < 0");
+        }
+        this.stream = stream;
+        this.substream = substream;
+        setSeed(seed);
+    }
+
+    /**
+     * sets the seed, and positions the generator at the start of its stream and substream.
+     * @param seed long; the new seed
+     */
+    @Override
+    public final void setSeed(final long seed)
+    {
+        this.seed = seed;
+        long x = seed;
+        long[] s1 = new long[3];
+        long[] s2 = new long[3];
+        for (int i = 0; i < 3; i++)
+        {
+            x += 0x9e3779b97f4a7c15L;
+            s1[i] = (splitMix64(x) >>> 1) % M1;
+            x += 0x9e3779b97f4a7c15L;
+            s2[i] = (splitMix64(x) >>> 1) % M2;
+        }
+        // the state of a component may not be all zeros
+        if (s1[0] == 0 && s1[1] == 0 && s1[2] == 0)
+        {
+            s1[0] = 1;
+        }
+        if (s2[0] == 0 && s2[1] == 0 && s2[2] == 0)
+        {
+            s2[0] = 1;
+        }
+        s1 = multiply(power(A1P127, this.stream, M1), s1, M1);
+        s2 = multiply(power(A2P127, this.stream, M2), s2, M2);
+        s1 = multiply(power(A1P76, this.substream, M1), s1, M1);
+        s2 = multiply(power(A2P76, this.substream, M2), s2, M2);
+        this.s10 = s1[0];
+        this.s11 = s1[1];
+        this.s12 = s1[2];
+        this.s20 = s2[0];
+        this.s21 = s2[1];
+        this.s22 = s2[2];
+    }
+
+    /**
+     * the output function of the SplitMix64 generator.
+     * @param z long; the state of the SplitMix64 generator
+     * @return long; the scrambled state
+     */
+    private static long splitMix64(final long z)
+    {
+        long x = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * returns (a * s) mod m without overflow, for 0 &lt;= a, s &lt; m &lt; 2<sup>32</sup>, by splitting a in two 16-bit
+     * halves.
+     * @param a long; the first factor
+     * @param s long; the second factor
+     * @param m long; the modulus
+     * @return long; (a * s) mod m
+     */
+    static long multiplyMod(final long a, final long s, final long m)
+    {
+        long high = ((a >>> 16) * s) % m;
+        return ((high << 16) % m + (a & 0xFFFFL) * s) % m;
+    }
+
+    /**
+     * returns the product of a 3x3 matrix and a vector modulo m.
+     * @param a long[][]; the matrix
+     * @param s long[]; the vector
+     * @param m long; the modulus
+     * @return long[]; the product a * s mod m
+     */
+    static long[] multiply(final long[][] a, final long[] s, final long m)
+    {
+        long[] result = new long[3];
+        for (int i = 0; i < 3; i++)
+        {
+            result[i] = (multiplyMod(a[i][0], s[0], m) + multiplyMod(a[i][1], s[1], m) + multiplyMod(a[i][2], s[2], m)) % m;
+        }
+        return result;
+    }
+
+    /**
+     * returns the product of two 3x3 matrices modulo m.
+     * @param a long[][]; the first matrix
+     * @param b long[][]; the second matrix
+     * @param m long; the modulus
+     * @return long[][]; the product a * b mod m
+     */
+    static long[][] multiply(final long[][] a, final long[][] b, final long m)
+    {
+        long[][] result = new long[3][3];
+        for (int i = 0; i < 3; i++)
+        {
+            for (int j = 0; j < 3; j++)
+            {
+                result[i][j] = (multiplyMod(a[i][0], b[0][j], m) + multiplyMod(a[i][1], b[1][j], m)
+                        + multiplyMod(a[i][2], b[2][j], m)) % m;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * returns a 3x3 matrix to a nonnegative power modulo m, by repeated squaring.
+     * @param a long[][]; the matrix
+     * @param exponent long; the power, 0 or higher
+     * @param m long; the modulus
+     * @return long[][]; a<sup>exponent</sup> mod m
+     */
+    static long[][] power(final long[][] a, final long exponent, final long m)
+    {
+        long[][] result = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+        long[][] square = a;
+        for (long e = exponent; e > 0; e >>>= 1)
+        {
+            if ((e & 1L) != 0)
+            {
+                result = multiply(result, square, m);
+            }
+            square = multiply(square, square, m);
+        }
+        return result;
+    }
+
+    /**
+     * advances both components one step, and returns the combined value in [1, M1].
+     * @return long; the combined value
+     */
+    private long step()
+    {
+        long p1 = (A12 * this.s11 - A13N * this.s10) % M1;
+        if (p1 < 0)
+        {
+            p1 += M1;
+        }
+        this.s10 = this.s11;
+        this.s11 = this.s12;
+        this.s12 = p1;
+        long p2 = (A21 * this.s22 - A23N * this.s20) % M2;
+        if (p2 < 0)
+        {
+            p2 += M2;
+        }
+        this.s20 = this.s21;
+        this.s21 = this.s22;
+        this.s22 = p2;
+        return p1 > p2 ? p1 - p2 : p1 - p2 + M1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final long next(final int bits)
+    {
+        if (bits < 0 || bits > 64)
+        {
+            throw new IllegalArgumentException("bits (" + bits + ") not in range [0,64]");
+        }
+        if (bits <= 32)
+        {
+            return (long) (step() * NORM * (1L << 32)) >>> (32 - bits);
+        }
+        return (next(32) << (bits - 32)) | next(bits - 32);
+    }
+
+    /**
+     * returns the standard MRG32k3a uniform on (0, 1), using a single step of the generator.
+     * @return double; the (pseudo)random number
+     */
+    @Override
+    public final double nextDouble()
+    {
+        return step() * NORM;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int nextInt(final int i, final int j)
+    {
+        return drawInt(i, j);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final MRG32k3a split(final long streamIndex, final long substreamIndex)
+    {
+        return new MRG32k3a(this.seed, streamIndex, substreamIndex);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final long getStreamIndex()
+    {
+        return this.stream;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final long getSubstreamIndex()
+    {
+        return this.substream;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final String toString()
+    {
+        return "MRG32k3a[" + this.seed + ", " + this.stream + ", " + this.substream + "]";
+    }
+}
@@ -97,7 +97,8 @@ public abstract class RandomNumberGenerator implements StreamInterface
      *         <code>1.0</code> from this random number generator's sequence.
      */
     @Override
-    public final double nextDouble()
+    @SuppressWarnings("checkstyle:designforextension")
+    public double nextDouble()
     {
         long l = ((next(26)) << 27) + next(27);
         return l / (double) (1L << 53);
@@ -166,7 +167,20 @@ public abstract class RandomNumberGenerator implements StreamInterface
      * @return the result
      */
     @Override
-    public final synchronized int nextInt(final int i, final int j)
+    @SuppressWarnings("checkstyle:designforextension")
+    public synchronized int nextInt(final int i, final int j)
+    {
+        return drawInt(i, j);
+    }
+
+    /**
+     * Returns a pseudorandom, uniformly distributed <tt>int</tt> value between i (inclusive) and j, without synchronization.
+     * A generator that is not synchronized overrides <tt>nextInt(i, j)</tt> with this method.
+     * @param i int; the lower value
+     * @param j int; the higher value
+     * @return the result
+     */
+    protected final int drawInt(final int i, final int j)
     {
         if (i < 0 || j <= 0 || i >= j)
         {
@@ -204,7 +218,8 @@ public abstract class RandomNumberGenerator implements StreamInterface
      *         sequence.
      */
     @Override
-    public final long nextLong()
+    @SuppressWarnings("checkstyle:designforextension")
+    public long nextLong()
     {
         return ((next(32)) << 32) + next(32);
     }
@@ -0,0 +1,43 @@
+package nl.tudelft.simulation.jstats.streams;
+
+/**
+ * The SplittableStreamInterface defines the streams that can hand out a large number of statistically independent streams
+ * and substreams for the same seed. The sequence of the generator for a seed is divided into streams, and every stream into
+ * substreams, which are far enough apart that they never overlap in practice. Stream (0, 0) starts at the seed itself. A
+ * stream and substream index always give the same sequence for the same seed, so the streams of, e.g., parallel
+ * replications can be reproduced, and can be reset independently from each other. Splittable streams are not synchronized:
+ * every stream is meant to be used by one thread.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public interface SplittableStreamInterface extends StreamInterface
+{
+    /**
+     * returns a new generator with the seed of this generator, positioned at the start of the given substream of the given
+     * stream. The state of this generator is not changed.
+     * @param stream long; the index of the stream, 0 or higher
+     * @param substream long; the index of the substream within the stream, 0 or higher
+     * @return SplittableStreamInterface; a new generator for the stream and substream
+     * @throws IllegalArgumentException when one of the indices is negative
+     */
+    SplittableStreamInterface split(long stream, long substream);
+
+    /**
+     * returns the index of the stream of this generator.
+     * @return long; the index of the stream
+     */
+    long getStreamIndex();
+
+    /**
+     * returns the index of the substream of this generator within its stream.
+     * @return long; the index of the substream
+     */
+    long getSubstreamIndex();
+}
@@ -0,0 +1,120 @@
+package nl.tudelft.simulation.jstats.streams;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The StreamFactory hands out reproducible, statistically independent streams for replications that run in parallel. All
+ * streams of a factory are splits of one MRG32k3a generator with the seed of the factory: replication r gets stream r, and
+ * within the stream every purpose, such as "arrival" or "service", gets its own substream. The substream index of a purpose
+ * is a hash of its name, so a stream does not depend on the order or the thread in which the streams are requested, and the
+ * same replication number and purpose always give the same sequence. The streams themselves are not synchronized; every
+ * stream is meant to be used by the thread of one simulator. A replication can use the streams of the factory as follows:
+ *
+ * <pre>
+ * StreamFactory factory = new StreamFactory(42L);
+ * replication.getStreams().put("default", factory.getStream(r, "default"));
+ * replication.getStreams().put("arrival", factory.getStream(r, "arrival"));
+ * </pre>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class StreamFactory implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the mask for the 48 bits of the substream index of a purpose. */
+    private static final long SUBSTREAM_MASK = (1L << 48) - 1;
+
+    /** the seed of all streams of this factory. */
+    private final long seed;
+
+    /** the generator of which the streams are split off. */
+    private final SplittableStreamInterface root;
+
+    /** the purposes per substream index, to detect two names with the same hash. */
+    private final Map<Long, String> purposes = new HashMap<>();
+
+    /**
+     * constructs a new StreamFactory.
+     * @param seed long; the seed of all streams of this factory
+     */
+    public StreamFactory(final long seed)
+    {
+        this.seed = seed;
+        this.root = new MRG32k3a(seed);
+    }
+
+    /**
+     * returns a new stream for a purpose within a replication. Every call returns a new stream that starts at the beginning of
+     * the substream of the purpose, so two calls with the same arguments return two streams with the same sequence.
+     * @param replication int; the number of the replication, 0 or higher
+     * @param purpose String; the name of the purpose of the stream within the replication, e.g., "default" or "arrival"
+     * @return StreamInterface; a new, unsynchronized stream for the purpose within the replication
+     * @throws IllegalArgumentException when the replication number is negative
+     * @throws IllegalStateException when the name of the purpose has the same hash as the name of an earlier purpose
+     */
+    public final StreamInterface getStream(final int replication, final String purpose)
+    {
+        if (replication < 0)
+        {
+            throw new IllegalArgumentException("replication number " + replication + " < 0");
+        }
+        return this.root.split(replication, getSubstreamIndex(purpose));
+    }
+
+    /**
+     * returns the substream index of a purpose: the 48-bit FNV-1a hash of the characters of its name.
+     * @param purpose String; the name of the purpose
+     * @return long; the substream index of the purpose
+     * @throws IllegalStateException when the name of the purpose has the same hash as the name of an earlier purpose
+     */
+    public final long getSubstreamIndex(final String purpose)
+    {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < purpose.length(); i++)
+        {
+            hash ^= purpose.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        long index = (hash ^ (hash >>> 48)) & SUBSTREAM_MASK;
+        synchronized (this.purposes)
+        {
+            String earlier = this.purposes.get(index);
+            if (earlier == null)
+            {
+                this.purposes.put(index, purpose);
+            }
+            else if (!earlier.equals(purpose))
+            {
+                throw new IllegalStateException("purposes " + earlier + " and " + purpose + " have the same substream index");
+            }
+        }
+        return index;
+    }
+
+    /**
+     * returns the seed of the streams of this factory.
+     * @return long; the seed
+     */
+    public final long getSeed()
+    {
+        return this.seed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final String toString()
+    {
+        return "StreamFactory[" + this.seed + "]";
+    }
+}
@@ -45,6 +45,27 @@ public interface StreamInterface extends Serializable
      */
     double nextDouble();
 
+    /**
+     * Fill a range of an array with (pseudo)random numbers from the stream over the interval (0,1), advancing its state by
+     * one step per number. The numbers are the same as those of successive calls to nextDouble(); a stream can override this
+     * method to generate them without a call per number.
+     * @param out double[]; the array to fill
+     * @param off int; the index of the first number in the array
+     * @param len int; the number of numbers to generate
+     * @throws IndexOutOfBoundsException when the range does not fit in the array
+     */
+    default void nextDouble(final double[] out, final int off, final int len)
+    {
+        if (off < 0 || len < 0 || len > out.length - off)
+        {
+            throw new IndexOutOfBoundsException("off=" + off + ", len=" + len + ", length=" + out.length);
+        }
+        for (int i = off; i < off + len; i++)
+        {
+            out[i] = nextDouble();
+        }
+    }
+
     /**
      * Method return a (pseudo)random number from the stream over the interval (0,1) using this stream, after advancing
      * its state by one step.
@@ -0,0 +1,262 @@
+package nl.tudelft.simulation.jstats.streams;
+
+/**
+ * The xoshiro256++ pseudo random number generator of Blackman and Vigna (Scrambled Linear Pseudorandom Number Generators,
+ * 2018). The generator has a state of four 64-bit words and a period of 2<sup>256</sup>-1, passes the common statistical
+ * test suites, and produces a 64-bit value with a few shifts, rotations and additions. The state is initialized from the seed
+ * with the SplitMix64 generator, which is also the generator behind <code>java.util.SplittableRandom</code>.
+ * <p>
+ * Contrary to the MersenneTwister, the generator is not synchronized: it is meant to be used by a single thread, such as the
+ * thread of one simulator. Independent generators for parallel replications are obtained with <code>split</code>: the streams
+ * are 2<sup>192</sup> and the substreams 2<sup>128</sup> draws apart, using the jump polynomials of the authors. Splitting
+ * takes one jump per stream and substream index, so the indices are meant to stay moderate (up to thousands).
+ * </p>
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class Xoshiro256PlusPlus extends RandomNumberGenerator implements SplittableStreamInterface
+{
+    /** */
+    private static final long serialVersionUID = 20190601L;
+
+    /** the jump polynomial for 2<sup>128</sup> draws, used for the substreams. */
+    private static final long[] JUMP = {0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL};
+
+    /** the jump polynomial for 2<sup>192</sup> draws, used for the streams. */
+    private static final long[] LONG_JUMP =
+            {0x76e15d3efefdcbbfL, 0xc5004e441c522fb3L, 0x77710069854ee241L, 0x39109bb02acbe635L};
+
+    /** the first word of the state. */
+    private long s0;
+
+    /** the second word of the state. */
+    private long s1;
+
+    /** the third word of the state. */
+    private long s2;
+
+    /** the fourth word of the state. */
+    private long s3;
+
+    /** the index of the stream; not initialized in the declaration, since setSeed is called by the super constructor. */
+    private long stream;
+
+    /** the index of the substream; not initialized in the declaration, since setSeed is called by the super constructor. */
+    private long substream;
+
+    /**
+     * constructs a new Xoshiro256PlusPlus. <code>System.currentTimeMillis()</code> is used as seed value.
+     */
+    public Xoshiro256PlusPlus()
+    {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * constructs a new Xoshiro256PlusPlus, positioned at stream 0, substream 0 of the seed.
+     * @param seed long; the seed, which should be positive
+     */
+    public Xoshiro256PlusPlus(final long seed)
+    {
+        super(seed);
+    }
+
+    /**
+     * constructs a new Xoshiro256PlusPlus, positioned at the start of a substream of a stream of the seed.
+     * @param seed long; the seed, which should be positive
+     * @param stream long; the index of the stream, 0 or higher
+     * @param substream long; the index of the substream within the stream, 0 or higher
+     * @throws IllegalArgumentException when one of the indices is negative
+     */
+    public Xoshiro256PlusPlus(final long seed, final long stream, final long substream)
+    {
+        super(seed);
+        if (stream < 0 || substream < 0)
+        {
+            throw new IllegalArgumentException("stream (" + stream + ") or substream (" + substream + ") < 0");
+        }
+        this.stream = stream;
+        this.substream = substream;
+        setSeed(seed);
+    }
+
+    /**
+     * sets the seed, and positions the generator at the start of its stream and substream.
+     * @param seed long; the new seed
+     */
+    @Override
+    public final void setSeed(final long seed)
+    {
+        this.seed = seed;
+        long x = seed;
+        x += 0x9e3779b97f4a7c15L;
+        this.s0 = splitMix64(x);
+        x += 0x9e3779b97f4a7c15L;
+        this.s1 = splitMix64(x);
+        x += 0x9e3779b97f4a7c15L;
+        this.s2 = splitMix64(x);
+        x += 0x9e3779b97f4a7c15L;
+        this.s3 = splitMix64(x);
+        for (long i = 0; i < this.stream; i++)
+        {
+            jump(LONG_JUMP);
+        }
+        for (long i = 0; i < this.substream; i++)
+        {
+            jump(JUMP);
+        }
+    }
+
+    /**
+     * the output function of the SplitMix64 generator.
+     * @param z long; the state of the SplitMix64 generator
+     * @return long; the scrambled state
+     */
+    private static long splitMix64(final long z)
+    {
+        long x = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * advances the state with a jump polynomial, which is equivalent to a fixed number of calls to nextLong.
+     * @param polynomial long[]; the jump polynomial
+     */
+    private void jump(final long[] polynomial)
+    {
+        long t0 = 0;
+        long t1 = 0;
+        long t2 = 0;
+        long t3 = 0;
+        for (long word : polynomial)
+        {
+            for (int b = 0; b < 64; b++)
+            {
+                if ((word & (1L << b)) != 0)
+                {
+                    t0 ^= this.s0;
+                    t1 ^= this.s1;
+                    t2 ^= this.s2;
+                    t3 ^= this.s3;
+                }
+                nextLong();
+            }
+        }
+        this.s0 = t0;
+        this.s1 = t1;
+        this.s2 = t2;
+        this.s3 = t3;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final long nextLong()
+    {
+        long result = Long.rotateLeft(this.s0 + this.s3, 23) + this.s0;
+        long t = this.s1 << 17;
+        this.s2 ^= this.s0;
+        this.s3 ^= this.s1;
+        this.s1 ^= this.s2;
+        this.s0 ^= this.s3;
+        this.s2 ^= t;
+        this.s3 = Long.rotateLeft(this.s3, 45);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final long next(final int bits)
+    {
+        if (bits < 0 || bits > 64)
+        {
+            throw new IllegalArgumentException("bits (" + bits + ") not in range [0,64]");
+        }
+        return bits == 0 ? 0L : nextLong() >>> (64 - bits);
+    }
+
+    /**
+     * returns a double on the open interval (0, 1) with 52 random bits, using a single draw: the 52 bits are centered in
+     * their interval of width 2<sup>-52</sup>, so neither 0.0 nor 1.0 is returned.
+     * @return double; the (pseudo)random number
+     */
+    @Override
+    public final double nextDouble()
+    {
+        return ((nextLong() >>> 12) + 0.5) * 0x1.0p-52;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int nextInt(final int i, final int j)
+    {
+        return drawInt(i, j);
+    }
+
+    /**
+     * {@inheritDoc} The state is kept in local variables while the range is filled.
+     */
+    @Override
+    public final void nextDouble(final double[] out, final int off, final int len)
+    {
+        if (off < 0 || len < 0 || len > out.length - off)
+        {
+            throw new IndexOutOfBoundsException("off=" + off + ", len=" + len + ", length=" + out.length);
+        }
+        long t0 = this.s0;
+        long t1 = this.s1;
+        long t2 = this.s2;
+        long t3 = this.s3;
+        for (int i = off; i < off + len; i++)
+        {
+            long result = Long.rotateLeft(t0 + t3, 23) + t0;
+            long t = t1 << 17;
+            t2 ^= t0;
+            t3 ^= t1;
+            t1 ^= t2;
+            t0 ^= t3;
+            t2 ^= t;
+            t3 = Long.rotateLeft(t3, 45);
+            out[i] = ((result >>> 12) + 0.5) * 0x1.0p-52;
+        }
+        this.s0 = t0;
+        this.s1 = t1;
+        this.s2 = t2;
+        this.s3 = t3;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final Xoshiro256PlusPlus split(final long streamIndex, final long substreamIndex)
+    {
+        return new Xoshiro256PlusPlus(this.seed, streamIndex, substreamIndex);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final long getStreamIndex()
+    {
+        return this.stream;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final long getSubstreamIndex()
+    {
+        return this.substream;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final String toString()
+    {
+        return "Xoshiro256PlusPlus[" + this.seed + ", " + this.stream + ", " + this.substream + "]";
+    }
+}
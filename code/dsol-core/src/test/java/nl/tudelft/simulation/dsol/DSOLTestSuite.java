@@ -3,7 +3,18 @@ package nl.tudelft.simulation.dsol;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import nl.tudelft.simulation.dsol.eventList.EventListTest;
+import nl.tudelft.simulation.dsol.experiment.ParallelReplicationRunnerTest;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AtomicModelTest;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModelTest;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.DoubleCompareTest;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventTest;
+import nl.tudelft.simulation.dsol.formalisms.process.ThreadedProcessTest;
 import nl.tudelft.simulation.dsol.serialize.SerializeTest;
+import nl.tudelft.simulation.dsol.simulators.ConservativeSimulatorTest;
+import nl.tudelft.simulation.dsol.simulators.DEVSBatchSimulatorTest;
+import nl.tudelft.simulation.dsol.simulators.ParallelDEVSSimulatorTest;
+import nl.tudelft.simulation.dsol.simulators.ParallelIntegrationTest;
+import nl.tudelft.simulation.dsol.simulators.TimeWarpSimulatorTest;
 
 /**
  * The DSOL TestSuite defines the JUnit Test Suite which tests all DSOL classes.
@@ -35,7 +46,18 @@ public final class DSOLTestSuite
     {
         TestSuite suite = new TestSuite("DSOLTestSuite");
         suite.addTest(new EventListTest());
+        suite.addTest(new SimEventTest());
         suite.addTest(new SerializeTest("test"));
+        suite.addTest(new DEVSBatchSimulatorTest());
+        suite.addTest(new ParallelReplicationRunnerTest());
+        suite.addTest(new ThreadedProcessTest());
+        suite.addTest(new DoubleCompareTest());
+        suite.addTest(new ParallelIntegrationTest());
+        suite.addTest(new ParallelDEVSSimulatorTest());
+        suite.addTest(new TimeWarpSimulatorTest());
+        suite.addTest(new ConservativeSimulatorTest());
+        suite.addTest(new CoupledModelTest());
+        suite.addTest(new AtomicModelTest());
         // suite.addTest(new DESSSimulatorTest());
         // suite.addTest(new DEVSSimulatorTest());
         // suite.addTest(new RealTimeClockTest_Failed());
@@ -1,9 +1,22 @@
 package nl.tudelft.simulation.dsol.eventList;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import junit.framework.Assert;
 import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.eventlists.CalendarQueue;
 import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
+import nl.tudelft.simulation.dsol.eventlists.LadderQueue;
+import nl.tudelft.simulation.dsol.eventlists.PrimitiveEventHeap;
+import nl.tudelft.simulation.dsol.eventlists.QuaternaryHeap;
 import nl.tudelft.simulation.dsol.eventlists.RedBlackTree;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
 import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
@@ -63,6 +76,303 @@ public class EventListTest extends TestCase
      */
     public void test()
     {
+        testEventList(this.eventList);
+    }
+
+    /**
+     * tests the alternative event list implementations with the same test as the default event list.
+     */
+    public void testAlternativeEventLists()
+    {
+        testEventList(new QuaternaryHeap<SimTimeDouble>());
+        testEventList(new CalendarQueue<SimTimeDouble>());
+        testEventList(new LadderQueue<SimTimeDouble>());
+        testEventList(new PrimitiveEventHeap<SimTimeDouble>());
+    }
+
+    /**
+     * tests that the alternative event lists dequeue exactly the same sequence of events as the RedBlackTree in a hold model
+     * with ties in time and priority, and with cancelled events.
+     */
+    public void testHoldModel()
+    {
+        List<EventListInterface<SimTimeDouble>> eventLists = new ArrayList<>();
+        eventLists.add(new RedBlackTree<SimTimeDouble>());
+        eventLists.add(new QuaternaryHeap<SimTimeDouble>());
+        eventLists.add(new CalendarQueue<SimTimeDouble>());
+        eventLists.add(new LadderQueue<SimTimeDouble>());
+        eventLists.add(new PrimitiveEventHeap<SimTimeDouble>());
+        Random random = new Random(12);
+        for (int i = 0; i < 5000; i++)
+        {
+            SimTimeDouble time = new SimTimeDouble(Math.floor(100 * random.nextDouble()));
+            SimEvent<SimTimeDouble> event =
+                    new SimEvent<SimTimeDouble>(time, (short) (1 + random.nextInt(10)), this, this, "toString", null);
+            for (EventListInterface<SimTimeDouble> eventList : eventLists)
+            {
+                eventList.add(event);
+            }
+        }
+        for (int i = 0; i < 100000; i++)
+        {
+            SimEventInterface<SimTimeDouble> first = eventLists.get(0).removeFirst();
+            for (int j = 1; j < eventLists.size(); j++)
+            {
+                Assert.assertSame(eventLists.get(j).getClass().getSimpleName(), first, eventLists.get(j).removeFirst());
+            }
+            double delay = i % 10 == 0 ? 0.0 : Math.floor(100 * -Math.log(random.nextDouble()));
+            SimEvent<SimTimeDouble> event =
+                    new SimEvent<SimTimeDouble>(new SimTimeDouble(first.getAbsoluteExecutionTime().get() + delay),
+                            (short) (1 + random.nextInt(10)), this, this, "toString", null);
+            for (EventListInterface<SimTimeDouble> eventList : eventLists)
+            {
+                eventList.add(event);
+            }
+            if (i % 100 == 0)
+            {
+                for (EventListInterface<SimTimeDouble> eventList : eventLists)
+                {
+                    Assert.assertTrue(eventList.getClass().getSimpleName(), eventList.contains(event));
+                    Assert.assertTrue(eventList.getClass().getSimpleName(), eventList.remove(event));
+                    Assert.assertFalse(eventList.getClass().getSimpleName(), eventList.contains(event));
+                }
+            }
+        }
+        while (!eventLists.get(0).isEmpty())
+        {
+            SimEventInterface<SimTimeDouble> first = eventLists.get(0).removeFirst();
+            for (int j = 1; j < eventLists.size(); j++)
+            {
+                Assert.assertSame(eventLists.get(j).getClass().getSimpleName(), first, eventLists.get(j).removeFirst());
+            }
+        }
+        for (EventListInterface<SimTimeDouble> eventList : eventLists)
+        {
+            Assert.assertTrue(eventList.isEmpty());
+            Assert.assertNull(eventList.first());
+        }
+    }
+
+    /**
+     * tests that the alternative event lists dequeue exactly the same sequence of events as the RedBlackTree when many events
+     * are scheduled in bursts at the same time, with all priorities, and close to the time of the event that was dequeued
+     * last, so the ladder and calendar queues have to split buckets with equal times.
+     */
+    public void testTiesAndPriorities()
+    {
+        for (long seed : new long[] {13L, 64L, 187L, 1L, 2L, 3L})
+        {
+            List<EventListInterface<SimTimeDouble>> eventLists = new ArrayList<>();
+            eventLists.add(new RedBlackTree<SimTimeDouble>());
+            eventLists.add(new QuaternaryHeap<SimTimeDouble>());
+            eventLists.add(new CalendarQueue<SimTimeDouble>());
+            eventLists.add(new LadderQueue<SimTimeDouble>());
+            eventLists.add(new PrimitiveEventHeap<SimTimeDouble>());
+            Random random = new Random(seed);
+            double[] delays = {0.0, 0.0, 0.5, 1.0, 1.0, 2.0, 0.1, 0.3};
+            double now = 0.0;
+            for (int step = 0; step < 20000; step++)
+            {
+                int burst = random.nextInt(4) == 0 ? 1 + random.nextInt(80) : 1;
+                double time = now + delays[random.nextInt(delays.length)] * (1 + random.nextInt(3));
+                for (int i = 0; i < burst; i++)
+                {
+                    short priority = (short) random.nextInt(SimEventInterface.MAX_PRIORITY + 2);
+                    SimEvent<SimTimeDouble> event =
+                            new SimEvent<SimTimeDouble>(new SimTimeDouble(time), priority, this, this, "toString", null);
+                    for (EventListInterface<SimTimeDouble> eventList : eventLists)
+                    {
+                        eventList.add(event);
+                    }
+                }
+                int removals = 1 + random.nextInt(burst + 1);
+                for (int i = 0; i < removals && !eventLists.get(0).isEmpty(); i++)
+                {
+                    SimEventInterface<SimTimeDouble> first = eventLists.get(0).removeFirst();
+                    for (int j = 1; j < eventLists.size(); j++)
+                    {
+                        Assert.assertSame(eventLists.get(j).getClass().getSimpleName() + ", seed " + seed + ", step " + step,
+                                first, eventLists.get(j).removeFirst());
+                    }
+                    now = first.getAbsoluteExecutionTime().get();
+                }
+            }
+            while (!eventLists.get(0).isEmpty())
+            {
+                SimEventInterface<SimTimeDouble> first = eventLists.get(0).removeFirst();
+                for (int j = 1; j < eventLists.size(); j++)
+                {
+                    Assert.assertSame(eventLists.get(j).getClass().getSimpleName() + ", seed " + seed, first,
+                            eventLists.get(j).removeFirst());
+                }
+            }
+        }
+    }
+
+    /**
+     * tests that events with the same time and priority are ordered by their order before their id, so events with an order
+     * that were constructed in reverse order come out in their order, after the events with order 0, and that events with the
+     * same order are ordered by their id.
+     */
+    public void testOrder()
+    {
+        List<EventListInterface<SimTimeDouble>> eventLists = new ArrayList<>();
+        eventLists.add(new RedBlackTree<SimTimeDouble>());
+        eventLists.add(new QuaternaryHeap<SimTimeDouble>());
+        eventLists.add(new CalendarQueue<SimTimeDouble>());
+        eventLists.add(new LadderQueue<SimTimeDouble>());
+        eventLists.add(new PrimitiveEventHeap<SimTimeDouble>());
+        short priority = SimEventInterface.MAX_PRIORITY + 1;
+        List<SimEventInterface<SimTimeDouble>> expected = new ArrayList<>();
+        List<SimEventInterface<SimTimeDouble>> ordered = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            expected.add(new SimEvent<SimTimeDouble>(new SimTimeDouble(1.0), priority, this, this, "toString", null));
+        }
+        for (long order = 10; order > 0; order--)
+        {
+            // two events with the same order, which are ordered by their id
+            ordered.add(0, new OrderedEvent(new SimTimeDouble(1.0), priority, order));
+            ordered.add(1, new OrderedEvent(new SimTimeDouble(1.0), priority, order));
+        }
+        expected.addAll(ordered);
+        for (EventListInterface<SimTimeDouble> eventList : eventLists)
+        {
+            for (int i = expected.size() - 1; i >= 0; i--)
+            {
+                eventList.add(expected.get(i));
+            }
+            eventList.add(new SimEvent<SimTimeDouble>(new SimTimeDouble(0.5), this, this, "toString", null));
+            eventList.removeFirst();
+            for (int i = 0; i < expected.size(); i++)
+            {
+                Assert.assertSame(eventList.getClass().getSimpleName() + ", event " + i, expected.get(i),
+                        eventList.removeFirst());
+            }
+        }
+    }
+
+    /**
+     * tests that events that are added in bulk with addAll, both in small batches that are added one by one and in large
+     * batches that are heapified, are dequeued in the same order as from the RedBlackTree.
+     */
+    public void testAddAll()
+    {
+        List<EventListInterface<SimTimeDouble>> eventLists = new ArrayList<>();
+        eventLists.add(new RedBlackTree<SimTimeDouble>());
+        eventLists.add(new QuaternaryHeap<SimTimeDouble>());
+        eventLists.add(new CalendarQueue<SimTimeDouble>());
+        eventLists.add(new LadderQueue<SimTimeDouble>());
+        eventLists.add(new PrimitiveEventHeap<SimTimeDouble>());
+        Random random = new Random(34);
+        for (int batchSize : new int[] {1, 3, 1000, 10, 20000, 0, 2})
+        {
+            List<SimEventInterface<SimTimeDouble>> batch = new ArrayList<>();
+            for (int i = 0; i < batchSize; i++)
+            {
+                SimTimeDouble time = new SimTimeDouble(Math.floor(1000 * random.nextDouble()));
+                batch.add(new SimEvent<SimTimeDouble>(time, (short) (1 + random.nextInt(10)), this, this, "toString", null));
+            }
+            for (EventListInterface<SimTimeDouble> eventList : eventLists)
+            {
+                Assert.assertEquals(eventList.getClass().getSimpleName(), batchSize > 0, eventList.addAll(batch));
+                Assert.assertEquals(eventList.getClass().getSimpleName(), eventLists.get(0).size(), eventList.size());
+            }
+        }
+        while (!eventLists.get(0).isEmpty())
+        {
+            SimEventInterface<SimTimeDouble> first = eventLists.get(0).removeFirst();
+            for (int j = 1; j < eventLists.size(); j++)
+            {
+                Assert.assertSame(eventLists.get(j).getClass().getSimpleName(), first, eventLists.get(j).removeFirst());
+            }
+        }
+        for (EventListInterface<SimTimeDouble> eventList : eventLists)
+        {
+            Assert.assertTrue(eventList.isEmpty());
+        }
+    }
+
+    /**
+     * tests that the heaps find and remove the events that they hold with the index that the events keep, when events are
+     * added one by one and in bulk, cancelled, executed, and when the heap is serialized.
+     * @throws Exception on serialization error
+     */
+    public void testCancel() throws Exception
+    {
+        List<EventListInterface<SimTimeDouble>> heaps = new ArrayList<>();
+        heaps.add(new QuaternaryHeap<SimTimeDouble>());
+        heaps.add(new PrimitiveEventHeap<SimTimeDouble>());
+        for (EventListInterface<SimTimeDouble> heap : heaps)
+        {
+            String name = heap.getClass().getSimpleName();
+            Random random = new Random(56);
+            List<SimEventInterface<SimTimeDouble>> events = new ArrayList<>();
+            for (int i = 0; i < 5000; i++)
+            {
+                SimTimeDouble time = new SimTimeDouble(Math.floor(1000 * random.nextDouble()));
+                events.add(new SimEvent<SimTimeDouble>(time, (short) (1 + random.nextInt(10)), "source", "target", "toString",
+                        null));
+            }
+            for (SimEventInterface<SimTimeDouble> event : events.subList(0, 2000))
+            {
+                heap.add(event);
+            }
+            heap.addAll(events.subList(2000, events.size()));
+            List<SimEventInterface<SimTimeDouble>> cancelled = new ArrayList<>();
+            for (int i = 0; i < events.size(); i += 3)
+            {
+                SimEventInterface<SimTimeDouble> event = events.get(i);
+                Assert.assertTrue(name, heap.contains(event));
+                Assert.assertTrue(name, heap.remove(event));
+                Assert.assertFalse(name, heap.contains(event));
+                Assert.assertFalse(name, heap.remove(event));
+                cancelled.add(event);
+            }
+            Assert.assertEquals(name, events.size() - cancelled.size(), heap.size());
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+            {
+                out.writeObject(heap);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+            {
+                @SuppressWarnings("unchecked")
+                EventListInterface<SimTimeDouble> copy = (EventListInterface<SimTimeDouble>) in.readObject();
+                SimEventInterface<SimTimeDouble> last = copy.last();
+                Assert.assertTrue(name, copy.contains(last));
+                Assert.assertTrue(name, copy.remove(last));
+                Assert.assertFalse(name, copy.contains(last));
+                Assert.assertEquals(name, heap.size() - 1, copy.size());
+            }
+
+            SimEventInterface<SimTimeDouble> previous = null;
+            while (!heap.isEmpty())
+            {
+                SimEventInterface<SimTimeDouble> first = heap.removeFirst();
+                Assert.assertFalse(name, heap.contains(first));
+                Assert.assertFalse(name, cancelled.contains(first));
+                if (previous != null)
+                {
+                    Assert.assertTrue(name, previous.getAbsoluteExecutionTime().le(first.getAbsoluteExecutionTime()));
+                }
+                previous = first;
+            }
+            for (SimEventInterface<SimTimeDouble> event : events)
+            {
+                Assert.assertFalse(name, heap.contains(event));
+            }
+        }
+    }
+
+    /**
+     * tests an event list.
+     * @param eventList the event list to test
+     */
+    private void testEventList(final EventListInterface<SimTimeDouble> eventList)
+    {
+        this.eventList = eventList;
         Assert.assertNotNull(this.eventList);
         try
         {
@@ -136,4 +446,29 @@ public class EventListTest extends TestCase
             Assert.fail(exception.getMessage());
         }
     }
+
+    /** Event with an order, such as a delayed message of a DEVS coupling. */
+    static class OrderedEvent extends AbstractSimEvent<SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param executionTime SimTimeDouble; the execution time
+         * @param priority short; the priority
+         * @param order long; the order among the events with the same time and priority
+         */
+        OrderedEvent(final SimTimeDouble executionTime, final short priority, final long order)
+        {
+            super(executionTime, priority);
+            this.order = order;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void execute()
+        {
+            // no action
+        }
+    }
 }
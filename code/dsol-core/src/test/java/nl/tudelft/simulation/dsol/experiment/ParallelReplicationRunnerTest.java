@@ -0,0 +1,157 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+import nl.tudelft.simulation.dsol.statistics.SimCounter;
+import nl.tudelft.simulation.dsol.statistics.SimTally;
+import nl.tudelft.simulation.event.Event;
+import nl.tudelft.simulation.event.EventType;
+import nl.tudelft.simulation.jstats.statistics.Tally;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * The test of the ParallelReplicationRunner: the aggregated results should not depend on the number of threads, and every
+ * replication should use its own copy of the seeded streams.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ */
+public class ParallelReplicationRunnerTest extends TestCase
+{
+    /** the number of replications. */
+    private static final int REPLICATIONS = 8;
+
+    /**
+     * constructs a new ParallelReplicationRunnerTest.
+     */
+    public ParallelReplicationRunnerTest()
+    {
+        super("test");
+    }
+
+    /**
+     * Create an experiment with a number of replications.
+     * @return Experiment.TimeDouble&lt;DEVSSimulator.TimeDouble&gt;; the experiment
+     * @throws Exception on error
+     */
+    private static Experiment.TimeDouble<DEVSSimulator.TimeDouble> createExperiment() throws Exception
+    {
+        Experiment.TimeDouble<DEVSSimulator.TimeDouble> experiment = new Experiment.TimeDouble<>();
+        experiment.setSimulator(new DEVSSimulator.TimeDouble());
+        experiment.setTreatment(new Treatment.TimeDouble(experiment, "treatment", 0.0, 10.0, 1000.0));
+        List<Replication.TimeDouble<DEVSSimulator.TimeDouble>> replications = new ArrayList<>();
+        for (int i = 0; i < REPLICATIONS; i++)
+        {
+            replications.add(new Replication.TimeDouble<DEVSSimulator.TimeDouble>("rep" + i, experiment));
+        }
+        experiment.setReplications(replications);
+        return experiment;
+    }
+
+    /**
+     * tests the ParallelReplicationRunner.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        Experiment.TimeDouble<DEVSSimulator.TimeDouble> experiment = createExperiment();
+        SortedMap<String, Tally> sequential =
+                new ParallelReplicationRunner<Double, Double, SimTimeDouble, DEVSSimulator.TimeDouble>(experiment,
+                        simulator -> new ArrivalModel(simulator), 1).run();
+        SortedMap<String, Tally> parallel =
+                new ParallelReplicationRunner<Double, Double, SimTimeDouble, DEVSSimulator.TimeDouble>(experiment,
+                        simulator -> new ArrivalModel(simulator), 4).run();
+
+        assertEquals(2, sequential.size());
+        assertEquals(sequential.keySet(), parallel.keySet());
+        for (String key : sequential.keySet())
+        {
+            Tally expected = sequential.get(key);
+            Tally actual = parallel.get(key);
+            assertEquals(REPLICATIONS, expected.getN());
+            assertEquals(REPLICATIONS, actual.getN());
+            assertEquals(expected.getSampleMean(), actual.getSampleMean(), 0.0);
+            assertEquals(expected.getSampleVariance(), actual.getSampleVariance(), 0.0);
+            // the replications use different streams
+            assertTrue(actual.getStdDev() > 0.0);
+        }
+        assertEquals(0.5, parallel.get("uniform").getSampleMean(), 0.05);
+
+        // the streams of the experiment are copied, and have not been used
+        StreamInterface stream = experiment.getReplications().get(0).getStream("default");
+        assertEquals(new MersenneTwister("rep0".hashCode()).nextDouble(), stream.nextDouble(), 0.0);
+    }
+
+    /** Model that draws from the default stream of the replication at every arrival. */
+    static class ArrivalModel extends AbstractDSOLModel.TimeDouble<DEVSSimulator.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the event type for the observations. */
+        private static final EventType SAMPLE_EVENT = new EventType("SAMPLE_EVENT");
+
+        /** the tally of the drawn values. */
+        private SimTally.TimeDouble tally;
+
+        /** the counter of the arrivals. */
+        private SimCounter.TimeDouble counter;
+
+        /**
+         * @param simulator DEVSSimulator.TimeDouble; the simulator
+         */
+        ArrivalModel(final DEVSSimulator.TimeDouble simulator)
+        {
+            super(simulator);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                this.tally = new SimTally.TimeDouble("uniform", this.simulator);
+                this.counter = new SimCounter.TimeDouble("arrivals", this.simulator);
+            }
+            catch (RemoteException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+            arrival();
+        }
+
+        /**
+         * draw a value, and schedule the next arrival.
+         */
+        private void arrival()
+        {
+            StreamInterface stream = ((DEVSSimulatorInterface.TimeDouble) this.simulator).getReplication().getStream("default");
+            this.tally.notify(new Event(SAMPLE_EVENT, this, stream.nextDouble()));
+            this.counter.notify(new Event(SAMPLE_EVENT, this, 1));
+            try
+            {
+                this.simulator.scheduleEventRel(-Math.log(stream.nextDouble()), () -> arrival());
+            }
+            catch (SimRuntimeException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+
+/**
+ * The test of the handling of inputs by an atomic model: inputs that arrive during a transition are queued and handled after
+ * the transition, a self-coupled model terminates, and an internal event that has been superseded is skipped.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class AtomicModelTest extends TestCase
+{
+    /**
+     * constructs a new AtomicModelTest.
+     */
+    public AtomicModelTest()
+    {
+        super("test");
+    }
+
+    /**
+     * tests that an input that arrives during the external transition of a model is queued, and handled after the transition.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        DEVSSimulator.TimeDouble simulator = new DEVSSimulator.TimeDouble();
+        try
+        {
+            initialize(simulator, 100.0, null);
+            List<String> log = new ArrayList<>();
+            Top top = new Top(simulator);
+            Echo a = new Echo("a", top, log, false);
+            Echo b = new Echo("b", top, log, true);
+            top.addInternalCoupling(a.out, b.in);
+            top.addInternalCoupling(b.out, a.in);
+            a.in.receive(1, simulator.getSimTime());
+            assertEquals(Arrays.asList("a start 1", "b start 1", "b end 1", "a end 1", "a start 2", "a end 2"), log);
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /**
+     * tests that a model that is coupled to itself terminates, also for a chain of messages that is too long to be handled
+     * with a nested call per message. A direct coupling from a model to itself is not allowed, so the messages come back
+     * through a relay model.
+     * @throws Exception on error
+     */
+    public void testSelfCoupling() throws Exception
+    {
+        DEVSSimulator.TimeDouble simulator = new DEVSSimulator.TimeDouble();
+        try
+        {
+            initialize(simulator, 100.0, null);
+            Top top = new Top(simulator);
+            Countdown countdown = new Countdown(top);
+            Relay relay = new Relay(top);
+            top.addInternalCoupling(countdown.out, relay.in);
+            top.addInternalCoupling(relay.out, countdown.in);
+            countdown.in.receive(100000, simulator.getSimTime());
+            assertEquals(100001, countdown.received);
+            assertEquals(0, countdown.last);
+
+            // the model handles new inputs after the chain
+            countdown.in.receive(2, simulator.getSimTime());
+            assertEquals(100004, countdown.received);
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /**
+     * tests that an internal event that has been superseded by an earlier or a later internal event is skipped, with and
+     * without lazy invalidation.
+     * @throws Exception on error
+     */
+    public void testSupersededEvent() throws Exception
+    {
+        for (boolean lazy : new boolean[] {false, true})
+        {
+            // an input at time 1 moves the internal event from time 5 to time 11
+            assertEquals("lazy=" + lazy, Arrays.asList(11.0), runClock(lazy, 10.0));
+            // an input at time 1 moves the internal event from time 5 to time 3
+            assertEquals("lazy=" + lazy, Arrays.asList(3.0), runClock(lazy, 2.0));
+        }
+    }
+
+    /**
+     * run a clock with a time advance of 5, which gets a new time advance at time 1.
+     * @param lazy boolean; whether the clock invalidates its internal event lazily
+     * @param timeAdvance double; the new time advance at time 1
+     * @return List&lt;Double&gt;; the times of the internal transitions of the clock
+     * @throws Exception on error
+     */
+    private static List<Double> runClock(final boolean lazy, final double timeAdvance) throws Exception
+    {
+        DEVSSimulator.TimeDouble simulator = new DEVSSimulator.TimeDouble();
+        try
+        {
+            final Clock[] clock = new Clock[1];
+            final int[] staleEvents = new int[1];
+            initialize(simulator, 100.0, (sim) -> {
+                Top top = new Top(sim);
+                clock[0] = new Clock(top, lazy);
+                clock[0].initialize(0.0);
+                sim.scheduleEventAbs(1.0, () -> {
+                    try
+                    {
+                        clock[0].in.receive(timeAdvance, sim.getSimTime());
+                        for (SimEventInterface<SimTimeDouble> event : sim.getEventList())
+                        {
+                            if (event.getAbsoluteExecutionTime().get() == 5.0)
+                            {
+                                staleEvents[0]++;
+                            }
+                        }
+                    }
+                    catch (Exception exception)
+                    {
+                        fail(exception.getMessage());
+                    }
+                });
+            });
+            simulator.start();
+            long timeout = System.currentTimeMillis() + 10000L;
+            while (simulator.isRunning() && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(1);
+            }
+            assertFalse("simulator did not stop", simulator.isRunning());
+            assertEquals(100.0, simulator.getSimulatorTime(), 0.0);
+            // with lazy invalidation, the superseded event stays in the event list, and is skipped when it is executed
+            assertEquals(lazy ? 1 : 0, staleEvents[0]);
+            return clock[0].internals;
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /**
+     * initialize the simulator with a replication of a model.
+     * @param simulator DEVSSimulator.TimeDouble; the simulator
+     * @param runLength double; the run length
+     * @param builder Builder; builds the model, or null when the test builds the model after the initialization
+     * @throws Exception on error
+     */
+    private static void initialize(final DEVSSimulator.TimeDouble simulator, final double runLength, final Builder builder)
+            throws Exception
+    {
+        AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble> model =
+                new AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>(simulator)
+                {
+                    /** */
+                    private static final long serialVersionUID = 1L;
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public void constructModel() throws SimRuntimeException
+                    {
+                        if (builder != null)
+                        {
+                            builder.build(this.simulator);
+                        }
+                    }
+                };
+        simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, runLength, model), ReplicationMode.TERMINATING);
+    }
+
+    /** Builds the model of a test in the constructModel method. */
+    interface Builder
+    {
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @throws SimRuntimeException on error
+         */
+        void build(DEVSSimulatorInterface.TimeDouble simulator) throws SimRuntimeException;
+    }
+
+    /** Top model. */
+    static class Top extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         */
+        Top(final DEVSSimulatorInterface.TimeDouble simulator)
+        {
+            super("top", simulator);
+        }
+    }
+
+    /** Passive atomic model with an input port and an output port for integers. */
+    abstract static class Passive extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        @SuppressWarnings("checkstyle:visibilitymodifier")
+        protected final InputPort<Double, Double, SimTimeDouble, Integer> in = new InputPort<>(this);
+
+        /** the output port. */
+        @SuppressWarnings("checkstyle:visibilitymodifier")
+        protected final OutputPort<Double, Double, SimTimeDouble, Integer> out = new OutputPort<>(this);
+
+        /**
+         * @param modelName String; the name of the model
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         */
+        Passive(final String modelName, final CoupledModel<Double, Double, SimTimeDouble> parentModel)
+        {
+            super(modelName, parentModel);
+            try
+            {
+                addInputPort("in", this.in);
+                addOutputPort("out", this.out);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            // passive model
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            // passive model
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /** Model that logs the start and the end of its external transitions, and sends a message during the transition. */
+    static class Echo extends Passive
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the log. */
+        private final List<String> log;
+
+        /** whether the model sends the next number instead of the same number. */
+        private final boolean increment;
+
+        /**
+         * @param modelName String; the name of the model
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         * @param log List&lt;String&gt;; the log
+         * @param increment boolean; whether the model sends the next number instead of the same number
+         */
+        Echo(final String modelName, final CoupledModel<Double, Double, SimTimeDouble> parentModel, final List<String> log,
+                final boolean increment)
+        {
+            super(modelName, parentModel);
+            this.log = log;
+            this.increment = increment;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            int number = (Integer) value;
+            this.log.add(getModelName() + " start " + number);
+            // the model that does not increment only reacts to the first message, to stop the cycle
+            if (this.increment || number == 1)
+            {
+                this.out.send(this.increment ? number + 1 : number);
+            }
+            this.log.add(getModelName() + " end " + number);
+        }
+    }
+
+    /** Model that sends the number it receives. */
+    static class Relay extends Passive
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         */
+        Relay(final CoupledModel<Double, Double, SimTimeDouble> parentModel)
+        {
+            super("relay", parentModel);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            this.out.send((Integer) value);
+        }
+    }
+
+    /** Model that sends the number it receives minus one, until it receives zero. */
+    static class Countdown extends Passive
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the number of received messages. */
+        private int received = 0;
+
+        /** the last received number. */
+        private int last = -1;
+
+        /**
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         */
+        Countdown(final CoupledModel<Double, Double, SimTimeDouble> parentModel)
+        {
+            super("countdown", parentModel);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            int number = (Integer) value;
+            this.received++;
+            this.last = number;
+            if (number > 0)
+            {
+                this.out.send(number - 1);
+            }
+        }
+    }
+
+    /** Model with a time advance of 5 that gets a new time advance through its input port, and records its transitions. */
+    static class Clock extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port for the new time advance. */
+        private final InputPort<Double, Double, SimTimeDouble, Double> in = new InputPort<>(this);
+
+        /** the time advance. */
+        private double timeAdvance = 5.0;
+
+        /** the times of the internal transitions. */
+        private final List<Double> internals = new ArrayList<>();
+
+        /**
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         * @param lazy boolean; whether the model invalidates its internal event lazily
+         */
+        Clock(final CoupledModel<Double, Double, SimTimeDouble> parentModel, final boolean lazy)
+        {
+            super("clock", parentModel);
+            setLazyInvalidation(lazy);
+            try
+            {
+                addInputPort("in", this.in);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            this.internals.add(this.simulator.getSimulatorTime());
+            this.timeAdvance = Double.POSITIVE_INFINITY;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            this.timeAdvance = (Double) value;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            // no output
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.timeAdvance;
+        }
+    }
+}
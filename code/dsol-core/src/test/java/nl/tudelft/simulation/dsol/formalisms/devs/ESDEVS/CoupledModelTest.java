@@ -0,0 +1,427 @@
+package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+
+/**
+ * The test of the routing of messages through the couplings of coupled models: the routing through nested coupled models,
+ * the rebuilding of the routing tables when couplings change, and the removal of couplings.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class CoupledModelTest extends TestCase
+{
+    /** the simulator. */
+    private DEVSSimulator.TimeDouble simulator;
+
+    /** the top model. */
+    private Top top;
+
+    /**
+     * constructs a new CoupledModelTest.
+     */
+    public CoupledModelTest()
+    {
+        super("test");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void setUp() throws Exception
+    {
+        this.simulator = new DEVSSimulator.TimeDouble();
+        AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble> model =
+                new AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>(this.simulator)
+                {
+                    /** */
+                    private static final long serialVersionUID = 1L;
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public void constructModel()
+                    {
+                        // the structure is built by the test
+                    }
+                };
+        this.simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 100.0, model), ReplicationMode.TERMINATING);
+        this.top = new Top(this.simulator);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void tearDown() throws Exception
+    {
+        this.simulator.cleanUp();
+    }
+
+    /**
+     * tests the routing through external input couplings, internal couplings and external output couplings of nested coupled
+     * models.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        this.top.source.out.send("a");
+        assertReceived(this.top.direct, "a");
+        assertReceived(this.top.sub.sink, "a");
+        assertReceived(this.top.sub.relay, "a");
+        assertReceived(this.top.sub.inner.deep, "a");
+        assertReceived(this.top.sink, "a");
+
+        // a message that arrives at the input port of a coupled model is routed in the same way
+        this.top.sub.in.receive("b", this.simulator.getSimTime());
+        assertReceived(this.top.direct, "a");
+        assertReceived(this.top.sub.sink, "a", "b");
+        assertReceived(this.top.sub.inner.deep, "a", "b");
+        assertReceived(this.top.sink, "a", "b");
+
+        // a message of a component that is not coupled is not routed
+        new Sink("loose", this.top).out.send("c");
+        assertReceived(this.top.sink, "a", "b");
+    }
+
+    /**
+     * tests that the routing tables of the coupled model and of the coupled models above it are rebuilt when couplings are
+     * added and removed, also deep in the hierarchy.
+     */
+    public void testRebuild()
+    {
+        this.top.source.out.send("a");
+        Sink extra = new Sink("extra", this.top.sub.inner);
+        this.top.sub.inner.addExternalInputCoupling(this.top.sub.inner.in, extra.in);
+        this.top.source.out.send("b");
+        assertReceived(extra, "b");
+        assertReceived(this.top.sub.inner.deep, "a", "b");
+
+        this.top.sub.inner.removeExternalInputCoupling(this.top.sub.inner.in, extra.in);
+        this.top.source.out.send("c");
+        assertReceived(extra, "b");
+        assertReceived(this.top.sub.inner.deep, "a", "b", "c");
+
+        this.top.removeInternalCoupling(this.top.source.out, this.top.direct.in);
+        this.top.source.out.send("d");
+        assertReceived(this.top.direct, "a", "b", "c");
+        assertReceived(this.top.sub.sink, "a", "b", "c", "d");
+
+        this.top.addInternalCoupling(this.top.source.out, this.top.direct.in);
+        this.top.source.out.send("e");
+        assertReceived(this.top.direct, "a", "b", "c", "e");
+    }
+
+    /**
+     * tests that every remove method removes the couplings it should remove, and only those.
+     * @throws Exception on error
+     */
+    public void testRemove() throws Exception
+    {
+        Sub sub = this.top.sub;
+
+        // an internal coupling, and not the other internal coupling from the same port
+        this.top.removeInternalCoupling(this.top.source.out, this.top.direct.in);
+        assertEquals(2, this.top.getInternalCouplingSet().size());
+        assertFalse(hasInternalCoupling(this.top, this.top.source.out, this.top.direct.in));
+        assertTrue(hasInternalCoupling(this.top, this.top.source.out, sub.in));
+
+        // an external input coupling, and not the other external input couplings from the same port
+        sub.removeExternalInputCoupling(sub.in, sub.sink.in);
+        assertEquals(2, sub.getExternalInputCouplingSet().size());
+        for (EIC<Double, Double, SimTimeDouble, ?> eic : sub.getExternalInputCouplingSet())
+        {
+            assertNotSame(sub.sink.in, eic.getToPort());
+        }
+
+        // an external output coupling
+        sub.removeExternalOutputCoupling(sub.relay.out, sub.out);
+        assertTrue(sub.getExternalOutputCouplingSet().isEmpty());
+        this.top.source.out.send("a");
+        assertReceived(this.top.direct);
+        assertReceived(sub.sink);
+        assertReceived(sub.relay, "a");
+        assertReceived(sub.inner.deep, "a");
+        assertReceived(this.top.sink);
+
+        // a model component, with the couplings to and from its ports
+        sub.removeModelComponent(sub.inner);
+        assertFalse(sub.getModelComponents().contains(sub.inner));
+        assertEquals(1, sub.getExternalInputCouplingSet().size());
+        assertSame(sub.relay.in, sub.getExternalInputCouplingSet().iterator().next().getToPort());
+        this.top.source.out.send("b");
+        assertReceived(sub.relay, "a", "b");
+        assertReceived(sub.inner.deep, "a");
+    }
+
+    /**
+     * tests that removing a port of a coupled model removes the couplings of the port within the model, and the couplings to
+     * and from the port in the parent model.
+     * @throws Exception on error
+     */
+    public void testRemovePort() throws Exception
+    {
+        Sub sub = this.top.sub;
+        sub.removeInputPort("in");
+        assertTrue(sub.getExternalInputCouplingSet().isEmpty());
+        assertFalse(hasInternalCoupling(this.top, this.top.source.out, sub.in));
+        assertTrue(hasInternalCoupling(this.top, this.top.source.out, this.top.direct.in));
+        assertTrue(hasInternalCoupling(this.top, sub.out, this.top.sink.in));
+
+        sub.removeOutputPort("out");
+        assertTrue(sub.getExternalOutputCouplingSet().isEmpty());
+        assertFalse(hasInternalCoupling(this.top, sub.out, this.top.sink.in));
+        assertEquals(1, this.top.getInternalCouplingSet().size());
+
+        this.top.source.out.send("a");
+        assertReceived(this.top.direct, "a");
+        assertReceived(sub.relay);
+        assertReceived(this.top.sink);
+    }
+
+    /**
+     * tests that the couplings with a delay are numbered per top model, also when they are made in a submodel, so the order
+     * of their messages does not depend on other models in the same JVM.
+     */
+    public void testDelayedCouplings()
+    {
+        assertEquals(1, this.top.numberDelayedCoupling());
+        assertEquals(2, this.top.sub.inner.numberDelayedCoupling());
+        assertEquals(1, new Top(this.simulator).numberDelayedCoupling());
+        this.top.addInternalCoupling(this.top.source.out, this.top.direct.in, 1.0);
+        assertEquals(4, this.top.sub.numberDelayedCoupling());
+    }
+
+    /**
+     * @param coupled CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the coupled model
+     * @param fromPort OutputPortInterface&lt;Double,Double,SimTimeDouble,?&gt;; the start of the coupling
+     * @param toPort InputPortInterface&lt;Double,Double,SimTimeDouble,?&gt;; the end of the coupling
+     * @return boolean; whether the coupled model has an internal coupling between the ports
+     */
+    private static boolean hasInternalCoupling(final CoupledModel<Double, Double, SimTimeDouble> coupled,
+            final OutputPortInterface<Double, Double, SimTimeDouble, ?> fromPort,
+            final InputPortInterface<Double, Double, SimTimeDouble, ?> toPort)
+    {
+        for (IC<Double, Double, SimTimeDouble, ?> ic : coupled.getInternalCouplingSet())
+        {
+            if (ic.getFromPort() == fromPort && ic.getToPort() == toPort)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param sink Sink; the sink
+     * @param values Object...; the values that the sink should have received, in order
+     */
+    private static void assertReceived(final Sink sink, final Object... values)
+    {
+        assertEquals(sink.getModelName(), Arrays.asList(values), sink.received);
+    }
+
+    /** Atomic model that records the messages it receives, and that can forward them to its output port. */
+    static class Sink extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in = new InputPort<>(this);
+
+        /** the output port. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out = new OutputPort<>(this);
+
+        /** whether the model forwards the messages to its output port. */
+        private final boolean forward;
+
+        /** the received messages. */
+        private final List<Object> received = new ArrayList<>();
+
+        /**
+         * @param modelName String; the name of the model
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         */
+        Sink(final String modelName, final CoupledModel<Double, Double, SimTimeDouble> parentModel)
+        {
+            this(modelName, parentModel, false);
+        }
+
+        /**
+         * @param modelName String; the name of the model
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         * @param forward boolean; whether the model forwards the messages to its output port
+         */
+        Sink(final String modelName, final CoupledModel<Double, Double, SimTimeDouble> parentModel, final boolean forward)
+        {
+            super(modelName, parentModel);
+            this.forward = forward;
+            try
+            {
+                addInputPort("in", this.in);
+                addOutputPort("out", this.out);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            // passive model
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            this.received.add(value);
+            if (this.forward)
+            {
+                this.out.send(value);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            // passive model
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /** Top model: source -&gt; direct, source -&gt; sub.in, sub.out -&gt; sink. */
+    static class Top extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the source of the messages. */
+        private final Sink source;
+
+        /** the sink that is coupled directly to the source. */
+        private final Sink direct;
+
+        /** the coupled component. */
+        private final Sub sub;
+
+        /** the sink of the output of the coupled component. */
+        private final Sink sink;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         */
+        Top(final DEVSSimulatorInterface.TimeDouble simulator)
+        {
+            super("top", simulator);
+            this.source = new Sink("source", this);
+            this.direct = new Sink("direct", this);
+            this.sub = new Sub(this);
+            this.sink = new Sink("sink", this);
+            addInternalCoupling(this.source.out, this.direct.in);
+            addInternalCoupling(this.source.out, this.sub.in);
+            addInternalCoupling(this.sub.out, this.sink.in);
+        }
+    }
+
+    /** Coupled model: in -&gt; sink, in -&gt; inner.in, in -&gt; relay -&gt; out. */
+    static class Sub extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in = new InputPort<>(this);
+
+        /** the output port. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out = new OutputPort<>(this);
+
+        /** the sink. */
+        private final Sink sink;
+
+        /** the nested coupled component. */
+        private final Inner inner;
+
+        /** the model that forwards its input to the output port of this model. */
+        private final Sink relay;
+
+        /**
+         * @param parentModel CoupledModel.TimeDouble; the parent model
+         */
+        Sub(final CoupledModel.TimeDouble parentModel)
+        {
+            super("sub", parentModel);
+            try
+            {
+                addInputPort("in", this.in);
+                addOutputPort("out", this.out);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                fail(exception.getMessage());
+            }
+            this.sink = new Sink("sub.sink", this);
+            this.inner = new Inner(this);
+            this.relay = new Sink("sub.relay", this, true);
+            addExternalInputCoupling(this.in, this.sink.in);
+            addExternalInputCoupling(this.in, this.inner.in);
+            addExternalInputCoupling(this.in, this.relay.in);
+            addExternalOutputCoupling(this.relay.out, this.out);
+        }
+    }
+
+    /** Coupled model within a coupled model: in -&gt; deep. */
+    static class Inner extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in = new InputPort<>(this);
+
+        /** the sink. */
+        private final Sink deep;
+
+        /**
+         * @param parentModel CoupledModel.TimeDouble; the parent model
+         */
+        Inner(final CoupledModel.TimeDouble parentModel)
+        {
+            super("inner", parentModel);
+            try
+            {
+                addInputPort("in", this.in);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                fail(exception.getMessage());
+            }
+            this.deep = new Sink("inner.deep", this);
+            addExternalInputCoupling(this.in, this.deep.in);
+        }
+    }
+}
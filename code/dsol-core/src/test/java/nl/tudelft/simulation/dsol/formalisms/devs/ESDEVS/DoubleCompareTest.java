@@ -0,0 +1,63 @@
+package nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS;
+
+import junit.framework.TestCase;
+
+/**
+ * The test script for the DoubleCompare, in particular for infinite arguments, which are the time advance of a passive
+ * atomic model.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class DoubleCompareTest extends TestCase
+{
+    /**
+     * constructs a new DoubleCompareTest.
+     */
+    public DoubleCompareTest()
+    {
+        super("test");
+    }
+
+    /**
+     * tests the comparison of finite, infinite and NaN values in both argument orders.
+     */
+    public void test()
+    {
+        final double inf = Double.POSITIVE_INFINITY;
+        final double negInf = Double.NEGATIVE_INFINITY;
+
+        // finite values
+        assertEquals(0, DoubleCompare.compare(1.0, 1.0));
+        assertEquals(0, DoubleCompare.compare(0.0, -0.0));
+        assertEquals(-1, DoubleCompare.compare(1.0, 2.0));
+        assertEquals(1, DoubleCompare.compare(2.0, 1.0));
+
+        // finite against +Infinity and -Infinity, in both argument orders
+        for (double finite : new double[] {-1.0E300, -1.0, 0.0, 1.0, 1.0E300, Double.MAX_VALUE})
+        {
+            assertEquals("compare(" + finite + ", +Inf)", -1, DoubleCompare.compare(finite, inf));
+            assertEquals("compare(+Inf, " + finite + ")", 1, DoubleCompare.compare(inf, finite));
+            assertEquals("compare(" + finite + ", -Inf)", 1, DoubleCompare.compare(finite, negInf));
+            assertEquals("compare(-Inf, " + finite + ")", -1, DoubleCompare.compare(negInf, finite));
+        }
+
+        // infinite against infinite
+        assertEquals(0, DoubleCompare.compare(inf, inf));
+        assertEquals(0, DoubleCompare.compare(negInf, negInf));
+        assertEquals(-1, DoubleCompare.compare(negInf, inf));
+        assertEquals(1, DoubleCompare.compare(inf, negInf));
+
+        // NaN is larger than every other value, and equal to itself
+        assertEquals(0, DoubleCompare.compare(Double.NaN, Double.NaN));
+        assertEquals(1, DoubleCompare.compare(Double.NaN, inf));
+        assertEquals(-1, DoubleCompare.compare(inf, Double.NaN));
+        assertEquals(-1, DoubleCompare.compare(negInf, Double.NaN));
+    }
+}
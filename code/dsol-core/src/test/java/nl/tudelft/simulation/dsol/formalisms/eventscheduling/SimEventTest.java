@@ -0,0 +1,215 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+
+/**
+ * The test script for the execution of the SimEvent, which invokes its method through a cached MethodHandle.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ */
+public class SimEventTest extends TestCase
+{
+    /** the number of times the constructor of this class has been invoked by a SimEvent. */
+    private static int constructed = 0;
+
+    /** the last sum of the static add method. */
+    private static double lastSum = 0.0;
+
+    /** the last value received by one of the methods. */
+    private Object received = null;
+
+    /** the number of invocations. */
+    private int count = 0;
+
+    /**
+     * constructs a new SimEventTest.
+     */
+    public SimEventTest()
+    {
+        super("test");
+    }
+
+    /**
+     * constructor that is invoked by a SimEvent.
+     * @param value int; a value
+     */
+    private SimEventTest(final int value)
+    {
+        super("test");
+        constructed += value;
+    }
+
+    /**
+     * tests the invocation of public, private and static methods and of constructors.
+     * @throws SimRuntimeException on execution error
+     */
+    public void test() throws SimRuntimeException
+    {
+        SimTimeDouble time = new SimTimeDouble(0.0);
+
+        new SimEvent<SimTimeDouble>(time, this, this, "increment", null).execute();
+        new SimEvent<SimTimeDouble>(time, this, this, "increment", new Object[] {}).execute();
+        assertEquals(2, this.count);
+
+        new SimEvent<SimTimeDouble>(time, this, this, "receive", new Object[] {"abc"}).execute();
+        assertEquals("abc", this.received);
+        new SimEvent<SimTimeDouble>(time, this, this, "twice", new Object[] {3}).execute();
+        assertEquals(6, this.received);
+        new SimEvent<SimTimeDouble>(time, this, this, "receive", new Object[] {null}).execute();
+        assertNull(this.received);
+
+        new SimEvent<SimTimeDouble>(time, this, SimEventTest.class, "<init>", new Object[] {5}).execute();
+        new SimEvent<SimTimeDouble>(time, this, SimEventTest.class, "<init>", new Object[] {5}).execute();
+        assertEquals(10, constructed);
+
+        new SimEvent<SimTimeDouble>(time, this, this, "add", new Object[] {3.0, 4.0}).execute();
+        assertEquals(7.0, lastSum, 0.0);
+
+        // the same method on a different target object
+        SimEventTest other = new SimEventTest();
+        new SimEvent<SimTimeDouble>(time, this, other, "increment", null).execute();
+        assertEquals(1, other.count);
+        assertEquals(2, this.count);
+
+        // exceptions from the method are wrapped
+        try
+        {
+            new SimEvent<SimTimeDouble>(time, this, this, "failure", null).execute();
+            fail("exception in invoked method should have been wrapped in a SimRuntimeException");
+        }
+        catch (SimRuntimeException exception)
+        {
+            assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+
+        // errors from the method are not wrapped
+        try
+        {
+            new SimEvent<SimTimeDouble>(time, this, this, "error", null).execute();
+            fail("error in invoked method should not have been wrapped");
+        }
+        catch (AssertionError error)
+        {
+            assertEquals("error", error.getMessage());
+        }
+
+        // methods that cannot be resolved give an exception at execution time
+        try
+        {
+            new SimEvent<SimTimeDouble>(time, this, this, "doesNotExist", null).execute();
+            fail("method that does not exist should have resulted in a SimRuntimeException");
+        }
+        catch (SimRuntimeException exception)
+        {
+            // ok
+        }
+    }
+
+    /**
+     * tests the execution of a deserialized SimEvent, which has to resolve its method handle again.
+     * @throws Exception on serialization error
+     */
+    public void testSerialization() throws Exception
+    {
+        Counter counter = new Counter();
+        SimEvent<SimTimeDouble> event =
+                new SimEvent<SimTimeDouble>(new SimTimeDouble(1.0), counter, counter, "add", new Object[] {4});
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(event);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            @SuppressWarnings("unchecked")
+            SimEvent<SimTimeDouble> copy = (SimEvent<SimTimeDouble>) in.readObject();
+            copy.execute();
+            assertEquals(4, ((Counter) copy.getTarget()).value);
+        }
+    }
+
+    /** private method to invoke. */
+    @SuppressWarnings("unused")
+    private void increment()
+    {
+        this.count++;
+    }
+
+    /**
+     * method to invoke with an object.
+     * @param value Object; the value
+     */
+    public void receive(final Object value)
+    {
+        this.received = value;
+    }
+
+    /**
+     * method to invoke with a primitive.
+     * @param value int; the value
+     */
+    public void twice(final int value)
+    {
+        this.received = 2 * value;
+    }
+
+    /**
+     * static method with primitive arguments.
+     * @param a double; the first value
+     * @param b double; the second value
+     * @return double; the sum
+     */
+    public static double add(final double a, final double b)
+    {
+        lastSum = a + b;
+        return lastSum;
+    }
+
+    /**
+     * method that throws an exception.
+     */
+    public void failure()
+    {
+        throw new IllegalStateException("fail");
+    }
+
+    /**
+     * method that throws an error.
+     */
+    public void error()
+    {
+        throw new AssertionError("error");
+    }
+
+    /** serializable target. */
+    static class Counter implements Serializable
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the value. */
+        private int value = 0;
+
+        /**
+         * @param increment int; the increment
+         */
+        public void add(final int increment)
+        {
+            this.value += increment;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package nl.tudelft.simulation.dsol.formalisms.process;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.Resource;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.dsol.simulators.DEVSBatchSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.Simulator;
+
+/**
+ * The test of the ThreadedProcess: processes should hold for the right duration, interleave in the order of their events,
+ * hand over a Resource, cancel events, and end when they are cancelled, on the DEVSSimulator and on the DEVSBatchSimulator.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ */
+public class ThreadedProcessTest extends TestCase
+{
+    /**
+     * constructs a new ThreadedProcessTest.
+     */
+    public ThreadedProcessTest()
+    {
+        super("test");
+    }
+
+    /**
+     * tests the ThreadedProcess.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        run(new DEVSSimulator.TimeDouble());
+        run(new DEVSBatchSimulator.TimeDouble());
+    }
+
+    /**
+     * runs the process model on a simulator, and checks the log of the processes.
+     * @param simulator S; the simulator
+     * @param <S> the type of the simulator
+     * @throws Exception on error
+     */
+    private <S extends Simulator<Double, Double, SimTimeDouble> & DEVSSimulatorInterface.TimeDouble> void run(
+            final S simulator) throws Exception
+    {
+        try
+        {
+            ProcessModel model = new ProcessModel(simulator);
+            simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 100.0, model), ReplicationMode.TERMINATING);
+            simulator.start();
+            long timeout = System.currentTimeMillis() + 10000L;
+            while (simulator.isRunning() && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(1);
+            }
+            assertFalse("simulator did not stop: " + simulator, simulator.isRunning());
+
+            assertEquals(Arrays.asList("0.0 A start", "0.0 B start", "0.0 C start", "0.0 D start", "0.0 E start",
+                    "1.0 E cancelled true", "1.0 A seized", "2.0 B requests", "6.0 A released", "6.0 B seized",
+                    "7.0 B released"), model.log);
+            for (ThreadedProcess<Double, Double, SimTimeDouble> process : model.processes)
+            {
+                assertEquals(ThreadedProcess.DEAD, process.getState());
+            }
+            assertEquals(0.0, model.resource.getClaimedCapacity(), 0.0);
+            assertEquals(100.0, simulator.getSimulatorTime(), 0.0);
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /** Model with two customers that share a resource, two processes that are cancelled, and one that cancels an event. */
+    static class ProcessModel extends AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the log of the actions of the processes. */
+        private final List<String> log = new ArrayList<>();
+
+        /** the processes. */
+        private final List<ThreadedProcess<Double, Double, SimTimeDouble>> processes = new ArrayList<>();
+
+        /** the resource. */
+        private Resource<Double, Double, SimTimeDouble> resource;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         */
+        ProcessModel(final DEVSSimulatorInterface.TimeDouble simulator)
+        {
+            super(simulator);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            this.resource = new Resource<Double, Double, SimTimeDouble>(this.simulator, 1.0);
+            this.processes.add(new Customer("A", 1.0, 5.0));
+            this.processes.add(new Customer("B", 2.0, 1.0));
+            final Customer c = new Customer("C", 3.0, 1.0);
+            this.processes.add(c);
+            this.simulator.scheduleEventAbs(2.0, () -> c.cancel());
+            this.processes.add(new ThreadedProcess<Double, Double, SimTimeDouble>(this.simulator)
+            {
+                /** */
+                private static final long serialVersionUID = 1L;
+
+                /** {@inheritDoc} */
+                @Override
+                public void process()
+                {
+                    log("D start");
+                    cancel();
+                    log("D cancelled");
+                }
+            });
+            this.processes.add(new ThreadedProcess<Double, Double, SimTimeDouble>(this.simulator)
+            {
+                /** */
+                private static final long serialVersionUID = 1L;
+
+                /** {@inheritDoc} */
+                @Override
+                public void process() throws SimRuntimeException, java.rmi.RemoteException
+                {
+                    log("E start");
+                    SimEventInterface<SimTimeDouble> event =
+                            ProcessModel.this.simulator.scheduleEventRel(50.0, () -> log("E not cancelled"));
+                    hold(1.0);
+                    log("E cancelled " + ProcessModel.this.simulator.cancelEvent(event));
+                }
+            });
+        }
+
+        /**
+         * log an action of a process at the current simulation time.
+         * @param action String; the action
+         */
+        void log(final String action)
+        {
+            this.log.add(this.simulator.getSimulatorTime() + " " + action);
+        }
+
+        /** Customer that waits, seizes the resource, holds it, and releases it. */
+        class Customer extends ThreadedProcess<Double, Double, SimTimeDouble>
+        {
+            /** */
+            private static final long serialVersionUID = 1L;
+
+            /** the name. */
+            private final String name;
+
+            /** the time before the request. */
+            private final double arrival;
+
+            /** the time the resource is held. */
+            private final double service;
+
+            /**
+             * @param name String; the name
+             * @param arrival double; the time before the request
+             * @param service double; the time the resource is held
+             */
+            Customer(final String name, final double arrival, final double service)
+            {
+                super(ProcessModel.this.simulator);
+                this.name = name;
+                this.arrival = arrival;
+                this.service = service;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public void process() throws SimRuntimeException, java.rmi.RemoteException
+            {
+                log(this.name + " start");
+                hold(this.arrival);
+                if (ProcessModel.this.resource.getClaimedCapacity() > 0.0)
+                {
+                    log(this.name + " requests");
+                }
+                requestCapacity(ProcessModel.this.resource, 1.0);
+                log(this.name + " seized");
+                hold(this.service);
+                ProcessModel.this.resource.releaseCapacity(1.0);
+                log(this.name + " released");
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
 import nl.tudelft.simulation.dsol.simulators.DESSSimulator;
 import nl.tudelft.simulation.dsol.simulators.DEVDESSAnimator;
 import nl.tudelft.simulation.dsol.simulators.DEVDESSSimulator;
+import nl.tudelft.simulation.dsol.simulators.DEVSBatchSimulator;
 import nl.tudelft.simulation.dsol.simulators.DEVSRealTimeClock;
 import nl.tudelft.simulation.dsol.simulators.DEVSSimulator;
 import nl.tudelft.simulation.dsol.simulators.DEVSSimulatorInterface;
@@ -52,6 +53,7 @@ public class SerializeTest extends TestCase
         {
             // We start with the simulators.
             new MarshalledObject(new DEVSSimulator());
+            new MarshalledObject(new DEVSBatchSimulator());
             new MarshalledObject(new DESSSimulator(0.1));
             new MarshalledObject(new DEVDESSSimulator(0.1));
             new MarshalledObject(new DEVDESSAnimator(0.1));
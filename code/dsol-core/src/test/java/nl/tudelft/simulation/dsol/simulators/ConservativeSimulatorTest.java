@@ -0,0 +1,326 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AtomicModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.InputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.OutputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+
+/**
+ * The test of the ConservativeSimulator: a ring of partitions that are coupled with a delay gives the same results as on a
+ * DEVSSimulator, also when an event of the simulator itself sends a message over a coupling with a delay.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class ConservativeSimulatorTest extends TestCase
+{
+    /** the number of segments in the ring. */
+    private static final int SEGMENTS = 3;
+
+    /** the number of cells in a segment. */
+    private static final int CELLS = 4;
+
+    /** the delay of the couplings between the segments. */
+    private static final double DELAY = 0.25;
+
+    /**
+     * constructs a new ConservativeSimulatorTest.
+     */
+    public ConservativeSimulatorTest()
+    {
+        super("test");
+    }
+
+    /**
+     * tests that a ring of segments with delayed couplings gives the same values and the same order of the received messages
+     * on a ConservativeSimulator as on a DEVSSimulator.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        List<Cell> expected = simulateRing(new DEVSSimulator.TimeDouble());
+        for (int run = 0; run < 3; run++)
+        {
+            ConservativeSimulator.TimeDouble simulator = new ConservativeSimulator.TimeDouble();
+            List<Cell> cells = simulateRing(simulator);
+            for (int i = 0; i < cells.size(); i++)
+            {
+                assertEquals(cells.get(i).getFullName(), expected.get(i).log, cells.get(i).log);
+                assertEquals(cells.get(i).getFullName(), expected.get(i).value, cells.get(i).value, 0.0);
+            }
+            long windows = 0L;
+            for (ConservativeLogicalProcess<Double, Double, SimTimeDouble> process : simulator.getLogicalProcesses())
+            {
+                windows += process.getWindows();
+            }
+            assertTrue("no windows", windows > 0L);
+        }
+    }
+
+    /**
+     * tests that a deserialized simulator has a list of logical processes.
+     * @throws Exception on error
+     */
+    public void testSerialize() throws Exception
+    {
+        ConservativeSimulator.TimeDouble simulator = new ConservativeSimulator.TimeDouble();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(simulator);
+        }
+        simulator.cleanUp();
+        ConservativeSimulator<?, ?, ?> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            copy = (ConservativeSimulator<?, ?, ?>) in.readObject();
+        }
+        assertTrue(copy.getLogicalProcesses().isEmpty());
+    }
+
+    /**
+     * run the ring on a simulator, with a logical process per segment on a ConservativeSimulator, and with events of the
+     * simulator itself in which the last cell of the first segment sends a message to the next segment.
+     * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+     * @return List&lt;Cell&gt;; the cells of the ring after the run
+     * @throws Exception on error
+     */
+    private static List<Cell> simulateRing(final DEVSSimulatorInterface.TimeDouble simulator) throws Exception
+    {
+        List<Cell> cells = new ArrayList<>();
+        run(simulator, 20.5, (sim) -> {
+            Top top = new Top(sim);
+            List<Segment> segments = new ArrayList<>();
+            for (int s = 0; s < SEGMENTS; s++)
+            {
+                Segment segment = new Segment("segment" + s, top);
+                if (sim instanceof ConservativeSimulator)
+                {
+                    ((ConservativeSimulator.TimeDouble) sim).addLogicalProcess(segment);
+                }
+                Cell previous = null;
+                for (int i = 0; i < CELLS; i++)
+                {
+                    Cell cell = new Cell("cell" + i, segment, (s + i) % 2 == 0 ? 1.0 : 0.5);
+                    if (previous == null)
+                    {
+                        segment.addExternalInputCoupling(segment.in, cell.in);
+                    }
+                    else
+                    {
+                        segment.addInternalCoupling(previous.out, cell.in);
+                    }
+                    cells.add(cell);
+                    previous = cell;
+                }
+                segment.addExternalOutputCoupling(previous.out, segment.out);
+                segments.add(segment);
+            }
+            for (int s = 0; s < SEGMENTS; s++)
+            {
+                top.addInternalCoupling(segments.get(s).out, segments.get((s + 1) % SEGMENTS).in, DELAY);
+            }
+            for (Cell cell : cells)
+            {
+                cell.initialize(0.0);
+            }
+            Cell last = cells.get(CELLS - 1);
+            for (double time : new double[] {3.3, 7.7})
+            {
+                sim.scheduleEventAbs(time, () -> last.out.send(Double.valueOf(-time)));
+            }
+        });
+        return cells;
+    }
+
+    /**
+     * run a replication of a model until its end time.
+     * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+     * @param endTime double; the end time of the replication
+     * @param builder Builder; builds the model
+     * @throws Exception on error
+     */
+    private static void run(final DEVSSimulatorInterface.TimeDouble simulator, final double endTime, final Builder builder)
+            throws Exception
+    {
+        try
+        {
+            AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble> model =
+                    new AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>(simulator)
+                    {
+                        /** */
+                        private static final long serialVersionUID = 1L;
+
+                        /** {@inheritDoc} */
+                        @Override
+                        public void constructModel() throws SimRuntimeException
+                        {
+                            try
+                            {
+                                builder.build(this.simulator);
+                            }
+                            catch (PortAlreadyDefinedException exception)
+                            {
+                                throw new SimRuntimeException(exception);
+                            }
+                        }
+                    };
+            simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, endTime, model), ReplicationMode.TERMINATING);
+            simulator.start();
+            long timeout = System.currentTimeMillis() + 10000L;
+            while (simulator.isRunning() && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(1);
+            }
+            assertFalse("simulator did not stop", simulator.isRunning());
+        }
+        finally
+        {
+            ((DEVSSimulator<?, ?, ?>) simulator).cleanUp();
+        }
+    }
+
+    /** Builds the model of a test in the constructModel method. */
+    interface Builder
+    {
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @throws SimRuntimeException on error
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        void build(DEVSSimulatorInterface.TimeDouble simulator) throws SimRuntimeException, PortAlreadyDefinedException;
+    }
+
+    /** Top model. */
+    static class Top extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         */
+        Top(final DEVSSimulatorInterface.TimeDouble simulator)
+        {
+            super("top", simulator);
+        }
+    }
+
+    /** Coupled model of a partition, with an input and an output port. */
+    static class Segment extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Double> in = new InputPort<>(this);
+
+        /** the output port. */
+        private final OutputPort<Double, Double, SimTimeDouble, Double> out = new OutputPort<>(this);
+
+        /**
+         * @param name String; the name of the segment
+         * @param parentModel Top; the top model
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        Segment(final String name, final Top parentModel) throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            addInputPort("in", this.in);
+            addOutputPort("out", this.out);
+        }
+    }
+
+    /**
+     * Cell that computes a new value from its value and the values that it received, and sends it to the next cell. The cell
+     * logs the received messages with their time.
+     */
+    static class Cell extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Double> in = new InputPort<>(this);
+
+        /** the output port. */
+        private final OutputPort<Double, Double, SimTimeDouble, Double> out = new OutputPort<>(this);
+
+        /** the value. */
+        private double value = 1.0;
+
+        /** the sum of the received values. */
+        private double received = 0.0;
+
+        /** the log of the received messages. */
+        private String log = "";
+
+        /** the time until the next internal transition. */
+        private double sigma;
+
+        /**
+         * @param name String; the name of the cell
+         * @param parentModel Segment; the segment
+         * @param sigma double; the time until the first internal transition
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        Cell(final String name, final Segment parentModel, final double sigma) throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            this.sigma = sigma;
+            addInputPort("in", this.in);
+            addOutputPort("out", this.out);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            this.value = Math.cos(this.value + this.received) + 0.5 * Math.sin(2.0 * this.value);
+            this.sigma = 1.0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object message)
+        {
+            this.received += (Double) message;
+            this.log += " " + message + "@" + this.simulator.getSimulatorTime();
+            this.sigma -= e;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            this.out.send(Double.valueOf(this.value));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.sigma;
+        }
+    }
+}
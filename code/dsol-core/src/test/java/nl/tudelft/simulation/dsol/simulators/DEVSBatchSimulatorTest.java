@@ -0,0 +1,332 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.event.TimedEvent;
+
+/**
+ * The test of the DEVSBatchSimulator: the results of a run should be equal to the results of the DEVSSimulator, and the
+ * simulator should be controllable from another thread than the thread that executes the events.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ */
+public class DEVSBatchSimulatorTest extends TestCase
+{
+    /**
+     * constructs a new DEVSBatchSimulatorTest.
+     */
+    public DEVSBatchSimulatorTest()
+    {
+        super("test");
+    }
+
+    /**
+     * Wait until the simulator has stopped.
+     * @param simulator SimulatorInterface&lt;?, ?, ?&gt;; the simulator
+     * @throws InterruptedException when interrupted
+     */
+    private static void waitForStop(final SimulatorInterface<?, ?, ?> simulator) throws InterruptedException
+    {
+        long timeout = System.currentTimeMillis() + 10000L;
+        while (simulator.isRunning() && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(1);
+        }
+        assertFalse("simulator did not stop", simulator.isRunning());
+    }
+
+    /**
+     * tests a complete run of the batch simulator against the DEVSSimulator.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        DEVSSimulator.TimeDouble devsSimulator = new DEVSSimulator.TimeDouble();
+        DEVSBatchSimulator.TimeDouble batchSimulator = new DEVSBatchSimulator.TimeDouble();
+        try
+        {
+            ChainModel devsModel = new ChainModel(devsSimulator, 0.25);
+            devsSimulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 1000.0, devsModel),
+                    ReplicationMode.TERMINATING);
+            devsSimulator.start();
+            waitForStop(devsSimulator);
+
+            ChainModel batchModel = new ChainModel(batchSimulator, 0.25);
+            batchSimulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 1000.0, batchModel),
+                    ReplicationMode.TERMINATING);
+            batchSimulator.start();
+            waitForStop(batchSimulator);
+
+            assertEquals(devsModel.count, batchModel.count);
+            assertEquals(4000, batchModel.count);
+            assertEquals(1000.0, batchSimulator.getSimulatorTime(), 0.0);
+            assertTrue(batchSimulator.getEventList().isEmpty());
+        }
+        finally
+        {
+            devsSimulator.cleanUp();
+            batchSimulator.cleanUp();
+        }
+    }
+
+    /**
+     * tests stop, step and scheduling from another thread than the thread that executes the events.
+     * @throws Exception on error
+     */
+    public void testControl() throws Exception
+    {
+        DEVSBatchSimulator.TimeDouble simulator = new DEVSBatchSimulator.TimeDouble();
+        try
+        {
+            ChainModel model = new ChainModel(simulator, 0.001);
+            simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 1.0E9, model),
+                    ReplicationMode.TERMINATING);
+            simulator.start();
+            Thread.sleep(20);
+            simulator.stop();
+            waitForStop(simulator);
+            double stopTime = simulator.getSimulatorTime();
+            assertTrue(stopTime > 0.0 && stopTime < 1.0E9);
+            int count = model.count;
+
+            // stepping executes one event on the calling thread
+            simulator.step();
+            assertEquals(count + 1, model.count);
+
+            // an event scheduled while running is executed by the simulator thread
+            final int[] executed = new int[1];
+            simulator.start();
+            simulator.scheduleEventRel(10.0, () -> {
+                executed[0]++;
+            });
+            simulator.runUpTo(simulator.getSimulatorTime() + 20.0);
+            long timeout = System.currentTimeMillis() + 10000L;
+            while (executed[0] == 0 && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(1);
+            }
+            waitForStop(simulator);
+            assertEquals(1, executed[0]);
+
+            // stop requests of an earlier run are discarded
+            simulator.start();
+            Thread.sleep(10);
+            assertTrue(simulator.isRunning());
+            simulator.stop();
+            waitForStop(simulator);
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /**
+     * tests that a cancel from another thread than the thread that executes the events returns whether the event was still
+     * in the event list.
+     * @throws Exception on error
+     */
+    public void testCancel() throws Exception
+    {
+        DEVSBatchSimulator.TimeDouble simulator = new DEVSBatchSimulator.TimeDouble();
+        try
+        {
+            ChainModel model = new ChainModel(simulator, 0.001);
+            simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 1.0E9, model),
+                    ReplicationMode.TERMINATING);
+            final int[] executed = new int[1];
+            SimEventInterface<SimTimeDouble> idleEvent = simulator.scheduleEventAbs(1.0E8, () -> {
+                executed[0]++;
+            });
+            simulator.start();
+            Thread.sleep(10);
+            assertTrue(simulator.isRunning());
+            SimEventInterface<SimTimeDouble> event = simulator.scheduleEventAbs(1.0E8, () -> {
+                executed[0]++;
+            });
+            assertTrue(simulator.cancelEvent(event));
+            assertFalse(simulator.cancelEvent(event));
+            assertTrue(simulator.cancelEvent(idleEvent));
+            simulator.stop();
+            waitForStop(simulator);
+            assertFalse(simulator.cancelEvent(idleEvent));
+            assertEquals(0, executed[0]);
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /**
+     * tests that a batch of events is scheduled at once by both simulators, and that a batch with an event in the past is
+     * rejected as a whole.
+     * @throws Exception on error
+     */
+    public void testScheduleEvents() throws Exception
+    {
+        DEVSSimulatorInterface.TimeDouble[] simulators =
+                new DEVSSimulatorInterface.TimeDouble[] {new DEVSSimulator.TimeDouble(), new DEVSBatchSimulator.TimeDouble()};
+        for (DEVSSimulatorInterface.TimeDouble simulator : simulators)
+        {
+            try
+            {
+                ChainModel model = new ChainModel(simulator, 1.0);
+                simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 100.0, model),
+                        ReplicationMode.TERMINATING);
+                final int[] executed = new int[1];
+                List<SimEventInterface<SimTimeDouble>> batch = new ArrayList<>();
+                for (int i = 0; i < 1000; i++)
+                {
+                    batch.add(new LambdaSimEvent<SimTimeDouble>(new SimTimeDouble(0.05 * i), () -> {
+                        executed[0]++;
+                    }));
+                }
+                int size = simulator.getEventList().size();
+                simulator.scheduleEvents(batch);
+                assertEquals(size + 1000, simulator.getEventList().size());
+
+                List<SimEventInterface<SimTimeDouble>> pastBatch = new ArrayList<>();
+                pastBatch.add(new LambdaSimEvent<SimTimeDouble>(new SimTimeDouble(10.0), () -> {
+                    executed[0]++;
+                }));
+                pastBatch.add(new LambdaSimEvent<SimTimeDouble>(new SimTimeDouble(-1.0), () -> {
+                    executed[0]++;
+                }));
+                try
+                {
+                    simulator.scheduleEvents(pastBatch);
+                    fail("scheduling an event in the past should throw an exception");
+                }
+                catch (SimRuntimeException exception)
+                {
+                    assertEquals(size + 1000, simulator.getEventList().size());
+                }
+
+                simulator.start();
+                waitForStop(simulator);
+                assertEquals(1000, executed[0]);
+            }
+            finally
+            {
+                ((Simulator<?, ?, ?>) simulator).cleanUp();
+            }
+        }
+    }
+
+    /**
+     * tests that TIME_CHANGED_EVENTs are fired for every time change, and are coalesced when an interval has been set.
+     * @throws Exception on error
+     */
+    public void testTimeChanged() throws Exception
+    {
+        DEVSBatchSimulator.TimeDouble simulator = new DEVSBatchSimulator.TimeDouble();
+        try
+        {
+            TimeListener listener = new TimeListener();
+            simulator.addListener(listener, SimulatorInterface.TIME_CHANGED_EVENT);
+            assertEquals(1, simulator.numberOfListeners(SimulatorInterface.TIME_CHANGED_EVENT));
+            ChainModel model = new ChainModel(simulator, 0.25);
+            simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 1000.0, model), ReplicationMode.TERMINATING);
+            simulator.start();
+            waitForStop(simulator);
+            // one event for initialize, one for start, and one for every event time
+            assertEquals(4002, listener.count);
+            assertEquals(1000.0, listener.lastTime, 0.0);
+
+            listener.count = 0;
+            simulator.setTimeChangedInterval(10000L);
+            assertEquals(10000L, simulator.getTimeChangedInterval());
+            simulator.initialize(Replication.TimeDouble.create("rep2", 0.0, 0.0, 1000.0, model), ReplicationMode.TERMINATING);
+            simulator.start();
+            waitForStop(simulator);
+            assertTrue(listener.count < 10);
+            assertEquals(1000.0, listener.lastTime, 0.0);
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /** Listener that counts the TIME_CHANGED_EVENTs. */
+    static class TimeListener implements EventListenerInterface
+    {
+        /** the number of received events; volatile because the events are fired by the simulator thread. */
+        private volatile int count = 0;
+
+        /** the time of the last received event. */
+        private volatile double lastTime = Double.NaN;
+
+        /** {@inheritDoc} */
+        @Override
+        public void notify(final EventInterface event)
+        {
+            this.count++;
+            this.lastTime = (Double) ((TimedEvent<?>) event).getTimeStamp();
+        }
+    }
+
+    /** Model that executes a chain of events with a fixed interval. */
+    static class ChainModel extends AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the interval between events. */
+        private final double interval;
+
+        /** the number of executed events. */
+        private int count = 0;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @param interval double; the interval between events
+         */
+        ChainModel(final DEVSSimulatorInterface.TimeDouble simulator, final double interval)
+        {
+            super(simulator);
+            this.interval = interval;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            this.simulator.scheduleEventRel(this.interval, () -> next());
+        }
+
+        /**
+         * execute an event and schedule the next one.
+         */
+        private void next()
+        {
+            this.count++;
+            try
+            {
+                this.simulator.scheduleEventRel(this.interval, () -> next());
+            }
+            catch (SimRuntimeException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AbstractDEVSModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AtomicModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.InputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.OutputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.ParallelTransitionInterface;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+
+/**
+ * The test of the ParallelDEVSSimulator: the events that the atomic models schedule in their transitions and the state
+ * updates that they fire get the same order with or without a pool, an event can be cancelled in a transition, and a
+ * deserialized simulator can execute cycles.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class ParallelDEVSSimulatorTest extends TestCase
+{
+    /** the number of cells in the ring. */
+    private static final int CELLS = 24;
+
+    /**
+     * constructs a new ParallelDEVSSimulatorTest.
+     */
+    public ParallelDEVSSimulatorTest()
+    {
+        super("test");
+    }
+
+    /**
+     * tests that the scheduled events and the state updates of the models in a ring get the same order without a pool, and
+     * with a pool for different batch sizes.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        List<String> expected = simulate(new ParallelDEVSSimulator.TimeDouble());
+        // every cell executes a confluent transition with a side event at the times 1 to 9, and a state update after its
+        // internal and after its external transition
+        assertEquals(CELLS * 9 * 3, expected.size());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            for (int batchSize : new int[] {1, 3, 1})
+            {
+                ParallelDEVSSimulator.TimeDouble simulator = new ParallelDEVSSimulator.TimeDouble();
+                simulator.setParallelism(pool, batchSize);
+                assertEquals("batch size " + batchSize, expected, simulate(simulator));
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * tests that an event that a model schedules in its transition can be cancelled in the same transition, and that an
+     * event that it scheduled in an earlier transition can be cancelled.
+     * @throws Exception on error
+     */
+    public void testCancel() throws Exception
+    {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            ParallelDEVSSimulator.TimeDouble simulator = new ParallelDEVSSimulator.TimeDouble();
+            simulator.setParallelism(pool, 1);
+            List<String> log = Collections.synchronizedList(new ArrayList<>());
+            List<Canceller> cancellers = new ArrayList<>();
+            run(simulator, (sim) -> {
+                Top top = new Top(sim);
+                for (int i = 0; i < 4; i++)
+                {
+                    Canceller canceller = new Canceller("canceller" + i, top, log);
+                    canceller.initialize(0.0);
+                    cancellers.add(canceller);
+                }
+            });
+            assertEquals(new ArrayList<String>(), log);
+            for (Canceller canceller : cancellers)
+            {
+                assertEquals(8, canceller.cancelled);
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * tests that the transition of an imminent model with a message is its confluent transition, which gets the message that
+     * the previous cell sent in the same cycle.
+     * @throws Exception on error
+     */
+    public void testConfluent() throws Exception
+    {
+        List<Cell> cells = new ArrayList<>();
+        run(new ParallelDEVSSimulator.TimeDouble(), (sim) -> {
+            Top top = new Top(sim);
+            List<String> log = Collections.synchronizedList(new ArrayList<>());
+            for (int i = 0; i < 3; i++)
+            {
+                cells.add(new ConfluentCell("cell" + i, top, log));
+            }
+            for (int i = 0; i < 3; i++)
+            {
+                top.addInternalCoupling(cells.get(i).out, cells.get((i + 1) % 3).in);
+                cells.get(i).initialize(0.0);
+            }
+        });
+        for (Cell cell : cells)
+        {
+            assertEquals(9, cell.count);
+            assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8), ((ConfluentCell) cell).values);
+        }
+    }
+
+    /**
+     * tests that a deserialized simulator has the transient lists of its cycles.
+     * @throws Exception on error
+     */
+    public void testSerialize() throws Exception
+    {
+        ParallelDEVSSimulator.TimeDouble simulator = new ParallelDEVSSimulator.TimeDouble();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(simulator);
+        }
+        simulator.cleanUp();
+        ParallelDEVSSimulator<?, ?, ?> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            copy = (ParallelDEVSSimulator<?, ?, ?>) in.readObject();
+        }
+        assertFalse(copy.isCollecting());
+        assertFalse(copy.defer(() -> fail("notification executed")));
+        assertTrue(copy.addImminent(new ParallelTransitionInterface()
+        {
+            @Override
+            public void output()
+            {
+                // no output
+            }
+
+            @Override
+            public void route()
+            {
+                // no messages
+            }
+
+            @Override
+            public void transition()
+            {
+                // no transition
+            }
+
+            @Override
+            public void commit()
+            {
+                // no next event
+            }
+        }));
+    }
+
+    /**
+     * run the ring model on a simulator, and return the log of the side events and the state updates of the cells.
+     * @param simulator ParallelDEVSSimulator.TimeDouble; the simulator
+     * @return List&lt;String&gt;; the log
+     * @throws Exception on error
+     */
+    private static List<String> simulate(final ParallelDEVSSimulator.TimeDouble simulator) throws Exception
+    {
+        List<String> log = Collections.synchronizedList(new ArrayList<>());
+        run(simulator, (sim) -> {
+            Top top = new Top(sim);
+            List<Cell> cells = new ArrayList<>();
+            for (int i = 0; i < CELLS; i++)
+            {
+                Cell cell = new Cell("cell" + i, top, log);
+                cell.addListener(cell, AbstractDEVSModel.STATE_UPDATE);
+                cells.add(cell);
+            }
+            for (int i = 0; i < CELLS; i++)
+            {
+                top.addInternalCoupling(cells.get(i).out, cells.get((i + 1) % CELLS).in);
+                cells.get(i).initialize(0.0);
+            }
+        });
+        return new ArrayList<>(log);
+    }
+
+    /**
+     * run a replication of a model until its end time of 9.5.
+     * @param simulator ParallelDEVSSimulator.TimeDouble; the simulator
+     * @param builder Builder; builds the model
+     * @throws Exception on error
+     */
+    private static void run(final ParallelDEVSSimulator.TimeDouble simulator, final Builder builder) throws Exception
+    {
+        try
+        {
+            AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble> model =
+                    new AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>(simulator)
+                    {
+                        /** */
+                        private static final long serialVersionUID = 1L;
+
+                        /** {@inheritDoc} */
+                        @Override
+                        public void constructModel() throws SimRuntimeException
+                        {
+                            builder.build(this.simulator);
+                        }
+                    };
+            simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, 9.5, model), ReplicationMode.TERMINATING);
+            simulator.start();
+            long timeout = System.currentTimeMillis() + 10000L;
+            while (simulator.isRunning() && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(1);
+            }
+            assertFalse("simulator did not stop", simulator.isRunning());
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /** Builds the model of a test in the constructModel method. */
+    interface Builder
+    {
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @throws SimRuntimeException on error
+         */
+        void build(DEVSSimulatorInterface.TimeDouble simulator) throws SimRuntimeException;
+    }
+
+    /** Top model. */
+    static class Top extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         */
+        Top(final DEVSSimulatorInterface.TimeDouble simulator)
+        {
+            super("top", simulator);
+        }
+    }
+
+    /**
+     * Cell in a ring that sends its number to the next cell every time unit, and schedules a side event half a time unit
+     * after each internal transition. The cell logs its side events and the updates of its count.
+     */
+    static class Cell extends AtomicModel<Double, Double, SimTimeDouble> implements EventListenerInterface
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Integer> in = new InputPort<>(this);
+
+        /** the output port. */
+        private final OutputPort<Double, Double, SimTimeDouble, Integer> out = new OutputPort<>(this);
+
+        /** the log. */
+        private final transient List<String> log;
+
+        /** the number of internal transitions. */
+        private int count = 0;
+
+        /**
+         * @param modelName String; the name of the model
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         * @param log List&lt;String&gt;; the log
+         */
+        Cell(final String modelName, final CoupledModel<Double, Double, SimTimeDouble> parentModel, final List<String> log)
+        {
+            super(modelName, parentModel);
+            this.log = log;
+            try
+            {
+                addInputPort("in", this.in);
+                addOutputPort("out", this.out);
+            }
+            catch (PortAlreadyDefinedException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            this.count++;
+            int number = this.count;
+            try
+            {
+                this.simulator.scheduleEventRel(0.5, () -> side(number));
+            }
+            catch (SimRuntimeException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+
+        /**
+         * log a side event.
+         * @param number int; the number of the internal transition that scheduled the event
+         */
+        private void side(final int number)
+        {
+            this.log.add(getModelName() + " side " + number + " at " + this.simulator.getSimulatorTime());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            // the state update of the transition reports the message
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            this.out.send(this.count);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return 1.0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void notify(final EventInterface event)
+        {
+            AbstractDEVSModel<?, ?, ?>.StateUpdate update = (AbstractDEVSModel<?, ?, ?>.StateUpdate) event.getContent();
+            if (update.getVariable().equals("count"))
+            {
+                this.log.add(update.getModel() + " count=" + update.getValue() + " at " + this.simulator.getSimulatorTime());
+            }
+        }
+    }
+
+    /** Cell that records the messages of its confluent transitions, and checks that the internal transition comes first. */
+    static class ConfluentCell extends Cell
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the messages of the confluent transitions. */
+        private final List<Object> values = new ArrayList<>();
+
+        /**
+         * @param modelName String; the name of the model
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         * @param log List&lt;String&gt;; the log
+         */
+        ConfluentCell(final String modelName, final CoupledModel<Double, Double, SimTimeDouble> parentModel,
+                final List<String> log)
+        {
+            super(modelName, parentModel, log);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaConfluent(final Double e, final Object value)
+        {
+            assertTrue(isConflict());
+            int before = super.count;
+            super.deltaConfluent(e, value);
+            assertEquals(before + 1, super.count);
+            this.values.add(value);
+        }
+    }
+
+    /**
+     * Model that schedules an event in every internal transition and cancels it directly, and cancels the event that it
+     * scheduled in its previous internal transition.
+     */
+    static class Canceller extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the log of the executed events. */
+        private final transient List<String> log;
+
+        /** the event of the previous internal transition. */
+        private transient SimEventInterface<SimTimeDouble> previous = null;
+
+        /** the number of cancelled events of previous transitions. */
+        private int cancelled = 0;
+
+        /**
+         * @param modelName String; the name of the model
+         * @param parentModel CoupledModel&lt;Double,Double,SimTimeDouble&gt;; the parent model
+         * @param log List&lt;String&gt;; the log of the executed events
+         */
+        Canceller(final String modelName, final CoupledModel<Double, Double, SimTimeDouble> parentModel,
+                final List<String> log)
+        {
+            super(modelName, parentModel);
+            this.log = log;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            try
+            {
+                SimEventInterface<SimTimeDouble> event =
+                        this.simulator.scheduleEventRel(0.5, () -> this.log.add(getModelName() + " direct"));
+                assertTrue(this.simulator.cancelEvent(event));
+                if (this.previous != null)
+                {
+                    assertTrue(this.simulator.cancelEvent(this.previous));
+                    this.cancelled++;
+                }
+                this.previous = this.simulator.scheduleEventRel(5.0, () -> this.log.add(getModelName() + " previous"));
+            }
+            catch (SimRuntimeException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            // no inputs
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            // no outputs
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return 1.0;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.dess.DifferentialEquation;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+
+/**
+ * The test of the ParallelIntegration: integrating the differential equations of a DEVDESSSimulator in parallel should give
+ * the same states as integrating them one by one, also in a second replication on the same simulator.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class ParallelIntegrationTest extends TestCase
+{
+    /** the number of equations in the model. */
+    private static final int EQUATIONS = 16;
+
+    /**
+     * constructs a new ParallelIntegrationTest.
+     */
+    public ParallelIntegrationTest()
+    {
+        super("test");
+    }
+
+    /**
+     * tests that the serial and the parallel integration result in identical states, in two successive replications.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        double[][] serial = simulate(null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            double[][] parallel = simulate(pool);
+            for (int i = 0; i < EQUATIONS; i++)
+            {
+                assertTrue("equation " + i + " has not been integrated", serial[i][0] != 1.0 + i);
+                assertEquals("equation " + i, serial[i][0], parallel[i][0], 0.0);
+                assertEquals("equation " + i, serial[i][1], parallel[i][1], 0.0);
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * run two replications of the model, and return the states at the end of the second replication.
+     * @param pool ForkJoinPool; the pool for the parallel integration, or null to integrate the equations one by one
+     * @return double[][]; the state of each equation at the end of the second replication
+     * @throws Exception on error
+     */
+    private static double[][] simulate(final ForkJoinPool pool) throws Exception
+    {
+        DEVDESSSimulator.TimeDouble simulator = new DEVDESSSimulator.TimeDouble(0.1);
+        try
+        {
+            if (pool != null)
+            {
+                simulator.setParallelIntegration(pool, 2);
+            }
+            DecayModel model = new DecayModel(simulator);
+            double[][] first = null;
+            for (int replication = 0; replication < 2; replication++)
+            {
+                simulator.initialize(Replication.TimeDouble.create("rep" + replication, 0.0, 0.0, 5.0, model),
+                        ReplicationMode.TERMINATING);
+                simulator.start();
+                long timeout = System.currentTimeMillis() + 10000L;
+                while (simulator.isRunning() && System.currentTimeMillis() < timeout)
+                {
+                    Thread.sleep(1);
+                }
+                assertFalse("simulator did not stop", simulator.isRunning());
+                double[][] states = model.states;
+                assertNotNull("no snapshot of the states", states);
+                if (first != null)
+                {
+                    for (int i = 0; i < EQUATIONS; i++)
+                    {
+                        assertEquals("replication 2, equation " + i, first[i][0], states[i][0], 0.0);
+                    }
+                }
+                first = states;
+            }
+            return first;
+        }
+        finally
+        {
+            simulator.cleanUp();
+        }
+    }
+
+    /** Model with a number of damped oscillators, and DEVS events that do not coincide with the time steps. */
+    static class DecayModel extends AbstractDSOLModel.TimeDouble<DEVDESSSimulator.TimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the equations of the current replication. */
+        private final List<Oscillator> equations = new ArrayList<>();
+
+        /** the states of the equations at the snapshot; volatile because the snapshot is taken by the simulator thread. */
+        private volatile double[][] states = null;
+
+        /**
+         * @param simulator DEVDESSSimulator.TimeDouble; the simulator
+         */
+        DecayModel(final DEVDESSSimulator.TimeDouble simulator)
+        {
+            super(simulator);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            this.equations.clear();
+            this.states = null;
+            try
+            {
+                for (int i = 0; i < EQUATIONS; i++)
+                {
+                    Oscillator oscillator = new Oscillator(this.simulator, 0.1 + 0.05 * i);
+                    oscillator.initialize(0.0, new double[] {1.0 + i, 0.0});
+                    this.equations.add(oscillator);
+                }
+            }
+            catch (RemoteException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+            this.simulator.scheduleEventRel(0.35, () -> tick());
+            this.simulator.scheduleEventAbs(4.95, () -> snapshot());
+        }
+
+        /**
+         * take a snapshot of the states on the simulator thread, when the equations have been integrated to the time of the
+         * event.
+         */
+        private void snapshot()
+        {
+            double[][] snapshot = new double[EQUATIONS][];
+            for (int i = 0; i < EQUATIONS; i++)
+            {
+                snapshot[i] = this.equations.get(i).getState();
+            }
+            this.states = snapshot;
+        }
+
+        /**
+         * an event that only makes the simulator integrate to a time between the time steps.
+         */
+        private void tick()
+        {
+            try
+            {
+                this.simulator.scheduleEventRel(0.35, () -> tick());
+            }
+            catch (SimRuntimeException exception)
+            {
+                fail(exception.getMessage());
+            }
+        }
+    }
+
+    /** Damped oscillator y'' = -y - damping * y'. */
+    static class Oscillator extends DifferentialEquation<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the damping. */
+        private final double damping;
+
+        /**
+         * @param simulator DEVDESSSimulator.TimeDouble; the simulator
+         * @param damping double; the damping
+         * @throws RemoteException on network error
+         */
+        Oscillator(final DEVDESSSimulator.TimeDouble simulator, final double damping) throws RemoteException
+        {
+            super(simulator, 0.01);
+            this.damping = damping;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] dy(final double x, final double[] y)
+        {
+            return new double[] {y[1], -y[0] - this.damping * y[1]};
+        }
+
+        /**
+         * @return double[]; a copy of the state at the last integration
+         */
+        double[] getState()
+        {
+            return this.previousY.clone();
+        }
+    }
+}
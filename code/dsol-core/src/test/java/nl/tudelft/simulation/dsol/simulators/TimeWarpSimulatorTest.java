@@ -0,0 +1,534 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.experiment.ReplicationMode;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.AtomicModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.CoupledModel;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.InputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.OutputPort;
+import nl.tudelft.simulation.dsol.formalisms.devs.ESDEVS.exceptions.PortAlreadyDefinedException;
+import nl.tudelft.simulation.dsol.model.AbstractDSOLModel;
+import nl.tudelft.simulation.dsol.simtime.SimTimeDouble;
+
+/**
+ * The test of the TimeWarpSimulator: a partitioned model gives the same results as on a DEVSSimulator, while the logical
+ * processes roll back and cancel their messages with anti-messages, the saved states and messages are removed after the GVT,
+ * and simultaneous messages are delivered in the same order in every run.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class TimeWarpSimulatorTest extends TestCase
+{
+    /** the number of segments in the ring. */
+    private static final int SEGMENTS = 3;
+
+    /** the number of cells in a segment. */
+    private static final int CELLS = 4;
+
+    /** the number of emitters that send a message to the collector at the same time. */
+    private static final int EMITTERS = 3;
+
+    /**
+     * constructs a new TimeWarpSimulatorTest.
+     */
+    public TimeWarpSimulatorTest()
+    {
+        super("test");
+    }
+
+    /**
+     * tests that a ring of segments gives the same values on a TimeWarpSimulator as on a DEVSSimulator, when the first segment
+     * is slow, so the next segments run ahead, roll back for its messages, and cancel the messages that they sent after the
+     * time of the rollback; and that the saved states and sent messages are removed after the last GVT.
+     * @throws Exception on error
+     */
+    public void test() throws Exception
+    {
+        List<Cell> expected = simulateRing(new DEVSSimulator.TimeDouble());
+        TimeWarpSimulator.TimeDouble simulator = new TimeWarpSimulator.TimeDouble();
+        simulator.setGvtInterval(50);
+        List<Cell> cells = simulateRing(simulator);
+        for (int i = 0; i < cells.size(); i++)
+        {
+            assertEquals(cells.get(i).getFullName(), expected.get(i).value, cells.get(i).value, 0.0);
+            assertEquals(cells.get(i).getFullName(), expected.get(i).messages, cells.get(i).messages);
+        }
+        long rollbacks = 0L;
+        long antiMessages = 0L;
+        for (TimeWarpLogicalProcess<Double, Double, SimTimeDouble> process : simulator.getLogicalProcesses())
+        {
+            rollbacks += process.getRollbacks();
+            antiMessages += process.getAntiMessages();
+            // the last GVT is after the end of the replication
+            assertEquals(process.getName(), 0, process.getSavedStates());
+            assertEquals(process.getName(), 0, process.getSentMessages());
+        }
+        assertTrue("no rollbacks", rollbacks > 0L);
+        assertTrue("no anti-messages", antiMessages > 0L);
+    }
+
+    /**
+     * tests that the messages that emitters on different logical processes send to a collector at the same time, and the
+     * messages of an event of the TimeWarpSimulator itself, are delivered in the same order as on a DEVSSimulator, also when
+     * the collector runs ahead of the emitters and rolls back.
+     * @throws Exception on error
+     */
+    public void testSimultaneous() throws Exception
+    {
+        String expected = simulateCollector(new DEVSSimulator.TimeDouble());
+        assertTrue(expected, expected.startsWith(" i e0 e1 e2 i e0 e1 e2 c"));
+        for (int run = 0; run < 3; run++)
+        {
+            TimeWarpSimulator.TimeDouble simulator = new TimeWarpSimulator.TimeDouble();
+            simulator.setGvtInterval(5);
+            assertEquals("run " + run, expected, simulateCollector(simulator));
+        }
+    }
+
+    /**
+     * tests that a deserialized simulator has a list of logical processes.
+     * @throws Exception on error
+     */
+    public void testSerialize() throws Exception
+    {
+        TimeWarpSimulator.TimeDouble simulator = new TimeWarpSimulator.TimeDouble();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(simulator);
+        }
+        simulator.cleanUp();
+        TimeWarpSimulator<?, ?, ?> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            copy = (TimeWarpSimulator<?, ?, ?>) in.readObject();
+        }
+        assertTrue(copy.getLogicalProcesses().isEmpty());
+    }
+
+    /**
+     * run the ring on a simulator, with a logical process per segment on a TimeWarpSimulator.
+     * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+     * @return List&lt;Cell&gt;; the cells of the ring after the run
+     * @throws Exception on error
+     */
+    private static List<Cell> simulateRing(final DEVSSimulatorInterface.TimeDouble simulator) throws Exception
+    {
+        List<Cell> cells = new ArrayList<>();
+        run(simulator, 20.5, (sim) -> {
+            Top top = new Top(sim);
+            List<Segment> segments = new ArrayList<>();
+            for (int s = 0; s < SEGMENTS; s++)
+            {
+                Segment segment = new Segment("segment" + s, top);
+                addLogicalProcess(sim, segment);
+                Cell previous = null;
+                for (int i = 0; i < CELLS; i++)
+                {
+                    Cell cell = new Cell("cell" + i, segment, s == 0, (s + i) % 2 == 0 ? 1.0 : 0.5);
+                    if (previous == null)
+                    {
+                        segment.addExternalInputCoupling(segment.in, cell.in);
+                    }
+                    else
+                    {
+                        segment.addInternalCoupling(previous.out, cell.in);
+                    }
+                    cells.add(cell);
+                    previous = cell;
+                }
+                segment.addExternalOutputCoupling(previous.out, segment.out);
+                segments.add(segment);
+            }
+            for (int s = 0; s < SEGMENTS; s++)
+            {
+                top.addInternalCoupling(segments.get(s).out, segments.get((s + 1) % SEGMENTS).in);
+            }
+            for (Cell cell : cells)
+            {
+                cell.initialize(0.0);
+            }
+        });
+        return cells;
+    }
+
+    /**
+     * run the emitters and the collector on a simulator, with a logical process per emitter and for the collector on a
+     * TimeWarpSimulator, and with an event of the simulator itself that sends a message to the collector.
+     * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+     * @return String; the log of the collector after the run
+     * @throws Exception on error
+     */
+    private static String simulateCollector(final DEVSSimulatorInterface.TimeDouble simulator) throws Exception
+    {
+        List<Collector> collector = new ArrayList<>();
+        run(simulator, 10.5, (sim) -> {
+            Top top = new Top(sim);
+            Segment sink = new Segment("sink", top);
+            addLogicalProcess(sim, sink);
+            Collector model = new Collector(sink);
+            sink.addExternalInputCoupling(sink.in, model.in);
+            collector.add(model);
+            List<Emitter> emitters = new ArrayList<>();
+            for (int i = 0; i < EMITTERS; i++)
+            {
+                Segment source = new Segment("source" + i, top);
+                addLogicalProcess(sim, source);
+                Emitter emitter = new Emitter("e" + i, source);
+                source.addExternalOutputCoupling(emitter.out, source.out);
+                top.addInternalCoupling(source.out, sink.in);
+                emitters.add(emitter);
+            }
+            model.initialize(0.0);
+            for (Emitter emitter : emitters)
+            {
+                emitter.initialize(0.0);
+            }
+            for (double time : new double[] {2.5, 5.5})
+            {
+                sim.scheduleEventAbs(time, () -> {
+                    try
+                    {
+                        model.in.receive("c", sim.getSimTime());
+                    }
+                    catch (RemoteException | SimRuntimeException exception)
+                    {
+                        fail(exception.getMessage());
+                    }
+                });
+            }
+        });
+        return collector.get(0).log;
+    }
+
+    /**
+     * Assign a segment to a new logical process when the simulator is a TimeWarpSimulator.
+     * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+     * @param segment Segment; the segment
+     * @throws SimRuntimeException when the segment cannot be assigned
+     */
+    private static void addLogicalProcess(final DEVSSimulatorInterface.TimeDouble simulator, final Segment segment)
+            throws SimRuntimeException
+    {
+        if (simulator instanceof TimeWarpSimulator)
+        {
+            ((TimeWarpSimulator.TimeDouble) simulator).addLogicalProcess(segment);
+        }
+    }
+
+    /**
+     * run a replication of a model until its end time.
+     * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+     * @param endTime double; the end time of the replication
+     * @param builder Builder; builds the model
+     * @throws Exception on error
+     */
+    private static void run(final DEVSSimulatorInterface.TimeDouble simulator, final double endTime, final Builder builder)
+            throws Exception
+    {
+        try
+        {
+            AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble> model =
+                    new AbstractDSOLModel.TimeDouble<DEVSSimulatorInterface.TimeDouble>(simulator)
+                    {
+                        /** */
+                        private static final long serialVersionUID = 1L;
+
+                        /** {@inheritDoc} */
+                        @Override
+                        public void constructModel() throws SimRuntimeException
+                        {
+                            try
+                            {
+                                builder.build(this.simulator);
+                            }
+                            catch (PortAlreadyDefinedException exception)
+                            {
+                                throw new SimRuntimeException(exception);
+                            }
+                        }
+                    };
+            simulator.initialize(Replication.TimeDouble.create("rep1", 0.0, 0.0, endTime, model), ReplicationMode.TERMINATING);
+            simulator.start();
+            long timeout = System.currentTimeMillis() + 10000L;
+            while (simulator.isRunning() && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(1);
+            }
+            assertFalse("simulator did not stop", simulator.isRunning());
+        }
+        finally
+        {
+            ((DEVSSimulator<?, ?, ?>) simulator).cleanUp();
+        }
+    }
+
+    /** Builds the model of a test in the constructModel method. */
+    interface Builder
+    {
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         * @throws SimRuntimeException on error
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        void build(DEVSSimulatorInterface.TimeDouble simulator) throws SimRuntimeException, PortAlreadyDefinedException;
+    }
+
+    /** Top model. */
+    static class Top extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param simulator DEVSSimulatorInterface.TimeDouble; the simulator
+         */
+        Top(final DEVSSimulatorInterface.TimeDouble simulator)
+        {
+            super("top", simulator);
+        }
+    }
+
+    /** Coupled model of a partition, with an input and an output port. */
+    static class Segment extends CoupledModel.TimeDouble
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in = new InputPort<>(this);
+
+        /** the output port. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out = new OutputPort<>(this);
+
+        /**
+         * @param name String; the name of the segment
+         * @param parentModel Top; the top model
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        Segment(final String name, final Top parentModel) throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            addInputPort("in", this.in);
+            addOutputPort("out", this.out);
+        }
+    }
+
+    /** Cell that computes a new value from its value and the values that it received, and sends it to the next cell. */
+    static class Cell extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in = new InputPort<>(this);
+
+        /** the output port. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out = new OutputPort<>(this);
+
+        /** whether the cell sleeps in its internal transitions. */
+        private final boolean slow;
+
+        /** the value. */
+        private double value = 1.0;
+
+        /** the sum of the received values. */
+        private double received = 0.0;
+
+        /** the number of received messages. */
+        private int messages = 0;
+
+        /** the time until the next internal transition. */
+        private double sigma;
+
+        /**
+         * @param name String; the name of the cell
+         * @param parentModel Segment; the segment
+         * @param slow boolean; whether the cell sleeps in its internal transitions
+         * @param sigma double; the time until the first internal transition
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        Cell(final String name, final Segment parentModel, final boolean slow, final double sigma)
+                throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            this.slow = slow;
+            this.sigma = sigma;
+            addInputPort("in", this.in);
+            addOutputPort("out", this.out);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            if (this.slow)
+            {
+                try
+                {
+                    Thread.sleep(2);
+                }
+                catch (InterruptedException exception)
+                {
+                    // the value does not depend on the sleep
+                }
+            }
+            this.value = Math.cos(this.value + this.received) + 0.5 * Math.sin(2.0 * this.value);
+            this.sigma = 1.0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object message)
+        {
+            this.received += (Double) message;
+            this.messages++;
+            this.sigma -= e;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            this.out.send(Double.valueOf(this.value));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.sigma;
+        }
+    }
+
+    /** Emitter that sends its name every time unit, after a random sleep. */
+    static class Emitter extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the output port. */
+        private final OutputPort<Double, Double, SimTimeDouble, Object> out = new OutputPort<>(this);
+
+        /**
+         * @param name String; the name of the emitter
+         * @param parentModel Segment; the segment
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        Emitter(final String name, final Segment parentModel) throws PortAlreadyDefinedException
+        {
+            super(name, parentModel);
+            addOutputPort("out", this.out);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            // the emitter has no state
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            // no inputs
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            try
+            {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            }
+            catch (InterruptedException exception)
+            {
+                // the message does not depend on the sleep
+            }
+            this.out.send(getModelName());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return 1.0;
+        }
+    }
+
+    /** Collector that logs its internal transitions and the messages that it receives. */
+    static class Collector extends AtomicModel<Double, Double, SimTimeDouble>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private final InputPort<Double, Double, SimTimeDouble, Object> in = new InputPort<>(this);
+
+        /** the log of the internal transitions and the received messages. */
+        private String log = "";
+
+        /** the time until the next internal transition. */
+        private double sigma = 1.0;
+
+        /**
+         * @param parentModel Segment; the segment
+         * @throws PortAlreadyDefinedException on duplicate port names
+         */
+        Collector(final Segment parentModel) throws PortAlreadyDefinedException
+        {
+            super("collector", parentModel);
+            addInputPort("in", this.in);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaInternal()
+        {
+            this.log += " i";
+            this.sigma = 1.0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            this.log += " " + value;
+            this.sigma -= e;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void lambda()
+        {
+            // no outputs
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.sigma;
+        }
+    }
+}
@@ -2,11 +2,17 @@ package nl.tudelft.simulation.jstats;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import nl.tudelft.simulation.jstats.distributions.DistBulkDrawTest;
+import nl.tudelft.simulation.jstats.distributions.DistEmpiricalTest;
+import nl.tudelft.simulation.jstats.distributions.DistNormalTest;
 import nl.tudelft.simulation.jstats.math.ProbMathTest;
 import nl.tudelft.simulation.jstats.ode.ODETest;
 import nl.tudelft.simulation.jstats.statistics.CounterTest;
+import nl.tudelft.simulation.jstats.statistics.LogLinearHistogramTest;
 import nl.tudelft.simulation.jstats.statistics.PersistentTest;
+import nl.tudelft.simulation.jstats.statistics.TDigestTest;
 import nl.tudelft.simulation.jstats.statistics.TallyTest;
+import nl.tudelft.simulation.jstats.streams.SplittableStreamTest;
 import nl.tudelft.simulation.jstats.streams.StreamTest;
 
 /**
@@ -40,9 +46,15 @@ public final class JStatsTestSuite
 
         suite.addTest(new ProbMathTest());
         suite.addTest(new StreamTest());
+        suite.addTest(new SplittableStreamTest());
+        suite.addTest(new DistBulkDrawTest());
+        suite.addTest(new DistNormalTest());
+        suite.addTest(new DistEmpiricalTest());
         suite.addTest(new CounterTest());
         suite.addTest(new TallyTest());
         suite.addTest(new PersistentTest());
+        suite.addTest(new TDigestTest());
+        suite.addTest(new LogLinearHistogramTest());
         suite.addTest(new ODETest());
         return suite;
     }
@@ -0,0 +1,190 @@
+package nl.tudelft.simulation.jstats.distributions;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+import nl.tudelft.simulation.jstats.streams.Xoshiro256PlusPlus;
+
+/**
+ * The test script for the bulk draws of the distributions.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class DistBulkDrawTest extends TestCase
+{
+    /** TEST_METHOD is the name of the test method. */
+    public static final String TEST_METHOD = "test";
+
+    /** the number of values per distribution. */
+    private static final int N = 200000;
+
+    /**
+     * constructs a new DistBulkDrawTest.
+     */
+    public DistBulkDrawTest()
+    {
+        this(TEST_METHOD);
+    }
+
+    /**
+     * constructs a new DistBulkDrawTest.
+     * @param method String; the name of the test method
+     */
+    public DistBulkDrawTest(final String method)
+    {
+        super(method);
+    }
+
+    /**
+     * tests the moments, the distribution functions and the reproducibility of the bulk draws.
+     */
+    public final void test()
+    {
+        StreamInterface stream = new MersenneTwister(11L);
+        assertMoments(new DistNormal(stream, 2.0, 3.0), 2.0, 9.0);
+        assertMoments(new DistExponential(stream, 2.5), 2.5, 6.25);
+        assertMoments(new DistUniform(stream, 1.0, 3.0), 2.0, 1.0 / 3.0);
+        assertMoments(new DistGamma(stream, 0.4, 2.0), 0.8, 1.6);
+        assertMoments(new DistGamma(stream, 1.0, 2.0), 2.0, 4.0);
+        assertMoments(new DistGamma(stream, 5.5, 0.5), 2.75, 1.375);
+        assertMoments(new DistWeibull(stream, 2.0, 1.0), Math.sqrt(Math.PI) / 2.0, 1.0 - Math.PI / 4.0);
+        double s2 = 0.25;
+        assertMoments(new DistLogNormal(stream, 0.0, 0.5), Math.exp(s2 / 2.0), (Math.exp(s2) - 1.0) * Math.exp(s2));
+
+        // the distribution functions, including the wedges and the tails of the ziggurats
+        double[] values = new double[N];
+        new DistNormal(stream).draw(values, 0, N);
+        double[] x = {-3.5, -2.0, -0.5, 0.0, 1.0, 2.5, 3.5};
+        double[] p = {2.326290790355250e-4, 0.02275013194817921, 0.3085375387259869, 0.5, 0.8413447460685429,
+                0.9937903346742238, 0.9997673709209645};
+        assertDistributionFunction(values, x, p);
+        new DistExponential(stream, 1.0).draw(values, 0, N);
+        x = new double[] {0.01, 0.5, 1.0, 3.0, 8.0};
+        p = new double[x.length];
+        for (int i = 0; i < x.length; i++)
+        {
+            p[i] = 1.0 - Math.exp(-x[i]);
+        }
+        assertDistributionFunction(values, x, p);
+
+        // the Poisson distribution
+        long[] counts = new long[N];
+        new DistPoisson(stream, 4.5).draw(counts, 0, N);
+        double sum = 0.0;
+        double sumSq = 0.0;
+        for (long count : counts)
+        {
+            sum += count;
+            sumSq += count * count;
+        }
+        double mean = sum / N;
+        Assert.assertEquals(4.5, mean, 0.03);
+        Assert.assertEquals(4.5, sumSq / N - mean * mean, 0.1);
+
+        // bulk draws are reproducible, and the uniform bulk draw is the same as successive draws
+        double[] first = new double[100];
+        double[] second = new double[100];
+        new DistNormal(new MersenneTwister(5L)).draw(first, 0, 100);
+        new DistNormal(new MersenneTwister(5L)).draw(second, 0, 100);
+        Assert.assertArrayEquals(first, second, 0.0);
+        DistUniform uniform = new DistUniform(new MersenneTwister(5L), 0.0, 1.0);
+        uniform.draw(first, 10, 90);
+        uniform = new DistUniform(new MersenneTwister(5L), 0.0, 1.0);
+        for (int i = 10; i < 100; i++)
+        {
+            Assert.assertEquals(uniform.draw(), first[i], 0.0);
+        }
+
+        // bulk stream draws are the same as successive draws, for the default and for an overriding implementation
+        for (StreamInterface bulkStream : new StreamInterface[] {new MersenneTwister(7L), new Xoshiro256PlusPlus(7L)})
+        {
+            StreamInterface singleStream = bulkStream instanceof MersenneTwister ? new MersenneTwister(7L)
+                    : new Xoshiro256PlusPlus(7L);
+            bulkStream.nextDouble(first, 3, 97);
+            for (int i = 3; i < 100; i++)
+            {
+                Assert.assertEquals(singleStream.nextDouble(), first[i], 0.0);
+            }
+            Assert.assertEquals(singleStream.nextDouble(), bulkStream.nextDouble(), 0.0);
+        }
+
+        // range checks
+        try
+        {
+            uniform.draw(first, 50, 51);
+            Assert.fail("a range beyond the end of the array should throw an exception");
+        }
+        catch (IndexOutOfBoundsException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+        try
+        {
+            new DistPoisson(stream, 1.0).draw(counts, -1, 10);
+            Assert.fail("a negative offset should throw an exception");
+        }
+        catch (IndexOutOfBoundsException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+    }
+
+    /**
+     * asserts that the mean and variance of a bulk draw are within about four standard errors of the expected values.
+     * @param dist DistContinuous; the distribution
+     * @param expectedMean double; the expected mean
+     * @param expectedVariance double; the expected variance
+     */
+    private static void assertMoments(final DistContinuous dist, final double expectedMean, final double expectedVariance)
+    {
+        double[] values = new double[N];
+        dist.draw(values, 0, N);
+        double sum = 0.0;
+        for (double value : values)
+        {
+            sum += value;
+        }
+        double mean = sum / N;
+        double sumSq = 0.0;
+        for (double value : values)
+        {
+            sumSq += (value - mean) * (value - mean);
+        }
+        double variance = sumSq / (N - 1);
+        Assert.assertEquals(dist.toString(), expectedMean, mean, 4.0 * Math.sqrt(expectedVariance / N));
+        Assert.assertEquals(dist.toString(), expectedVariance, variance, 0.03 * expectedVariance);
+    }
+
+    /**
+     * asserts that the empirical distribution function of the values is within about four standard errors of the expected
+     * probabilities.
+     * @param values double[]; the values
+     * @param x double[]; the points to evaluate the distribution function at
+     * @param p double[]; the expected probabilities
+     */
+    private static void assertDistributionFunction(final double[] values, final double[] x, final double[] p)
+    {
+        for (int i = 0; i < x.length; i++)
+        {
+            int count = 0;
+            for (double value : values)
+            {
+                if (value <= x[i])
+                {
+                    count++;
+                }
+            }
+            double sigma = Math.sqrt(p[i] * (1.0 - p[i]) / N);
+            Assert.assertEquals("F(" + x[i] + ")", p[i], (double) count / N, 4.0 * sigma + 1.0 / N);
+        }
+    }
+}
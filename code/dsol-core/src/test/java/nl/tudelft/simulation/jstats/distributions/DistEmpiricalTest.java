@@ -0,0 +1,136 @@
+package nl.tudelft.simulation.jstats.distributions;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.jstats.distributions.empirical.Observations;
+import nl.tudelft.simulation.jstats.distributions.empirical.ObservationsInterface;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+
+/**
+ * The test script for the empirical distributions and their observations.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class DistEmpiricalTest extends TestCase
+{
+    /** TEST_METHOD is the name of the test method. */
+    public static final String TEST_METHOD = "test";
+
+    /**
+     * constructs a new DistEmpiricalTest.
+     */
+    public DistEmpiricalTest()
+    {
+        this(TEST_METHOD);
+    }
+
+    /**
+     * constructs a new DistEmpiricalTest.
+     * @param method String; the name of the test method
+     */
+    public DistEmpiricalTest(final String method)
+    {
+        super(method);
+    }
+
+    /**
+     * tests the observations, the alias method of the discrete empirical distribution and the continuous empirical
+     * distribution.
+     */
+    public final void test()
+    {
+        // the observations
+        Observations observations =
+                new Observations(new Number[][] {{1, 1.0 / 6.0}, {2, 1.0 / 3.0}, {3, 1.0 / 3.0}, {4, 1.0 / 6.0}}, false);
+        Assert.assertEquals(4, observations.size());
+        Assert.assertTrue(observations.isGrouped());
+        Assert.assertEquals(Long.valueOf(2L), observations.get(1).getObservation());
+        Assert.assertEquals(0.5, observations.get(1).getCumProbability(), 1E-15);
+        Assert.assertTrue(observations.contains(3L, ObservationsInterface.OBSERVATION));
+        Assert.assertFalse(observations.contains(5L, ObservationsInterface.OBSERVATION));
+        Assert.assertEquals(Long.valueOf(3L),
+                observations.getCeilingEntry(0.6, ObservationsInterface.CUMPROBABILITY, true).getObservation());
+        Assert.assertEquals(Long.valueOf(2L),
+                observations.getPrecedingEntry(2.5, ObservationsInterface.OBSERVATION, true).getObservation());
+        Assert.assertEquals(1, observations.getIndex(observations.get(1)));
+        Observations doubles = new Observations(new Double[] {3.0, 1.0, 2.0, 2.5});
+        Assert.assertFalse(doubles.isGrouped());
+        Assert.assertEquals(Double.valueOf(2.5), doubles.get(2).getObservation());
+        Assert.assertArrayEquals(new double[] {1.0, 2.0, 2.5, 3.0}, doubles.getObservationValues(), 0.0);
+
+        // the alias method reproduces the probabilities, also for many categories
+        DistDiscreteEmpirical discrete = new DistDiscreteEmpirical(new MersenneTwister(3L), observations);
+        Assert.assertEquals(1.0 / 3.0, discrete.probability(2), 1E-15);
+        Assert.assertEquals(0.0, discrete.probability(5), 0.0);
+        int n = 300000;
+        int[] counts = new int[5];
+        for (int i = 0; i < n; i++)
+        {
+            counts[(int) discrete.draw()]++;
+        }
+        Assert.assertEquals(0, counts[0]);
+        for (int i = 1; i <= 4; i++)
+        {
+            double p = discrete.probability(i);
+            Assert.assertEquals(p, (double) counts[i] / n, 4.0 * Math.sqrt(p * (1.0 - p) / n));
+        }
+        SortedMap<Number, Double> weights = new TreeMap<Number, Double>();
+        double total = 0.0;
+        for (long i = 0; i < 2000; i++)
+        {
+            double weight = 1.0 + (i % 7);
+            weights.put(i * 3, weight);
+            total += weight;
+        }
+        discrete = new DistDiscreteEmpirical(new MersenneTwister(4L), weights, false);
+        Assert.assertEquals(7.0 / total, discrete.probability(18), 1E-12);
+        Assert.assertEquals(0.0, discrete.probability(19), 0.0);
+        double sum = 0.0;
+        double expected = 0.0;
+        for (long i = 0; i < 2000; i++)
+        {
+            expected += i * 3 * (1.0 + (i % 7)) / total;
+        }
+        for (int i = 0; i < n; i++)
+        {
+            long value = discrete.draw();
+            Assert.assertTrue(value % 3 == 0 && value >= 0 && value < 6000);
+            sum += value;
+        }
+        Assert.assertEquals(expected, sum / n, 0.01 * expected);
+
+        // the continuous empirical distribution, grouped and non grouped
+        DistEmpirical grouped = new DistEmpirical(new MersenneTwister(5L), observations);
+        sum = 0.0;
+        for (int i = 0; i < n; i++)
+        {
+            double value = grouped.draw();
+            Assert.assertTrue(value >= 1.0 && value <= 4.0);
+            sum += value;
+        }
+        // the draws interpolate between (1, 1/6), (2, 1/2), (3, 5/6) and (4, 1); draws below 1/6 are 1
+        double mean = 1.0 / 6.0 + 1.0 / 3.0 * 1.5 + 1.0 / 3.0 * 2.5 + 1.0 / 6.0 * 3.5;
+        Assert.assertEquals(mean, sum / n, 0.01);
+        Assert.assertEquals(0.5 + 0.5 / 3.0, grouped.probDensity(2.5), 1E-15);
+        DistEmpirical nonGrouped = new DistEmpirical(new MersenneTwister(6L), new Double[] {0.0, 1.0, 3.0});
+        sum = 0.0;
+        for (int i = 0; i < n; i++)
+        {
+            sum += nonGrouped.draw();
+        }
+        Assert.assertEquals(1.25, sum / n, 0.01);
+        Assert.assertEquals(0.75, nonGrouped.probDensity(2.0), 1E-15);
+        Assert.assertEquals(0.0, nonGrouped.probDensity(-1.0), 0.0);
+    }
+}
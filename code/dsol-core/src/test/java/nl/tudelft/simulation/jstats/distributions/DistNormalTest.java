@@ -0,0 +1,90 @@
+package nl.tudelft.simulation.jstats.distributions;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+
+/**
+ * The test script for the cumulative and inverse cumulative probabilities of the normal distributions.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class DistNormalTest extends TestCase
+{
+    /** TEST_METHOD is the name of the test method. */
+    public static final String TEST_METHOD = "test";
+
+    /**
+     * constructs a new DistNormalTest.
+     */
+    public DistNormalTest()
+    {
+        this(TEST_METHOD);
+    }
+
+    /**
+     * constructs a new DistNormalTest.
+     * @param method String; the name of the test method
+     */
+    public DistNormalTest(final String method)
+    {
+        super(method);
+    }
+
+    /**
+     * tests the cumulative and inverse cumulative probabilities.
+     */
+    public final void test()
+    {
+        // the cumulative probability, with the relative error in the tails
+        double[] z = {-37.0, -20.0, -8.0, -1.5, 0.25, 3.0};
+        double[] p = {5.725571222525139e-300, 2.7536241186063314e-89, 6.220960574271819e-16, 0.06680720126885809,
+                0.5987063256829237, 0.9986501019683699};
+        for (int i = 0; i < z.length; i++)
+        {
+            Assert.assertEquals(p[i], DistNormal.cumulativeStandardNormal(z[i]), 1E-12 * p[i]);
+        }
+        DistNormal normal = new DistNormal(new MersenneTwister(1L), 10.0, 2.0);
+        Assert.assertEquals(0.06680720126885809, normal.getCumulativeProbability(7.0), 1E-15);
+        Assert.assertEquals(0.5, normal.getCumulativeProbability(10.0), 1E-15);
+
+        // the inverse cumulative probability, and the round trip
+        Assert.assertEquals(1.959963984540054, DistNormal.inverseCumulativeStandardNormal(0.975), 1E-14);
+        Assert.assertEquals(-1.959963984540054, DistNormal.inverseCumulativeStandardNormal(0.025), 1E-14);
+        Assert.assertEquals(0.0, DistNormal.inverseCumulativeStandardNormal(0.5), 0.0);
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, DistNormal.inverseCumulativeStandardNormal(0.0), 0.0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, DistNormal.inverseCumulativeStandardNormal(1.0), 0.0);
+        for (double x = -37.0; x <= 0.0; x += 0.125)
+        {
+            double y = DistNormal.inverseCumulativeStandardNormal(DistNormal.cumulativeStandardNormal(x));
+            Assert.assertEquals(x, y, 1E-13 * Math.max(1.0, Math.abs(x)));
+        }
+        Assert.assertEquals(13.919927969080108, normal.getInverseCumulativeProbability(0.975), 1E-13);
+        try
+        {
+            normal.getInverseCumulativeProbability(1.5);
+            Assert.fail("a probability above 1 should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+
+        // a normal distribution without spread, and the lognormal distribution
+        DistNormal constant = new DistNormal(new MersenneTwister(1L), 3.0, 0.0);
+        Assert.assertEquals(0.0, constant.getCumulativeProbability(2.9), 0.0);
+        Assert.assertEquals(1.0, constant.getCumulativeProbability(3.0), 0.0);
+        DistLogNormal logNormal = new DistLogNormal(new MersenneTwister(1L), 1.0, 0.5);
+        Assert.assertEquals(0.5, logNormal.getCumulativeProbability(Math.E), 1E-15);
+        Assert.assertEquals(0.0, logNormal.getCumulativeProbability(-1.0), 0.0);
+        Assert.assertEquals(Math.exp(1.0 + 0.5 * 1.959963984540054), logNormal.getInverseCumulativeProbability(0.975), 1E-12);
+    }
+}
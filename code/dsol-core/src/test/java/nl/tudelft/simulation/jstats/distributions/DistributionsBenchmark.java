@@ -52,6 +52,38 @@ public final class DistributionsBenchmark
         return System.currentTimeMillis() - startTime;
     }
 
+    /**
+     * benchmarks the bulk draw of a distribution by drawing 1000000 double values in blocks of 1000
+     * @param continuousDistribution the continuousDistribution to test
+     * @return the execution time in milliseconds
+     */
+    public static long benchmarkBulk(final DistContinuous continuousDistribution)
+    {
+        double[] values = new double[1000];
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 1000; i++)
+        {
+            continuousDistribution.draw(values, 0, values.length);
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * benchmarks the bulk draw of a distribution by drawing 1000000 long values in blocks of 1000
+     * @param discreteDistribution the discreteDistribution to test
+     * @return the execution time in milliseconds
+     */
+    public static long benchmarkBulk(final DistDiscrete discreteDistribution)
+    {
+        long[] values = new long[1000];
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 1000; i++)
+        {
+            discreteDistribution.draw(values, 0, values.length);
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
     /**
      * executes the benchmark
      * @param args the commandline arguments
@@ -82,5 +114,13 @@ public final class DistributionsBenchmark
         System.out.println("DistUniform: " + DistributionsBenchmark.benchmark(new DistUniform(stream, 0, 1)));
         System.out.println("DistWeibull: " + DistributionsBenchmark.benchmark(new DistWeibull(stream, 0.4, 1.5)));
 
+        System.out.println("bulk DistExponential : " + benchmarkBulk(new DistExponential(stream, 0.1)));
+        System.out.println("bulk DistGamma : " + benchmarkBulk(new DistGamma(stream, 0.1, 0.5)));
+        System.out.println("bulk DistLogNormal : " + benchmarkBulk(new DistLogNormal(stream, 10, 1.0)));
+        System.out.println("bulk DistNormal : " + benchmarkBulk(new DistNormal(stream, 1, 0.1)));
+        System.out.println("bulk DistPoisson : " + benchmarkBulk(new DistPoisson(stream, 23.21)));
+        System.out.println("bulk DistUniform: " + benchmarkBulk(new DistUniform(stream, 0, 1)));
+        System.out.println("bulk DistWeibull: " + benchmarkBulk(new DistWeibull(stream, 0.4, 1.5)));
+
     }
 }
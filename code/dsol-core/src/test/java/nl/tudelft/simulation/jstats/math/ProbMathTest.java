@@ -73,5 +73,22 @@ public class ProbMathTest extends TestCase
         {
             Assert.assertEquals(exception.getClass(), IllegalArgumentException.class);
         }
+
+        // The error function, with the relative error in all three regions of the approximation
+        double[] x = {0.1, 0.5, 1.0, -2.0};
+        double[] erf = {0.1124629160182849, 0.5204998778130465, 0.8427007929497149, -0.9953222650189527};
+        for (int i = 0; i < x.length; i++)
+        {
+            Assert.assertEquals(erf[i], ProbMath.erf(x[i]), 1E-15 * Math.abs(erf[i]));
+        }
+        x = new double[] {0.3, 3.0, 10.0, 26.0};
+        double[] erfc = {0.6713732405408726, 2.2090496998585438e-05, 2.088487583762545e-45, 5.663192408856143e-296};
+        for (int i = 0; i < x.length; i++)
+        {
+            Assert.assertEquals(erfc[i], ProbMath.erfc(x[i]), 1E-14 * erfc[i]);
+            Assert.assertEquals(2.0 - erfc[i], ProbMath.erfc(-x[i]), 1E-15);
+        }
+        Assert.assertEquals(0.0, ProbMath.erf(0.0), 0.0);
+        Assert.assertEquals(0.0, ProbMath.erfc(30.0), 0.0);
     }
 }
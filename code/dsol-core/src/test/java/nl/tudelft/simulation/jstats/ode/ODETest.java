@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.ode;
 
+import org.junit.Assert;
+
 import junit.framework.TestCase;
 import nl.tudelft.simulation.jstats.ode.integrators.NumericalIntegrator;
 
@@ -45,5 +47,116 @@ public class ODETest extends TestCase
         Function function = new Function(0.1, NumericalIntegrator.RUNGEKUTTA4);
         double[] result = function.y(30.0);
         System.out.println(result[0]);
+
+        // the in-place integration gives the same values as the allocating integration, also when advancing in place
+        for (short method = NumericalIntegrator.EULER; method <= NumericalIntegrator.RUNGEKUTTACASHCARP; method++)
+        {
+            Oscillator allocating = new Oscillator(0.01, method);
+            Oscillator inPlace = new Oscillator(0.01, method);
+            double[] y = {1.0, 0.0};
+            double[] z = {1.0, 0.0};
+            for (int i = 0; i < 100; i++)
+            {
+                y = allocating.getIntegrator().next(0.01 * i, y);
+                inPlace.getIntegrator().next(0.01 * i, z, z);
+            }
+            Assert.assertArrayEquals("method " + method, y, z, 0.0);
+            Assert.assertEquals("method " + method, 0, inPlace.allocatingCalls);
+        }
+
+        // the higher order integrators are accurate, and y(x) does not change the initial value
+        short[] methods = {NumericalIntegrator.RUNGEKUTTA4, NumericalIntegrator.ADAMS, NumericalIntegrator.MILNE,
+                NumericalIntegrator.RUNGEKUTTAFEHLBERG, NumericalIntegrator.RUNGEKUTTACASHCARP};
+        for (short method : methods)
+        {
+            Oscillator oscillator = new Oscillator(0.01, method);
+            double[] y = oscillator.y(2.0);
+            Assert.assertEquals("method " + method, Math.cos(2.0), y[0], 1E-5);
+            Assert.assertEquals("method " + method, -Math.sin(2.0), y[1], 1E-5);
+            Assert.assertArrayEquals(new double[] {1.0, 0.0}, oscillator.y0, 0.0);
+            Assert.assertEquals(0, oscillator.allocatingCalls);
+        }
+
+        // the adaptive step size meets the tolerances with a large maximum step, and gives a dense output in the last step
+        Oscillator adaptive = new Oscillator(0.5, NumericalIntegrator.RUNGEKUTTACASHCARP);
+        try
+        {
+            new Oscillator(0.5, NumericalIntegrator.RUNGEKUTTA4).setTolerances(1E-9, 1E-9);
+            Assert.fail("adaptive step size needs an error estimate");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            // ok
+        }
+        adaptive.setTolerances(1E-9, 1E-9);
+        Assert.assertTrue(adaptive.isAdaptive());
+        double[] y = adaptive.y(2.0);
+        Assert.assertEquals(Math.cos(2.0), y[0], 1E-7);
+        Assert.assertEquals(-Math.sin(2.0), y[1], 1E-7);
+        double[] dense = new double[2];
+        adaptive.interpolate(1.999, dense);
+        Assert.assertEquals(Math.cos(1.999), dense[0], 1E-7);
+
+        // the integration stops at a zero crossing, with the fixed and with the adaptive step size
+        ZeroCrossingInterface falling = (x, state) -> state[0];
+        ZeroCrossingInterface rising = (x, state) -> state[0];
+        for (Oscillator oscillator : new Oscillator[] {new Oscillator(0.01, NumericalIntegrator.RUNGEKUTTA4), adaptive})
+        {
+            oscillator.addZeroCrossing(falling, ZeroCrossingInterface.FALLING);
+            oscillator.addZeroCrossing(rising, ZeroCrossingInterface.RISING);
+            y = new double[] {1.0, 0.0};
+            double x = oscillator.advanceY(6.0, 0.0, y);
+            Assert.assertEquals(Math.PI / 2.0, x, 1E-6);
+            Assert.assertEquals(falling, oscillator.getZeroCrossing());
+            Assert.assertEquals(-1.0, y[1], 1E-6);
+            x = oscillator.advanceY(6.0, x, y);
+            Assert.assertEquals(3.0 * Math.PI / 2.0, x, 1E-6);
+            Assert.assertEquals(rising, oscillator.getZeroCrossing());
+            x = oscillator.advanceY(6.0, x, y);
+            Assert.assertEquals(6.0, x, 0.0);
+            Assert.assertNull(oscillator.getZeroCrossing());
+            Assert.assertEquals(Math.cos(6.0), y[0], 1E-5);
+            Assert.assertTrue(oscillator.removeZeroCrossing(falling));
+            Assert.assertEquals(Math.cos(3.0), oscillator.y(3.0)[0], 1E-5);
+        }
+    }
+
+    /** The harmonic oscillator y'' = -y, with y(0) = 1 and y'(0) = 0, that computes its derivative in place. */
+    private static class Oscillator extends DifferentialEquation
+    {
+        /** */
+        private static final long serialVersionUID = 20190601L;
+
+        /** the number of calls of the allocating dy method. */
+        private int allocatingCalls = 0;
+
+        /**
+         * constructs a new Oscillator.
+         * @param timeStep double; the time step
+         * @param integrationMethod short; the integration method
+         */
+        Oscillator(final double timeStep, final short integrationMethod)
+        {
+            super(timeStep, integrationMethod);
+            initialize(0.0, new double[] {1.0, 0.0});
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] dy(final double x, final double[] y)
+        {
+            this.allocatingCalls++;
+            double[] dy = new double[2];
+            dy(x, y, dy);
+            return dy;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void dy(final double x, final double[] y, final double[] dy)
+        {
+            dy[0] = y[1];
+            dy[1] = -y[0];
+        }
     }
 }
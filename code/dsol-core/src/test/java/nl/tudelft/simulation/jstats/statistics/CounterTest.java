@@ -73,4 +73,59 @@ public class CounterTest extends TestCase
         Assert.assertTrue(counter.getN() == 100);
         Assert.assertTrue(counter.getCount() == value);
     }
+
+    /**
+     * tests that ingest counts like notify, and that COUNT_EVENTs are published according to the publication interval.
+     */
+    public void testIngest()
+    {
+        Counter counter = new Counter("ingested");
+        counter.initialize();
+        final int[] countEvents = new int[1];
+        counter.addListener(new EventListenerInterface()
+        {
+            @Override
+            public void notify(final EventInterface event)
+            {
+                countEvents[0]++;
+            }
+        }, Counter.COUNT_EVENT);
+        for (int i = 0; i < 100; i++)
+        {
+            counter.ingest(2 * i);
+        }
+        Assert.assertEquals(100, counter.getN());
+        Assert.assertEquals(9900, counter.getCount());
+        Assert.assertEquals(100, countEvents[0]);
+
+        countEvents[0] = 0;
+        counter.setPublicationInterval(10);
+        for (int i = 0; i < 100; i++)
+        {
+            counter.ingest(1);
+        }
+        Assert.assertEquals(10000, counter.getCount());
+        Assert.assertEquals(10, countEvents[0]);
+    }
+
+    /**
+     * tests that combining counters adds their counts and numbers of measurements.
+     */
+    public void testCombine()
+    {
+        Counter combined = new Counter("combined");
+        for (int p = 0; p < 3; p++)
+        {
+            Counter part = new Counter("part " + p);
+            part.initialize();
+            for (int i = 0; i < 10 * (p + 1); i++)
+            {
+                part.ingest(p + 1);
+            }
+            combined.combine(part);
+        }
+        combined.combine(new Counter("uninitialized"));
+        Assert.assertEquals(60, combined.getN());
+        Assert.assertEquals(10 + 40 + 90, combined.getCount());
+    }
 }
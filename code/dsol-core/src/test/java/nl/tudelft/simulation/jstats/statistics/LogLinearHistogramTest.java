@@ -0,0 +1,204 @@
+package nl.tudelft.simulation.jstats.statistics;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+import nl.tudelft.simulation.event.Event;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * The LogLinearHistogramTest tests the log-linear histogram.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class LogLinearHistogramTest extends TestCase
+{
+    /** TEST_METHOD reflects the method which is invoked. */
+    public static final String TEST_METHOD = "test";
+
+    /**
+     * constructs a new LogLinearHistogramTest.
+     */
+    public LogLinearHistogramTest()
+    {
+        this(TEST_METHOD);
+    }
+
+    /**
+     * constructs a new LogLinearHistogramTest.
+     * @param arg0 the name of the test method
+     */
+    public LogLinearHistogramTest(final String arg0)
+    {
+        super(arg0);
+    }
+
+    /**
+     * draws exponentially distributed samples with mean 10.
+     * @param seed long; the seed of the stream
+     * @param n int; the number of samples
+     * @return double[] the samples
+     */
+    private static double[] samples(final long seed, final int n)
+    {
+        StreamInterface stream = new MersenneTwister(seed);
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            result[i] = -10.0 * Math.log(1.0 - stream.nextDouble());
+        }
+        return result;
+    }
+
+    /**
+     * returns the exact quantile of sorted samples: the sample with rank ceil(p * n).
+     * @param sorted double[]; the samples, in ascending order
+     * @param probability double; the probability
+     * @return double the quantile
+     */
+    private static double exactQuantile(final double[] sorted, final double probability)
+    {
+        return sorted[Math.max(0, (int) Math.ceil(probability * sorted.length) - 1)];
+    }
+
+    /**
+     * tests the log-linear histogram.
+     */
+    public void test()
+    {
+        LogLinearHistogram histogram = new LogLinearHistogram("waiting time", 0.001, 1000.0, 3);
+        Assert.assertEquals("waiting time", histogram.toString());
+        Assert.assertTrue(Double.isNaN(histogram.getQuantile(0.5)));
+        histogram.initialize();
+
+        double[] values = samples(333L, 100000);
+        for (double value : values)
+        {
+            histogram.ingest(value);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        Assert.assertEquals(values.length, histogram.getN());
+        Assert.assertEquals(0, histogram.getOverflow());
+        Assert.assertEquals(sorted[0], histogram.getQuantile(0.0), 0.0);
+        Assert.assertEquals(sorted[sorted.length - 1], histogram.getQuantile(1.0), 0.0);
+
+        // the estimate lies in the same sub-bucket as the exact quantile, which is at most 0.1% wide, or 0.001 for small values
+        for (double p : new double[] {0.00001, 0.001, 0.01, 0.1, 0.5, 0.9, 0.99, 0.999, 0.9999})
+        {
+            double exact = exactQuantile(sorted, p);
+            Assert.assertEquals("p=" + p, exact, histogram.getQuantile(p), Math.max(0.001, exact * 0.001));
+            Assert.assertEquals("p=" + p, p, histogram.getCumulativeProbability(exact), 0.001);
+        }
+
+        // values above the highest trackable value are counted as overflow
+        histogram.ingest(5000.0);
+        Assert.assertEquals(1, histogram.getOverflow());
+        Assert.assertEquals(5000.0, histogram.getMax(), 0.0);
+        Assert.assertEquals(5000.0, histogram.getQuantile(0.999999), 0.0);
+
+        try
+        {
+            histogram.ingest(-1.0);
+            Assert.fail("a negative value should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+        Assert.assertEquals(values.length + 1, histogram.getN());
+        try
+        {
+            new LogLinearHistogram("wrong", 1.0, 1.0, 3);
+            Assert.fail("highest < 2 * lowest should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+        try
+        {
+            new LogLinearHistogram("wrong", 1.0, 100.0, 6);
+            Assert.fail("6 significant digits should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+
+        // notify gives the same result as ingest
+        LogLinearHistogram notified = new LogLinearHistogram("notified", 0.001, 1000.0, 3);
+        notified.initialize();
+        final int[] events = new int[1];
+        notified.addListener(new EventListenerInterface()
+        {
+            @Override
+            public void notify(final EventInterface event)
+            {
+                events[0]++;
+            }
+        }, QuantileEstimator.N_EVENT);
+        for (double value : values)
+        {
+            notified.notify(new Event(null, this, new Double(value)));
+        }
+        Assert.assertEquals(values.length, events[0]);
+        Assert.assertEquals(histogram.getQuantile(0.99), notified.getQuantile(0.99), 0.0);
+    }
+
+    /**
+     * tests that combined histograms give exactly the counts of all samples, in any order.
+     */
+    public void testCombine()
+    {
+        double[] values = samples(444L, 40000);
+        LogLinearHistogram all = new LogLinearHistogram("all", 0.01, 100.0, 2);
+        all.initialize();
+        LogLinearHistogram[] parts = new LogLinearHistogram[3];
+        for (int p = 0; p < parts.length; p++)
+        {
+            parts[p] = new LogLinearHistogram("part " + p, 0.01, 100.0, 2);
+            parts[p].initialize();
+        }
+        for (int i = 0; i < values.length; i++)
+        {
+            all.ingest(values[i]);
+            parts[i % parts.length].ingest(values[i]);
+        }
+        LogLinearHistogram forward = new LogLinearHistogram("forward", 0.01, 100.0, 2);
+        LogLinearHistogram backward = new LogLinearHistogram("backward", 0.01, 100.0, 2);
+        for (int p = 0; p < parts.length; p++)
+        {
+            forward.combine(parts[p]);
+            backward.combine(parts[parts.length - 1 - p]);
+        }
+        Assert.assertEquals(all.getN(), forward.getN());
+        Assert.assertEquals(all.getOverflow(), forward.getOverflow());
+        Assert.assertEquals(all.getMax(), backward.getMax(), 0.0);
+        for (double p : new double[] {0.01, 0.5, 0.9, 0.99, 0.999})
+        {
+            Assert.assertEquals(all.getQuantile(p), forward.getQuantile(p), 0.0);
+            Assert.assertEquals(all.getQuantile(p), backward.getQuantile(p), 0.0);
+        }
+        try
+        {
+            forward.combine(new LogLinearHistogram("other", 0.01, 100.0, 3));
+            Assert.fail("a histogram with another configuration cannot be combined");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+    }
+}
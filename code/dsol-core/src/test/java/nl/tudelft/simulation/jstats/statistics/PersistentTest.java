@@ -127,4 +127,90 @@ public class PersistentTest extends TestCase
         Assert.assertTrue(Math.abs(persistent.getSampleVariance() - variance) < 10E-6);
         Assert.assertTrue(Math.abs(persistent.getStdDev() - stDev) < 10E-6);
     }
+
+    /**
+     * tests that ingest gives the same time-weighted statistics as notify.
+     */
+    public void testIngest()
+    {
+        Persistent notified = new Persistent("notified");
+        Persistent ingested = new Persistent("ingested");
+        notified.initialize();
+        ingested.initialize();
+        for (int i = 0; i < 20; i++)
+        {
+            double time = 0.5 * i * i;
+            double value = (i * 7) % 11;
+            notified.notify(new TimedEvent<Double>(null, this, new Double(value), time));
+            ingested.ingest(time, value);
+        }
+        Assert.assertEquals(notified.getN(), ingested.getN());
+        Assert.assertEquals(notified.getSum(), ingested.getSum(), 0.0);
+        Assert.assertEquals(notified.getMin(), ingested.getMin(), 0.0);
+        Assert.assertEquals(notified.getMax(), ingested.getMax(), 0.0);
+        Assert.assertEquals(notified.getSampleMean(), ingested.getSampleMean(), 0.0);
+        Assert.assertEquals(notified.getSampleVariance(), ingested.getSampleVariance(), 0.0);
+
+        // untimed samples are equidistant samples, also when the persistent is used as a tally
+        Persistent timed = new Persistent("timed");
+        Tally untimed = new Persistent("untimed");
+        timed.initialize();
+        untimed.initialize();
+        for (int i = 0; i < 20; i++)
+        {
+            double value = (i * 7) % 11;
+            timed.ingest(i, value);
+            untimed.ingest(value);
+        }
+        Assert.assertEquals(timed.getN(), untimed.getN());
+        Assert.assertEquals(timed.getSampleMean(), untimed.getSampleMean(), 0.0);
+        Assert.assertEquals(timed.getSampleVariance(), untimed.getSampleVariance(), 0.0);
+    }
+
+    /**
+     * tests that combining persistents weighs their statistics with the durations of their observation periods.
+     */
+    public void testCombine()
+    {
+        Persistent all = new Persistent("all");
+        Persistent first = new Persistent("first");
+        Persistent second = new Persistent("second");
+        all.initialize();
+        first.initialize();
+        second.initialize();
+        for (int i = 0; i <= 40; i++)
+        {
+            double value = (i * 7) % 11;
+            all.ingest(i, value);
+            if (i <= 10)
+            {
+                first.ingest(i, value);
+            }
+            // the second period starts with the last value of the first period
+            if (i >= 10)
+            {
+                second.ingest(i, value);
+            }
+        }
+        Persistent combined = new Persistent("combined");
+        combined.combine(first);
+        Assert.assertEquals(first.getSampleMean(), combined.getSampleMean(), 0.0);
+        Assert.assertEquals(first.getSampleVariance(), combined.getSampleVariance(), 0.0);
+        combined.combine(second);
+        Assert.assertEquals(first.getN() + second.getN(), combined.getN());
+        Assert.assertEquals(all.getMin(), combined.getMin(), 0.0);
+        Assert.assertEquals(all.getMax(), combined.getMax(), 0.0);
+        Assert.assertEquals(all.getSampleMean(), combined.getSampleMean(), 1E-12);
+        Assert.assertEquals(10.0 / 40.0 * first.getSampleMean() + 30.0 / 40.0 * second.getSampleMean(),
+                combined.getSampleMean(), 1E-12);
+        try
+        {
+            combined.combine(new Tally("tally"));
+            Assert.fail("a persistent can only combine another persistent");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+    }
 }
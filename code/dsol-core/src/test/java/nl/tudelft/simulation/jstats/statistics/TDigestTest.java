@@ -0,0 +1,225 @@
+package nl.tudelft.simulation.jstats.statistics;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+import nl.tudelft.simulation.event.Event;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * The TDigestTest tests the t-digest quantile estimator.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
+ * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
+ * https://simulation.tudelft.nl</a>. The DSOL project is distributed under a three-clause BSD-style license, which can
+ * be found at <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class TDigestTest extends TestCase
+{
+    /** TEST_METHOD reflects the method which is invoked. */
+    public static final String TEST_METHOD = "test";
+
+    /**
+     * constructs a new TDigestTest.
+     */
+    public TDigestTest()
+    {
+        this(TEST_METHOD);
+    }
+
+    /**
+     * constructs a new TDigestTest.
+     * @param arg0 the name of the test method
+     */
+    public TDigestTest(final String arg0)
+    {
+        super(arg0);
+    }
+
+    /**
+     * draws exponentially distributed samples with mean 10.
+     * @param seed long; the seed of the stream
+     * @param n int; the number of samples
+     * @return double[] the samples
+     */
+    private static double[] samples(final long seed, final int n)
+    {
+        StreamInterface stream = new MersenneTwister(seed);
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            result[i] = -10.0 * Math.log(1.0 - stream.nextDouble());
+        }
+        return result;
+    }
+
+    /**
+     * returns the exact quantile of sorted samples: the sample with rank ceil(p * n).
+     * @param sorted double[]; the samples, in ascending order
+     * @param probability double; the probability
+     * @return double the quantile
+     */
+    private static double exactQuantile(final double[] sorted, final double probability)
+    {
+        return sorted[Math.max(0, (int) Math.ceil(probability * sorted.length) - 1)];
+    }
+
+    /**
+     * tests the t-digest.
+     */
+    public void test()
+    {
+        TDigest digest = new TDigest("waiting time");
+        Assert.assertEquals("waiting time", digest.toString());
+        Assert.assertFalse(digest.isInitialized());
+        Assert.assertTrue(Double.isNaN(digest.getQuantile(0.5)));
+        digest.initialize();
+        Assert.assertTrue(Double.isNaN(digest.getQuantile(0.5)));
+        Assert.assertTrue(Double.isNaN(digest.getCumulativeProbability(1.0)));
+
+        double[] values = samples(111L, 100000);
+        for (double value : values)
+        {
+            digest.ingest(value);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        Assert.assertEquals(values.length, digest.getN());
+        Assert.assertEquals(sorted[0], digest.getMin(), 0.0);
+        Assert.assertEquals(sorted[sorted.length - 1], digest.getMax(), 0.0);
+        Assert.assertEquals(sorted[0], digest.getQuantile(0.0), 0.0);
+        Assert.assertEquals(sorted[sorted.length - 1], digest.getQuantile(1.0), 0.0);
+        Assert.assertTrue(digest.getCentroidCount() <= 2 * TDigest.DEFAULT_COMPRESSION);
+
+        // the error in the rank of the estimates is small
+        for (double p : new double[] {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999})
+        {
+            double estimate = digest.getQuantile(p);
+            double rank = (double) Math.abs(Arrays.binarySearch(sorted, estimate)) / sorted.length;
+            Assert.assertEquals("p=" + p, p, rank, Math.min(0.001, 0.5 * Math.min(p, 1.0 - p)));
+            Assert.assertEquals("p=" + p, p, digest.getCumulativeProbability(exactQuantile(sorted, p)),
+                    0.001);
+        }
+        double previous = 0.0;
+        for (double x = 0.0; x < 100.0; x += 0.25)
+        {
+            double cdf = digest.getCumulativeProbability(x);
+            Assert.assertTrue(cdf >= previous);
+            previous = cdf;
+        }
+
+        // notify gives the same result as ingest
+        TDigest notified = new TDigest("notified");
+        notified.initialize();
+        for (double value : values)
+        {
+            notified.notify(new Event(null, this, new Double(value)));
+        }
+        Assert.assertEquals(digest.getQuantile(0.99), notified.getQuantile(0.99), 0.0);
+
+        try
+        {
+            digest.getQuantile(1.5);
+            Assert.fail("probability > 1 should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+        try
+        {
+            digest.ingest(Double.NaN);
+            Assert.fail("NaN should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+        try
+        {
+            new TDigest("too small", 1.0);
+            Assert.fail("compression < 10 should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+    }
+
+    /**
+     * tests that the quantiles are only estimated and published when there are listeners, according to the publication
+     * interval.
+     */
+    public void testPublication()
+    {
+        TDigest digest = new TDigest("published");
+        digest.initialize();
+        final double[][] last = new double[1][];
+        final int[] events = new int[1];
+        digest.addListener(new EventListenerInterface()
+        {
+            @Override
+            public void notify(final EventInterface event)
+            {
+                last[0] = (double[]) event.getContent();
+                events[0]++;
+            }
+        }, QuantileEstimator.QUANTILES_EVENT);
+        digest.setReportedProbabilities(0.5, 0.99);
+        digest.setPublicationInterval(1000);
+        for (double value : samples(5L, 10000))
+        {
+            digest.ingest(value);
+        }
+        Assert.assertEquals(10, events[0]);
+        Assert.assertEquals(2, last[0].length);
+        Assert.assertEquals(digest.getQuantile(0.5), last[0][0], 0.0);
+        Assert.assertEquals(digest.getQuantile(0.99), last[0][1], 0.0);
+        Assert.assertEquals(6, digest.getTable().getRowCount());
+    }
+
+    /**
+     * tests that combined t-digests estimate the quantiles of all samples, reproducibly for a fixed merge order.
+     */
+    public void testCombine()
+    {
+        double[] values = samples(222L, 40000);
+        TDigest[] parts = new TDigest[4];
+        for (int p = 0; p < parts.length; p++)
+        {
+            parts[p] = new TDigest("part " + p);
+            parts[p].initialize();
+        }
+        for (int i = 0; i < values.length; i++)
+        {
+            parts[i % parts.length].ingest(values[i]);
+        }
+        TDigest combined = new TDigest("combined");
+        TDigest again = new TDigest("again");
+        for (TDigest part : parts)
+        {
+            combined.combine(part);
+            again.combine(part);
+        }
+        combined.combine(new TDigest("uninitialized"));
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        Assert.assertEquals(values.length, combined.getN());
+        Assert.assertEquals(sorted[0], combined.getMin(), 0.0);
+        Assert.assertEquals(sorted[sorted.length - 1], combined.getMax(), 0.0);
+        for (double p : new double[] {0.01, 0.5, 0.9, 0.99})
+        {
+            Assert.assertEquals("p=" + p, p, combined.getCumulativeProbability(exactQuantile(sorted, p)),
+                    0.001);
+            Assert.assertEquals(Double.doubleToLongBits(combined.getQuantile(p)), Double.doubleToLongBits(again.getQuantile(p)));
+        }
+    }
+}
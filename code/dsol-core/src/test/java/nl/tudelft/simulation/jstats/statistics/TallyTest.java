@@ -3,6 +3,8 @@ package nl.tudelft.simulation.jstats.statistics;
 import junit.framework.Assert;
 import junit.framework.TestCase;
 import nl.tudelft.simulation.event.Event;
+import nl.tudelft.simulation.event.EventInterface;
+import nl.tudelft.simulation.event.EventListenerInterface;
 
 /**
  * The TallyTest test the tally.
@@ -154,4 +156,148 @@ public class TallyTest extends TestCase
         Assert.assertTrue(Math.abs(tally.getSampleVariance() - variance) < 10E-6);
         Assert.assertTrue(Math.abs(tally.getStdDev() - stDev) < 10E-6);
     }
+
+    /**
+     * tests that ingest gives the same statistics as notify, and that the statistics are published according to the
+     * publication interval.
+     */
+    public void testIngest()
+    {
+        Tally notified = new Tally("notified");
+        Tally ingested = new Tally("ingested");
+        notified.initialize();
+        ingested.initialize();
+        final int[] meanEvents = new int[1];
+        final int[] minEvents = new int[1];
+        EventListenerInterface listener = new EventListenerInterface()
+        {
+            @Override
+            public void notify(final EventInterface event)
+            {
+                if (event.getType().equals(Tally.SAMPLE_MEAN_EVENT))
+                {
+                    meanEvents[0]++;
+                }
+                else
+                {
+                    minEvents[0]++;
+                }
+            }
+        };
+        ingested.addListener(listener, Tally.SAMPLE_MEAN_EVENT);
+        ingested.addListener(listener, Tally.MIN_EVENT);
+        for (int i = 0; i < 20; i++)
+        {
+            double value = (i * 7) % 11 - 5.0;
+            notified.notify(new Event(null, this, new Double(value)));
+            ingested.ingest(value);
+        }
+        Assert.assertEquals(notified.getN(), ingested.getN());
+        Assert.assertEquals(notified.getSum(), ingested.getSum(), 0.0);
+        Assert.assertEquals(notified.getMin(), ingested.getMin(), 0.0);
+        Assert.assertEquals(notified.getMax(), ingested.getMax(), 0.0);
+        Assert.assertEquals(notified.getSampleMean(), ingested.getSampleMean(), 0.0);
+        Assert.assertEquals(notified.getSampleVariance(), ingested.getSampleVariance(), 0.0);
+
+        // by default, the statistics are published after every sample; the minimum only when it changes, which is once here
+        Assert.assertEquals(20, meanEvents[0]);
+        Assert.assertEquals(1, minEvents[0]);
+
+        meanEvents[0] = 0;
+        ingested.setPublicationInterval(5);
+        for (int i = 0; i < 20; i++)
+        {
+            ingested.ingest(1.0);
+        }
+        Assert.assertEquals(4, meanEvents[0]);
+
+        meanEvents[0] = 0;
+        ingested.setPublicationInterval(0);
+        for (int i = 0; i < 20; i++)
+        {
+            ingested.ingest(1.0);
+        }
+        Assert.assertEquals(0, meanEvents[0]);
+        ingested.publish();
+        Assert.assertEquals(1, meanEvents[0]);
+        Assert.assertEquals(60, ingested.getN());
+
+        try
+        {
+            ingested.setPublicationInterval(-1);
+            Assert.fail("negative publication interval should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+    }
+
+    /**
+     * tests that combining tallies gives the statistics of one tally that received all samples, and that the result of a
+     * combination is reproducible.
+     */
+    public void testCombine()
+    {
+        Tally all = new Tally("all");
+        all.initialize();
+        Tally[] parts = new Tally[4];
+        for (int p = 0; p < parts.length; p++)
+        {
+            parts[p] = new Tally("part " + p);
+            parts[p].initialize();
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            double value = Math.sin(i) * 100.0 + i % 7;
+            all.ingest(value);
+            parts[i % 3 == 0 ? 0 : i % 4 == 0 ? 1 : i < 500 ? 2 : 3].ingest(value);
+        }
+
+        // a fresh tally is initialized on the first combine, and is an exact copy of the first part
+        Tally combined = new Tally("combined");
+        combined.combine(parts[0]);
+        Assert.assertEquals(parts[0].getN(), combined.getN());
+        Assert.assertEquals(parts[0].getSampleMean(), combined.getSampleMean(), 0.0);
+        Assert.assertEquals(parts[0].getSampleVariance(), combined.getSampleVariance(), 0.0);
+        for (int p = 1; p < parts.length; p++)
+        {
+            combined.combine(parts[p]);
+        }
+        Assert.assertEquals(all.getN(), combined.getN());
+        Assert.assertEquals(all.getMin(), combined.getMin(), 0.0);
+        Assert.assertEquals(all.getMax(), combined.getMax(), 0.0);
+        Assert.assertEquals(all.getSum(), combined.getSum(), 1E-9);
+        Assert.assertEquals(all.getSampleMean(), combined.getSampleMean(), 1E-12);
+        Assert.assertEquals(all.getSampleVariance(), combined.getSampleVariance(), 1E-9);
+
+        // the same merge order gives a bitwise identical result
+        Tally again = new Tally("again");
+        for (Tally part : parts)
+        {
+            again.combine(part);
+        }
+        Assert.assertEquals(Double.doubleToLongBits(combined.getSampleMean()),
+                Double.doubleToLongBits(again.getSampleMean()));
+        Assert.assertEquals(Double.doubleToLongBits(combined.getSampleVariance()),
+                Double.doubleToLongBits(again.getSampleVariance()));
+
+        // uninitialized and empty tallies do not change the result
+        Tally empty = new Tally("empty");
+        again.combine(empty);
+        empty.initialize();
+        again.combine(empty);
+        Assert.assertEquals(all.getN(), again.getN());
+        Assert.assertEquals(combined.getSampleVariance(), again.getSampleVariance(), 0.0);
+
+        try
+        {
+            again.combine(new Persistent("persistent"));
+            Assert.fail("a tally cannot combine a persistent");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package nl.tudelft.simulation.jstats.streams;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * The test script for the splittable streams and the StreamFactory.
+ * <p>
+ * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/" target="_blank"> https://simulation.tudelft.nl</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/3.0/license.html" target="_blank">
+ * https://simulation.tudelft.nl/dsol/3.0/license.html</a>.
+ * </p>
+ * @author <a href="https://www.tudelft.nl/averbraeck">Alexander Verbraeck</a>
+ * @since 3.03.06
+ */
+public class SplittableStreamTest extends TestCase
+{
+    /** TEST_METHOD is the name of the test method. */
+    public static final String TEST_METHOD = "test";
+
+    /**
+     * constructs a new SplittableStreamTest.
+     */
+    public SplittableStreamTest()
+    {
+        this(TEST_METHOD);
+    }
+
+    /**
+     * constructs a new SplittableStreamTest.
+     * @param method String; the name of the test method
+     */
+    public SplittableStreamTest(final String method)
+    {
+        super(method);
+    }
+
+    /**
+     * tests the streams, the jumps and the factory.
+     */
+    public final void test()
+    {
+        // the jump matrices of MRG32k3a are the transition matrices to the power 2^76 and 2^127
+        long[][] a1 = {{0, 1, 0}, {0, 0, 1}, {MRG32k3a.M1 - 810728L, 1403580L, 0}};
+        long[][] a2 = {{0, 1, 0}, {0, 0, 1}, {MRG32k3a.M2 - 1370589L, 0, 527612L}};
+        for (int i = 0; i < 127; i++)
+        {
+            a1 = MRG32k3a.multiply(a1, a1, MRG32k3a.M1);
+            a2 = MRG32k3a.multiply(a2, a2, MRG32k3a.M2);
+            if (i == 75)
+            {
+                assertMatrixEquals(MRG32k3a.A1P76, a1);
+                assertMatrixEquals(MRG32k3a.A2P76, a2);
+            }
+        }
+        assertMatrixEquals(MRG32k3a.A1P127, a1);
+        assertMatrixEquals(MRG32k3a.A2P127, a2);
+
+        SplittableStreamInterface[] roots = {new Xoshiro256PlusPlus(42L), new MRG32k3a(42L)};
+        for (SplittableStreamInterface root : roots)
+        {
+            // stream (0, 0) is the seed itself, and a split does not change the state of the root
+            SplittableStreamInterface copy = root.split(0, 0);
+            double first = root.nextDouble();
+            Assert.assertEquals(first, copy.nextDouble(), 0.0);
+            SplittableStreamInterface s12 = root.split(1, 2);
+            Assert.assertEquals(1L, s12.getStreamIndex());
+            Assert.assertEquals(2L, s12.getSubstreamIndex());
+            Assert.assertEquals(first, root.split(0, 0).nextDouble(), 0.0);
+
+            // reset returns to the start of the substream
+            double[] values = new double[100];
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = s12.nextDouble();
+            }
+            s12.reset();
+            for (int i = 0; i < values.length; i++)
+            {
+                Assert.assertEquals(values[i], s12.nextDouble(), 0.0);
+            }
+
+            // different streams and substreams are uncorrelated, and give values in the unit interval
+            SplittableStreamInterface[] streams = {root.split(0, 1), root.split(1, 0), root.split(1, 1), root.split(7, 3)};
+            double[] sum = new double[streams.length];
+            double sumProduct = 0.0;
+            int n = 100000;
+            for (int i = 0; i < n; i++)
+            {
+                double u0 = streams[0].nextDouble();
+                sumProduct += (u0 - 0.5) * (streams[1].nextDouble() - 0.5);
+                sum[0] += u0;
+                for (int j = 2; j < streams.length; j++)
+                {
+                    double u = streams[j].nextDouble();
+                    Assert.assertTrue(u >= 0.0 && u < 1.0);
+                    sum[j] += u;
+                }
+            }
+            Assert.assertEquals(0.5, sum[0] / n, 0.01);
+            Assert.assertEquals(0.5, sum[2] / n, 0.01);
+            Assert.assertEquals(0.0, sumProduct / n * 12.0, 0.02);
+        }
+
+        // the factory is reproducible and does not depend on the order of the requests
+        StreamFactory factory1 = new StreamFactory(1234L);
+        StreamFactory factory2 = new StreamFactory(1234L);
+        StreamInterface arrival1 = factory1.getStream(3, "arrival");
+        StreamInterface service1 = factory1.getStream(3, "service");
+        StreamInterface service2 = factory2.getStream(3, "service");
+        StreamInterface arrival2 = factory2.getStream(3, "arrival");
+        StreamInterface arrivalOther = factory1.getStream(4, "arrival");
+        for (int i = 0; i < 1000; i++)
+        {
+            Assert.assertEquals(arrival1.nextDouble(), arrival2.nextDouble(), 0.0);
+            Assert.assertEquals(service1.nextDouble(), service2.nextDouble(), 0.0);
+        }
+        Assert.assertTrue(arrival1.nextDouble() != arrivalOther.nextDouble());
+        Assert.assertEquals(factory1.getSubstreamIndex("arrival"), factory2.getSubstreamIndex("arrival"));
+        Assert.assertTrue(factory1.getSubstreamIndex("arrival") != factory1.getSubstreamIndex("service"));
+        try
+        {
+            factory1.getStream(-1, "arrival");
+            Assert.fail("negative replication number should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+        try
+        {
+            new MRG32k3a(1L, 0, -1);
+            Assert.fail("negative substream index should throw an exception");
+        }
+        catch (IllegalArgumentException exception)
+        {
+            Assert.assertNotNull(exception);
+        }
+    }
+
+    /**
+     * asserts that two 3x3 matrices are equal.
+     * @param expected long[][]; the expected matrix
+     * @param actual long[][]; the actual matrix
+     */
+    private static void assertMatrixEquals(final long[][] expected, final long[][] actual)
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            Assert.assertArrayEquals(expected[i], actual[i]);
+        }
+    }
+}
@@ -54,7 +54,8 @@ public class StreamStateSaveRestoreTest extends TestCase
      */
     public final void test()
     {
-        StreamInterface[] streams = {new Java2Random(10), new MersenneTwister(10), new DX120Generator(10)};
+        StreamInterface[] streams = {new Java2Random(10), new MersenneTwister(10), new DX120Generator(10),
+                new Xoshiro256PlusPlus(10), new MRG32k3a(10)};
         for (int j = 0; j < streams.length; j++)
         {
             try
@@ -43,7 +43,8 @@ public class StreamTest extends TestCase
      */
     public final void test()
     {
-        StreamInterface[] streams = {new Java2Random(), new MersenneTwister(), new DX120Generator()};
+        StreamInterface[] streams = {new Java2Random(), new MersenneTwister(), new DX120Generator(), new MRG32k3a(),
+                new Xoshiro256PlusPlus()};
         for (int i = 0; i < 1000000; i++)
         {
             for (int j = 0; j < streams.length; j++)
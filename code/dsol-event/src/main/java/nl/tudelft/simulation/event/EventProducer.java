@@ -20,7 +20,11 @@ import nl.tudelft.simulation.event.ref.WeakReference;
 
 /**
  * The EventProducer forms the reference implementation of the EventProducerInterface. Objects extending this class are
- * provided all the functionalities for registration and event firing.
+ * provided all the functionalities for registration and event firing. The registration methods maintain a copy-on-write
+ * snapshot of the listeners, with an array of references per event type, so firing an event takes no lock and makes no
+ * copy of the listener list. A listener that is added or removed during a fireEvent therefore only takes part in the
+ * events that are fired after the change, and listeners of a producer that fires from more than one thread are notified
+ * concurrently.
  * <p>
  * Copyright (c) 2002-2019 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights
  * reserved. See for project information <a href="https://simulation.tudelft.nl/" target="_blank">
@@ -36,7 +40,10 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
     /** The default serial version UID for serializable classes. */
     private static final long serialVersionUID = 20140830L;
 
-    /** listeners is the collection of interested listeners. */
+    /**
+     * listeners is the collection of interested listeners. The collection is changed through the add and remove methods
+     * only, which keep the snapshot of the listeners that is used by fireEvent up to date.
+     */
     protected Map<EventType, List<Reference<EventListenerInterface>>> listeners =
             Collections.synchronizedMap(new EventListenerMap());
 
@@ -45,9 +52,21 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      */
     private transient Object semaphore = new Object();
 
+    /**
+     * the copy-on-write snapshot of the listeners. The map and its arrays are never changed after they have been published;
+     * every change of the registrations publishes a new snapshot, built from the listeners map.
+     */
+    private transient volatile Map<EventType, Reference<EventListenerInterface>[]> snapshot = Collections.emptyMap();
+
     /** the cache to prevent continuous reflection. */
     private transient EventType[] cache = null;
 
+    /**
+     * the total number of listener subscriptions, so producers can skip the construction of events without any lookup when
+     * nobody listens; volatile because it is read outside the synchronized methods.
+     */
+    private transient volatile int listenerCount = 0;
+
     /**
      * checks whether no duplicate short values are assigned to the producer. An event producer produces events of a
      * certain eventType. This eventType functions as a marker for registration. If the eventProducer defines two
@@ -154,6 +173,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
                 entries.add(reference);
                 this.listeners.put(eventType, entries);
             }
+            updateSnapshot();
         }
         return true;
     }
@@ -166,7 +186,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @return the event
      * @throws RemoteException on network failure.
      */
-    protected synchronized EventInterface fireEvent(final EventListenerInterface listener, final EventInterface event)
+    protected EventInterface fireEvent(final EventListenerInterface listener, final EventInterface event)
             throws RemoteException
     {
         listener.notify(event);
@@ -174,42 +194,32 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
     }
 
     /**
-     * fires an event to subscribed listeners.
+     * fires an event to subscribed listeners. The listeners are taken from the current snapshot without a lock or a copy.
+     * A weak reference of which the referent has been garbage collected is skipped; it is removed at the next change of the
+     * registrations. A listener that cannot be reached because of a network failure is removed directly.
      * @param event EventInterface; the event.
      * @return the event.
      */
-    protected synchronized EventInterface fireEvent(final EventInterface event)
+    protected EventInterface fireEvent(final EventInterface event)
     {
-        if (this.listeners.containsKey(event.getType()))
+        Reference<EventListenerInterface>[] references = this.snapshot.get(event.getType());
+        if (references == null)
         {
-            synchronized (this.semaphore)
+            return event;
+        }
+        for (int i = 0; i < references.length; i++)
+        {
+            EventListenerInterface listener = references[i].get();
+            if (listener != null)
             {
-                // make a safe copy because of possible removeListener() in notify() method during fireEvent
-                List<Reference<EventListenerInterface>> listenerList =
-                        new ArrayList<>(this.listeners.get(event.getType()));
-                for (Reference<EventListenerInterface> reference : listenerList)
+                try
                 {
-                    EventListenerInterface listener = reference.get();
-                    try
-                    {
-                        if (listener != null)
-                        {
-                            // The garbage collection has not cleaned the referent
-                            this.fireEvent(listener, event);
-                        }
-                        else
-                        {
-                            // The garbage collection cleaned the referent;
-                            // there is no need to keep the subscription
-                            this.removeListener(reference, event.getType());
-                        }
-                    }
-                    catch (RemoteException remoteException)
-                    {
-                        // A network failure prevented the delivery,
-                        // subscription is removed.
-                        this.removeListener(reference, event.getType());
-                    }
+                    this.fireEvent(listener, event);
+                }
+                catch (RemoteException remoteException)
+                {
+                    // A network failure prevented the delivery, subscription is removed.
+                    this.removeListener(references[i], event.getType());
                 }
             }
         }
@@ -222,7 +232,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param value Object; the value of the event.
      * @return the Serializable value.
      */
-    protected synchronized Object fireEvent(final EventType eventType, final Object value)
+    protected Object fireEvent(final EventType eventType, final Object value)
     {
         this.fireEvent(new Event(eventType, this, value));
         return value;
@@ -232,7 +242,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * notifies listeners subscribed to eventType.
      * @param eventType EventType; the eventType of the event.
      */
-    protected synchronized void fireEvent(final EventType eventType)
+    protected void fireEvent(final EventType eventType)
     {
         this.fireEvent(new Event(eventType, this, null));
     }
@@ -245,7 +255,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @return the Serializable value.
      * @param <C> the comparable type to indicate the time when the event is fired.
      */
-    protected synchronized <C extends Comparable<C>> Object fireTimedEvent(final EventType eventType,
+    protected <C extends Comparable<C>> Object fireTimedEvent(final EventType eventType,
             final Object value, final C time)
     {
         this.fireEvent(new TimedEvent<C>(eventType, this, value, time));
@@ -258,7 +268,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param value byte; the value of the event.
      * @return the byte value.
      */
-    protected synchronized byte fireEvent(final EventType eventType, final byte value)
+    protected byte fireEvent(final EventType eventType, final byte value)
     {
         this.fireEvent(eventType, Byte.valueOf(value));
         return value;
@@ -272,7 +282,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param <C> the comparable type to indicate the time when the event is fired.
      * @return the byte value.
      */
-    protected synchronized <C extends Comparable<C>> byte fireTimedEvent(final EventType eventType, final byte value,
+    protected <C extends Comparable<C>> byte fireTimedEvent(final EventType eventType, final byte value,
             final C time)
     {
         this.fireTimedEvent(eventType, Byte.valueOf(value), time);
@@ -285,7 +295,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param value boolean; the value of the event.
      * @return the boolean value.
      */
-    protected synchronized boolean fireEvent(final EventType eventType, final boolean value)
+    protected boolean fireEvent(final EventType eventType, final boolean value)
     {
         this.fireEvent(eventType, Boolean.valueOf(value));
         return value;
@@ -299,7 +309,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param <C> the comparable type to indicate the time when the event is fired.
      * @return the boolean value.
      */
-    protected synchronized <C extends Comparable<C>> boolean fireTimedEvent(final EventType eventType,
+    protected <C extends Comparable<C>> boolean fireTimedEvent(final EventType eventType,
             final boolean value, final C time)
     {
         this.fireTimedEvent(eventType, Boolean.valueOf(value), time);
@@ -312,7 +322,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param value double; the value of the event.
      * @return the double value.
      */
-    protected synchronized double fireEvent(final EventType eventType, final double value)
+    protected double fireEvent(final EventType eventType, final double value)
     {
         this.fireEvent(eventType, Double.valueOf(value));
         return value;
@@ -326,7 +336,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param <C> the comparable type to indicate the time when the event is fired.
      * @return the double value.
      */
-    protected synchronized <C extends Comparable<C>> double fireTimedEvent(final EventType eventType,
+    protected <C extends Comparable<C>> double fireTimedEvent(final EventType eventType,
             final double value, final C time)
     {
         this.fireTimedEvent(eventType, Double.valueOf(value), time);
@@ -339,7 +349,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param value int; the value of the event.
      * @return the integer value.
      */
-    protected synchronized int fireEvent(final EventType eventType, final int value)
+    protected int fireEvent(final EventType eventType, final int value)
     {
         this.fireEvent(eventType, Integer.valueOf(value));
         return value;
@@ -353,7 +363,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param <C> the comparable type to indicate the time when the event is fired.
      * @return the integer value.
      */
-    protected synchronized <C extends Comparable<C>> int fireTimedEvent(final EventType eventType, final int value,
+    protected <C extends Comparable<C>> int fireTimedEvent(final EventType eventType, final int value,
             final C time)
     {
         this.fireTimedEvent(eventType, Integer.valueOf(value), time);
@@ -366,7 +376,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param value long; the value of the event.
      * @return the long value.
      */
-    protected synchronized long fireEvent(final EventType eventType, final long value)
+    protected long fireEvent(final EventType eventType, final long value)
     {
         this.fireEvent(eventType, Long.valueOf(value));
         return value;
@@ -380,7 +390,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param <C> the comparable type to indicate the time when the event is fired.
      * @return the long value.
      */
-    protected synchronized <C extends Comparable<C>> long fireTimedEvent(final EventType eventType, final long value,
+    protected <C extends Comparable<C>> long fireTimedEvent(final EventType eventType, final long value,
             final C time)
     {
         this.fireTimedEvent(eventType, Long.valueOf(value), time);
@@ -393,7 +403,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param value short; the value of the event.
      * @return the short value.
      */
-    protected synchronized short fireEvent(final EventType eventType, final short value)
+    protected short fireEvent(final EventType eventType, final short value)
     {
         this.fireEvent(eventType, Short.valueOf(value));
         return value;
@@ -407,7 +417,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
      * @param <C> the comparable type to indicate the time when the event is fired.
      * @return the short value.
      */
-    protected synchronized <C extends Comparable<C>> short fireTimedEvent(final EventType eventType, final short value,
+    protected <C extends Comparable<C>> short fireTimedEvent(final EventType eventType, final short value,
             final C time)
     {
         this.fireTimedEvent(eventType, Short.valueOf(value), time);
@@ -467,6 +477,8 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
         int result = this.listeners.size();
         this.listeners = null;
         this.listeners = Collections.synchronizedMap(new EventListenerMap());
+        this.snapshot = Collections.emptyMap();
+        this.listenerCount = 0;
         return result;
     }
 
@@ -529,6 +541,7 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
             {
                 this.listeners.remove(eventType);
             }
+            updateSnapshot();
         }
         return result;
     }
@@ -543,19 +556,104 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
             final EventType eventType)
     {
         boolean success = false;
-        for (Iterator<Reference<EventListenerInterface>> i = this.listeners.get(eventType).iterator(); i.hasNext();)
+        synchronized (this.semaphore)
         {
-            if (i.next().equals(reference))
+            List<Reference<EventListenerInterface>> entries = this.listeners.get(eventType);
+            if (entries == null)
+            {
+                return false;
+            }
+            for (Iterator<Reference<EventListenerInterface>> i = entries.iterator(); i.hasNext();)
             {
-                i.remove();
-                success = true;
+                if (i.next().equals(reference))
+                {
+                    i.remove();
+                    success = true;
+                }
             }
+            if (entries.size() == 0)
+            {
+                this.listeners.remove(eventType);
+            }
+            updateSnapshot();
         }
-        if (this.listeners.get(eventType).size() == 0)
+        return success;
+    }
+
+    /**
+     * publishes a new snapshot of the listeners after the registrations have changed, and recalculates the total number of
+     * listener subscriptions. Weak references of which the referent has been garbage collected are removed here, rather than
+     * during the firing of events.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized void updateSnapshot()
+    {
+        Map<EventType, Reference<EventListenerInterface>[]> newSnapshot = new HashMap<>();
+        int count = 0;
+        synchronized (this.listeners)
         {
-            this.listeners.remove(eventType);
+            for (Iterator<List<Reference<EventListenerInterface>>> i = this.listeners.values().iterator(); i.hasNext();)
+            {
+                List<Reference<EventListenerInterface>> entries = i.next();
+                for (Iterator<Reference<EventListenerInterface>> ii = entries.iterator(); ii.hasNext();)
+                {
+                    if (ii.next().get() == null)
+                    {
+                        ii.remove();
+                    }
+                }
+                if (entries.isEmpty())
+                {
+                    i.remove();
+                }
+            }
+            for (Map.Entry<EventType, List<Reference<EventListenerInterface>>> entry : this.listeners.entrySet())
+            {
+                List<Reference<EventListenerInterface>> entries = entry.getValue();
+                newSnapshot.put(entry.getKey(), entries.toArray(new Reference[entries.size()]));
+                count += entries.size();
+            }
         }
-        return success;
+        this.snapshot = newSnapshot;
+        this.listenerCount = count;
+    }
+
+    /**
+     * returns the total number of listener subscriptions of this producer. A listener that is subscribed to more than one
+     * event type is counted once for every event type. Weak references to listeners that have been garbage collected, but
+     * that have not yet been cleaned up by a change of the registrations, are included in the count.
+     * @return int; the number of listener subscriptions
+     */
+    public final int numberOfListeners()
+    {
+        return this.listenerCount;
+    }
+
+    /**
+     * returns the number of listeners that are subscribed to an event type.
+     * @param eventType EventType; the event type
+     * @return int; the number of listeners that are subscribed to the event type
+     */
+    public final int numberOfListeners(final EventType eventType)
+    {
+        if (this.listenerCount == 0)
+        {
+            return 0;
+        }
+        Reference<EventListenerInterface>[] entries = this.snapshot.get(eventType);
+        return entries == null ? 0 : entries.length;
+    }
+
+    /**
+     * returns whether any listener is subscribed to an event type. Producers can use this method to avoid the construction of
+     * an event, and the boxing of its value and timestamp, when the event would not be delivered to anyone. When the producer
+     * has no listeners at all, the method returns without a lookup or lock.
+     * @param eventType EventType; the event type
+     * @return boolean; whether at least one listener is subscribed to the event type
+     */
+    protected final boolean hasListeners(final EventType eventType)
+    {
+        return this.listenerCount > 0 && this.snapshot.containsKey(eventType);
     }
 
     /**
@@ -578,5 +676,6 @@ public abstract class EventProducer implements EventProducerInterface, Serializa
     {
         in.defaultReadObject();
         this.semaphore = new Object();
+        updateSnapshot();
     }
 }
@@ -49,10 +49,52 @@ public class EventProducerTest extends TestCase
      */
     public void test()
     {
+        this.snapshot();
         this.basic();
         this.serialize();
     }
 
+    /**
+     * tests the copy-on-write snapshot of the listeners: changes of the registrations during a fireEvent take effect for the
+     * next event, and garbage collected weak references are removed at the next change of the registrations.
+     */
+    public void snapshot()
+    {
+        EventProducerParent producer = new EventProducerParent();
+        CountingListener counter = new CountingListener();
+        EventListenerInterface adder = new EventListenerInterface()
+        {
+            @Override
+            public void notify(final EventInterface event)
+            {
+                producer.addListener(counter, EventProducerParent.EVENT_E);
+            }
+        };
+        producer.addListener(adder, EventProducerParent.EVENT_E);
+        producer.fireEvent(new Event(EventProducerParent.EVENT_E, producer, null));
+        assertEquals(0, counter.count);
+        assertEquals(2, producer.numberOfListeners(EventProducerParent.EVENT_E));
+        producer.fireEvent(new Event(EventProducerParent.EVENT_E, producer, null));
+        assertEquals(1, counter.count);
+        assertTrue(producer.removeListener(adder, EventProducerParent.EVENT_E));
+        assertTrue(producer.removeListener(counter, EventProducerParent.EVENT_E));
+        producer.fireEvent(new Event(EventProducerParent.EVENT_E, producer, null));
+        assertEquals(1, counter.count);
+        assertEquals(0, producer.numberOfListeners());
+
+        // a weak listener that has been garbage collected is skipped, and removed at the next registration
+        producer.addListener(new CountingListener(), EventProducerChild.EVENT_A, true);
+        assertEquals(1, producer.numberOfListeners(EventProducerChild.EVENT_A));
+        for (int i = 0; i < 10; i++)
+        {
+            System.gc();
+        }
+        producer.fireEvent(new Event(EventProducerChild.EVENT_A, producer, null));
+        assertTrue(producer.addListener(counter, EventProducerParent.EVENT_C));
+        assertEquals(0, producer.numberOfListeners(EventProducerChild.EVENT_A));
+        assertEquals(1, producer.numberOfListeners());
+    }
+
     /**
      * tests the EventProducer for Serializability
      */
@@ -124,9 +166,16 @@ public class EventProducerTest extends TestCase
             producer.addListener(listener1, EventProducerParent.EVENT_C);
             producer.addListener(listener1, EventProducerParent.EVENT_E);
             producer.addListener(listener3, EventProducerParent.EVENT_E);
+            assertEquals(5, ((EventProducerParent) producer).numberOfListeners());
+            assertEquals(3, ((EventProducerParent) producer).numberOfListeners(EventProducerParent.EVENT_E));
+            assertEquals(0, ((EventProducerParent) producer).numberOfListeners(EventProducerChild.EVENT_A));
 
             ((EventProducerParent) producer).fireEvent(new Event(EventProducerParent.EVENT_E, producer, "HI"));
 
+            // listener1 removed itself from EVENT_C and EVENT_E when it was notified
+            assertEquals(3, ((EventProducerParent) producer).numberOfListeners());
+            assertEquals(2, ((EventProducerParent) producer).numberOfListeners(EventProducerParent.EVENT_E));
+
             ((EventProducerParent) producer).fireEvent(new Event(EventProducerParent.EVENT_E, producer, "HI"));
 
             ((EventProducerParent) producer).fireEvent(new Event(EventProducerChild.EVENT_A, producer, "HI"));
@@ -191,6 +240,22 @@ public class EventProducerTest extends TestCase
         }
     }
 
+    /**
+     * A listener that counts the events it receives.
+     */
+    private static class CountingListener implements EventListenerInterface
+    {
+        /** the number of received events. */
+        private int count = 0;
+
+        /** {@inheritDoc} */
+        @Override
+        public void notify(final EventInterface event)
+        {
+            this.count++;
+        }
+    }
+
     /**
      * A basic listener class
      */